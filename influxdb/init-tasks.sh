@@ -6,6 +6,8 @@ ORG="${DOCKER_INFLUXDB_INIT_ORG}"
 BUCKET="${DOCKER_INFLUXDB_INIT_BUCKET}"
 
 # ticker_raw → candle_1m (매 1분, raw tick price를 OHLC로 집계)
+# 수집기가 candle_1m을 직접 쓰면(candle.aggregate.enabled=true) CANDLE_1M_TASK_ENABLED=false로 만들지 않는다.
+if [ "${CANDLE_1M_TASK_ENABLED:-true}" = "true" ]; then
 influx task create \
   --org "$ORG" \
   --token "$INFLUX_TOKEN" \
@@ -42,6 +44,9 @@ c |> set(key: "_field", value: "close") |> set(key: "_measurement", value: "cand
 FLUX
 
 echo "Task created: aggregate_candle_1m"
+else
+echo "Task skipped: aggregate_candle_1m (CANDLE_1M_TASK_ENABLED=false)"
+fi
 
 create_ohlc_task() {
   local task_name=$1
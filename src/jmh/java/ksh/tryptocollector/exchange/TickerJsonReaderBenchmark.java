@@ -0,0 +1,60 @@
+package ksh.tryptocollector.exchange;
+
+import ksh.tryptocollector.metadata.MarketInfoCache;
+import ksh.tryptocollector.model.Exchange;
+import ksh.tryptocollector.model.NormalizedTicker;
+import ksh.tryptocollector.support.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 이미 풀린 업비트·빗썸 ticker JSON 하나를 읽어 심볼을 찾고 {@link NormalizedTicker}를 만드는 비용.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TickerJsonReaderBenchmark {
+
+    private final TickerJsonReader reader = new TickerJsonReader();
+
+    private MarketInfoCache marketInfoCache;
+    private byte[] upbitPayload;
+    private byte[] bithumbPayload;
+
+    @Setup
+    public void setUp() {
+        marketInfoCache = BenchmarkFixtures.marketInfoCache();
+        upbitPayload = BenchmarkFixtures.upbitTickerJson("KRW-ETH");
+        bithumbPayload = BenchmarkFixtures.bithumbTickerJson("KRW-ETH");
+    }
+
+    @Benchmark
+    public NormalizedTicker upbit() {
+        return parse(Exchange.UPBIT, upbitPayload);
+    }
+
+    @Benchmark
+    public NormalizedTicker bithumb() {
+        return parse(Exchange.BITHUMB, bithumbPayload);
+    }
+
+    private NormalizedTicker parse(Exchange exchange, byte[] payload) {
+        reader.read(payload, 0, payload.length);
+        MarketInfoCache.Snapshot markets = marketInfoCache.snapshot(exchange);
+        int symbolId = markets.findId(payload, reader.codeOffset(), reader.codeLength());
+        return reader.toNormalized(exchange, symbolId, markets.marketInfo(symbolId));
+    }
+}
@@ -0,0 +1,61 @@
+package ksh.tryptocollector.exchange.binance;
+
+import ksh.tryptocollector.metadata.MarketInfoCache;
+import ksh.tryptocollector.model.Exchange;
+import ksh.tryptocollector.model.NormalizedTicker;
+import ksh.tryptocollector.support.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code !miniTicker@arr} 프레임 하나를 디코딩해 등록된 심볼마다 {@link NormalizedTicker}를 만드는 비용.
+ * 프레임의 절반은 디코더가 {@code s} 필드만 보고 건너뛰는 미등록 심볼이다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinanceMiniTickerBatchBenchmark {
+
+    @Param("400")
+    private int batchSize;
+
+    private MarketInfoCache marketInfoCache;
+    private BinanceMiniTickerDecoder decoder;
+    private String frame;
+    private long checksum;
+
+    @Setup
+    public void setUp() {
+        marketInfoCache = BenchmarkFixtures.marketInfoCache();
+        frame = BenchmarkFixtures.binanceMiniTickerArray(batchSize);
+        decoder = new BinanceMiniTickerDecoder(
+                symbol -> marketInfoCache.findId(Exchange.BINANCE, symbol),
+                this::normalize);
+    }
+
+    @Benchmark
+    public long decodeBatch() {
+        checksum = 0;
+        decoder.feed(frame, true);
+        return checksum;
+    }
+
+    private void normalize(BinanceTickerMessage message, int symbolId) {
+        NormalizedTicker ticker = message.toNormalized(symbolId, marketInfoCache.snapshot(Exchange.BINANCE).marketInfo(symbolId));
+        checksum += ticker.tsMs() + ticker.lastPriceUnscaled();
+    }
+}
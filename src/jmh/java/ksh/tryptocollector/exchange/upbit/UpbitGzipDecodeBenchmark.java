@@ -0,0 +1,71 @@
+package ksh.tryptocollector.exchange.upbit;
+
+import ksh.tryptocollector.exchange.TickerJsonReader;
+import ksh.tryptocollector.metadata.MarketInfoCache;
+import ksh.tryptocollector.model.Exchange;
+import ksh.tryptocollector.model.NormalizedTicker;
+import ksh.tryptocollector.support.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+
+/**
+ * 업비트 바이너리 프레임 하나를 gzip 해제부터 {@link NormalizedTicker}까지 처리하는 비용.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UpbitGzipDecodeBenchmark {
+
+    private final GzipFrameAssembler assembler = new GzipFrameAssembler();
+    private final TickerJsonReader reader = new TickerJsonReader();
+
+    private MarketInfoCache marketInfoCache;
+    private ByteBuffer frame;
+
+    @Setup
+    public void setUp() {
+        marketInfoCache = BenchmarkFixtures.marketInfoCache();
+        frame = ByteBuffer.wrap(BenchmarkFixtures.gzip(BenchmarkFixtures.upbitTickerJson("KRW-BTC")));
+    }
+
+    @TearDown
+    public void tearDown() {
+        assembler.close();
+    }
+
+    @Benchmark
+    public int inflate() throws DataFormatException {
+        frame.clear();
+        assembler.append(frame);
+        assembler.complete();
+        return assembler.payloadLength();
+    }
+
+    @Benchmark
+    public NormalizedTicker decode() throws DataFormatException {
+        frame.clear();
+        assembler.append(frame);
+        assembler.complete();
+        byte[] payload = assembler.payload();
+        reader.read(payload, 0, assembler.payloadLength());
+        MarketInfoCache.Snapshot markets = marketInfoCache.snapshot(Exchange.UPBIT);
+        int symbolId = markets.findId(payload, reader.codeOffset(), reader.codeLength());
+        return reader.toNormalized(Exchange.UPBIT, symbolId, markets.marketInfo(symbolId));
+    }
+}
@@ -0,0 +1,70 @@
+package ksh.tryptocollector.metadata;
+
+import ksh.tryptocollector.model.Exchange;
+import ksh.tryptocollector.model.MarketInfo;
+import ksh.tryptocollector.support.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 심볼 레지스트리 조회 비용. 호출마다 다른 코드를 돌아가며 조회해 한 슬롯만 캐시에 남는 상황을 피한다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MarketInfoCacheBenchmark {
+
+    private MarketInfoCache marketInfoCache;
+    private String[] codes;
+    private byte[][] codeBytes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        marketInfoCache = BenchmarkFixtures.marketInfoCache();
+        List<String> krwCodes = BenchmarkFixtures.krwCodes();
+        codes = krwCodes.toArray(String[]::new);
+        codeBytes = new byte[codes.length][];
+        for (int i = 0; i < codes.length; i++) {
+            codeBytes[i] = codes[i].getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    @Benchmark
+    public Optional<MarketInfo> find() {
+        return marketInfoCache.find(Exchange.UPBIT, codes[nextIndex()]);
+    }
+
+    @Benchmark
+    public int findIdByString() {
+        return marketInfoCache.findId(Exchange.UPBIT, codes[nextIndex()]);
+    }
+
+    @Benchmark
+    public int findIdByBytes() {
+        byte[] code = codeBytes[nextIndex()];
+        return marketInfoCache.snapshot(Exchange.UPBIT).findId(code, 0, code.length);
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = index + 1 == codes.length ? 0 : index + 1;
+        return index;
+    }
+}
@@ -0,0 +1,80 @@
+package ksh.tryptocollector.model;
+
+import ksh.tryptocollector.support.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 싱크별 직렬화 비용. 각 싱크가 Jackson으로 따로 만들던 표현({@code jackson*})과
+ * {@link EncodedTick}이 손으로 쓴 표현을 싱크마다 비교하고, tick 하나로 네 표현을 모두 만드는 비용({@code allSinks})을 잰다.
+ * engine.inbox와 InfluxDB의 이전 경로는 {@code EngineInboxPayloadBenchmark}, {@code TickRawWriterBenchmark}에 있다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncodedTickBenchmark {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+    private NormalizedTicker ticker;
+
+    @Setup
+    public void setUp() {
+        ticker = BenchmarkFixtures.normalizedTicker();
+    }
+
+    @Benchmark
+    public byte[] jacksonRedis() {
+        return objectMapper.writeValueAsBytes(ticker);
+    }
+
+    @Benchmark
+    public byte[] encodedRedis() {
+        return EncodedTick.of(ticker).redisJson();
+    }
+
+    @Benchmark
+    public byte[] jacksonEvent() {
+        return objectMapper.writeValueAsBytes(TickerEvent.from(ticker));
+    }
+
+    @Benchmark
+    public byte[] encodedEvent() {
+        return EncodedTick.of(ticker).eventJson();
+    }
+
+    @Benchmark
+    public byte[] encodedEngine() {
+        return EncodedTick.of(ticker).engineJson();
+    }
+
+    @Benchmark
+    public byte[] encodedLine() {
+        return EncodedTick.of(ticker).lineProtocol();
+    }
+
+    @Benchmark
+    public void allSinks(Blackhole blackhole) {
+        EncodedTick tick = EncodedTick.of(ticker);
+        blackhole.consume(tick.lineProtocol());
+        blackhole.consume(tick.redisJson());
+        blackhole.consume(tick.eventJson());
+        blackhole.consume(tick.engineJson());
+    }
+}
@@ -1,7 +1,13 @@
 package ksh.tryptocollector.model;
 
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
 import java.math.BigDecimal;
 
+/**
+ * {@link EncodedTick#eventJson()} 이전에 {@code ticker.exchange} 본문을 만들던 record. Jackson 직렬화 기준선으로 벤치마크에만 남긴다.
+ */
+@JsonPropertyOrder({"exchange", "symbol", "currentPrice", "changeRate", "quoteTurnover", "timestamp"})
 public record TickerEvent(
         String exchange,
         String symbol,
@@ -0,0 +1,48 @@
+package ksh.tryptocollector.model;
+
+import ksh.tryptocollector.support.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ticker.exchange로 나가는 {@link TickerEvent} 변환과 JSON 직렬화 비용.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TickerEventBenchmark {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+    private NormalizedTicker ticker;
+
+    @Setup
+    public void setUp() {
+        ticker = BenchmarkFixtures.normalizedTicker();
+    }
+
+    @Benchmark
+    public TickerEvent from() {
+        return TickerEvent.from(ticker);
+    }
+
+    @Benchmark
+    public byte[] fromAndSerialize() {
+        return objectMapper.writeValueAsBytes(TickerEvent.from(ticker));
+    }
+}
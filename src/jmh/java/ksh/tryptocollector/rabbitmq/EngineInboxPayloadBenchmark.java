@@ -0,0 +1,95 @@
+package ksh.tryptocollector.rabbitmq;
+
+import ksh.tryptocollector.model.EncodedTick;
+import ksh.tryptocollector.model.NormalizedTicker;
+import ksh.tryptocollector.support.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * engine.inbox 메시지 본문을 만드는 비용. 단건({@code TickReceived})과 기본 배치 크기의
+ * {@code TickBatchReceived} 본문을 나눠 잰다. RabbitMQ 전송은 포함하지 않는다.
+ * {@code payload*}는 Map을 Jackson으로 직렬화하던 이전 경로, {@code encoded*}는 {@link EncodedTick} 경로다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EngineInboxPayloadBenchmark {
+    private static final int BATCH_SIZE = 200;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+    private final List<Map<String, Object>> batch = new ArrayList<>(BATCH_SIZE);
+    private final List<EncodedTick> encodedBatch = new ArrayList<>(BATCH_SIZE);
+
+    private NormalizedTicker ticker;
+
+    @Setup
+    public void setUp() {
+        ticker = BenchmarkFixtures.normalizedTicker();
+    }
+
+    @Benchmark
+    public Map<String, Object> payload() {
+        return toPayload(ticker);
+    }
+
+    @Benchmark
+    public byte[] payloadAndSerialize() {
+        return objectMapper.writeValueAsBytes(toPayload(ticker));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public byte[] batchAndSerialize() {
+        batch.clear();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(toPayload(ticker));
+        }
+        return objectMapper.writeValueAsBytes(batch);
+    }
+
+    @Benchmark
+    public byte[] encoded() {
+        return EncodedTick.of(ticker).engineJson();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public byte[] encodedBatch() {
+        encodedBatch.clear();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            encodedBatch.add(EncodedTick.of(ticker));
+        }
+        return EngineInboxPublisher.toBatchJson(encodedBatch);
+    }
+
+    private static Map<String, Object> toPayload(NormalizedTicker ticker) {
+        return Map.of(
+                "exchange", ticker.exchange(),
+                "displayName", ticker.base(),
+                "tradePrice", ticker.lastPrice(),
+                "tickAt", LocalDateTime.ofInstant(Instant.ofEpochMilli(ticker.tsMs()), ZoneId.systemDefault()).toString()
+        );
+    }
+}
@@ -0,0 +1,135 @@
+package ksh.tryptocollector.support;
+
+import ksh.tryptocollector.metadata.MarketInfoCache;
+import ksh.tryptocollector.model.Exchange;
+import ksh.tryptocollector.model.FixedDecimal;
+import ksh.tryptocollector.model.MarketInfo;
+import ksh.tryptocollector.model.NormalizedTicker;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 벤치마크가 공유하는 거래소 메시지와 심볼 레지스트리. 필드 구성과 길이는 실제 거래소 메시지에 맞춘다.
+ */
+public final class BenchmarkFixtures {
+    public static final int KRW_MARKET_COUNT = 250;
+    public static final int BINANCE_USDT_MARKET_COUNT = 200;
+
+    private BenchmarkFixtures() {
+    }
+
+    public static List<String> krwCodes() {
+        List<String> codes = new ArrayList<>(KRW_MARKET_COUNT);
+        codes.add("KRW-BTC");
+        codes.add("KRW-ETH");
+        codes.add("KRW-XRP");
+        for (int i = codes.size(); i < KRW_MARKET_COUNT; i++) {
+            codes.add("KRW-C" + i);
+        }
+        return codes;
+    }
+
+    public static List<String> usdtSymbols() {
+        List<String> symbols = new ArrayList<>(BINANCE_USDT_MARKET_COUNT);
+        for (int i = 0; i < BINANCE_USDT_MARKET_COUNT; i++) {
+            symbols.add("C" + i + "USDT");
+        }
+        return symbols;
+    }
+
+    /**
+     * 업비트·빗썸 KRW 마켓과 바이낸스 USDT 마켓을 등록한 레지스트리.
+     */
+    public static MarketInfoCache marketInfoCache() {
+        MarketInfoCache cache = new MarketInfoCache();
+        Map<String, MarketInfo> krw = new LinkedHashMap<>();
+        for (String code : krwCodes()) {
+            String base = code.substring("KRW-".length());
+            krw.put(code, new MarketInfo(base, "KRW", base + "/KRW", base));
+        }
+        cache.putAll(Exchange.UPBIT, krw);
+        cache.putAll(Exchange.BITHUMB, krw);
+
+        Map<String, MarketInfo> usdt = new LinkedHashMap<>();
+        for (String symbol : usdtSymbols()) {
+            String base = symbol.substring(0, symbol.length() - "USDT".length());
+            usdt.put(symbol, new MarketInfo(base, "USDT", base + "/USDT", base));
+        }
+        cache.putAll(Exchange.BINANCE, usdt);
+        return cache;
+    }
+
+    public static byte[] upbitTickerJson(String code) {
+        return ("{\"type\":\"ticker\",\"code\":\"" + code + "\",\"opening_price\":144500000.0,\"high_price\":146000000.0,"
+                + "\"low_price\":143800000.0,\"trade_price\":145000000.0,\"prev_closing_price\":143230000.0,"
+                + "\"acc_trade_price\":98765432109.12345,\"change\":\"RISE\",\"change_price\":1770000.0,"
+                + "\"signed_change_price\":1770000.0,\"change_rate\":0.0123577463,\"signed_change_rate\":0.0123577463,"
+                + "\"ask_bid\":\"BID\",\"trade_volume\":0.00034512,\"acc_trade_volume\":681.51234567,"
+                + "\"trade_date\":\"20260101\",\"trade_time\":\"031502\",\"trade_timestamp\":1767237302123,"
+                + "\"acc_ask_volume\":342.1,\"acc_bid_volume\":339.4,\"highest_52_week_price\":163325000.0,"
+                + "\"highest_52_week_date\":\"2025-10-06\",\"lowest_52_week_price\":72100000.0,"
+                + "\"lowest_52_week_date\":\"2025-01-13\",\"market_state\":\"ACTIVE\",\"is_trading_suspended\":false,"
+                + "\"delisting_date\":null,\"market_warning\":\"NONE\",\"timestamp\":1767237302151,"
+                + "\"acc_trade_price_24h\":312345678901.98765,\"acc_trade_volume_24h\":2154.3321,"
+                + "\"stream_type\":\"REALTIME\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static byte[] bithumbTickerJson(String code) {
+        return ("{\"type\":\"ticker\",\"code\":\"" + code + "\",\"opening_price\":144510000,\"high_price\":146020000,"
+                + "\"low_price\":143790000,\"trade_price\":145010000,\"prev_closing_price\":143240000,"
+                + "\"change\":\"RISE\",\"change_price\":1770000,\"signed_change_price\":1770000,"
+                + "\"change_rate\":0.0124,\"signed_change_rate\":0.0124,\"trade_volume\":0.0012,"
+                + "\"acc_trade_volume\":152.8812,\"acc_trade_volume_24h\":480.1123,\"acc_trade_price\":22145678901.1234,"
+                + "\"acc_trade_price_24h\":69876543210.5678,\"trade_date\":\"20260101\",\"trade_time\":\"121502\","
+                + "\"trade_timestamp\":1767237302100,\"ask_bid\":\"ASK\",\"acc_ask_volume\":75.1,\"acc_bid_volume\":77.7,"
+                + "\"highest_52_week_price\":163400000,\"highest_52_week_date\":\"2025-10-06\","
+                + "\"lowest_52_week_price\":72050000,\"lowest_52_week_date\":\"2025-01-13\","
+                + "\"market_state\":\"ACTIVE\",\"is_trading_suspended\":false,\"delisting_date\":null,"
+                + "\"market_warning\":\"NONE\",\"timestamp\":1767237302140,\"stream_type\":\"REALTIME\"}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * {@code !miniTicker@arr} 프레임. 절반은 등록된 USDT 심볼이고 나머지는 디코더가 건너뛰는 다른 호가 통화 심볼이다.
+     */
+    public static String binanceMiniTickerArray(int count) {
+        StringBuilder frame = new StringBuilder(count * 160).append('[');
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                frame.append(',');
+            }
+            String symbol = i % 2 == 0 ? "C" + (i / 2) % BINANCE_USDT_MARKET_COUNT + "USDT" : "C" + i + "BTC";
+            frame.append("{\"e\":\"24hrMiniTicker\",\"E\":").append(1767237302000L + i)
+                    .append(",\"s\":\"").append(symbol)
+                    .append("\",\"c\":\"16500.10000000\",\"o\":\"16000.00000000\",\"h\":\"16600.00000000\"")
+                    .append(",\"l\":\"15900.00000000\",\"v\":\"1200.12345000\",\"q\":\"19800000.51234500\"}");
+        }
+        return frame.append(']').toString();
+    }
+
+    public static NormalizedTicker normalizedTicker() {
+        return new NormalizedTicker(Exchange.UPBIT, 0, new MarketInfo("BTC", "KRW", "BTC/KRW", "비트코인"),
+                new FixedDecimal().set(145_000_000, 0),
+                new FixedDecimal().set(123_577_463, 10),
+                new FixedDecimal().set(31_234_567_890_198_765L, 5),
+                1_767_237_302_151L);
+    }
+
+    public static byte[] gzip(byte[] payload) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,58 @@
+package ksh.tryptocollector.tick;
+
+import com.influxdb.client.domain.WritePrecision;
+import com.influxdb.client.write.Point;
+import ksh.tryptocollector.model.EncodedTick;
+import ksh.tryptocollector.model.NormalizedTicker;
+import ksh.tryptocollector.support.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ticker_raw 한 줄을 만드는 비용. 클라이언트 {@code Point}를 거쳐 line protocol 문자열을 만드는 이전 단건 경로와
+ * {@link EncodedTick#lineProtocol()}을 만들어 배치 {@link LineBuffer}에 붙이는 현재 경로를 비교한다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TickRawWriterBenchmark {
+
+    private final LineBuffer line = new LineBuffer(256);
+
+    private NormalizedTicker ticker;
+
+    @Setup
+    public void setUp() {
+        ticker = BenchmarkFixtures.normalizedTicker();
+    }
+
+    @Benchmark
+    public String point() {
+        return Point.measurement("ticker_raw")
+                .addTag("exchange", ticker.exchange())
+                .addTag("symbol", ticker.base() + "/" + ticker.quote())
+                .addField("price", TickRawWriter.priceAsDouble(ticker))
+                .time(ticker.tsMs(), WritePrecision.MS)
+                .toLineProtocol();
+    }
+
+    @Benchmark
+    public int lineBuffer() {
+        line.reset();
+        line.line(EncodedTick.of(ticker).lineProtocol());
+        return line.size();
+    }
+}
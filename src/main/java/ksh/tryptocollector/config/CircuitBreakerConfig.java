@@ -1,38 +1,42 @@
 package ksh.tryptocollector.config;
 
-import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
 import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.time.Duration;
 
+/**
+ * 싱크별 서킷 브레이커 레지스트리. 브레이커는 {@code SinkHealth}가 싱크 태그 이름으로 하나씩 만든다.
+ * OPEN에서 HALF_OPEN으로는 자동 전환하지 않는다. 전환과 복구 확인은 {@code SinkHealth}의 프로브 스레드가 맡는다.
+ */
 @Configuration
 public class CircuitBreakerConfig {
 
-    private static final int SLIDING_WINDOW_SIZE = 5;
-    private static final float FAILURE_RATE_THRESHOLD = 60;
-    private static final int WAIT_DURATION_OPEN_SECONDS = 10;
-    private static final int PERMITTED_CALLS_HALF_OPEN = 2;
-
     @Bean
-    public CircuitBreaker redisCircuitBreaker(MeterRegistry meterRegistry) {
+    public CircuitBreakerRegistry sinkCircuitBreakerRegistry(
+            MeterRegistry meterRegistry,
+            @Value("${sink.breaker.sliding-window-size:5}") int slidingWindowSize,
+            @Value("${sink.breaker.failure-rate-threshold:60}") float failureRateThreshold,
+            @Value("${sink.breaker.wait-open-ms:10000}") long waitOpenMs,
+            @Value("${sink.breaker.permitted-half-open-calls:2}") int permittedHalfOpenCalls) {
         io.github.resilience4j.circuitbreaker.CircuitBreakerConfig config =
                 io.github.resilience4j.circuitbreaker.CircuitBreakerConfig.custom()
-                        .slidingWindowSize(SLIDING_WINDOW_SIZE)
-                        .failureRateThreshold(FAILURE_RATE_THRESHOLD)
-                        .waitDurationInOpenState(Duration.ofSeconds(WAIT_DURATION_OPEN_SECONDS))
-                        .permittedNumberOfCallsInHalfOpenState(PERMITTED_CALLS_HALF_OPEN)
+                        .slidingWindowSize(slidingWindowSize)
+                        .failureRateThreshold(failureRateThreshold)
+                        .waitDurationInOpenState(Duration.ofMillis(waitOpenMs))
+                        .permittedNumberOfCallsInHalfOpenState(permittedHalfOpenCalls)
+                        .automaticTransitionFromOpenToHalfOpenEnabled(false)
                         .build();
 
         CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
-        CircuitBreaker circuitBreaker = registry.circuitBreaker("redis");
 
         TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry)
                 .bindTo(meterRegistry);
 
-        return circuitBreaker;
+        return registry;
     }
 }
@@ -77,9 +77,10 @@ public class LeaderElection {
                 return;
             }
             if (lock.tryLock(0, -1, TimeUnit.SECONDS)) {
+                long acquiredAtNanos = System.nanoTime();
                 leader = true;
                 log.info("리더십 획득");
-                eventPublisher.publishEvent(new LeadershipAcquiredEvent(this));
+                eventPublisher.publishEvent(new LeadershipAcquiredEvent(this, acquiredAtNanos));
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
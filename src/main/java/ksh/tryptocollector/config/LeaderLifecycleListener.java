@@ -1,8 +1,12 @@
 package ksh.tryptocollector.config;
 
+import ksh.tryptocollector.exchange.TickerSinkProcessor;
 import ksh.tryptocollector.metadata.ExchangeInitializer;
+import ksh.tryptocollector.tick.CandleAggregator;
+import ksh.tryptocollector.tick.LiveCandleBook;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
@@ -12,18 +16,45 @@ import org.springframework.stereotype.Component;
 public class LeaderLifecycleListener {
 
     private final ExchangeInitializer exchangeInitializer;
+    private final TickerSinkProcessor tickerSinkProcessor;
+    private final CandleAggregator candleAggregator;
+    private final LiveCandleBook liveCandleBook;
 
+    /**
+     * 대기 모드면 리더 선출과 상관없이 연결을 미리 연다. 싱크 출력은 리더가 될 때까지 막혀 있다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        exchangeInitializer.startStandby();
+    }
+
+    /**
+     * 대기 인스턴스는 연결이 이미 열려 있으므로 싱크 출력만 열면 된다.
+     */
     @EventListener
     public void onAcquired(LeadershipAcquiredEvent event) {
         log.info("리더 활성화 시퀀스 시작");
+        candleAggregator.beginSession();
+        liveCandleBook.beginSession();
+        tickerSinkProcessor.enableOutput(event.getAcquiredAtNanos(), exchangeInitializer.isRunning());
         exchangeInitializer.start();
         log.info("리더 활성화 시퀀스 완료");
     }
 
+    /**
+     * 싱크 출력과 spill 드레이너를 멈춘다. 대기 모드에서는 연결을 닫지 않아 다시 대기 인스턴스가 된다.
+     */
     @EventListener
     public void onRevoked(LeadershipRevokedEvent event) {
         log.info("리더 비활성화 시퀀스 시작");
-        exchangeInitializer.stop();
+        tickerSinkProcessor.disableOutput();
+        if (exchangeInitializer.isStandbyEnabled()) {
+            exchangeInitializer.demote();
+        } else {
+            exchangeInitializer.stop();
+        }
+        tickerSinkProcessor.drain();
+        candleAggregator.flushOpen();
         log.info("리더 비활성화 시퀀스 완료");
     }
 }
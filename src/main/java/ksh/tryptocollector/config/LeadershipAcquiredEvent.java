@@ -1,9 +1,17 @@
 package ksh.tryptocollector.config;
 
+import lombok.Getter;
 import org.springframework.context.ApplicationEvent;
 
+@Getter
 public class LeadershipAcquiredEvent extends ApplicationEvent {
-    public LeadershipAcquiredEvent(Object source) {
+    /**
+     * 락을 얻은 시점의 {@link System#nanoTime()}. 장애 조치 공백을 이 시점부터 잰다.
+     */
+    private final long acquiredAtNanos;
+
+    public LeadershipAcquiredEvent(Object source, long acquiredAtNanos) {
         super(source);
+        this.acquiredAtNanos = acquiredAtNanos;
     }
 }
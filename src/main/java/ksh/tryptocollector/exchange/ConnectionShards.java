@@ -0,0 +1,62 @@
+package ksh.tryptocollector.exchange;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * 한 거래소의 마켓 코드를 여러 WebSocket 연결(샤드)에 나눠 싣는 규칙과 샤드별 연결 루프 실행을 담당한다.
+ * 샤드는 코드 문자열의 해시로 정하므로 목록 순서나 신규 상장과 무관하게 같은 코드는 항상 같은 샤드에 속한다.
+ */
+public final class ConnectionShards {
+
+    private ConnectionShards() {
+    }
+
+    public static int shardOf(String code, int shardCount) {
+        return Math.floorMod(code.hashCode(), shardCount);
+    }
+
+    public static List<String> codesOf(List<String> codes, int shard, int shardCount) {
+        if (shardCount == 1) {
+            return codes;
+        }
+        List<String> shardCodes = new ArrayList<>();
+        for (String code : codes) {
+            if (shardOf(code, shardCount) == shard) {
+                shardCodes.add(code);
+            }
+        }
+        return shardCodes;
+    }
+
+    /**
+     * 샤드마다 스레드 하나에서 연결 루프를 돌리고, 호출 스레드는 인터럽트될 때까지 기다린다.
+     * 샤드가 하나면 호출 스레드에서 바로 실행한다. 인터럽트되면 모든 샤드 스레드를 인터럽트한다.
+     * 호출 스레드가 가상 스레드면 샤드 스레드도 가상 스레드로 만든다.
+     */
+    public static void run(String threadNamePrefix, int shardCount, IntConsumer shardLoop) {
+        if (shardCount == 1) {
+            shardLoop.accept(0);
+            return;
+        }
+        ExecutorService executor = Thread.currentThread().isVirtual()
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(threadNamePrefix + "-shard-", 0).factory())
+                : Executors.newFixedThreadPool(shardCount, Thread.ofPlatform().daemon().name(threadNamePrefix + "-shard-", 0).factory());
+        try {
+            for (int shard = 0; shard < shardCount; shard++) {
+                int current = shard;
+                executor.submit(() -> shardLoop.accept(current));
+            }
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
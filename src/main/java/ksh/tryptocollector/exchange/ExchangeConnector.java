@@ -0,0 +1,30 @@
+package ksh.tryptocollector.exchange;
+
+import ksh.tryptocollector.model.Exchange;
+
+import java.net.http.WebSocket;
+
+/**
+ * 거래소 하나의 초기화 단위. {@code ExchangeInitializer}가 빈 목록으로 찾아 거래소마다 스레드 하나에서
+ * {@link #loadMetadata()} 후 {@link #connect()}를 호출한다.
+ */
+public interface ExchangeConnector {
+    Exchange exchange();
+
+    String displayName();
+
+    /**
+     * 마켓 메타데이터를 {@code MarketInfoCache}와 Redis에 적재하고 초기 시세 스냅샷을 저장한다.
+     */
+    void loadMetadata();
+
+    /**
+     * 실시간 시세 연결을 시작하고 스레드가 인터럽트될 때까지 반환하지 않는다.
+     */
+    void connect();
+
+    /**
+     * 저널 재생용 리스너를 샤드마다 하나씩 만든다. {@link ExchangeTickerStream#replayListener(int)} 참조.
+     */
+    WebSocket.Listener replayListener(int shard);
+}
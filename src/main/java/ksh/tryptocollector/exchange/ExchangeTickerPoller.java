@@ -7,5 +7,17 @@ import java.util.List;
 public interface ExchangeTickerPoller {
     Exchange exchange();
 
-    List<? extends NormalizableTicker> fetch(List<String> symbolCodes);
+    /**
+     * 요청 하나에 담을 최대 마켓 수. 이보다 많으면 나눠서 병렬로 조회한다.
+     */
+    int chunkSize();
+
+    /**
+     * 요청 하나가 {@link #budget()}에서 소모하는 양.
+     */
+    double requestWeight();
+
+    TokenBucket budget();
+
+    TickerPollResult<?> fetch(List<String> symbolCodes);
 }
@@ -1,5 +1,12 @@
 package ksh.tryptocollector.exchange;
 
+import java.net.http.WebSocket;
+
 public interface ExchangeTickerStream {
     void connect();
+
+    /**
+     * 캡처한 프레임을 실시간 수신과 같은 경로로 처리할 리스너. 연결 없이 만들며 수신 프레임을 다시 캡처하지 않는다.
+     */
+    WebSocket.Listener replayListener(int shard);
 }
@@ -1,9 +1,10 @@
 package ksh.tryptocollector.exchange;
 
+import ksh.tryptocollector.model.MarketInfo;
 import ksh.tryptocollector.model.NormalizedTicker;
 
 public interface NormalizableTicker {
     String code();
 
-    NormalizedTicker toNormalized(String displayName);
+    NormalizedTicker toNormalized(int symbolId, MarketInfo market);
 }
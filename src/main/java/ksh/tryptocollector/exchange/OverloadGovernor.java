@@ -0,0 +1,195 @@
+package ksh.tryptocollector.exchange;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import ksh.tryptocollector.metadata.MarketInfoCache;
+import ksh.tryptocollector.model.EncodedTick;
+import ksh.tryptocollector.tick.SymbolThrottle;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 싱크 스테이지의 적재 지연과 버퍼 사용률을 주기마다 보고 {@link OverloadLevel}을 정한다.
+ * 모든 스테이지 중 가장 밀린 값이 단계별 임계치 하나라도 넘으면 그 단계로 바로 올리고,
+ * 내려올 때는 {@code recover-checks}번 연속으로 현재 단계 아래에 머물러야 한 단계씩 내린다.
+ * 단계가 바뀌면 {@link OverloadLevelChangedEvent}를 발행한다.
+ */
+@Slf4j
+@Component
+public class OverloadGovernor {
+    private static final OverloadLevel[] LEVELS = OverloadLevel.values();
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final long checkIntervalMs;
+    private final long[] lagThresholdsMs;
+    private final double[] depthThresholds;
+    private final int recoverChecks;
+    private final LongSupplier clock;
+    private final SymbolThrottle rawTickThrottle;
+    private final Counter rawTickShedCounter;
+    private final Counter redisShedCounter;
+
+    private volatile OverloadLevel level = OverloadLevel.NORMAL;
+    private volatile SinkStage[] stages = new SinkStage[0];
+    private int calmChecks;
+    private ScheduledExecutorService checker;
+
+    public OverloadGovernor(
+            ApplicationEventPublisher eventPublisher,
+            MarketInfoCache marketInfoCache,
+            MeterRegistry meterRegistry,
+            @Value("${sink.overload.enabled:false}") boolean enabled,
+            @Value("${sink.overload.check-interval-ms:200}") long checkIntervalMs,
+            @Value("${sink.overload.lag-thresholds-ms:100,300,1000}") long[] lagThresholdsMs,
+            @Value("${sink.overload.depth-thresholds:0.25,0.5,0.75}") double[] depthThresholds,
+            @Value("${sink.overload.recover-checks:25}") int recoverChecks,
+            @Value("${sink.overload.thin-interval-ms:1000}") long thinIntervalMs) {
+        this(eventPublisher, marketInfoCache, meterRegistry, enabled, checkIntervalMs, lagThresholdsMs,
+                depthThresholds, recoverChecks, thinIntervalMs, System::currentTimeMillis);
+    }
+
+    OverloadGovernor(ApplicationEventPublisher eventPublisher, MarketInfoCache marketInfoCache,
+                     MeterRegistry meterRegistry, boolean enabled, long checkIntervalMs, long[] lagThresholdsMs,
+                     double[] depthThresholds, int recoverChecks, long thinIntervalMs, LongSupplier clock) {
+        if (lagThresholdsMs.length != LEVELS.length - 1 || depthThresholds.length != LEVELS.length - 1) {
+            throw new IllegalArgumentException("과부하 임계치는 단계마다 하나씩 " + (LEVELS.length - 1) + "개여야 함");
+        }
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.checkIntervalMs = checkIntervalMs;
+        this.lagThresholdsMs = lagThresholdsMs.clone();
+        this.depthThresholds = depthThresholds.clone();
+        this.recoverChecks = Math.max(recoverChecks, 1);
+        this.clock = clock;
+        this.rawTickThrottle = new SymbolThrottle(thinIntervalMs);
+        marketInfoCache.onReplace(rawTickThrottle::forgetSymbolIds);
+        this.rawTickShedCounter = shed(meterRegistry, SinkType.INFLUX);
+        this.redisShedCounter = shed(meterRegistry, SinkType.REDIS);
+        Gauge.builder("sink.overload.level", this, governor -> governor.level.ordinal())
+                .description("과부하 단계 (0: NORMAL, 1: THIN_RAW, 2: CONFLATE_EVENTS, 3: PROTECT_ENGINE)")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        checker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "sink-overload-governor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checker.scheduleWithFixedDelay(this::check, checkIntervalMs, checkIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("과부하 감시 활성화: lag={}ms, depth={}, recoverChecks={}",
+                Arrays.toString(lagThresholdsMs), Arrays.toString(depthThresholds), recoverChecks);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (checker != null) {
+            checker.shutdownNow();
+        }
+    }
+
+    /**
+     * 감시할 스테이지를 정한다. 스테이지가 없으면(동기 모드) 단계는 NORMAL에 머문다.
+     */
+    public void watch(SinkStage[] stages) {
+        this.stages = stages.clone();
+        if (enabled && stages.length == 0) {
+            log.warn("과부하 감시는 sink.async.enabled=true일 때만 단계를 올린다");
+        }
+    }
+
+    public OverloadLevel level() {
+        return level;
+    }
+
+    /**
+     * THIN_RAW부터 심볼마다 {@code thin-interval-ms}에 하나만 통과시키고, PROTECT_ENGINE에서는 모두 버린다.
+     */
+    public boolean admitRawTick(EncodedTick tick) {
+        OverloadLevel current = level;
+        if (!current.thinsRawTicks()) {
+            return true;
+        }
+        if (current.protectsEngine() || !rawTickThrottle.tryPass(tick.ticker(), clock.getAsLong())) {
+            rawTickShedCounter.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * PROTECT_ENGINE에서는 {@code false}를 돌려 바로 쓰지 않게 한다. 호출자는 {@code TickerRedisRepository.saveLatest}로
+     * 심볼마다 마지막 tick만 남겨 {@code thin-interval-ms}마다 쓴다. 간격의 첫 tick을 남기면 Redis가 그 간격 내내 옛 값을 보여 준다.
+     */
+    public boolean admitRedis() {
+        if (!level.protectsEngine()) {
+            return true;
+        }
+        redisShedCounter.increment();
+        return false;
+    }
+
+    void check() {
+        long lagMs = 0;
+        double depthRatio = 0;
+        for (SinkStage stage : stages) {
+            lagMs = Math.max(lagMs, stage.lagMillis());
+            depthRatio = Math.max(depthRatio, (double) stage.depth() / stage.capacity());
+        }
+        evaluate(lagMs, depthRatio);
+    }
+
+    void evaluate(long lagMs, double depthRatio) {
+        OverloadLevel target = OverloadLevel.NORMAL;
+        for (int i = lagThresholdsMs.length - 1; i >= 0; i--) {
+            if (lagMs >= lagThresholdsMs[i] || depthRatio >= depthThresholds[i]) {
+                target = LEVELS[i + 1];
+                break;
+            }
+        }
+        OverloadLevel current = level;
+        if (target.compareTo(current) >= 0) {
+            calmChecks = 0;
+            if (target != current) {
+                change(current, target, lagMs, depthRatio);
+            }
+            return;
+        }
+        if (++calmChecks >= recoverChecks) {
+            calmChecks = 0;
+            change(current, LEVELS[current.ordinal() - 1], lagMs, depthRatio);
+        }
+    }
+
+    private void change(OverloadLevel previous, OverloadLevel next, long lagMs, double depthRatio) {
+        level = next;
+        if (next.compareTo(previous) > 0) {
+            log.warn("과부하 단계 상승: {} → {} (lag={}ms, depth={})", previous, next, lagMs, String.format("%.2f", depthRatio));
+        } else {
+            log.info("과부하 단계 하강: {} → {} (lag={}ms, depth={})", previous, next, lagMs, String.format("%.2f", depthRatio));
+        }
+        eventPublisher.publishEvent(new OverloadLevelChangedEvent(this, previous, next));
+    }
+
+    private static Counter shed(MeterRegistry meterRegistry, SinkType sinkType) {
+        return Counter.builder("sink.overload.shed")
+                .tag("sink", sinkType.getTag())
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,31 @@
+package ksh.tryptocollector.exchange;
+
+/**
+ * 과부하 단계. 단계가 오를수록 앞 단계의 조치를 유지한 채 덜 중요한 싱크부터 줄인다. engine.inbox는 어느 단계에서도 줄이지 않는다.
+ */
+public enum OverloadLevel {
+
+    /** 모든 싱크에 그대로 전달한다. */
+    NORMAL,
+
+    /** InfluxDB raw tick을 심볼마다 {@code overload.thin-interval-ms}에 하나만 쓴다. */
+    THIN_RAW,
+
+    /** {@code ticker.exchange} 이벤트를 과부하 병합 윈도우로 모은다. */
+    CONFLATE_EVENTS,
+
+    /** raw tick 쓰기를 멈추고 Redis 시세는 심볼마다 {@code overload.thin-interval-ms} 동안의 마지막 값 하나만 쓴다. */
+    PROTECT_ENGINE;
+
+    public boolean thinsRawTicks() {
+        return compareTo(THIN_RAW) >= 0;
+    }
+
+    public boolean conflatesEvents() {
+        return compareTo(CONFLATE_EVENTS) >= 0;
+    }
+
+    public boolean protectsEngine() {
+        return this == PROTECT_ENGINE;
+    }
+}
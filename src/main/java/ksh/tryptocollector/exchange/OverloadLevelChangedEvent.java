@@ -0,0 +1,16 @@
+package ksh.tryptocollector.exchange;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+@Getter
+public class OverloadLevelChangedEvent extends ApplicationEvent {
+    private final OverloadLevel previous;
+    private final OverloadLevel current;
+
+    public OverloadLevelChangedEvent(Object source, OverloadLevel previous, OverloadLevel current) {
+        super(source);
+        this.previous = previous;
+        this.current = current;
+    }
+}
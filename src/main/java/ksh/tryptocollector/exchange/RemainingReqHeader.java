@@ -0,0 +1,30 @@
+package ksh.tryptocollector.exchange;
+
+/**
+ * 업비트(와 이를 미러링한 빗썸) REST 응답의 {@code Remaining-Req: group=ticker; min=599; sec=9} 헤더 해석.
+ * 초 단위 잔여 요청 수({@code sec})를 쓴다.
+ */
+public final class RemainingReqHeader {
+    public static final String NAME = "Remaining-Req";
+
+    private static final String SEC = "sec=";
+
+    private RemainingReqHeader() {
+    }
+
+    public static double remainingPerSecond(String value) {
+        if (value == null) {
+            return TickerPollResult.UNKNOWN_REMAINING;
+        }
+        int start = value.indexOf(SEC);
+        if (start < 0) {
+            return TickerPollResult.UNKNOWN_REMAINING;
+        }
+        start += SEC.length();
+        int end = start;
+        while (end < value.length() && Character.isDigit(value.charAt(end))) {
+            end++;
+        }
+        return end == start ? TickerPollResult.UNKNOWN_REMAINING : Integer.parseInt(value.substring(start, end));
+    }
+}
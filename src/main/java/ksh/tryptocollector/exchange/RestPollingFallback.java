@@ -1,38 +1,61 @@
 package ksh.tryptocollector.exchange;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import ksh.tryptocollector.metadata.MarketInfoCache;
 import ksh.tryptocollector.model.Exchange;
-import ksh.tryptocollector.model.NormalizedTicker;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
 
-import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * WebSocket 장애 시 REST 폴링으로 시세를 수집한다. 마켓을 {@link ExchangeTickerPoller#chunkSize()} 단위로 나눠 병렬로 조회하고,
+ * 거래소별 {@link TokenBucket} 예산이 남은 청크만 보낸다. 다음 주기까지의 간격은 기본 200ms에서
+ * 예산이 다시 찰 때까지로 늘어난다.
+ */
 @Slf4j
 @Component
 public class RestPollingFallback {
     private static final long POLL_INTERVAL_MS = 200;
+    private static final long MAX_POLL_INTERVAL_MS = 5_000;
 
     private final Map<Exchange, ExchangeTickerPoller> pollers;
     private final MarketInfoCache marketInfoCache;
     private final TickerSinkProcessor tickerSinkProcessor;
     private final TaskScheduler taskScheduler;
+    private final ExecutorService pollingExecutor;
+    private final ExecutorService fetchExecutor;
+    private final Map<Exchange, Counter> pollCounters = new EnumMap<>(Exchange.class);
+    private final Map<Exchange, Counter> throttleCounters = new EnumMap<>(Exchange.class);
+    private final Map<Exchange, AtomicLong> intervals = new EnumMap<>(Exchange.class);
 
-    private final Map<Exchange, ScheduledFuture<?>> pollingTasks = new ConcurrentHashMap<>();
+    private final Map<PollingKey, PollingTask> pollingTasks = new ConcurrentHashMap<>();
 
     public RestPollingFallback(
             List<ExchangeTickerPoller> pollerList,
             MarketInfoCache marketInfoCache,
             TickerSinkProcessor tickerSinkProcessor,
-            TaskScheduler taskScheduler) {
+            TaskScheduler taskScheduler,
+            MeterRegistry meterRegistry,
+            @Value("${exchange.virtual-threads.enabled:false}") boolean virtualThreads,
+            @Value("${rest-fallback.parallelism:4}") int parallelism) {
         this.pollers = pollerList.stream()
                 .collect(Collectors.toUnmodifiableMap(
                         ExchangeTickerPoller::exchange,
@@ -40,53 +63,197 @@ public class RestPollingFallback {
         this.marketInfoCache = marketInfoCache;
         this.tickerSinkProcessor = tickerSinkProcessor;
         this.taskScheduler = taskScheduler;
+        this.pollingExecutor = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("rest-polling-", 0).factory())
+                : null;
+        this.fetchExecutor = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("rest-fetch-", 0).factory())
+                : Executors.newFixedThreadPool(parallelism, Thread.ofPlatform().daemon().name("rest-fetch-", 0).factory());
+        for (Exchange exchange : Exchange.values()) {
+            pollCounters.put(exchange, Counter.builder("rest.fallback.poll")
+                    .tag("exchange", exchange.name())
+                    .register(meterRegistry));
+            throttleCounters.put(exchange, Counter.builder("rest.fallback.throttled")
+                    .tag("exchange", exchange.name())
+                    .register(meterRegistry));
+            AtomicLong interval = new AtomicLong(POLL_INTERVAL_MS);
+            intervals.put(exchange, interval);
+            Gauge.builder("rest.fallback.interval", interval, AtomicLong::get)
+                    .tag("exchange", exchange.name())
+                    .register(meterRegistry);
+        }
     }
 
     public void start(Exchange exchange) {
-        if (pollingTasks.containsKey(exchange)) {
+        start(exchange, 0, 1);
+    }
+
+    /**
+     * 샤드 하나가 맡은 마켓만 폴링한다. 같은 거래소의 다른 샤드 폴링과는 독립적으로 시작·중지된다.
+     * 가상 스레드 모드에서는 공용 {@link TaskScheduler} 대신 폴링마다 가상 스레드 하나가 루프를 돌므로
+     * 한 거래소의 느린 REST 호출이 다른 폴링이나 스케줄 작업을 밀어내지 않는다.
+     */
+    public void start(Exchange exchange, int shard, int shardCount) {
+        PollingKey key = new PollingKey(exchange, shard);
+        PollingTask task = new PollingTask(exchange, shard, shardCount);
+        if (pollingTasks.putIfAbsent(key, task) != null) {
             return;
         }
-        ScheduledFuture<?> task = taskScheduler.scheduleWithFixedDelay(
-                () -> pollOnce(exchange),
-                Duration.ofMillis(POLL_INTERVAL_MS)
-        );
-        pollingTasks.put(exchange, task);
-        log.info("{} REST 폴링 폴백 시작", exchange);
+        task.start();
+        log.info("{} REST 폴링 폴백 시작: shard={}", exchange, shard);
     }
 
     public void stop(Exchange exchange) {
-        ScheduledFuture<?> task = pollingTasks.remove(exchange);
+        stop(exchange, 0);
+    }
+
+    public void stop(Exchange exchange, int shard) {
+        PollingTask task = pollingTasks.remove(new PollingKey(exchange, shard));
         if (task != null) {
-            task.cancel(false);
-            log.info("{} REST 폴링 폴백 중지", exchange);
+            task.cancel();
+            log.info("{} REST 폴링 폴백 중지: shard={}", exchange, shard);
         }
     }
 
-    private void pollOnce(Exchange exchange) {
+    @PreDestroy
+    void shutdown() {
+        if (pollingExecutor != null) {
+            pollingExecutor.shutdownNow();
+        }
+        fetchExecutor.shutdownNow();
+    }
+
+    /**
+     * 한 주기를 돌고 다음 주기까지 기다릴 시간을 돌려준다.
+     * 예산이 모자라 보내지 못한 청크는 다음 주기에 그 청크부터 시작해 특정 청크만 계속 밀리지 않게 한다.
+     */
+    private long pollOnce(PollingTask task) {
+        Exchange exchange = task.exchange;
         try {
-            List<NormalizedTicker> tickers = fetchTickers(exchange);
-            for (NormalizedTicker ticker : tickers) {
-                tickerSinkProcessor.process(ticker);
+            List<String> symbolCodes = ConnectionShards.codesOf(
+                    marketInfoCache.getSymbolCodes(exchange), task.shard, task.shardCount);
+            if (symbolCodes.isEmpty()) {
+                return POLL_INTERVAL_MS;
+            }
+            ExchangeTickerPoller poller = pollers.get(exchange);
+            if (poller == null) {
+                throw new IllegalStateException("등록된 Poller 없음: " + exchange);
+            }
+            List<List<String>> chunks = chunk(symbolCodes, poller.chunkSize());
+            TokenBucket budget = poller.budget();
+            List<Future<TickerPollResult<?>>> inFlight = new ArrayList<>(chunks.size());
+            int first = task.nextChunk % chunks.size();
+            for (int i = 0; i < chunks.size(); i++) {
+                int index = (first + i) % chunks.size();
+                if (!budget.tryAcquire(poller.requestWeight())) {
+                    throttleCounters.get(exchange).increment(chunks.size() - i);
+                    task.nextChunk = index;
+                    break;
+                }
+                List<String> chunk = chunks.get(index);
+                inFlight.add(fetchExecutor.submit(() -> poller.fetch(chunk)));
             }
+            for (Future<TickerPollResult<?>> future : inFlight) {
+                collect(exchange, budget, future);
+            }
+            pollCounters.get(exchange).increment();
+            long delay = Math.min(MAX_POLL_INTERVAL_MS,
+                    Math.max(POLL_INTERVAL_MS, budget.millisUntil(poller.requestWeight() * chunks.size())));
+            intervals.get(exchange).set(delay);
+            return delay;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
             log.warn("{} REST 폴링 실패: {}", exchange, e.getMessage(), e);
         }
+        return POLL_INTERVAL_MS;
     }
 
-    private List<NormalizedTicker> fetchTickers(Exchange exchange) {
-        List<String> symbolCodes = marketInfoCache.getSymbolCodes(exchange);
-        if (symbolCodes.isEmpty()) {
-            return List.of();
+    private void collect(Exchange exchange, TokenBucket budget, Future<TickerPollResult<?>> future)
+            throws InterruptedException {
+        TickerPollResult<?> result;
+        try {
+            result = future.get();
+        } catch (ExecutionException e) {
+            log.warn("{} REST 청크 조회 실패: {}", exchange, e.getCause().getMessage(), e.getCause());
+            return;
+        }
+        budget.observeRemaining(result.remaining());
+        MarketInfoCache.Snapshot markets = marketInfoCache.snapshot(exchange);
+        for (NormalizableTicker response : result.tickers()) {
+            int symbolId = markets.findId(response.code());
+            if (symbolId != MarketInfoCache.NOT_FOUND) {
+                tickerSinkProcessor.process(response.toNormalized(symbolId, markets.marketInfo(symbolId)));
+            }
+        }
+    }
+
+    private static List<List<String>> chunk(List<String> symbolCodes, int chunkSize) {
+        if (symbolCodes.size() <= chunkSize) {
+            return List.of(symbolCodes);
+        }
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < symbolCodes.size(); from += chunkSize) {
+            chunks.add(symbolCodes.subList(from, Math.min(from + chunkSize, symbolCodes.size())));
         }
-        ExchangeTickerPoller poller = pollers.get(exchange);
-        if (poller == null) {
-            throw new IllegalStateException("등록된 Poller 없음: " + exchange);
+        return chunks;
+    }
+
+    private record PollingKey(Exchange exchange, int shard) {
+    }
+
+    /**
+     * 샤드 하나의 폴링 루프. 가상 스레드 모드에서는 전용 가상 스레드에서 돌고,
+     * 그 외에는 주기마다 계산한 간격으로 {@link TaskScheduler}에 다음 실행을 예약한다.
+     */
+    private final class PollingTask {
+        private final Exchange exchange;
+        private final int shard;
+        private final int shardCount;
+
+        private volatile boolean cancelled;
+        private volatile Future<?> future;
+        private int nextChunk;
+
+        PollingTask(Exchange exchange, int shard, int shardCount) {
+            this.exchange = exchange;
+            this.shard = shard;
+            this.shardCount = shardCount;
+        }
+
+        void start() {
+            future = pollingExecutor != null
+                    ? pollingExecutor.submit(this::loop)
+                    : taskScheduler.schedule(this::runOnce, Instant.now());
+        }
+
+        void cancel() {
+            cancelled = true;
+            Future<?> current = future;
+            if (current != null) {
+                current.cancel(pollingExecutor != null);
+            }
+        }
+
+        private void loop() {
+            while (!cancelled && !Thread.currentThread().isInterrupted()) {
+                long delay = pollOnce(this);
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        private void runOnce() {
+            if (cancelled) {
+                return;
+            }
+            long delay = pollOnce(this);
+            if (!cancelled) {
+                future = taskScheduler.schedule(this::runOnce, Instant.now().plusMillis(delay));
+            }
         }
-        return poller.fetch(symbolCodes).stream()
-                .map(r -> marketInfoCache.find(exchange, r.code())
-                        .map(meta -> r.toNormalized(meta.displayName()))
-                        .orElse(null))
-                .filter(Objects::nonNull)
-                .toList();
     }
 }
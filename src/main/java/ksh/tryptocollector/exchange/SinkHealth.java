@@ -0,0 +1,146 @@
+package ksh.tryptocollector.exchange;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 싱크별 서킷 브레이커를 한곳에서 관리한다. 싱크에 실제로 쓰는 컴포넌트가 호출 결과를 {@link #recordSuccess}·{@link #recordFailure}로
+ * 알리고, {@code TickerSinkProcessor}는 tick마다 {@link #allows}로 브레이커 상태만 읽어 OPEN인 싱크를 건너뛴다.
+ * OPEN 동안 tick 스레드는 싱크를 호출하지 않으므로, 복구 확인은 프로브 스레드가 싱크별 {@link SinkProbe}로 대신한다.
+ */
+@Slf4j
+@Component
+public class SinkHealth {
+    private static final SinkType[] SINK_TYPES = SinkType.values();
+
+    private final CircuitBreaker[] breakers = new CircuitBreaker[SINK_TYPES.length];
+    private final Counter[] skippedCounters = new Counter[SINK_TYPES.length];
+    private final SinkProbe[] probes = new SinkProbe[SINK_TYPES.length];
+    private final long probeIntervalMs;
+
+    private ScheduledExecutorService probeScheduler;
+
+    public SinkHealth(
+            CircuitBreakerRegistry sinkCircuitBreakerRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${sink.breaker.probe-interval-ms:1000}") long probeIntervalMs) {
+        this.probeIntervalMs = probeIntervalMs;
+        for (SinkType sinkType : SINK_TYPES) {
+            CircuitBreaker breaker = sinkCircuitBreakerRegistry.circuitBreaker(sinkType.getTag());
+            breaker.getEventPublisher().onStateTransition(event -> {
+                CircuitBreaker.State to = event.getStateTransition().getToState();
+                if (to == CircuitBreaker.State.OPEN) {
+                    log.warn("{} 싱크 서킷 OPEN: 복구 확인 전까지 건너뜀", sinkType);
+                } else if (to == CircuitBreaker.State.CLOSED) {
+                    log.info("{} 싱크 서킷 CLOSED: 전달 재개", sinkType);
+                }
+            });
+            breakers[sinkType.ordinal()] = breaker;
+            skippedCounters[sinkType.ordinal()] = Counter.builder("sink.breaker.skipped")
+                    .tag("sink", sinkType.getTag())
+                    .register(meterRegistry);
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        probeScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "sink-health-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+        probeScheduler.scheduleWithFixedDelay(this::probe, probeIntervalMs, probeIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (probeScheduler != null) {
+            probeScheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 브레이커가 OPEN이나 HALF_OPEN일 때 복구를 확인할 방법을 정한다.
+     */
+    public void registerProbe(SinkType sinkType, SinkProbe probe) {
+        probes[sinkType.ordinal()] = probe;
+    }
+
+    /**
+     * 싱크를 호출해도 되면 true. 상태 하나만 읽으므로 OPEN 동안에도 tick마다 부르는 비용이 일정하다.
+     * HALF_OPEN도 false다. 허용 호출은 프로브만 쓴다.
+     */
+    public boolean allows(SinkType sinkType) {
+        if (isAvailable(sinkType)) {
+            return true;
+        }
+        skippedCounters[sinkType.ordinal()].increment();
+        return false;
+    }
+
+    /**
+     * {@link #allows}와 같지만 건너뛴 횟수를 세지 않는다. spill 드레이너처럼 기다리기만 하는 쪽이 쓴다.
+     */
+    public boolean isAvailable(SinkType sinkType) {
+        CircuitBreaker.State state = breakers[sinkType.ordinal()].getState();
+        return state != CircuitBreaker.State.OPEN
+                && state != CircuitBreaker.State.HALF_OPEN
+                && state != CircuitBreaker.State.FORCED_OPEN;
+    }
+
+    public void recordSuccess(SinkType sinkType, long startNanos) {
+        breakers[sinkType.ordinal()].onSuccess(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordFailure(SinkType sinkType, long startNanos, Throwable error) {
+        breakers[sinkType.ordinal()].onError(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS, error);
+    }
+
+    /**
+     * OPEN 대기 시간이 지난 브레이커는 {@code tryAcquirePermission()}에서 HALF_OPEN으로 넘어간다.
+     * 허용 호출을 다 쓰거나 다시 OPEN이 될 때까지 프로브를 이어서 돌리므로, 성공하면 한 주기 안에 CLOSED가 된다.
+     */
+    void probe() {
+        for (SinkType sinkType : SINK_TYPES) {
+            CircuitBreaker breaker = breakers[sinkType.ordinal()];
+            SinkProbe probe = probes[sinkType.ordinal()];
+            if (probe == null) {
+                continue;
+            }
+            while (!isAvailable(sinkType) && breaker.tryAcquirePermission()) {
+                long start = System.nanoTime();
+                try {
+                    probe.probe();
+                    recordSuccess(sinkType, start);
+                } catch (Exception e) {
+                    recordFailure(sinkType, start, e);
+                    log.debug("{} 싱크 복구 확인 실패: {}", sinkType, e.getMessage());
+                }
+            }
+        }
+    }
+
+    CircuitBreaker breaker(SinkType sinkType) {
+        return breakers[sinkType.ordinal()];
+    }
+
+    @FunctionalInterface
+    public interface SinkProbe {
+
+        /**
+         * 싱크에 가벼운 요청 하나를 보낸다. 예외를 던지면 아직 복구되지 않은 것으로 본다.
+         */
+        void probe() throws Exception;
+    }
+}
@@ -0,0 +1,220 @@
+package ksh.tryptocollector.exchange;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import ksh.tryptocollector.model.EncodedTick;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 싱크 하나를 전담하는 비동기 스테이지.
+ * 미리 할당한 고정 크기 링 버퍼에 tick을 적재하고 전용 워커 스레드가 순서대로 싱크를 호출한다.
+ * 버퍼가 가득 차면 리스너 스레드를 막지 않고 tick을 버린다.
+ */
+@Slf4j
+public class SinkStage {
+    private static final int DRAIN_BATCH_SIZE = 256;
+    private static final long CLOSE_TIMEOUT_MS = 3000;
+
+    private final SinkType sinkType;
+    private final Consumer<EncodedTick> sink;
+    private final int mask;
+    private final EncodedTick[] slots;
+    private final long[] enqueuedAtNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition progressed = lock.newCondition();
+
+    private final Counter droppedCounter;
+    private final Timer lagTimer;
+
+    private long head;
+    private long tail;
+    private long completed;
+    private volatile boolean running;
+    private Thread worker;
+
+    public SinkStage(SinkType sinkType, int capacity, Consumer<EncodedTick> sink, MeterRegistry registry) {
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        this.sinkType = sinkType;
+        this.sink = sink;
+        this.mask = size - 1;
+        this.slots = new EncodedTick[size];
+        this.enqueuedAtNanos = new long[size];
+        this.droppedCounter = Counter.builder("sink.stage.dropped")
+                .tag("sink", sinkType.getTag())
+                .register(registry);
+        this.lagTimer = Timer.builder("sink.stage.lag")
+                .tag("sink", sinkType.getTag())
+                .publishPercentileHistogram()
+                .register(registry);
+        Gauge.builder("sink.stage.depth", this, SinkStage::depth)
+                .tag("sink", sinkType.getTag())
+                .register(registry);
+    }
+
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::runLoop, "sink-" + sinkType.getTag());
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public boolean offer(EncodedTick tick) {
+        lock.lock();
+        try {
+            if (tail - head == slots.length) {
+                droppedCounter.increment();
+                return false;
+            }
+            int index = (int) (tail & mask);
+            slots[index] = tick;
+            enqueuedAtNanos[index] = System.nanoTime();
+            if (tail++ == head) {
+                notEmpty.signal();
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int depth() {
+        lock.lock();
+        try {
+            return (int) (tail - head);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * 맨 앞 tick이 리스너에서 적재된 뒤 지난 시간. 비어 있으면 0이다.
+     */
+    public long lagMillis() {
+        lock.lock();
+        try {
+            if (head == tail) {
+                return 0;
+            }
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - enqueuedAtNanos[(int) (head & mask)]);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 호출 시점까지 적재된 tick이 모두 싱크에 전달될 때까지 기다린다.
+     * 이후 유입되는 tick은 기다리지 않으므로 리스너가 계속 살아 있어도 반환된다.
+     */
+    public boolean drain(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        lock.lock();
+        try {
+            long target = tail;
+            while (completed < target) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !running) {
+                    return false;
+                }
+                progressed.awaitNanos(remaining);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void close() {
+        running = false;
+        Thread current = worker;
+        if (current == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            current.join(CLOSE_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        worker = null;
+    }
+
+    private void runLoop() {
+        EncodedTick[] batch = new EncodedTick[DRAIN_BATCH_SIZE];
+        long[] batchEnqueuedAt = new long[DRAIN_BATCH_SIZE];
+        while (true) {
+            int count = takeBatch(batch, batchEnqueuedAt);
+            if (count < 0) {
+                return;
+            }
+            long now = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                lagTimer.record(now - batchEnqueuedAt[i], TimeUnit.NANOSECONDS);
+                try {
+                    sink.accept(batch[i]);
+                } catch (Exception e) {
+                    log.error("{} 스테이지 싱크 처리 실패", sinkType, e);
+                }
+                batch[i] = null;
+            }
+            markCompleted(count);
+        }
+    }
+
+    private int takeBatch(EncodedTick[] batch, long[] batchEnqueuedAt) {
+        lock.lock();
+        try {
+            while (head == tail) {
+                if (!running) {
+                    return -1;
+                }
+                notEmpty.awaitUninterruptibly();
+            }
+            int count = (int) Math.min(tail - head, batch.length);
+            for (int i = 0; i < count; i++) {
+                int index = (int) (head & mask);
+                batch[i] = slots[index];
+                batchEnqueuedAt[i] = enqueuedAtNanos[index];
+                slots[index] = null;
+                head++;
+            }
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void markCompleted(int count) {
+        lock.lock();
+        try {
+            completed += count;
+            progressed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
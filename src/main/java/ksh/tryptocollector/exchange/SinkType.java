@@ -0,0 +1,16 @@
+package ksh.tryptocollector.exchange;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum SinkType {
+
+    INFLUX("influx"),
+    REDIS("redis"),
+    TICKER_EXCHANGE("ticker-exchange"),
+    ENGINE_INBOX("engine-inbox");
+
+    private final String tag;
+}
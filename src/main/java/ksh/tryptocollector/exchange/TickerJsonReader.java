@@ -0,0 +1,226 @@
+package ksh.tryptocollector.exchange;
+
+import ksh.tryptocollector.model.Exchange;
+import ksh.tryptocollector.model.FixedDecimal;
+import ksh.tryptocollector.model.MarketInfo;
+import ksh.tryptocollector.model.NormalizedTicker;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 업비트·빗썸 ticker 메시지(평평한 JSON 객체)에서 필요한 필드만 골라 읽는 리더.
+ * 숫자 필드는 BigDecimal을 거치지 않고 JSON 숫자 텍스트에서 바로 {@link FixedDecimal}로 파싱한다.
+ * 두 거래소는 같은 필드 이름({@code code}, {@code trade_price}, {@code signed_change_rate},
+ * {@code acc_trade_price_24h}, {@code timestamp})을 쓴다. {@code code}는 문자열로 만들지 않고 원본 버퍼의 위치만 기억하므로
+ * 다음 {@link #read} 전까지 같은 버퍼로 심볼을 조회해야 한다. 연결마다 하나씩 두며 스레드 안전하지 않다.
+ */
+public class TickerJsonReader {
+    private static final byte[] CODE = ascii("code");
+    private static final byte[] TRADE_PRICE = ascii("trade_price");
+    private static final byte[] SIGNED_CHANGE_RATE = ascii("signed_change_rate");
+    private static final byte[] ACC_TRADE_PRICE_24H = ascii("acc_trade_price_24h");
+    private static final byte[] TIMESTAMP = ascii("timestamp");
+
+    private final FixedDecimal tradePrice = new FixedDecimal();
+    private final FixedDecimal signedChangeRate = new FixedDecimal();
+    private final FixedDecimal accTradePrice24h = new FixedDecimal();
+
+    private byte[] bytes;
+    private int end;
+    private int pos;
+    private int codeOffset;
+    private int codeLength;
+    private long timestamp;
+    private int seen;
+
+    /**
+     * 메시지 하나를 읽는다. 형식이 잘못됐거나 숫자가 아니거나 필수 필드가 빠지면 예외를 던진다.
+     */
+    public void read(byte[] bytes, int offset, int length) {
+        this.bytes = bytes;
+        this.pos = offset;
+        this.end = offset + length;
+        this.codeOffset = 0;
+        this.codeLength = 0;
+        this.timestamp = 0;
+        this.seen = 0;
+
+        skipWhitespace();
+        expect('{');
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+        } else {
+            readMembers();
+        }
+        if (seen != 0b11111) {
+            throw new IllegalStateException("ticker 필수 필드 누락");
+        }
+        this.bytes = null;
+    }
+
+    public int codeOffset() {
+        return codeOffset;
+    }
+
+    public int codeLength() {
+        return codeLength;
+    }
+
+    public NormalizedTicker toNormalized(Exchange exchange, int symbolId, MarketInfo market) {
+        return new NormalizedTicker(exchange, symbolId, market, tradePrice, signedChangeRate, accTradePrice24h, timestamp);
+    }
+
+    private void readMembers() {
+        while (true) {
+            skipWhitespace();
+            expect('"');
+            int keyStart = pos;
+            int keyEnd = skipString();
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+            readValue(keyStart, keyEnd - keyStart);
+            skipWhitespace();
+            byte c = next();
+            if (c == '}') {
+                return;
+            }
+            if (c != ',') {
+                throw new IllegalStateException("',' 또는 '}' 필요: " + (char) c);
+            }
+        }
+    }
+
+    private void readValue(int keyStart, int keyLength) {
+        byte first = peek();
+        if (first == '"') {
+            pos++;
+            int valueStart = pos;
+            int valueEnd = skipString();
+            if (keyEquals(keyStart, keyLength, CODE)) {
+                codeOffset = valueStart;
+                codeLength = valueEnd - valueStart;
+                seen |= 1;
+            }
+            return;
+        }
+        if (first == '{' || first == '[') {
+            skipNested();
+            return;
+        }
+        int valueStart = pos;
+        while (pos < end && !isDelimiter(bytes[pos])) {
+            pos++;
+        }
+        int valueLength = pos - valueStart;
+        if (keyEquals(keyStart, keyLength, TRADE_PRICE)) {
+            tradePrice.parse(bytes, valueStart, valueLength);
+            seen |= 1 << 1;
+        } else if (keyEquals(keyStart, keyLength, SIGNED_CHANGE_RATE)) {
+            signedChangeRate.parse(bytes, valueStart, valueLength);
+            seen |= 1 << 2;
+        } else if (keyEquals(keyStart, keyLength, ACC_TRADE_PRICE_24H)) {
+            accTradePrice24h.parse(bytes, valueStart, valueLength);
+            seen |= 1 << 3;
+        } else if (keyEquals(keyStart, keyLength, TIMESTAMP)) {
+            timestamp = parseLong(valueStart, valueLength);
+            seen |= 1 << 4;
+        }
+    }
+
+    /**
+     * 여는 따옴표 다음 위치에서 시작해 닫는 따옴표 다음으로 이동하고, 닫는 따옴표의 위치를 돌려준다.
+     */
+    private int skipString() {
+        while (pos < end) {
+            byte c = bytes[pos++];
+            if (c == '\\') {
+                pos++;
+            } else if (c == '"') {
+                return pos - 1;
+            }
+        }
+        throw new IllegalStateException("문자열이 끝나지 않음");
+    }
+
+    private void skipNested() {
+        int depth = 0;
+        while (pos < end) {
+            byte c = bytes[pos++];
+            if (c == '"') {
+                skipString();
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if ((c == '}' || c == ']') && --depth == 0) {
+                return;
+            }
+        }
+        throw new IllegalStateException("중첩 값이 끝나지 않음");
+    }
+
+    private boolean keyEquals(int keyStart, int keyLength, byte[] key) {
+        if (keyLength != key.length) {
+            return false;
+        }
+        for (int i = 0; i < keyLength; i++) {
+            if (bytes[keyStart + i] != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long parseLong(int start, int length) {
+        if (length == 0) {
+            throw new IllegalStateException("정수가 비어 있음");
+        }
+        long result = 0;
+        for (int i = start; i < start + length; i++) {
+            byte c = bytes[i];
+            if (c < '0' || c > '9') {
+                throw new IllegalStateException("정수가 아님: " + new String(bytes, start, length, StandardCharsets.US_ASCII));
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private void skipWhitespace() {
+        while (pos < end && isWhitespace(bytes[pos])) {
+            pos++;
+        }
+    }
+
+    private void expect(char expected) {
+        byte c = next();
+        if (c != expected) {
+            throw new IllegalStateException("'" + expected + "' 필요: " + (char) c);
+        }
+    }
+
+    private byte peek() {
+        if (pos >= end) {
+            throw new IllegalStateException("메시지가 중간에 끝남");
+        }
+        return bytes[pos];
+    }
+
+    private byte next() {
+        byte c = peek();
+        pos++;
+        return c;
+    }
+
+    private static boolean isDelimiter(byte c) {
+        return c == ',' || c == '}' || c == ']' || isWhitespace(c);
+    }
+
+    private static boolean isWhitespace(byte c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
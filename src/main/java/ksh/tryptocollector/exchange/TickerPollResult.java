@@ -0,0 +1,10 @@
+package ksh.tryptocollector.exchange;
+
+import java.util.List;
+
+/**
+ * REST 시세 조회 결과와 응답 헤더가 알려준 남은 rate limit 예산. 헤더가 없으면 {@link #UNKNOWN_REMAINING}이다.
+ */
+public record TickerPollResult<T extends NormalizableTicker>(List<T> tickers, double remaining) {
+    public static final double UNKNOWN_REMAINING = -1;
+}
@@ -1,62 +1,289 @@
 package ksh.tryptocollector.exchange;
 
-import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import ksh.tryptocollector.exchange.spill.SinkSpill;
+import ksh.tryptocollector.exchange.spill.TickerSpillCodec;
+import ksh.tryptocollector.model.EncodedTick;
 import ksh.tryptocollector.model.NormalizedTicker;
 import ksh.tryptocollector.rabbitmq.EngineInboxPublisher;
 import ksh.tryptocollector.rabbitmq.TickerEventPublisher;
 import ksh.tryptocollector.redis.TickerRedisRepository;
+import ksh.tryptocollector.tick.CandleAggregator;
+import ksh.tryptocollector.tick.LiveCandleBook;
 import ksh.tryptocollector.tick.TickRawWriter;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 통과한 tick마다 {@link EncodedTick}을 하나 만들어 모든 싱크에 같은 객체를 넘긴다.
+ * 싱크별 표현은 처음 쓰는 싱크가 한 번만 만들고, InfluxDB spill도 같은 line protocol 바이트를 쓴다.
+ * engine.inbox spill은 재전송할 때 {@link EncodedTick}을 다시 만들어야 하므로 {@link TickerSpillCodec}으로 따로 인코딩한다.
+ * 서킷이 열린 싱크는 {@link SinkHealth}가 복구를 확인할 때까지 호출하지 않고, spill 대상이면 spill로 보낸다.
+ * 과부하 단계에 따라 {@link OverloadGovernor}가 raw tick을 솎아 내고 Redis 시세는 심볼별 최신 값으로 미루게 한다. engine.inbox는 솎아 내지 않는다.
+ * 대기 인스턴스는 연결을 열어 둔 채 출력을 막아 두고, 리더가 되면 {@link #enableOutput}으로 연다.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class TickerSinkProcessor {
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(5);
+    private static final long NO_FAILOVER = Long.MIN_VALUE;
+
     private final TickerRedisRepository tickerRedisRepository;
     private final TickerEventPublisher tickerEventPublisher;
     private final EngineInboxPublisher engineInboxPublisher;
     private final TickRawWriter tickRawWriter;
-    private final CircuitBreaker redisCircuitBreaker;
+    private final CandleAggregator candleAggregator;
+    private final LiveCandleBook liveCandleBook;
+    private final TickerStateTable tickerStateTable;
+    private final SinkHealth sinkHealth;
+    private final OverloadGovernor overloadGovernor;
+    private final SinkSpill sinkSpill;
+    private final boolean rawTicksEnabled;
+    private final boolean asyncEnabled;
+    private final SinkStage[] stages;
+    private final Timer hotFailoverGapTimer;
+    private final Timer coldFailoverGapTimer;
+    private final AtomicLong failoverStartNanos = new AtomicLong(NO_FAILOVER);
+
+    private volatile boolean outputEnabled;
+    private volatile Timer failoverGapTimer;
+
+    public TickerSinkProcessor(
+            TickerRedisRepository tickerRedisRepository,
+            TickerEventPublisher tickerEventPublisher,
+            EngineInboxPublisher engineInboxPublisher,
+            TickRawWriter tickRawWriter,
+            CandleAggregator candleAggregator,
+            LiveCandleBook liveCandleBook,
+            TickerStateTable tickerStateTable,
+            SinkHealth sinkHealth,
+            OverloadGovernor overloadGovernor,
+            SinkSpill sinkSpill,
+            MeterRegistry meterRegistry,
+            @Value("${influxdb.raw-ticks.enabled:true}") boolean rawTicksEnabled,
+            @Value("${sink.async.enabled:false}") boolean asyncEnabled,
+            @Value("${sink.async.queue-capacity:8192}") int queueCapacity,
+            @Value("${standby.enabled:false}") boolean standbyEnabled) {
+        this.tickerRedisRepository = tickerRedisRepository;
+        this.tickerEventPublisher = tickerEventPublisher;
+        this.engineInboxPublisher = engineInboxPublisher;
+        this.tickRawWriter = tickRawWriter;
+        this.candleAggregator = candleAggregator;
+        this.liveCandleBook = liveCandleBook;
+        this.tickerStateTable = tickerStateTable;
+        this.sinkHealth = sinkHealth;
+        this.overloadGovernor = overloadGovernor;
+        this.sinkSpill = sinkSpill;
+        this.rawTicksEnabled = rawTicksEnabled;
+        this.asyncEnabled = asyncEnabled;
+        this.outputEnabled = !standbyEnabled;
+        this.hotFailoverGapTimer = failoverGapTimer(meterRegistry, "hot");
+        this.coldFailoverGapTimer = failoverGapTimer(meterRegistry, "cold");
+        this.stages = asyncEnabled
+                ? new SinkStage[]{
+                        new SinkStage(SinkType.INFLUX, queueCapacity, this::writeRawTick, meterRegistry),
+                        new SinkStage(SinkType.REDIS, queueCapacity, this::saveToRedis, meterRegistry),
+                        new SinkStage(SinkType.TICKER_EXCHANGE, queueCapacity, this::publishEvent, meterRegistry),
+                        new SinkStage(SinkType.ENGINE_INBOX, queueCapacity, this::publishToEngine, meterRegistry)}
+                : new SinkStage[0];
+        for (SinkStage stage : stages) {
+            stage.start();
+        }
+        overloadGovernor.watch(stages);
+        if (asyncEnabled) {
+            log.info("싱크 비동기 스테이지 활성화: capacity={}", queueCapacity);
+        }
+        registerSpill();
+        registerProbes();
+        if (!rawTicksEnabled) {
+            log.info("InfluxDB raw tick 쓰기 비활성화: 1분 캔들 인메모리 집계={}", candleAggregator.isEnabled());
+        }
+    }
 
+    /**
+     * 출력이 막혀 있으면 상태 테이블도 건드리지 않는다. 승격 직후 첫 tick이 억제되지 않고 바로 나간다.
+     */
     public void process(NormalizedTicker ticker) {
-        writeRawTick(ticker);
-        saveToRedis(ticker);
-        publishEvent(ticker);
-        publishToEngine(ticker);
+        if (!outputEnabled || !tickerStateTable.accept(ticker)) {
+            return;
+        }
+        if (failoverStartNanos.get() != NO_FAILOVER) {
+            recordFailoverGap();
+        }
+        EncodedTick tick = EncodedTick.of(ticker);
+        if (asyncEnabled) {
+            for (SinkStage stage : stages) {
+                stage.offer(tick);
+            }
+            return;
+        }
+        writeRawTick(tick);
+        saveToRedis(tick);
+        publishEvent(tick);
+        publishToEngine(tick);
+    }
+
+    /**
+     * 싱크 출력을 연다. {@code acquiredAtNanos}부터 처음 싱크로 넘기는 tick까지를 장애 조치 공백으로 잰다.
+     * {@code warm}은 연결이 이미 열려 있던 대기 인스턴스의 승격인지 나타낸다. spill 드레이너도 이때 시작한다.
+     * 지난 리더 임기의 마지막 상태는 그사이 ID 배정이 바뀌었을 수 있으므로 버린다.
+     */
+    public void enableOutput(long acquiredAtNanos, boolean warm) {
+        tickerStateTable.clear();
+        failoverGapTimer = warm ? hotFailoverGapTimer : coldFailoverGapTimer;
+        failoverStartNanos.set(acquiredAtNanos);
+        sinkSpill.startDraining();
+        outputEnabled = true;
+    }
+
+    /**
+     * 싱크 출력과 spill 드레이너를 멈춘다. 리더가 아닌 인스턴스는 쌓아 둔 레코드를 보내지 않는다.
+     */
+    public void disableOutput() {
+        outputEnabled = false;
+        failoverStartNanos.set(NO_FAILOVER);
+        sinkSpill.stopDraining();
     }
 
-    private void writeRawTick(NormalizedTicker ticker) {
+    public void drain() {
+        for (SinkStage stage : stages) {
+            if (!stage.drain(DRAIN_TIMEOUT)) {
+                log.warn("싱크 스테이지 drain 타임아웃: 잔여 {}건", stage.depth());
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        drain();
+        for (SinkStage stage : stages) {
+            stage.close();
+        }
+    }
+
+    private void recordFailoverGap() {
+        long acquiredAtNanos = failoverStartNanos.getAndSet(NO_FAILOVER);
+        if (acquiredAtNanos == NO_FAILOVER) {
+            return;
+        }
+        long gapNanos = System.nanoTime() - acquiredAtNanos;
+        Timer timer = failoverGapTimer;
+        timer.record(gapNanos, TimeUnit.NANOSECONDS);
+        log.info("리더 승격 후 첫 tick 전달: mode={}, gap={}ms",
+                timer == hotFailoverGapTimer ? "hot" : "cold", TimeUnit.NANOSECONDS.toMillis(gapNanos));
+    }
+
+    private static Timer failoverGapTimer(MeterRegistry meterRegistry, String mode) {
+        return Timer.builder("leader.failover.gap")
+                .description("리더 락 획득부터 첫 tick을 싱크로 넘기기까지 걸린 시간")
+                .tag("mode", mode)
+                .register(meterRegistry);
+    }
+
+    /**
+     * InfluxDB와 engine.inbox만 spill한다. Redis와 ticker.exchange는 최신 시세만 의미가 있어
+     * 복구 후 옛 tick을 다시 보내면 오히려 최신 값을 덮어쓴다.
+     */
+    private void registerSpill() {
+        sinkSpill.register(SinkType.INFLUX, tickRawWriter::writeLines);
+        sinkSpill.register(SinkType.ENGINE_INBOX, records -> {
+            List<EncodedTick> ticks = new ArrayList<>(records.size());
+            for (ByteBuffer record : records) {
+                ticks.add(EncodedTick.of(TickerSpillCodec.decode(record)));
+            }
+            engineInboxPublisher.publishNow(ticks);
+        });
+        tickRawWriter.onFailedBatch((lines, length) -> sinkSpill.spill(SinkType.INFLUX, lines, 0, length));
+        candleAggregator.onFailedWrite((lines, length) -> sinkSpill.spill(SinkType.INFLUX, lines, 0, length));
+        engineInboxPublisher.onFailedBatch(ticks -> ticks.forEach(this::spillToEngine));
+    }
+
+    private void registerProbes() {
+        sinkHealth.registerProbe(SinkType.INFLUX, tickRawWriter::ping);
+        sinkHealth.registerProbe(SinkType.REDIS, tickerRedisRepository::ping);
+        sinkHealth.registerProbe(SinkType.TICKER_EXCHANGE, tickerEventPublisher::ping);
+        sinkHealth.registerProbe(SinkType.ENGINE_INBOX, engineInboxPublisher::ping);
+    }
+
+    /**
+     * 1분 캔들 집계는 메모리에서만 하므로 raw tick 쓰기가 꺼져 있거나 과부하로 솎아 내도 항상 먼저 반영한다.
+     */
+    private void writeRawTick(EncodedTick tick) {
+        candleAggregator.accept(tick.ticker());
+        if (!rawTicksEnabled || !overloadGovernor.admitRawTick(tick)) {
+            return;
+        }
+        if (!sinkHealth.allows(SinkType.INFLUX) || sinkSpill.isBacklogged(SinkType.INFLUX)) {
+            spillRawTick(tick);
+            return;
+        }
         try {
-            tickRawWriter.write(ticker);
+            if (!tickRawWriter.write(tick)) {
+                spillRawTick(tick);
+            }
         } catch (Exception e) {
             log.debug("InfluxDB raw tick 저장 실패: {}", e.getMessage());
+            spillRawTick(tick);
         }
     }
 
-    private void saveToRedis(NormalizedTicker ticker) {
-        if (redisCircuitBreaker.getState() == CircuitBreaker.State.OPEN) return;
+    private void spillRawTick(EncodedTick tick) {
+        sinkSpill.spill(SinkType.INFLUX, tick.lineProtocol());
+    }
+
+    private void saveToRedis(EncodedTick tick) {
+        if (!sinkHealth.allows(SinkType.REDIS)) {
+            return;
+        }
+        if (!overloadGovernor.admitRedis()) {
+            tickerRedisRepository.saveLatest(tick);
+            return;
+        }
         try {
-            tickerRedisRepository.save(ticker);
+            tickerRedisRepository.save(tick);
         } catch (Exception e) {
-            log.error("Redis 저장 실패: {}/{}", ticker.exchange(), ticker.base(), e);
+            log.error("Redis 저장 실패: {}/{}", tick.exchange(), tick.symbol(), e);
         }
     }
 
-    private void publishEvent(NormalizedTicker ticker) {
+    /**
+     * 라이브 캔들도 최신 값만 내보내는 이벤트라 시세 이벤트와 같은 스테이지에서 반영한다.
+     */
+    private void publishEvent(EncodedTick tick) {
         try {
-            tickerEventPublisher.publish(ticker);
+            liveCandleBook.accept(tick.ticker());
+            if (sinkHealth.allows(SinkType.TICKER_EXCHANGE)) {
+                tickerEventPublisher.publish(tick);
+            }
         } catch (Exception e) {
-            log.error("RabbitMQ 발행 실패: {}/{}", ticker.exchange(), ticker.base(), e);
+            log.error("RabbitMQ 발행 실패: {}/{}", tick.exchange(), tick.symbol(), e);
         }
     }
 
-    private void publishToEngine(NormalizedTicker ticker) {
+    private void publishToEngine(EncodedTick tick) {
+        if (!sinkHealth.allows(SinkType.ENGINE_INBOX) || sinkSpill.isBacklogged(SinkType.ENGINE_INBOX)) {
+            spillToEngine(tick);
+            return;
+        }
         try {
-            engineInboxPublisher.publish(ticker);
+            engineInboxPublisher.publish(tick);
         } catch (Exception e) {
-            log.error("engine.inbox 발행 실패: {}/{}", ticker.exchange(), ticker.base(), e);
+            log.error("engine.inbox 발행 실패: {}/{}", tick.exchange(), tick.symbol(), e);
+            spillToEngine(tick);
         }
     }
+
+    private void spillToEngine(EncodedTick tick) {
+        sinkSpill.spill(SinkType.ENGINE_INBOX, TickerSpillCodec.encode(tick.ticker()));
+    }
 }
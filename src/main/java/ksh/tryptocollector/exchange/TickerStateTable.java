@@ -0,0 +1,167 @@
+package ksh.tryptocollector.exchange;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import ksh.tryptocollector.metadata.MarketInfoCache;
+import ksh.tryptocollector.model.Exchange;
+import ksh.tryptocollector.model.NormalizedTicker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 심볼마다 마지막으로 싱크에 넘긴 시세를 보관하고, 싱크로 보낼 필요가 없는 tick을 걸러낸다.
+ * 거래소별로 {@link MarketInfoCache}의 심볼 ID를 인덱스로 쓰는 배열을 두고 CAS로 갱신하므로 락이 없다.
+ * 심볼 ID가 없는 시세는 비교할 기준이 없으므로 그대로 통과시킨다.
+ * ID 배정이 바뀌면({@link MarketInfoCache#replace}) 그 거래소 배열을 비워 다른 심볼의 시세와 비교하지 않게 한다.
+ */
+@Slf4j
+@Component
+public class TickerStateTable {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final MarketInfoCache marketInfoCache;
+    private final boolean enabled;
+    private final boolean compareLastPrice;
+    private final boolean compareChangeRate;
+    private final boolean compareQuoteTurnover;
+    private final boolean changeOnly;
+    private final long maxSilenceMs;
+    private final AtomicReferenceArray<AtomicReferenceArray<NormalizedTicker>> states =
+            new AtomicReferenceArray<>(Exchange.values().length);
+    private final Counter[][] suppressed = new Counter[Exchange.values().length][Reason.values().length];
+
+    public TickerStateTable(
+            MarketInfoCache marketInfoCache,
+            MeterRegistry meterRegistry,
+            @Value("${ticker.state.enabled:true}") boolean enabled,
+            @Value("${ticker.state.change-fields:}") String[] changeFields,
+            @Value("${ticker.state.max-silence-ms:10000}") long maxSilenceMs) {
+        this.marketInfoCache = marketInfoCache;
+        this.enabled = enabled;
+        boolean lastPrice = false;
+        boolean changeRate = false;
+        boolean quoteTurnover = false;
+        for (String field : changeFields) {
+            switch (field.trim()) {
+                case "last-price" -> lastPrice = true;
+                case "change-rate" -> changeRate = true;
+                case "quote-turnover" -> quoteTurnover = true;
+                case "" -> { }
+                default -> throw new IllegalArgumentException("알 수 없는 ticker.state.change-fields 값: " + field);
+            }
+        }
+        this.compareLastPrice = lastPrice;
+        this.compareChangeRate = changeRate;
+        this.compareQuoteTurnover = quoteTurnover;
+        this.changeOnly = lastPrice || changeRate || quoteTurnover;
+        this.maxSilenceMs = maxSilenceMs;
+        for (Exchange exchange : Exchange.values()) {
+            states.set(exchange.ordinal(), new AtomicReferenceArray<>(INITIAL_CAPACITY));
+            for (Reason reason : Reason.values()) {
+                suppressed[exchange.ordinal()][reason.ordinal()] = Counter.builder("ticker.state.suppressed")
+                        .tag("exchange", exchange.name())
+                        .tag("reason", reason.tag)
+                        .register(meterRegistry);
+            }
+        }
+        marketInfoCache.onReplace(this::clear);
+        if (enabled && changeOnly) {
+            log.info("시세 변경 필드 기반 억제 활성화: fields={}, maxSilenceMs={}", String.join(",", changeFields), maxSilenceMs);
+        }
+    }
+
+    /**
+     * 싱크로 넘겨야 하면 마지막 상태를 이 시세로 바꾸고 {@code true}를 돌려준다.
+     * 저장된 시세보다 {@code tsMs}가 이르면 {@code stale}, 모든 값과 {@code tsMs}가 같으면 {@code duplicate},
+     * 변경 필드가 설정돼 있고 그 필드가 모두 그대로면 {@code unchanged}로 세고 버린다.
+     * 값이 그대로여도 마지막 전달 후 {@code max-silence-ms}가 지나면 Redis TTL이 끊기지 않도록 통과시킨다.
+     */
+    public boolean accept(NormalizedTicker ticker) {
+        int symbolId = ticker.symbolId();
+        if (!enabled || symbolId == NormalizedTicker.UNKNOWN_SYMBOL_ID) {
+            return true;
+        }
+        Exchange exchange = Exchange.valueOf(ticker.exchange());
+        AtomicReferenceArray<NormalizedTicker> table = table(exchange, symbolId);
+        while (true) {
+            NormalizedTicker last = table.get(symbolId);
+            if (last != null) {
+                Reason reason = suppressReason(last, ticker);
+                if (reason != null) {
+                    suppressed[exchange.ordinal()][reason.ordinal()].increment();
+                    return false;
+                }
+            }
+            if (table.compareAndSet(symbolId, last, ticker)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 거래소의 마지막 상태를 모두 버린다. 심볼마다 다음 tick 하나는 비교 없이 통과한다.
+     */
+    public void clear(Exchange exchange) {
+        states.set(exchange.ordinal(), new AtomicReferenceArray<>(INITIAL_CAPACITY));
+    }
+
+    public void clear() {
+        for (Exchange exchange : Exchange.values()) {
+            clear(exchange);
+        }
+    }
+
+    private Reason suppressReason(NormalizedTicker last, NormalizedTicker ticker) {
+        if (ticker.tsMs() < last.tsMs()) {
+            return Reason.STALE;
+        }
+        boolean samePrice = ticker.sameLastPrice(last);
+        boolean sameRate = ticker.sameChangeRate(last);
+        boolean sameTurnover = ticker.sameQuoteTurnover(last);
+        if (ticker.tsMs() == last.tsMs() && samePrice && sameRate && sameTurnover) {
+            return Reason.DUPLICATE;
+        }
+        if (changeOnly
+                && (!compareLastPrice || samePrice)
+                && (!compareChangeRate || sameRate)
+                && (!compareQuoteTurnover || sameTurnover)
+                && ticker.tsMs() - last.tsMs() < maxSilenceMs) {
+            return Reason.UNCHANGED;
+        }
+        return null;
+    }
+
+    /**
+     * 심볼 레지스트리가 커져 ID가 배열을 넘으면 두 배로 늘린다. 늘리는 동안 옛 배열에 반영된 갱신은 잃을 수 있으며,
+     * 그 심볼의 다음 tick 하나가 비교 없이 통과할 뿐이다.
+     */
+    private AtomicReferenceArray<NormalizedTicker> table(Exchange exchange, int symbolId) {
+        AtomicReferenceArray<NormalizedTicker> table = states.get(exchange.ordinal());
+        if (symbolId < table.length()) {
+            return table;
+        }
+        synchronized (this) {
+            table = states.get(exchange.ordinal());
+            if (symbolId >= table.length()) {
+                int capacity = Math.max(table.length() * 2, Math.max(symbolId + 1, marketInfoCache.size(exchange)));
+                AtomicReferenceArray<NormalizedTicker> grown = new AtomicReferenceArray<>(capacity);
+                for (int i = 0; i < table.length(); i++) {
+                    grown.set(i, table.get(i));
+                }
+                states.set(exchange.ordinal(), grown);
+                table = grown;
+            }
+            return table;
+        }
+    }
+
+    private enum Reason {
+        DUPLICATE, STALE, UNCHANGED;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+}
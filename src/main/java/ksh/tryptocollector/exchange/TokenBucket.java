@@ -0,0 +1,64 @@
+package ksh.tryptocollector.exchange;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 거래소 REST rate limit 예산을 나타내는 토큰 버킷. 단위는 거래소 기준(업비트/빗썸은 요청 수, 바이낸스는 weight)이다.
+ * 응답 헤더가 알려준 남은 예산이 로컬 잔량보다 적으면 그 값으로 낮춰, 같은 IP를 쓰는 다른 호출까지 반영한다.
+ */
+public class TokenBucket {
+    private final double capacity;
+    private final double permitsPerNano;
+    private final LongSupplier nanoTime;
+
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(double capacity, double permitsPerSecond) {
+        this(capacity, permitsPerSecond, System::nanoTime);
+    }
+
+    TokenBucket(double capacity, double permitsPerSecond, LongSupplier nanoTime) {
+        this.capacity = capacity;
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.nanoTime = nanoTime;
+        this.tokens = capacity;
+        this.refilledAt = nanoTime.getAsLong();
+    }
+
+    public synchronized boolean tryAcquire(double permits) {
+        refill();
+        if (tokens < permits) {
+            return false;
+        }
+        tokens -= permits;
+        return true;
+    }
+
+    public synchronized void observeRemaining(double remaining) {
+        if (remaining < 0) {
+            return;
+        }
+        refill();
+        tokens = Math.min(tokens, remaining);
+    }
+
+    /**
+     * 지금 잔량에서 {@code permits}만큼 쓸 수 있게 될 때까지 남은 시간. 용량보다 큰 요구는 용량으로 계산한다.
+     */
+    public synchronized long millisUntil(double permits) {
+        refill();
+        double missing = Math.min(permits, capacity) - tokens;
+        if (missing <= 0) {
+            return 0;
+        }
+        return TimeUnit.NANOSECONDS.toMillis((long) Math.ceil(missing / permitsPerNano));
+    }
+
+    private void refill() {
+        long now = nanoTime.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * permitsPerNano);
+        refilledAt = now;
+    }
+}
@@ -0,0 +1,66 @@
+package ksh.tryptocollector.exchange.binance;
+
+import ksh.tryptocollector.exchange.ExchangeConnector;
+import ksh.tryptocollector.metadata.MarketInfoCache;
+import ksh.tryptocollector.model.Exchange;
+import ksh.tryptocollector.model.MarketInfo;
+import ksh.tryptocollector.redis.MarketMetadataRedisRepository;
+import ksh.tryptocollector.redis.TickerRedisRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.http.WebSocket;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BinanceConnector implements ExchangeConnector {
+
+    private final MarketInfoCache marketInfoCache;
+    private final TickerRedisRepository tickerRedisRepository;
+    private final MarketMetadataRedisRepository marketMetadataRedisRepository;
+    private final BinanceRestClient binanceRestClient;
+    private final BinanceWebSocketHandler binanceWebSocketHandler;
+
+    @Override
+    public Exchange exchange() {
+        return Exchange.BINANCE;
+    }
+
+    @Override
+    public String displayName() {
+        return "바이낸스";
+    }
+
+    @Override
+    public void loadMetadata() {
+        List<BinanceTickerResponse> tickers = binanceRestClient.fetchUsdtTickers();
+        Map<String, MarketInfo> infoBySymbol = new LinkedHashMap<>();
+        for (BinanceTickerResponse ticker : tickers) {
+            String base = ticker.symbol().replace("USDT", "");
+            infoBySymbol.put(ticker.symbol(), new MarketInfo(base, "USDT", base + "/USDT", base));
+        }
+        marketInfoCache.putAll(Exchange.BINANCE, infoBySymbol);
+        MarketInfoCache.Snapshot markets = marketInfoCache.snapshot(Exchange.BINANCE);
+        for (BinanceTickerResponse ticker : tickers) {
+            int symbolId = markets.findId(ticker.symbol());
+            tickerRedisRepository.save(ticker.toNormalized(symbolId, markets.marketInfo(symbolId)));
+        }
+        log.info("바이낸스 마켓 메타데이터 로드 및 초기 스냅샷 저장 완료");
+        marketMetadataRedisRepository.save(Exchange.BINANCE, marketInfoCache.getMarketInfos(Exchange.BINANCE));
+    }
+
+    @Override
+    public void connect() {
+        binanceWebSocketHandler.connect();
+    }
+
+    @Override
+    public WebSocket.Listener replayListener(int shard) {
+        return binanceWebSocketHandler.replayListener(shard);
+    }
+}
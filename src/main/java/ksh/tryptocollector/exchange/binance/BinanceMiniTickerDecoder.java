@@ -0,0 +1,272 @@
+package ksh.tryptocollector.exchange.binance;
+
+import java.util.function.ObjIntConsumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * {@code !miniTicker@arr} 프레임을 조각 단위로 받아 토큰 스트리밍으로 해석하는 디코더.
+ * 객체마다 {@code s} 필드를 읽는 즉시 resolver로 심볼 ID를 조회하고, 음수(모르는 심볼)면 나머지 필드를 객체 생성 없이 건너뛴다.
+ * WebSocket 연결 하나가 디코더 하나를 소유하며 스레드 안전하지 않다.
+ */
+public class BinanceMiniTickerDecoder {
+    private static final int INITIAL_VALUE_CAPACITY = 32;
+
+    private enum State {
+        ARRAY_START, OBJECT_OR_END, KEY_OR_OBJECT_END, KEY, COLON, VALUE,
+        STRING_VALUE, NUMBER_VALUE, LITERAL_VALUE, SKIP_OBJECT, DONE
+    }
+
+    private final ToIntFunction<CharSequence> resolver;
+    private final ObjIntConsumer<BinanceTickerMessage> sink;
+
+    private final StringBuilder key = new StringBuilder(4);
+    private final StringBuilder value = new StringBuilder(INITIAL_VALUE_CAPACITY);
+    private final StringBuilder symbol = new StringBuilder(INITIAL_VALUE_CAPACITY);
+    private final StringBuilder lastPrice = new StringBuilder(INITIAL_VALUE_CAPACITY);
+    private final StringBuilder openPrice = new StringBuilder(INITIAL_VALUE_CAPACITY);
+    private final StringBuilder quoteVolume = new StringBuilder(INITIAL_VALUE_CAPACITY);
+
+    private State state = State.ARRAY_START;
+    private boolean escaped;
+    private boolean failed;
+    private int skipDepth;
+    private boolean skipInString;
+    private boolean skippingObject;
+    private int symbolId = -1;
+    private long eventTime;
+
+    public BinanceMiniTickerDecoder(ToIntFunction<CharSequence> resolver, ObjIntConsumer<BinanceTickerMessage> sink) {
+        this.resolver = resolver;
+        this.sink = sink;
+    }
+
+    /**
+     * 텍스트 프레임 조각 하나를 소비한다. 형식 오류가 나면 예외를 던지고,
+     * 같은 프레임의 나머지 조각은 마지막 조각이 올 때까지 무시한 뒤 다음 프레임을 위해 상태를 초기화한다.
+     */
+    public void feed(CharSequence chunk, boolean last) {
+        try {
+            if (!failed) {
+                for (int i = 0, length = chunk.length(); i < length; i++) {
+                    consume(chunk.charAt(i));
+                }
+                if (last && state != State.DONE) {
+                    fail("프레임이 배열 중간에서 끝남: " + state);
+                }
+            }
+        } finally {
+            if (last) {
+                reset();
+            }
+        }
+    }
+
+    public void reset() {
+        state = State.ARRAY_START;
+        escaped = false;
+        failed = false;
+        resetObject();
+    }
+
+    private void consume(char c) {
+        switch (state) {
+            case ARRAY_START -> {
+                if (c == '[') {
+                    state = State.OBJECT_OR_END;
+                } else if (!isWhitespace(c)) {
+                    fail("배열 시작 문자가 아님: " + c);
+                }
+            }
+            case OBJECT_OR_END -> {
+                if (c == '{') {
+                    resetObject();
+                    state = State.KEY_OR_OBJECT_END;
+                } else if (c == ']') {
+                    state = State.DONE;
+                } else if (c != ',' && !isWhitespace(c)) {
+                    fail("객체 시작 문자가 아님: " + c);
+                }
+            }
+            case KEY_OR_OBJECT_END -> {
+                if (c == '"') {
+                    key.setLength(0);
+                    state = State.KEY;
+                } else if (c == '}') {
+                    completeObject();
+                } else if (c != ',' && !isWhitespace(c)) {
+                    fail("키 시작 문자가 아님: " + c);
+                }
+            }
+            case KEY -> {
+                if (escaped) {
+                    key.append(c);
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    state = State.COLON;
+                } else {
+                    key.append(c);
+                }
+            }
+            case COLON -> {
+                if (c == ':') {
+                    value.setLength(0);
+                    state = State.VALUE;
+                } else if (!isWhitespace(c)) {
+                    fail("':' 누락: " + c);
+                }
+            }
+            case VALUE -> startValue(c);
+            case STRING_VALUE -> {
+                if (escaped) {
+                    value.append(c);
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    completeValue();
+                } else {
+                    value.append(c);
+                }
+            }
+            case NUMBER_VALUE, LITERAL_VALUE -> {
+                if (c == ',' || c == '}' || isWhitespace(c)) {
+                    completeValue();
+                    consume(c);
+                } else {
+                    value.append(c);
+                }
+            }
+            case SKIP_OBJECT -> skip(c);
+            case DONE -> {
+                if (!isWhitespace(c)) {
+                    fail("배열 종료 후 문자: " + c);
+                }
+            }
+        }
+    }
+
+    private void startValue(char c) {
+        if (c == '"') {
+            state = State.STRING_VALUE;
+        } else if (c == '-' || (c >= '0' && c <= '9')) {
+            value.append(c);
+            state = State.NUMBER_VALUE;
+        } else if (c == 't' || c == 'f' || c == 'n') {
+            value.append(c);
+            state = State.LITERAL_VALUE;
+        } else if (c == '{' || c == '[') {
+            startSkip(false);
+        } else if (!isWhitespace(c)) {
+            fail("값 시작 문자가 아님: " + c);
+        }
+    }
+
+    private void completeValue() {
+        state = State.KEY_OR_OBJECT_END;
+        if (key.length() != 1) {
+            return;
+        }
+        switch (key.charAt(0)) {
+            case 's' -> {
+                symbol.setLength(0);
+                symbol.append(value);
+                symbolId = resolver.applyAsInt(symbol);
+                if (symbolId < 0) {
+                    startSkip(true);
+                }
+            }
+            case 'c' -> copy(value, lastPrice);
+            case 'o' -> copy(value, openPrice);
+            case 'q' -> copy(value, quoteVolume);
+            case 'E' -> eventTime = parseLong(value);
+            default -> {
+            }
+        }
+    }
+
+    private void skip(char c) {
+        if (skipInString) {
+            if (escaped) {
+                escaped = false;
+            } else if (c == '\\') {
+                escaped = true;
+            } else if (c == '"') {
+                skipInString = false;
+            }
+            return;
+        }
+        if (c == '"') {
+            skipInString = true;
+        } else if (c == '{' || c == '[') {
+            skipDepth++;
+        } else if (c == '}' || c == ']') {
+            skipDepth--;
+            if (skippingObject && skipDepth == 0) {
+                resetObject();
+                state = State.OBJECT_OR_END;
+            } else if (!skippingObject && skipDepth == 0) {
+                state = State.KEY_OR_OBJECT_END;
+            }
+        }
+    }
+
+    /**
+     * 모르는 심볼이면 현재 객체의 나머지를, 중첩 값이면 그 값 전체를 문자열 경계만 추적하며 건너뛴다.
+     */
+    private void startSkip(boolean wholeObject) {
+        skippingObject = wholeObject;
+        skipDepth = 1;
+        skipInString = false;
+        state = State.SKIP_OBJECT;
+    }
+
+    private void completeObject() {
+        if (symbolId >= 0 && lastPrice.length() > 0 && openPrice.length() > 0 && quoteVolume.length() > 0) {
+            sink.accept(new BinanceTickerMessage(
+                    symbol.toString(), lastPrice.toString(), openPrice.toString(), quoteVolume.toString(), eventTime),
+                    symbolId);
+        }
+        resetObject();
+        state = State.OBJECT_OR_END;
+    }
+
+    private void resetObject() {
+        symbolId = -1;
+        eventTime = 0;
+        skipDepth = 0;
+        skipInString = false;
+        skippingObject = false;
+        symbol.setLength(0);
+        lastPrice.setLength(0);
+        openPrice.setLength(0);
+        quoteVolume.setLength(0);
+    }
+
+    private void fail(String message) {
+        failed = true;
+        throw new IllegalStateException(message);
+    }
+
+    private static void copy(StringBuilder from, StringBuilder to) {
+        to.setLength(0);
+        to.append(from);
+    }
+
+    private static long parseLong(CharSequence digits) {
+        long result = 0;
+        for (int i = 0; i < digits.length(); i++) {
+            char c = digits.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalStateException("정수가 아님: " + digits);
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+}
@@ -1,6 +1,8 @@
 package ksh.tryptocollector.exchange.binance;
 
+import ksh.tryptocollector.exchange.TickerPollResult;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 
@@ -10,27 +12,56 @@ import java.util.List;
 
 @Component
 public class BinanceRestClient {
+    private static final String USED_WEIGHT_HEADER = "X-MBX-USED-WEIGHT-1m";
+
     private final RestClient restClient;
     private final String restUrl;
+    private final int weightPerMinute;
 
     public BinanceRestClient(
             RestClient.Builder restClientBuilder,
-            @Value("${exchange.binance.rest-url}") String restUrl) {
+            @Value("${exchange.binance.rest-url}") String restUrl,
+            @Value("${rest-fallback.binance.weight-per-minute:6000}") int weightPerMinute) {
         this.restClient = restClientBuilder.build();
         this.restUrl = restUrl;
+        this.weightPerMinute = weightPerMinute;
     }
 
     public List<BinanceTickerResponse> fetchUsdtTickers() {
-        BinanceTickerResponse[] responses = restClient.get()
+        return pollTickers().tickers().stream()
+                .filter(r -> r.symbol().endsWith("USDT"))
+                .filter(r -> new BigDecimal(r.quoteVolume()).compareTo(BigDecimal.ZERO) > 0)
+                .toList();
+    }
+
+    /**
+     * 전체 24hr ticker와 함께 {@code X-MBX-USED-WEIGHT-1m} 헤더로 계산한 이번 분의 남은 weight를 돌려준다.
+     */
+    public TickerPollResult<BinanceTickerResponse> pollTickers() {
+        ResponseEntity<BinanceTickerResponse[]> response = restClient.get()
                 .uri(restUrl)
                 .retrieve()
-                .body(BinanceTickerResponse[].class);
+                .toEntity(BinanceTickerResponse[].class);
+        double remaining = remainingWeight(response.getHeaders().getFirst(USED_WEIGHT_HEADER));
+        BinanceTickerResponse[] responses = response.getBody();
         if (responses == null) {
-            return List.of();
+            return new TickerPollResult<>(List.of(), remaining);
+        }
+        return new TickerPollResult<>(Arrays.asList(responses), remaining);
+    }
+
+    public int weightPerMinute() {
+        return weightPerMinute;
+    }
+
+    private double remainingWeight(String usedWeight) {
+        if (usedWeight == null) {
+            return TickerPollResult.UNKNOWN_REMAINING;
+        }
+        try {
+            return Math.max(0, weightPerMinute - Integer.parseInt(usedWeight.trim()));
+        } catch (NumberFormatException e) {
+            return TickerPollResult.UNKNOWN_REMAINING;
         }
-        return Arrays.stream(responses)
-                .filter(r -> r.symbol().endsWith("USDT"))
-                .filter(r -> new BigDecimal(r.quoteVolume()).compareTo(BigDecimal.ZERO) > 0)
-                .toList();
     }
 }
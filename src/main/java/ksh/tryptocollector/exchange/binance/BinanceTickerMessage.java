@@ -2,11 +2,10 @@ package ksh.tryptocollector.exchange.binance;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import ksh.tryptocollector.model.Exchange;
+import ksh.tryptocollector.model.FixedDecimal;
+import ksh.tryptocollector.model.MarketInfo;
 import ksh.tryptocollector.model.NormalizedTicker;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
-
 public record BinanceTickerMessage(
         @JsonProperty("s") String symbol,
         @JsonProperty("c") String lastPrice,
@@ -16,21 +15,14 @@ public record BinanceTickerMessage(
 ) {
     private static final int CHANGE_RATE_SCALE = 8;
 
-    public NormalizedTicker toNormalized(String displayName) {
-        String base = symbol.replace("USDT", "");
-        BigDecimal close = new BigDecimal(lastPrice);
-        BigDecimal open = new BigDecimal(openPrice);
-        BigDecimal changeRate = BigDecimal.ZERO;
-        if (open.compareTo(BigDecimal.ZERO) != 0) {
-            changeRate = close.subtract(open)
-                    .divide(open, CHANGE_RATE_SCALE, RoundingMode.HALF_UP);
-        }
+    public NormalizedTicker toNormalized(int symbolId, MarketInfo market) {
+        FixedDecimal close = new FixedDecimal().parse(lastPrice);
+        FixedDecimal open = new FixedDecimal().parse(openPrice);
         return new NormalizedTicker(
-                Exchange.BINANCE.name(),
-                base, "USDT", displayName,
+                Exchange.BINANCE, symbolId, market,
                 close,
-                changeRate,
-                new BigDecimal(quoteVolume),
+                new FixedDecimal().setRelativeChange(close, open, CHANGE_RATE_SCALE),
+                new FixedDecimal().parse(quoteVolume),
                 eventTime
         );
     }
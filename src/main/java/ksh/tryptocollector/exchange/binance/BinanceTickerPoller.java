@@ -1,17 +1,31 @@
 package ksh.tryptocollector.exchange.binance;
 
 import ksh.tryptocollector.exchange.ExchangeTickerPoller;
-import ksh.tryptocollector.exchange.NormalizableTicker;
+import ksh.tryptocollector.exchange.TickerPollResult;
+import ksh.tryptocollector.exchange.TokenBucket;
 import ksh.tryptocollector.model.Exchange;
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
+/**
+ * 바이낸스는 심볼을 지정하지 않은 {@code /ticker/24hr} 한 번(weight 80)이 심볼 100개 단위 조회를 여러 번 하는 것보다 싸므로
+ * 나누지 않고 전체를 받아 필요한 심볼만 거른다.
+ */
 @Component
-@RequiredArgsConstructor
 public class BinanceTickerPoller implements ExchangeTickerPoller {
+    private static final double FULL_TICKER_WEIGHT = 80;
+
     private final BinanceRestClient binanceRestClient;
+    private final TokenBucket budget;
+
+    public BinanceTickerPoller(BinanceRestClient binanceRestClient) {
+        this.binanceRestClient = binanceRestClient;
+        int weightPerMinute = binanceRestClient.weightPerMinute();
+        this.budget = new TokenBucket(weightPerMinute, weightPerMinute / 60.0);
+    }
 
     @Override
     public Exchange exchange() {
@@ -19,9 +33,27 @@ public class BinanceTickerPoller implements ExchangeTickerPoller {
     }
 
     @Override
-    public List<? extends NormalizableTicker> fetch(List<String> symbolCodes) {
-        return binanceRestClient.fetchUsdtTickers().stream()
-                .filter(r -> symbolCodes.contains(r.symbol()))
+    public int chunkSize() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public double requestWeight() {
+        return FULL_TICKER_WEIGHT;
+    }
+
+    @Override
+    public TokenBucket budget() {
+        return budget;
+    }
+
+    @Override
+    public TickerPollResult<?> fetch(List<String> symbolCodes) {
+        Set<String> wanted = new HashSet<>(symbolCodes);
+        TickerPollResult<BinanceTickerResponse> result = binanceRestClient.pollTickers();
+        List<BinanceTickerResponse> tickers = result.tickers().stream()
+                .filter(r -> wanted.contains(r.symbol()))
                 .toList();
+        return new TickerPollResult<>(tickers, result.remaining());
     }
 }
@@ -2,6 +2,8 @@ package ksh.tryptocollector.exchange.binance;
 
 import ksh.tryptocollector.exchange.NormalizableTicker;
 import ksh.tryptocollector.model.Exchange;
+import ksh.tryptocollector.model.FixedDecimal;
+import ksh.tryptocollector.model.MarketInfo;
 import ksh.tryptocollector.model.NormalizedTicker;
 
 import java.math.BigDecimal;
@@ -11,7 +13,8 @@ public record BinanceTickerResponse(
         String symbol,
         String lastPrice,
         String priceChangePercent,
-        String quoteVolume
+        String quoteVolume,
+        long closeTime
 ) implements NormalizableTicker {
     private static final int CHANGE_RATE_SCALE = 8;
     private static final BigDecimal PERCENT_DIVISOR = BigDecimal.valueOf(100);
@@ -22,17 +25,15 @@ public record BinanceTickerResponse(
     }
 
     @Override
-    public NormalizedTicker toNormalized(String displayName) {
-        String base = symbol.replace("USDT", "");
+    public NormalizedTicker toNormalized(int symbolId, MarketInfo market) {
         BigDecimal changeRate = new BigDecimal(priceChangePercent)
                 .divide(PERCENT_DIVISOR, CHANGE_RATE_SCALE, RoundingMode.HALF_UP);
         return new NormalizedTicker(
-                Exchange.BINANCE.name(),
-                base, "USDT", displayName,
-                new BigDecimal(lastPrice),
-                changeRate,
-                new BigDecimal(quoteVolume),
-                System.currentTimeMillis()
+                Exchange.BINANCE, symbolId, market,
+                new FixedDecimal().parse(lastPrice),
+                new FixedDecimal().set(changeRate),
+                new FixedDecimal().parse(quoteVolume),
+                closeTime > 0 ? closeTime : System.currentTimeMillis()
         );
     }
 }
@@ -5,12 +5,14 @@ import io.micrometer.core.instrument.MeterRegistry;
 import ksh.tryptocollector.exchange.ExchangeTickerStream;
 import ksh.tryptocollector.exchange.RestPollingFallback;
 import ksh.tryptocollector.exchange.TickerSinkProcessor;
+import ksh.tryptocollector.exchange.journal.FrameCapture;
+import ksh.tryptocollector.exchange.journal.FrameJournal;
 import ksh.tryptocollector.metadata.MarketInfoCache;
 import ksh.tryptocollector.model.Exchange;
+import ksh.tryptocollector.model.MarketInfo;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import tools.jackson.databind.ObjectMapper;
 
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -24,25 +26,27 @@ public class BinanceWebSocketHandler implements ExchangeTickerStream {
     private static final long MAX_BACKOFF_SECONDS = 60;
 
     private final HttpClient httpClient = HttpClient.newHttpClient();
-    private final ObjectMapper objectMapper;
     private final MarketInfoCache marketInfoCache;
     private final TickerSinkProcessor tickerSinkProcessor;
     private final RestPollingFallback restPollingFallback;
+    private final FrameCapture frameCapture;
     private final Counter reconnectCounter;
     private final Counter parseFailureCounter;
 
-    public BinanceWebSocketHandler(ObjectMapper objectMapper, MarketInfoCache marketInfoCache,
+    public BinanceWebSocketHandler(MarketInfoCache marketInfoCache,
                                    TickerSinkProcessor tickerSinkProcessor, RestPollingFallback restPollingFallback,
-                                   MeterRegistry registry) {
-        this.objectMapper = objectMapper;
+                                   FrameCapture frameCapture, MeterRegistry registry) {
         this.marketInfoCache = marketInfoCache;
         this.tickerSinkProcessor = tickerSinkProcessor;
         this.restPollingFallback = restPollingFallback;
+        this.frameCapture = frameCapture;
         this.reconnectCounter = Counter.builder("websocket.reconnect")
                 .tag("exchange", Exchange.BINANCE.name())
+                .tag("shard", "0")
                 .register(registry);
         this.parseFailureCounter = Counter.builder("ticker.parse.failure")
                 .tag("exchange", Exchange.BINANCE.name())
+                .tag("shard", "0")
                 .register(registry);
     }
 
@@ -56,7 +60,7 @@ public class BinanceWebSocketHandler implements ExchangeTickerStream {
             try {
                 CountDownLatch closeLatch = new CountDownLatch(1);
                 WebSocket ws = httpClient.newWebSocketBuilder()
-                        .buildAsync(URI.create(wsUrl), new BinanceListener(closeLatch))
+                        .buildAsync(URI.create(wsUrl), new BinanceListener(closeLatch, frameCapture.journal(Exchange.BINANCE)))
                         .join();
                 log.info("바이낸스 WebSocket 연결 시작");
                 restPollingFallback.stop(Exchange.BINANCE);
@@ -75,19 +79,33 @@ public class BinanceWebSocketHandler implements ExchangeTickerStream {
         }
     }
 
-    private void handleMessage(String payload) {
+    @Override
+    public WebSocket.Listener replayListener(int shard) {
+        return new BinanceListener(new CountDownLatch(1), null);
+    }
+
+    private void handleMessage(BinanceMiniTickerDecoder decoder, CharSequence fragment, boolean last) {
         try {
-            BinanceTickerMessage[] tickers = objectMapper.readValue(payload, BinanceTickerMessage[].class);
-            for (BinanceTickerMessage ticker : tickers) {
-                marketInfoCache.find(Exchange.BINANCE, ticker.symbol())
-                        .ifPresent(meta -> tickerSinkProcessor.process(ticker.toNormalized(meta.displayName())));
-            }
+            decoder.feed(fragment, last);
         } catch (Exception e) {
             parseFailureCounter.increment();
             log.debug("바이낸스 메시지 처리 실패: {}", e.getMessage());
         }
     }
 
+    private static boolean endsWith(CharSequence value, String suffix) {
+        int offset = value.length() - suffix.length();
+        if (offset < 0) {
+            return false;
+        }
+        for (int i = 0; i < suffix.length(); i++) {
+            if (value.charAt(offset + i) != suffix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private void backoff(int retryCount) {
         try {
             long delay = Math.min(1L << retryCount, MAX_BACKOFF_SECONDS);
@@ -99,20 +117,43 @@ public class BinanceWebSocketHandler implements ExchangeTickerStream {
 
     private class BinanceListener implements WebSocket.Listener {
         private final CountDownLatch closeLatch;
-        private final StringBuilder textBuffer = new StringBuilder();
+        private final BinanceMiniTickerDecoder decoder = new BinanceMiniTickerDecoder(this::resolve, this::dispatch);
 
-        BinanceListener(CountDownLatch closeLatch) {
+        private final FrameJournal journal;
+        /**
+         * 객체의 심볼 ID를 찾은 스냅샷. 같은 객체를 내보낼 때 그 ID의 {@link MarketInfo}도 이 스냅샷에서 읽는다.
+         */
+        private MarketInfoCache.Snapshot markets;
+
+        BinanceListener(CountDownLatch closeLatch, FrameJournal journal) {
             this.closeLatch = closeLatch;
+            this.journal = journal;
+        }
+
+        private int resolve(CharSequence symbol) {
+            if (!endsWith(symbol, Exchange.BINANCE.getQuote())) {
+                return MarketInfoCache.NOT_FOUND;
+            }
+            markets = marketInfoCache.snapshot(Exchange.BINANCE);
+            return markets.findId(symbol);
+        }
+
+        private void dispatch(BinanceTickerMessage ticker, int symbolId) {
+            try {
+                MarketInfo market = markets.marketInfo(symbolId);
+                tickerSinkProcessor.process(ticker.toNormalized(symbolId, market));
+            } catch (Exception e) {
+                parseFailureCounter.increment();
+                log.debug("바이낸스 시세 변환 실패: {}: {}", ticker.symbol(), e.getMessage());
+            }
         }
 
         @Override
         public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
-            textBuffer.append(data);
-            if (last) {
-                String message = textBuffer.toString();
-                textBuffer.setLength(0);
-                handleMessage(message);
+            if (journal != null) {
+                journal.append(0, data, last);
             }
+            handleMessage(decoder, data, last);
             webSocket.request(1);
             return null;
         }
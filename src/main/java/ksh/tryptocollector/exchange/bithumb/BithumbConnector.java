@@ -0,0 +1,72 @@
+package ksh.tryptocollector.exchange.bithumb;
+
+import ksh.tryptocollector.exchange.ExchangeConnector;
+import ksh.tryptocollector.metadata.MarketInfoCache;
+import ksh.tryptocollector.model.Exchange;
+import ksh.tryptocollector.model.MarketInfo;
+import ksh.tryptocollector.redis.MarketMetadataRedisRepository;
+import ksh.tryptocollector.redis.TickerRedisRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.http.WebSocket;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BithumbConnector implements ExchangeConnector {
+
+    private final MarketInfoCache marketInfoCache;
+    private final TickerRedisRepository tickerRedisRepository;
+    private final MarketMetadataRedisRepository marketMetadataRedisRepository;
+    private final BithumbRestClient bithumbRestClient;
+    private final BithumbWebSocketHandler bithumbWebSocketHandler;
+
+    @Override
+    public Exchange exchange() {
+        return Exchange.BITHUMB;
+    }
+
+    @Override
+    public String displayName() {
+        return "빗썸";
+    }
+
+    @Override
+    public void loadMetadata() {
+        List<MarketInfo> infos = bithumbRestClient.fetchKrwMarkets();
+        List<String> marketCodes = new ArrayList<>();
+        Map<String, MarketInfo> infoByMarket = new LinkedHashMap<>();
+        for (MarketInfo info : infos) {
+            String marketCode = "KRW-" + info.base();
+            marketCodes.add(marketCode);
+            infoByMarket.put(marketCode, info);
+        }
+        marketInfoCache.putAll(Exchange.BITHUMB, infoByMarket);
+        log.info("빗썸 마켓 메타데이터 로드 완료: {}개", infos.size());
+        marketMetadataRedisRepository.save(Exchange.BITHUMB, infos);
+
+        List<BithumbTickerResponse> tickers = bithumbRestClient.fetchKrwTickers(marketCodes);
+        MarketInfoCache.Snapshot markets = marketInfoCache.snapshot(Exchange.BITHUMB);
+        for (BithumbTickerResponse ticker : tickers) {
+            int symbolId = markets.findId(ticker.market());
+            tickerRedisRepository.save(ticker.toNormalized(symbolId, markets.marketInfo(symbolId)));
+        }
+        log.info("빗썸 초기 시세 스냅샷 저장 완료: {}개", tickers.size());
+    }
+
+    @Override
+    public void connect() {
+        bithumbWebSocketHandler.connect();
+    }
+
+    @Override
+    public WebSocket.Listener replayListener(int shard) {
+        return bithumbWebSocketHandler.replayListener(shard);
+    }
+}
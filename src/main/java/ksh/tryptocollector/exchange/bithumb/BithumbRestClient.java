@@ -1,7 +1,10 @@
 package ksh.tryptocollector.exchange.bithumb;
 
+import ksh.tryptocollector.exchange.RemainingReqHeader;
+import ksh.tryptocollector.exchange.TickerPollResult;
 import ksh.tryptocollector.model.MarketInfo;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 
@@ -42,14 +45,20 @@ public class BithumbRestClient {
     }
 
     public List<BithumbTickerResponse> fetchKrwTickers(List<String> marketCodes) {
+        return pollKrwTickers(marketCodes).tickers();
+    }
+
+    public TickerPollResult<BithumbTickerResponse> pollKrwTickers(List<String> marketCodes) {
         String markets = String.join(",", marketCodes);
-        BithumbTickerResponse[] responses = restClient.get()
+        ResponseEntity<BithumbTickerResponse[]> response = restClient.get()
                 .uri(tickerUrl + "?markets=" + markets)
                 .retrieve()
-                .body(BithumbTickerResponse[].class);
+                .toEntity(BithumbTickerResponse[].class);
+        double remaining = RemainingReqHeader.remainingPerSecond(response.getHeaders().getFirst(RemainingReqHeader.NAME));
+        BithumbTickerResponse[] responses = response.getBody();
         if (responses == null) {
-            return List.of();
+            return new TickerPollResult<>(List.of(), remaining);
         }
-        return Arrays.asList(responses);
+        return new TickerPollResult<>(Arrays.asList(responses), remaining);
     }
 }
@@ -1,17 +1,28 @@
 package ksh.tryptocollector.exchange.bithumb;
 
 import ksh.tryptocollector.exchange.ExchangeTickerPoller;
-import ksh.tryptocollector.exchange.NormalizableTicker;
+import ksh.tryptocollector.exchange.TickerPollResult;
+import ksh.tryptocollector.exchange.TokenBucket;
 import ksh.tryptocollector.model.Exchange;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 
 @Component
-@RequiredArgsConstructor
 public class BithumbTickerPoller implements ExchangeTickerPoller {
     private final BithumbRestClient bithumbRestClient;
+    private final int chunkSize;
+    private final TokenBucket budget;
+
+    public BithumbTickerPoller(
+            BithumbRestClient bithumbRestClient,
+            @Value("${rest-fallback.bithumb.chunk-size:50}") int chunkSize,
+            @Value("${rest-fallback.bithumb.requests-per-second:10}") double requestsPerSecond) {
+        this.bithumbRestClient = bithumbRestClient;
+        this.chunkSize = chunkSize;
+        this.budget = new TokenBucket(requestsPerSecond, requestsPerSecond);
+    }
 
     @Override
     public Exchange exchange() {
@@ -19,7 +30,22 @@ public class BithumbTickerPoller implements ExchangeTickerPoller {
     }
 
     @Override
-    public List<? extends NormalizableTicker> fetch(List<String> symbolCodes) {
-        return bithumbRestClient.fetchKrwTickers(symbolCodes);
+    public int chunkSize() {
+        return chunkSize;
+    }
+
+    @Override
+    public double requestWeight() {
+        return 1;
+    }
+
+    @Override
+    public TokenBucket budget() {
+        return budget;
+    }
+
+    @Override
+    public TickerPollResult<?> fetch(List<String> symbolCodes) {
+        return bithumbRestClient.pollKrwTickers(symbolCodes);
     }
 }
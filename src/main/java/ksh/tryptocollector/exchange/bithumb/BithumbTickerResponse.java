@@ -3,6 +3,8 @@ package ksh.tryptocollector.exchange.bithumb;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import ksh.tryptocollector.exchange.NormalizableTicker;
 import ksh.tryptocollector.model.Exchange;
+import ksh.tryptocollector.model.FixedDecimal;
+import ksh.tryptocollector.model.MarketInfo;
 import ksh.tryptocollector.model.NormalizedTicker;
 
 import java.math.BigDecimal;
@@ -20,15 +22,13 @@ public record BithumbTickerResponse(
     }
 
     @Override
-    public NormalizedTicker toNormalized(String displayName) {
-        String base = market.substring(4);
+    public NormalizedTicker toNormalized(int symbolId, MarketInfo market) {
         return new NormalizedTicker(
-                Exchange.BITHUMB.name(),
-                base, "KRW", displayName,
-                tradePrice,
-                signedChangeRate,
-                accTradePrice24h,
-                System.currentTimeMillis()
+                Exchange.BITHUMB, symbolId, market,
+                new FixedDecimal().set(tradePrice),
+                new FixedDecimal().set(signedChangeRate),
+                new FixedDecimal().set(accTradePrice24h),
+                timestamp
         );
     }
 }
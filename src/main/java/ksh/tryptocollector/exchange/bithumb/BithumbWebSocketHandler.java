@@ -2,9 +2,13 @@ package ksh.tryptocollector.exchange.bithumb;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import ksh.tryptocollector.exchange.ConnectionShards;
 import ksh.tryptocollector.exchange.ExchangeTickerStream;
 import ksh.tryptocollector.exchange.RestPollingFallback;
+import ksh.tryptocollector.exchange.TickerJsonReader;
 import ksh.tryptocollector.exchange.TickerSinkProcessor;
+import ksh.tryptocollector.exchange.journal.FrameCapture;
+import ksh.tryptocollector.exchange.journal.FrameJournal;
 import ksh.tryptocollector.metadata.MarketInfoCache;
 import ksh.tryptocollector.model.Exchange;
 import lombok.extern.slf4j.Slf4j;
@@ -30,22 +34,33 @@ public class BithumbWebSocketHandler implements ExchangeTickerStream {
     private final MarketInfoCache marketInfoCache;
     private final TickerSinkProcessor tickerSinkProcessor;
     private final RestPollingFallback restPollingFallback;
-    private final Counter reconnectCounter;
-    private final Counter parseFailureCounter;
+    private final FrameCapture frameCapture;
+    private final int shardCount;
+    private final Counter[] reconnectCounters;
+    private final Counter[] parseFailureCounters;
 
     public BithumbWebSocketHandler(ObjectMapper objectMapper, MarketInfoCache marketInfoCache,
                                    TickerSinkProcessor tickerSinkProcessor, RestPollingFallback restPollingFallback,
-                                   MeterRegistry registry) {
+                                   FrameCapture frameCapture, MeterRegistry registry,
+                                   @Value("${exchange.bithumb.ws-shards:1}") int shardCount) {
         this.objectMapper = objectMapper;
         this.marketInfoCache = marketInfoCache;
         this.tickerSinkProcessor = tickerSinkProcessor;
         this.restPollingFallback = restPollingFallback;
-        this.reconnectCounter = Counter.builder("websocket.reconnect")
-                .tag("exchange", Exchange.BITHUMB.name())
-                .register(registry);
-        this.parseFailureCounter = Counter.builder("ticker.parse.failure")
-                .tag("exchange", Exchange.BITHUMB.name())
-                .register(registry);
+        this.frameCapture = frameCapture;
+        this.shardCount = shardCount;
+        this.reconnectCounters = new Counter[shardCount];
+        this.parseFailureCounters = new Counter[shardCount];
+        for (int shard = 0; shard < shardCount; shard++) {
+            reconnectCounters[shard] = Counter.builder("websocket.reconnect")
+                    .tag("exchange", Exchange.BITHUMB.name())
+                    .tag("shard", String.valueOf(shard))
+                    .register(registry);
+            parseFailureCounters[shard] = Counter.builder("ticker.parse.failure")
+                    .tag("exchange", Exchange.BITHUMB.name())
+                    .tag("shard", String.valueOf(shard))
+                    .register(registry);
+        }
     }
 
     @Value("${exchange.bithumb.ws-url}")
@@ -53,46 +68,58 @@ public class BithumbWebSocketHandler implements ExchangeTickerStream {
 
     @Override
     public void connect() {
+        ConnectionShards.run("bithumb-ws", shardCount, this::connectShard);
+    }
+
+    private void connectShard(int shard) {
         int retryCount = 0;
         while (!Thread.currentThread().isInterrupted()) {
             try {
                 CountDownLatch closeLatch = new CountDownLatch(1);
                 WebSocket ws = httpClient.newWebSocketBuilder()
-                        .buildAsync(URI.create(wsUrl), new BithumbListener(closeLatch))
+                        .buildAsync(URI.create(wsUrl), new BithumbListener(shard, closeLatch, frameCapture.journal(Exchange.BITHUMB)))
                         .join();
-                String subscribeMessage = buildSubscribeMessage();
+                String subscribeMessage = buildSubscribeMessage(shard);
                 ws.sendText(subscribeMessage, true);
-                log.info("빗썸 WebSocket 연결 시작");
-                restPollingFallback.stop(Exchange.BITHUMB);
+                log.info("빗썸 WebSocket 연결 시작: shard={}", shard);
+                restPollingFallback.stop(Exchange.BITHUMB, shard);
                 retryCount = 0;
                 closeLatch.await();
             } catch (Exception e) {
                 if (Thread.currentThread().isInterrupted() || e instanceof InterruptedException) {
-                    log.info("빗썸 WebSocket 스레드 종료");
+                    log.info("빗썸 WebSocket 스레드 종료: shard={}", shard);
                     return;
                 }
-                reconnectCounter.increment();
-                log.warn("빗썸 WebSocket 연결 끊김, 재연결 시도 #{}", retryCount + 1, e);
-                restPollingFallback.start(Exchange.BITHUMB);
+                reconnectCounters[shard].increment();
+                log.warn("빗썸 WebSocket 연결 끊김, 재연결 시도 #{}: shard={}", retryCount + 1, shard, e);
+                restPollingFallback.start(Exchange.BITHUMB, shard, shardCount);
                 backoff(retryCount++);
             }
         }
     }
 
-    private String buildSubscribeMessage() {
-        List<String> codes = marketInfoCache.getSymbolCodes(Exchange.BITHUMB);
-        log.info("빗썸 WebSocket 구독: {} 마켓", codes.size());
+    @Override
+    public WebSocket.Listener replayListener(int shard) {
+        return new BithumbListener(shard, new CountDownLatch(1), null);
+    }
+
+    private String buildSubscribeMessage(int shard) {
+        List<String> codes = ConnectionShards.codesOf(marketInfoCache.getSymbolCodes(Exchange.BITHUMB), shard, shardCount);
+        log.info("빗썸 WebSocket 구독: {} 마켓, shard={}", codes.size(), shard);
         return "[{\"ticket\":\"trypto-collector\"},{\"type\":\"ticker\",\"codes\":" +
                 objectMapper.writeValueAsString(codes) + "}]";
     }
 
-    private void handleMessage(String payload) {
+    private void handleMessage(int shard, TickerJsonReader reader, byte[] payload) {
         try {
-            BithumbTickerMessage ticker = objectMapper.readValue(payload, BithumbTickerMessage.class);
-            marketInfoCache.find(Exchange.BITHUMB, ticker.code())
-                    .ifPresent(meta -> tickerSinkProcessor.process(ticker.toNormalized(meta.displayName())));
+            reader.read(payload, 0, payload.length);
+            MarketInfoCache.Snapshot markets = marketInfoCache.snapshot(Exchange.BITHUMB);
+            int symbolId = markets.findId(payload, reader.codeOffset(), reader.codeLength());
+            if (symbolId != MarketInfoCache.NOT_FOUND) {
+                tickerSinkProcessor.process(reader.toNormalized(Exchange.BITHUMB, symbolId, markets.marketInfo(symbolId)));
+            }
         } catch (Exception e) {
-            parseFailureCounter.increment();
+            parseFailureCounters[shard].increment();
             log.debug("빗썸 메시지 처리 실패: {}", e.getMessage());
         }
     }
@@ -107,21 +134,29 @@ public class BithumbWebSocketHandler implements ExchangeTickerStream {
     }
 
     private class BithumbListener implements WebSocket.Listener {
+        private final int shard;
         private final CountDownLatch closeLatch;
         private final StringBuilder textBuffer = new StringBuilder();
         private final java.io.ByteArrayOutputStream binaryBuffer = new java.io.ByteArrayOutputStream();
+        private final TickerJsonReader reader = new TickerJsonReader();
+        private final FrameJournal journal;
 
-        BithumbListener(CountDownLatch closeLatch) {
+        BithumbListener(int shard, CountDownLatch closeLatch, FrameJournal journal) {
+            this.shard = shard;
             this.closeLatch = closeLatch;
+            this.journal = journal;
         }
 
         @Override
         public CompletionStage<?> onBinary(WebSocket webSocket, ByteBuffer data, boolean last) {
+            if (journal != null) {
+                journal.append(shard, data, last);
+            }
             byte[] bytes = new byte[data.remaining()];
             data.get(bytes);
             binaryBuffer.write(bytes, 0, bytes.length);
             if (last) {
-                handleMessage(binaryBuffer.toString(java.nio.charset.StandardCharsets.UTF_8));
+                handleMessage(shard, reader, binaryBuffer.toByteArray());
                 binaryBuffer.reset();
             }
             webSocket.request(1);
@@ -130,11 +165,14 @@ public class BithumbWebSocketHandler implements ExchangeTickerStream {
 
         @Override
         public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            if (journal != null) {
+                journal.append(shard, data, last);
+            }
             textBuffer.append(data);
             if (last) {
                 String message = textBuffer.toString();
                 textBuffer.setLength(0);
-                handleMessage(message);
+                handleMessage(shard, reader, message.getBytes(java.nio.charset.StandardCharsets.UTF_8));
             }
             webSocket.request(1);
             return null;
@@ -142,14 +180,14 @@ public class BithumbWebSocketHandler implements ExchangeTickerStream {
 
         @Override
         public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
-            log.info("빗썸 WebSocket 종료: statusCode={}, reason={}", statusCode, reason);
+            log.info("빗썸 WebSocket 종료: shard={}, statusCode={}, reason={}", shard, statusCode, reason);
             closeLatch.countDown();
             return null;
         }
 
         @Override
         public void onError(WebSocket webSocket, Throwable error) {
-            log.error("빗썸 WebSocket 오류", error);
+            log.error("빗썸 WebSocket 오류: shard={}", shard, error);
             closeLatch.countDown();
         }
     }
@@ -0,0 +1,60 @@
+package ksh.tryptocollector.exchange.journal;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import ksh.tryptocollector.model.Exchange;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 거래소별 {@link FrameJournal}을 만든다. 캡처가 꺼져 있으면 {@link #journal(Exchange)}가 null을 돌려주고
+ * 핸들러는 수신 경로에서 아무것도 하지 않는다. 재생 모드에서는 재생한 프레임을 다시 기록하지 않도록 항상 꺼진다.
+ */
+@Slf4j
+@Component
+public class FrameCapture {
+    private static final int BYTES_PER_MB = 1024 * 1024;
+
+    private final Map<Exchange, FrameJournal> journals = new EnumMap<>(Exchange.class);
+
+    public FrameCapture(
+            MeterRegistry meterRegistry,
+            @Value("${frame-capture.enabled:false}") boolean enabled,
+            @Value("${frame-replay.enabled:false}") boolean replayEnabled,
+            @Value("${frame-capture.dir:./capture}") String directory,
+            @Value("${frame-capture.segment-size-mb:64}") int segmentSizeMb,
+            @Value("${frame-capture.max-segments:32}") int maxSegments) {
+        if (!enabled || replayEnabled) {
+            return;
+        }
+        for (Exchange exchange : Exchange.values()) {
+            String name = exchange.name().toLowerCase(Locale.ROOT);
+            journals.put(exchange, new FrameJournal(Path.of(directory, name), name,
+                    segmentSizeMb * BYTES_PER_MB, maxSegments,
+                    Counter.builder("frame.capture.bytes")
+                            .tag("exchange", exchange.name())
+                            .baseUnit("bytes")
+                            .register(meterRegistry),
+                    Counter.builder("frame.capture.dropped")
+                            .tag("exchange", exchange.name())
+                            .register(meterRegistry)));
+        }
+        log.info("WebSocket 프레임 캡처 활성화: dir={}, segment={}MB, maxSegments={}", directory, segmentSizeMb, maxSegments);
+    }
+
+    public FrameJournal journal(Exchange exchange) {
+        return journals.get(exchange);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        journals.values().forEach(FrameJournal::close);
+    }
+}
@@ -0,0 +1,186 @@
+package ksh.tryptocollector.exchange.journal;
+
+import io.micrometer.core.instrument.Counter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 거래소 하나의 WebSocket 프레임 조각을 수신 시각과 함께 memory-mapped 세그먼트 파일에 이어 쓴다.
+ * 세그먼트가 차면 새 파일로 넘어가고 {@code maxSegments}를 넘는 오래된 세그먼트는 지운다.
+ * 쓰기는 페이지 캐시까지만 하므로 프로세스가 죽어도 남고, OS가 죽으면 마지막 일부를 잃을 수 있다.
+ *
+ * <p>레코드: {@code [byte kind][byte last][short shard][int length][long epochNanos][payload]}.
+ * kind 0은 세그먼트의 끝(아직 쓰지 않은 0 영역)이다. 샤드 스레드 여럿이 같은 저널에 쓰므로 쓰기는 동기화한다.
+ */
+@Slf4j
+public class FrameJournal implements AutoCloseable {
+    public static final byte KIND_END = 0;
+    public static final byte KIND_TEXT = 1;
+    public static final byte KIND_BINARY = 2;
+    public static final int RECORD_HEADER_SIZE = 16;
+    public static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+    private final String prefix;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final Counter capturedBytes;
+    private final Counter droppedFrames;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final long anchorEpochNanos;
+    private final long anchorNanoTime;
+
+    private MappedByteBuffer segment;
+    private long lastSegmentNanos;
+    private boolean failed;
+
+    public FrameJournal(Path directory, String prefix, int segmentSize, int maxSegments,
+                        Counter capturedBytes, Counter droppedFrames) {
+        this.directory = directory;
+        this.prefix = prefix;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.capturedBytes = capturedBytes;
+        this.droppedFrames = droppedFrames;
+        this.anchorEpochNanos = System.currentTimeMillis() * 1_000_000;
+        this.anchorNanoTime = System.nanoTime();
+    }
+
+    /**
+     * 텍스트 조각을 UTF-8로 세그먼트에 바로 인코딩한다. 세그먼트가 모자라면 새 세그먼트에서 다시 인코딩한다.
+     */
+    public synchronized void append(int shard, CharSequence text, boolean last) {
+        if (!ensureSegment()) {
+            return;
+        }
+        for (int attempt = 0; attempt < 2; attempt++) {
+            int start = segment.position();
+            if (segment.remaining() > RECORD_HEADER_SIZE) {
+                segment.position(start + RECORD_HEADER_SIZE);
+                encoder.reset();
+                CharBuffer chars = CharBuffer.wrap(text);
+                CoderResult result = encoder.encode(chars, segment, true);
+                if (!result.isOverflow()) {
+                    result = encoder.flush(segment);
+                }
+                if (!result.isError() && !result.isOverflow()) {
+                    writeHeader(start, KIND_TEXT, last, shard, segment.position() - start - RECORD_HEADER_SIZE);
+                    return;
+                }
+                segment.position(start);
+                if (result.isError()) {
+                    break;
+                }
+            }
+            if (attempt == 0 && !roll()) {
+                return;
+            }
+        }
+        droppedFrames.increment();
+    }
+
+    public synchronized void append(int shard, ByteBuffer data, boolean last) {
+        if (!ensureSegment()) {
+            return;
+        }
+        int length = data.remaining();
+        if (length > segmentSize - RECORD_HEADER_SIZE) {
+            droppedFrames.increment();
+            return;
+        }
+        if (segment.remaining() < RECORD_HEADER_SIZE + length && !roll()) {
+            return;
+        }
+        int start = segment.position();
+        segment.position(start + RECORD_HEADER_SIZE);
+        segment.put(data.duplicate());
+        writeHeader(start, KIND_BINARY, last, shard, length);
+    }
+
+    @Override
+    public synchronized void close() {
+        segment = null;
+        failed = true;
+    }
+
+    private void writeHeader(int start, byte kind, boolean last, int shard, int length) {
+        long epochNanos = anchorEpochNanos + (System.nanoTime() - anchorNanoTime);
+        segment.put(start + 1, (byte) (last ? 1 : 0));
+        segment.putShort(start + 2, (short) shard);
+        segment.putInt(start + 4, length);
+        segment.putLong(start + 8, epochNanos);
+        // kind를 마지막에 써서 읽는 쪽이 반쯤 쓴 레코드를 끝으로 보게 한다
+        segment.put(start, kind);
+        capturedBytes.increment(RECORD_HEADER_SIZE + length);
+    }
+
+    private boolean ensureSegment() {
+        if (segment != null) {
+            return true;
+        }
+        return !failed && roll();
+    }
+
+    /**
+     * 새 세그먼트를 만든다. 파일을 만들 수 없으면 수신 경로를 막지 않도록 캡처를 멈춘다.
+     */
+    private boolean roll() {
+        try {
+            Files.createDirectories(directory);
+            // 같은 나노초에 두 번 넘어가도 이름이 겹치지 않게 한다
+            long epochNanos = Math.max(lastSegmentNanos + 1, anchorEpochNanos + (System.nanoTime() - anchorNanoTime));
+            lastSegmentNanos = epochNanos;
+            Path path = directory.resolve(String.format("%s-%019d%s", prefix, epochNanos, SEGMENT_SUFFIX));
+            try (FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            }
+            deleteOldSegments();
+            return true;
+        } catch (IOException | UncheckedIOException e) {
+            log.error("프레임 저널 세그먼트 생성 실패, 캡처 중지: {}", directory, e);
+            segment = null;
+            failed = true;
+            return false;
+        }
+    }
+
+    private void deleteOldSegments() throws IOException {
+        List<Path> segments = segments(directory, prefix);
+        for (int i = 0; i < segments.size() - maxSegments; i++) {
+            Files.deleteIfExists(segments.get(i));
+        }
+    }
+
+    /**
+     * 디렉터리의 세그먼트를 오래된 순서로 돌려준다. 파일 이름의 시각이 고정 폭이라 이름순이 곧 시간순이다.
+     */
+    public static List<Path> segments(Path directory, String prefix) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(prefix + "-") && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+}
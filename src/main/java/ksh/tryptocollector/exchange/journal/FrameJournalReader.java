@@ -0,0 +1,89 @@
+package ksh.tryptocollector.exchange.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * {@link FrameJournal} 세그먼트를 오래된 순서로 읽는다. payload는 매핑된 세그먼트의 slice라 복사하지 않으며
+ * 다음 {@link #next()} 호출 전까지만 유효하다. 스레드 안전하지 않다.
+ */
+public class FrameJournalReader {
+    private final List<Path> segments;
+
+    private int nextSegment;
+    private MappedByteBuffer segment;
+
+    private byte kind;
+    private boolean last;
+    private int shard;
+    private long epochNanos;
+    private ByteBuffer payload;
+
+    public FrameJournalReader(Path directory, String prefix) throws IOException {
+        this.segments = FrameJournal.segments(directory, prefix);
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * 다음 레코드로 넘어간다. 더 읽을 레코드가 없으면 false.
+     */
+    public boolean next() throws IOException {
+        while (true) {
+            if (segment != null && segment.remaining() >= FrameJournal.RECORD_HEADER_SIZE) {
+                int start = segment.position();
+                byte recordKind = segment.get(start);
+                int length = segment.getInt(start + 4);
+                if (recordKind != FrameJournal.KIND_END
+                        && length >= 0 && length <= segment.remaining() - FrameJournal.RECORD_HEADER_SIZE) {
+                    kind = recordKind;
+                    last = segment.get(start + 1) != 0;
+                    shard = Short.toUnsignedInt(segment.getShort(start + 2));
+                    epochNanos = segment.getLong(start + 8);
+                    payload = segment.slice(start + FrameJournal.RECORD_HEADER_SIZE, length);
+                    segment.position(start + FrameJournal.RECORD_HEADER_SIZE + length);
+                    return true;
+                }
+            }
+            if (nextSegment == segments.size()) {
+                segment = null;
+                return false;
+            }
+            try (FileChannel channel = FileChannel.open(segments.get(nextSegment++), StandardOpenOption.READ)) {
+                segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+    }
+
+    public boolean isText() {
+        return kind == FrameJournal.KIND_TEXT;
+    }
+
+    public boolean last() {
+        return last;
+    }
+
+    public int shard() {
+        return shard;
+    }
+
+    public long epochNanos() {
+        return epochNanos;
+    }
+
+    public ByteBuffer payload() {
+        return payload.duplicate();
+    }
+
+    public CharSequence text() {
+        return StandardCharsets.UTF_8.decode(payload.duplicate());
+    }
+}
@@ -0,0 +1,143 @@
+package ksh.tryptocollector.exchange.journal;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import ksh.tryptocollector.exchange.ExchangeConnector;
+import ksh.tryptocollector.model.Exchange;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 캡처한 저널을 실시간 수신과 같은 리스너 콜백으로 다시 흘려보낸다. 샤드마다 리스너 하나를 만들고
+ * 모든 조각을 한 스레드에서 기록 순서대로 넘기므로 같은 저널은 항상 같은 순서로 처리된다.
+ * {@code frame-replay.speed}가 1이면 원래 간격, N이면 N배 빠르게, 0 이하면 기다리지 않고 재생한다.
+ */
+@Slf4j
+@Component
+public class FrameReplayer {
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final Duration WHOLE_RUN = Duration.ofDays(1);
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Path directory;
+    private final double speed;
+
+    public FrameReplayer(
+            MeterRegistry meterRegistry,
+            @Value("${frame-replay.enabled:false}") boolean enabled,
+            @Value("${frame-replay.dir:${frame-capture.dir:./capture}}") String directory,
+            @Value("${frame-replay.speed:1}") double speed) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.speed = speed;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 거래소 저널을 끝까지 재생하고 처리량과 조각당 처리 시간 백분위를 로그로 남긴다.
+     */
+    public void replay(ExchangeConnector connector) {
+        Exchange exchange = connector.exchange();
+        String name = exchange.name().toLowerCase(Locale.ROOT);
+        FrameJournalReader reader;
+        try {
+            reader = new FrameJournalReader(directory.resolve(name), name);
+        } catch (IOException e) {
+            log.error("{} 저널 열기 실패: {}", connector.displayName(), directory, e);
+            return;
+        }
+        if (reader.segmentCount() == 0) {
+            log.warn("{} 재생할 저널 없음: {}", connector.displayName(), directory.resolve(name));
+            return;
+        }
+        Timer latency = Timer.builder("frame.replay.latency")
+                .description("재생한 프레임 조각 하나를 수신 리스너가 처리한 시간")
+                .tag("exchange", exchange.name())
+                .publishPercentiles(PERCENTILES)
+                .publishPercentileHistogram()
+                .distributionStatisticExpiry(WHOLE_RUN)
+                .distributionStatisticBufferLength(1)
+                .register(meterRegistry);
+        log.info("{} 저널 재생 시작: {}개 세그먼트, speed={}", connector.displayName(), reader.segmentCount(), speed);
+
+        Map<Integer, WebSocket.Listener> listeners = new HashMap<>();
+        long frames = 0;
+        long bytes = 0;
+        long firstEpochNanos = 0;
+        long lastEpochNanos = 0;
+        long startNanos = System.nanoTime();
+        try {
+            while (!Thread.currentThread().isInterrupted() && reader.next()) {
+                if (frames == 0) {
+                    firstEpochNanos = reader.epochNanos();
+                }
+                lastEpochNanos = reader.epochNanos();
+                if (speed > 0) {
+                    waitUntil(startNanos + (long) ((lastEpochNanos - firstEpochNanos) / speed));
+                }
+                WebSocket.Listener listener = listeners.computeIfAbsent(reader.shard(), connector::replayListener);
+                ByteBuffer payload = reader.payload();
+                bytes += payload.remaining();
+                CharSequence text = reader.isText() ? reader.text() : null;
+                long begin = System.nanoTime();
+                if (text != null) {
+                    listener.onText(ReplayWebSocket.INSTANCE, text, reader.last());
+                } else {
+                    listener.onBinary(ReplayWebSocket.INSTANCE, payload, reader.last());
+                }
+                latency.record(System.nanoTime() - begin, TimeUnit.NANOSECONDS);
+                frames++;
+            }
+        } catch (IOException e) {
+            log.error("{} 저널 읽기 실패, 재생 중단", connector.displayName(), e);
+        } finally {
+            listeners.values().forEach(listener ->
+                    listener.onClose(ReplayWebSocket.INSTANCE, WebSocket.NORMAL_CLOSURE, "replay"));
+        }
+        report(connector.displayName(), latency, frames, bytes,
+                System.nanoTime() - startNanos, lastEpochNanos - firstEpochNanos);
+    }
+
+    private void report(String displayName, Timer latency, long frames, long bytes,
+                        long elapsedNanos, long journalSpanNanos) {
+        double elapsedSeconds = Math.max(elapsedNanos, 1) / 1e9;
+        StringBuilder percentiles = new StringBuilder();
+        HistogramSnapshot snapshot = latency.takeSnapshot();
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            String percentile = BigDecimal.valueOf(value.percentile() * 100).stripTrailingZeros().toPlainString();
+            percentiles.append(String.format(" p%s=%.1fµs", percentile, value.value(TimeUnit.MICROSECONDS)));
+        }
+        log.info("{} 저널 재생 완료: frames={}, bytes={}, elapsed={}ms, {} frames/s, 원본 대비 {}배,{} max={}µs",
+                displayName, frames, bytes, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                String.format("%.0f", frames / elapsedSeconds),
+                String.format("%.2f", journalSpanNanos / (double) Math.max(elapsedNanos, 1)),
+                percentiles, String.format("%.1f", snapshot.max(TimeUnit.MICROSECONDS)));
+    }
+
+    private static void waitUntil(long dueNanos) {
+        long remaining;
+        while ((remaining = dueNanos - System.nanoTime()) > 0 && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package ksh.tryptocollector.exchange.journal;
+
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 재생할 때 리스너 콜백에 넘기는 연결. 리스너가 부르는 {@code request(n)}과 송신은 아무 일도 하지 않는다.
+ */
+final class ReplayWebSocket implements WebSocket {
+    static final ReplayWebSocket INSTANCE = new ReplayWebSocket();
+
+    private ReplayWebSocket() {
+    }
+
+    @Override
+    public CompletableFuture<WebSocket> sendText(CharSequence data, boolean last) {
+        return CompletableFuture.completedFuture(this);
+    }
+
+    @Override
+    public CompletableFuture<WebSocket> sendBinary(ByteBuffer data, boolean last) {
+        return CompletableFuture.completedFuture(this);
+    }
+
+    @Override
+    public CompletableFuture<WebSocket> sendPing(ByteBuffer message) {
+        return CompletableFuture.completedFuture(this);
+    }
+
+    @Override
+    public CompletableFuture<WebSocket> sendPong(ByteBuffer message) {
+        return CompletableFuture.completedFuture(this);
+    }
+
+    @Override
+    public CompletableFuture<WebSocket> sendClose(int statusCode, String reason) {
+        return CompletableFuture.completedFuture(this);
+    }
+
+    @Override
+    public void request(long n) {
+    }
+
+    @Override
+    public String getSubprotocol() {
+        return "";
+    }
+
+    @Override
+    public boolean isOutputClosed() {
+        return false;
+    }
+
+    @Override
+    public boolean isInputClosed() {
+        return false;
+    }
+
+    @Override
+    public void abort() {
+    }
+}
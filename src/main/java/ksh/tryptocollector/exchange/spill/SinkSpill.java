@@ -0,0 +1,252 @@
+package ksh.tryptocollector.exchange.spill;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import ksh.tryptocollector.exchange.SinkHealth;
+import ksh.tryptocollector.exchange.SinkType;
+import ksh.tryptocollector.exchange.TokenBucket;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 싱크별 디스크 spill. 싱크가 실패하거나 받지 못한 레코드를 {@link SpillQueue}에 쌓고,
+ * 싱크마다 드레이너 스레드 하나가 앞에서부터 {@code drain-batch-size}개씩 묶어 한 번에 전달하고,
+ * 전달에 성공한 뒤에야 그 묶음을 큐에서 넘긴다. 전체 속도는 {@code sink.spill.drain-per-second}로 제한한다.
+ * 전달이 실패하면 지수 백오프로 같은 묶음을 다시 시도한다. 싱크 서킷이 열려 있는 동안에는 전달을 시도하지 않고
+ * {@link SinkHealth}가 복구를 확인해 서킷을 닫을 때까지 기다린다.
+ * 큐가 비어 있지 않은 동안에는 새 tick도 큐 뒤에 붙여 싱크가 받는 순서를 지킨다.
+ * 드레이너는 리더일 때만 돈다. 리더가 아닌 인스턴스가 옛 레코드를 보내면 현재 리더의 tick과 순서가 섞인다.
+ */
+@Slf4j
+@Component
+public class SinkSpill {
+    private static final int BYTES_PER_MB = 1024 * 1024;
+    private static final long INITIAL_BACKOFF_MS = 500;
+    private static final long MAX_BACKOFF_MS = 30_000;
+    private static final long IDLE_WAIT_MS = 1_000;
+    private static final long STOP_TIMEOUT_MS = 5_000;
+
+    private final MeterRegistry meterRegistry;
+    private final SinkHealth sinkHealth;
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final double drainPerSecond;
+    private final int drainBatchSize;
+    private final Map<SinkType, SpillLane> lanes = new EnumMap<>(SinkType.class);
+
+    private boolean draining;
+
+    public SinkSpill(
+            MeterRegistry meterRegistry,
+            SinkHealth sinkHealth,
+            @Value("${sink.spill.enabled:false}") boolean enabled,
+            @Value("${sink.spill.dir:./spill}") String directory,
+            @Value("${sink.spill.segment-size-mb:16}") int segmentSizeMb,
+            @Value("${sink.spill.max-size-mb:512}") int maxSizeMb,
+            @Value("${sink.spill.drain-per-second:2000}") double drainPerSecond,
+            @Value("${sink.spill.drain-batch-size:500}") int drainBatchSize) {
+        this.meterRegistry = meterRegistry;
+        this.sinkHealth = sinkHealth;
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.segmentSize = segmentSizeMb * BYTES_PER_MB;
+        this.maxSegments = Math.max(maxSizeMb / segmentSizeMb, 2);
+        this.drainPerSecond = drainPerSecond;
+        this.drainBatchSize = (int) Math.max(Math.min(drainBatchSize, drainPerSecond), 1);
+        if (enabled) {
+            log.info("싱크 spill 활성화: dir={}, segment={}MB, max={}MB, drain={}/s, batch={}",
+                    directory, segmentSizeMb, maxSizeMb, drainPerSecond, this.drainBatchSize);
+        }
+    }
+
+    /**
+     * 싱크의 spill 큐를 연다. 이전 실행이 남긴 레코드는 {@link #startDraining()} 뒤에 전달한다.
+     */
+    public synchronized void register(SinkType sinkType, SpillDelivery delivery) {
+        if (!enabled || lanes.containsKey(sinkType)) {
+            return;
+        }
+        SpillLane lane = new SpillLane(sinkType, delivery);
+        lanes.put(sinkType, lane);
+        if (draining) {
+            lane.start();
+        }
+    }
+
+    /**
+     * 리더가 되면 부른다. 모든 싱크의 드레이너를 시작한다.
+     */
+    public synchronized void startDraining() {
+        draining = true;
+        lanes.values().forEach(SpillLane::start);
+    }
+
+    /**
+     * 리더십을 잃으면 부른다. 드레이너를 멈추고 끝날 때까지 기다린다. 쌓은 레코드와 새 spill은 디스크에 남는다.
+     * 전달 중에 멈추면 그 묶음은 넘기지 않았으므로 다음에 다시 보낸다.
+     */
+    public synchronized void stopDraining() {
+        draining = false;
+        lanes.values().forEach(SpillLane::stop);
+    }
+
+    /**
+     * 큐에 전달을 기다리는 레코드가 있으면 true. 이때 새 tick은 싱크 대신 {@link #spill}로 보내야 순서가 지켜진다.
+     */
+    public boolean isBacklogged(SinkType sinkType) {
+        SpillLane lane = lanes.get(sinkType);
+        return lane != null && !lane.queue.isEmpty();
+    }
+
+    public boolean spill(SinkType sinkType, byte[] record) {
+        return spill(sinkType, record, 0, record.length);
+    }
+
+    /**
+     * 레코드를 큐 뒤에 붙인다. spill이 꺼져 있거나 용량이 다 찼으면 버리고 false.
+     */
+    public boolean spill(SinkType sinkType, byte[] record, int offset, int length) {
+        SpillLane lane = lanes.get(sinkType);
+        if (lane == null) {
+            return false;
+        }
+        boolean wasEmpty = lane.queue.isEmpty();
+        if (!lane.queue.append(record, offset, length)) {
+            lane.droppedCounter.increment();
+            return false;
+        }
+        lane.spilledCounter.increment();
+        if (wasEmpty) {
+            log.warn("{} 싱크 spill 시작", sinkType);
+        }
+        return true;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        stopDraining();
+    }
+
+    @FunctionalInterface
+    public interface SpillDelivery {
+
+        /**
+         * 큐 앞쪽 레코드 묶음을 순서대로 싱크에 전달하고, 싱크가 받은 뒤에 돌아온다.
+         * 예외를 던지면 같은 묶음을 나중에 다시 시도한다. 일부만 전달됐다면 그 레코드는 다시 보낸다(at-least-once).
+         */
+        void deliver(List<ByteBuffer> records) throws Exception;
+    }
+
+    private final class SpillLane {
+        private final SinkType sinkType;
+        private final SpillDelivery delivery;
+        private final SpillQueue queue;
+        private final TokenBucket budget;
+        private final Counter spilledCounter;
+        private final Counter drainedCounter;
+        private final Counter droppedCounter;
+
+        private Thread drainer;
+
+        SpillLane(SinkType sinkType, SpillDelivery delivery) {
+            this.sinkType = sinkType;
+            this.delivery = delivery;
+            this.queue = new SpillQueue(directory.resolve(sinkType.getTag()), sinkType.getTag(), segmentSize, maxSegments);
+            this.budget = new TokenBucket(drainPerSecond, drainPerSecond);
+            this.spilledCounter = records("spilled");
+            this.drainedCounter = records("drained");
+            this.droppedCounter = records("dropped");
+            Gauge.builder("sink.spill.depth", queue, SpillQueue::depth)
+                    .tag("sink", sinkType.getTag())
+                    .register(meterRegistry);
+            Gauge.builder("sink.spill.oldest-age", queue, SpillQueue::oldestAgeMs)
+                    .tag("sink", sinkType.getTag())
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        }
+
+        void start() {
+            if (drainer != null) {
+                return;
+            }
+            drainer = new Thread(this::drainLoop, "sink-spill-" + sinkType.getTag());
+            drainer.setDaemon(true);
+            drainer.start();
+        }
+
+        void stop() {
+            if (drainer == null) {
+                return;
+            }
+            drainer.interrupt();
+            try {
+                drainer.join(STOP_TIMEOUT_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            drainer = null;
+        }
+
+        private void drainLoop() {
+            long backoffMs = INITIAL_BACKOFF_MS;
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    if (!queue.awaitNotEmpty(IDLE_WAIT_MS, TimeUnit.MILLISECONDS)) {
+                        continue;
+                    }
+                    if (!sinkHealth.isAvailable(sinkType)) {
+                        Thread.sleep(INITIAL_BACKOFF_MS);
+                        backoffMs = INITIAL_BACKOFF_MS;
+                        continue;
+                    }
+                    List<ByteBuffer> records = queue.peek(drainBatchSize);
+                    if (records.isEmpty()) {
+                        continue;
+                    }
+                    if (!budget.tryAcquire(records.size())) {
+                        Thread.sleep(Math.max(budget.millisUntil(records.size()), 1));
+                        continue;
+                    }
+                    try {
+                        delivery.deliver(records);
+                    } catch (InterruptedException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        log.warn("{} spill 전달 실패, {}ms 후 재시도 (잔여 {}건): {}",
+                                sinkType, backoffMs, queue.depth(), e.getMessage());
+                        Thread.sleep(backoffMs);
+                        backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+                        continue;
+                    }
+                    backoffMs = INITIAL_BACKOFF_MS;
+                    queue.commit(records.size());
+                    drainedCounter.increment(records.size());
+                    if (queue.isEmpty()) {
+                        log.info("{} 싱크 spill 전달 완료", sinkType);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private Counter records(String result) {
+            return Counter.builder("sink.spill.records")
+                    .tag("sink", sinkType.getTag())
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package ksh.tryptocollector.exchange.spill;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * memory-mapped 세그먼트 파일 위의 FIFO 큐. 싱크 하나가 받지 못한 레코드를 순서대로 쌓고,
+ * 드레이너 하나가 {@link #peek(int)}으로 앞쪽 레코드를 보고 전달에 성공하면 {@link #commit(int)}으로 넘긴다.
+ * 세그먼트 수가 상한에 닿으면 새 레코드를 버린다. 다 읽은 세그먼트는 지운다.
+ *
+ * <p>레코드: {@code [byte kind][3 bytes 예약][int length][long epochMillis][payload]}. kind 0은 아직 쓰지 않은 영역이다.
+ * {@link #commit(int)}은 넘긴 레코드의 kind를 {@value #KIND_COMMITTED}로 덮어써, 재시작하면 그 뒤부터 읽는다.
+ * 표시가 파일에 닿기 전에 죽으면 마지막으로 넘긴 레코드를 다시 보낸다(at-least-once).
+ *
+ * <p>{@link #depth()}는 tick마다 불리므로 잠금 없이 volatile 필드를 읽는다. 바꾸는 쪽은 모두 잠금 안에 있다.
+ */
+@Slf4j
+public class SpillQueue {
+    public static final String SEGMENT_SUFFIX = ".spill";
+    private static final byte KIND_RECORD = 1;
+    private static final byte KIND_COMMITTED = 2;
+    private static final int RECORD_HEADER_SIZE = 16;
+
+    private final Path directory;
+    private final String prefix;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+
+    private volatile long depth;
+    private long lastSegmentMillis;
+    private boolean failed;
+
+    public SpillQueue(Path directory, String prefix, int segmentSize, int maxSegments) {
+        this.directory = directory;
+        this.prefix = prefix;
+        this.segmentSize = segmentSize;
+        this.maxSegments = Math.max(maxSegments, 2);
+        recover();
+    }
+
+    /**
+     * 레코드를 큐 끝에 붙인다. 용량이 모자라거나 세그먼트를 만들 수 없으면 false.
+     */
+    public boolean append(byte[] data, int offset, int length) {
+        if (length > segmentSize - RECORD_HEADER_SIZE) {
+            return false;
+        }
+        lock.lock();
+        try {
+            head();
+            Segment tail = segments.peekLast();
+            if (tail == null || tail.sealed || segmentSize - tail.writePosition < RECORD_HEADER_SIZE + length) {
+                if (segments.size() >= maxSegments || (tail = roll()) == null) {
+                    return false;
+                }
+            }
+            MappedByteBuffer buffer = tail.buffer;
+            int start = tail.writePosition;
+            buffer.putInt(start + 4, length);
+            buffer.putLong(start + 8, System.currentTimeMillis());
+            buffer.put(start + RECORD_HEADER_SIZE, data, offset, length);
+            buffer.put(start, KIND_RECORD);
+            tail.writePosition = start + RECORD_HEADER_SIZE + length;
+            if (depth++ == 0) {
+                notEmpty.signalAll();
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 맨 앞 레코드의 payload를 돌려준다. 비어 있으면 null. {@link #commit()} 전까지는 같은 레코드를 돌려준다.
+     */
+    public ByteBuffer peek() {
+        lock.lock();
+        try {
+            Segment head = head();
+            if (head == null) {
+                return null;
+            }
+            int length = head.buffer.getInt(head.readPosition + 4);
+            return head.buffer.slice(head.readPosition + RECORD_HEADER_SIZE, length).asReadOnlyBuffer();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 앞에서부터 최대 {@code maxRecords}개 레코드의 payload를 순서대로 돌려준다. 세그먼트 경계를 넘어 읽는다.
+     * {@link #commit(int)} 전까지는 같은 레코드를 돌려준다.
+     */
+    public List<ByteBuffer> peek(int maxRecords) {
+        lock.lock();
+        try {
+            List<ByteBuffer> records = new ArrayList<>((int) Math.min(maxRecords, depth));
+            head();
+            for (Segment segment : segments) {
+                int position = segment.readPosition;
+                while (position < segment.writePosition && records.size() < maxRecords) {
+                    int length = segment.buffer.getInt(position + 4);
+                    records.add(segment.buffer.slice(position + RECORD_HEADER_SIZE, length).asReadOnlyBuffer());
+                    position += RECORD_HEADER_SIZE + length;
+                }
+                if (records.size() >= maxRecords) {
+                    break;
+                }
+            }
+            return records;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void commit() {
+        commit(1);
+    }
+
+    /**
+     * 앞에서부터 {@code count}개 레코드를 넘기고 파일에도 넘겼다고 표시한다.
+     */
+    public void commit(int count) {
+        lock.lock();
+        try {
+            for (int i = 0; i < count; i++) {
+                Segment head = head();
+                if (head == null) {
+                    return;
+                }
+                head.buffer.put(head.readPosition, KIND_COMMITTED);
+                head.readPosition += RECORD_HEADER_SIZE + head.buffer.getInt(head.readPosition + 4);
+                depth--;
+            }
+            head();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 레코드가 들어오거나 시간이 다 될 때까지 기다린다.
+     */
+    public boolean awaitNotEmpty(long timeout, TimeUnit unit) throws InterruptedException {
+        lock.lock();
+        try {
+            long remaining = unit.toNanos(timeout);
+            while (depth == 0) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = notEmpty.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long depth() {
+        return depth;
+    }
+
+    public boolean isEmpty() {
+        return depth() == 0;
+    }
+
+    /**
+     * 맨 앞 레코드가 쌓인 뒤 지난 시간(ms). 비어 있으면 0.
+     */
+    public long oldestAgeMs() {
+        lock.lock();
+        try {
+            Segment head = head();
+            if (head == null) {
+                return 0;
+            }
+            return Math.max(0, System.currentTimeMillis() - head.buffer.getLong(head.readPosition + 8));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 다 읽은 세그먼트를 지우고 읽을 레코드가 남은 첫 세그먼트를 돌려준다.
+     */
+    private Segment head() {
+        while (!segments.isEmpty()) {
+            Segment head = segments.peekFirst();
+            if (head.readPosition < head.writePosition) {
+                return head;
+            }
+            if (head == segments.peekLast() && !head.sealed) {
+                return null;
+            }
+            segments.pollFirst();
+            try {
+                Files.deleteIfExists(head.path);
+            } catch (IOException e) {
+                log.warn("다 읽은 spill 세그먼트 삭제 실패: {}", head.path, e);
+            }
+        }
+        return null;
+    }
+
+    private Segment roll() {
+        if (failed) {
+            return null;
+        }
+        try {
+            Files.createDirectories(directory);
+            long millis = Math.max(lastSegmentMillis + 1, System.currentTimeMillis());
+            lastSegmentMillis = millis;
+            Path path = directory.resolve(String.format("%s-%019d%s", prefix, millis, SEGMENT_SUFFIX));
+            Segment segment;
+            try (FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                segment = new Segment(path, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize), false);
+            }
+            segments.addLast(segment);
+            return segment;
+        } catch (IOException e) {
+            log.error("spill 세그먼트 생성 실패, 이후 spill 중지: {}", directory, e);
+            failed = true;
+            return null;
+        }
+    }
+
+    /**
+     * 이전 실행이 남긴 세그먼트를 읽어 큐 앞에 둔다. 앞쪽의 넘긴 레코드는 건너뛰고, 다 넘긴 세그먼트는 첫 {@link #head()}가 지운다.
+     * 이어 쓰지 않고 새 레코드는 새 세그먼트에 쓴다.
+     */
+    private void recover() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<Path> paths;
+        try (Stream<Path> files = Files.list(directory)) {
+            paths = files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(prefix + "-") && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            log.error("spill 디렉터리 조회 실패: {}", directory, e);
+            return;
+        }
+        for (Path path : paths) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                Segment segment = new Segment(path, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()), true);
+                MappedByteBuffer buffer = segment.buffer;
+                int position = 0;
+                while (buffer.capacity() - position >= RECORD_HEADER_SIZE) {
+                    byte kind = buffer.get(position);
+                    int length = buffer.getInt(position + 4);
+                    if ((kind != KIND_RECORD && kind != KIND_COMMITTED)
+                            || length < 0 || length > buffer.capacity() - position - RECORD_HEADER_SIZE) {
+                        break;
+                    }
+                    boolean committed = kind == KIND_COMMITTED && segment.readPosition == position;
+                    position += RECORD_HEADER_SIZE + length;
+                    if (committed) {
+                        segment.readPosition = position;
+                    } else {
+                        depth++;
+                    }
+                }
+                segment.writePosition = position;
+                segments.addLast(segment);
+            } catch (IOException e) {
+                log.error("spill 세그먼트 복구 실패, 건너뜀: {}", path, e);
+            }
+        }
+        if (depth > 0) {
+            log.info("spill 세그먼트 복구: {} {}개 세그먼트, {}건", prefix, segments.size(), depth);
+        }
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private final boolean sealed;
+        private int writePosition;
+        private int readPosition;
+
+        Segment(Path path, MappedByteBuffer buffer, boolean sealed) {
+            this.path = path;
+            this.buffer = buffer;
+            this.sealed = sealed;
+        }
+    }
+}
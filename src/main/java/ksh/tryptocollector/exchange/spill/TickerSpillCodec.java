@@ -0,0 +1,87 @@
+package ksh.tryptocollector.exchange.spill;
+
+import ksh.tryptocollector.model.FixedDecimal;
+import ksh.tryptocollector.model.NormalizedTicker;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+
+/**
+ * spill 레코드에 싣는 {@link NormalizedTicker} 바이너리 표현. 문자열은 {@code [short length][UTF-8]},
+ * 수치는 {@code [int scale][long unscaled]}이고 스케일이 {@link FixedDecimal#OVERFLOW_SCALE}이면 가수 대신 문자열이다.
+ * 심볼 ID는 프로세스마다 달라질 수 있어 싣지 않는다.
+ */
+public final class TickerSpillCodec {
+
+    private TickerSpillCodec() {
+    }
+
+    public static byte[] encode(NormalizedTicker ticker) {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        buffer = putString(buffer, ticker.exchange());
+        buffer = putString(buffer, ticker.base());
+        buffer = putString(buffer, ticker.quote());
+        buffer = putString(buffer, ticker.displayName());
+        buffer = putDecimal(buffer, ticker.lastPriceUnscaled(), ticker.lastPriceScale(), ticker::lastPrice);
+        buffer = putDecimal(buffer, ticker.changeRateUnscaled(), ticker.changeRateScale(), ticker::changeRate);
+        buffer = putDecimal(buffer, ticker.quoteTurnoverUnscaled(), ticker.quoteTurnoverScale(), ticker::quoteTurnover);
+        buffer = ensure(buffer, Long.BYTES);
+        buffer.putLong(ticker.tsMs());
+        byte[] bytes = new byte[buffer.position()];
+        buffer.flip().get(bytes);
+        return bytes;
+    }
+
+    public static NormalizedTicker decode(ByteBuffer buffer) {
+        String exchange = getString(buffer);
+        String base = getString(buffer);
+        String quote = getString(buffer);
+        String displayName = getString(buffer);
+        FixedDecimal lastPrice = getDecimal(buffer);
+        FixedDecimal changeRate = getDecimal(buffer);
+        FixedDecimal quoteTurnover = getDecimal(buffer);
+        long tsMs = buffer.getLong();
+        return new NormalizedTicker(exchange, base, quote, displayName, lastPrice, changeRate, quoteTurnover, tsMs);
+    }
+
+    private static ByteBuffer putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer = ensure(buffer, Short.BYTES + bytes.length);
+        buffer.putShort((short) bytes.length);
+        return buffer.put(bytes);
+    }
+
+    private static ByteBuffer putDecimal(ByteBuffer buffer, long unscaled, int scale,
+                                         Supplier<BigDecimal> overflow) {
+        buffer = ensure(buffer, Integer.BYTES + Long.BYTES);
+        buffer.putInt(scale);
+        if (scale == FixedDecimal.OVERFLOW_SCALE) {
+            return putString(buffer, overflow.get().toString());
+        }
+        return buffer.putLong(unscaled);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static FixedDecimal getDecimal(ByteBuffer buffer) {
+        int scale = buffer.getInt();
+        if (scale == FixedDecimal.OVERFLOW_SCALE) {
+            return new FixedDecimal().set(new BigDecimal(getString(buffer)));
+        }
+        return new FixedDecimal().set(buffer.getLong(), scale);
+    }
+
+    private static ByteBuffer ensure(ByteBuffer buffer, int bytes) {
+        if (buffer.remaining() >= bytes) {
+            return buffer;
+        }
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+        return grown.put(buffer.flip());
+    }
+}
@@ -0,0 +1,171 @@
+package ksh.tryptocollector.exchange.upbit;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * 바이너리 프레임 조각을 재사용 버퍼에 모으고, gzip이면 재사용 {@link Inflater}로 출력 버퍼에 바로 푼다.
+ * 결과는 {@link #payload()}의 {@code [0, payloadLength())} 구간이며 다음 {@link #complete()} 전까지만 유효하다.
+ * WebSocket 연결 하나가 하나를 소유하며 스레드 안전하지 않다.
+ */
+public class GzipFrameAssembler {
+    private static final int INITIAL_CAPACITY = 4 * 1024;
+    private static final int MAX_RETAINED_CAPACITY = 256 * 1024;
+
+    private static final int GZIP_HEADER_SIZE = 10;
+    private static final int GZIP_TRAILER_SIZE = 8;
+    private static final int FHCRC = 0x02;
+    private static final int FEXTRA = 0x04;
+    private static final int FNAME = 0x08;
+    private static final int FCOMMENT = 0x10;
+
+    private final Inflater inflater = new Inflater(true);
+    private final CRC32 crc = new CRC32();
+
+    private byte[] frame = new byte[INITIAL_CAPACITY];
+    private int frameLength;
+    private byte[] inflated = new byte[INITIAL_CAPACITY];
+    private byte[] payload;
+    private int payloadLength;
+
+    public void append(ByteBuffer data) {
+        int remaining = data.remaining();
+        frame = ensureCapacity(frame, frameLength, frameLength + remaining);
+        data.get(frame, frameLength, remaining);
+        frameLength += remaining;
+    }
+
+    /**
+     * 모은 프레임을 확정한다. gzip 매직 바이트로 시작하면 풀어서, 아니면 그대로 payload로 노출한다.
+     */
+    public void complete() throws DataFormatException {
+        try {
+            if (isGzip()) {
+                payloadLength = inflate();
+                payload = inflated;
+            } else {
+                payload = frame;
+                payloadLength = frameLength;
+            }
+        } finally {
+            frameLength = 0;
+        }
+    }
+
+    public byte[] payload() {
+        return payload;
+    }
+
+    public int payloadLength() {
+        return payloadLength;
+    }
+
+    /**
+     * 유난히 큰 메시지로 커진 버퍼는 보관하지 않고 초기 크기로 되돌린다.
+     */
+    public void trim() {
+        if (frame.length > MAX_RETAINED_CAPACITY) {
+            frame = new byte[INITIAL_CAPACITY];
+        }
+        if (inflated.length > MAX_RETAINED_CAPACITY) {
+            inflated = new byte[INITIAL_CAPACITY];
+        }
+    }
+
+    public void close() {
+        inflater.end();
+    }
+
+    private boolean isGzip() {
+        return frameLength > 2 && frame[0] == (byte) 0x1f && frame[1] == (byte) 0x8b;
+    }
+
+    private int inflate() throws DataFormatException {
+        int offset = skipHeader();
+        inflater.reset();
+        inflater.setInput(frame, offset, frameLength - offset);
+        int length = 0;
+        while (!inflater.finished()) {
+            if (length == inflated.length) {
+                inflated = ensureCapacity(inflated, length, length + 1);
+            }
+            int n = inflater.inflate(inflated, length, inflated.length - length);
+            if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                throw new DataFormatException("gzip 본문이 중간에 끝남");
+            }
+            length += n;
+        }
+        verifyTrailer(frameLength - inflater.getRemaining(), length);
+        return length;
+    }
+
+    private int skipHeader() throws DataFormatException {
+        if (frameLength < GZIP_HEADER_SIZE + GZIP_TRAILER_SIZE || frame[2] != 8) {
+            throw new DataFormatException("gzip 헤더가 아님");
+        }
+        int flags = frame[3] & 0xff;
+        int offset = GZIP_HEADER_SIZE;
+        if ((flags & FEXTRA) != 0) {
+            offset += 2 + readUnsignedShort(offset);
+        }
+        if ((flags & FNAME) != 0) {
+            offset = skipZeroTerminated(offset);
+        }
+        if ((flags & FCOMMENT) != 0) {
+            offset = skipZeroTerminated(offset);
+        }
+        if ((flags & FHCRC) != 0) {
+            offset += 2;
+        }
+        if (offset >= frameLength) {
+            throw new DataFormatException("gzip 헤더가 프레임보다 김");
+        }
+        return offset;
+    }
+
+    private void verifyTrailer(int offset, int length) throws DataFormatException {
+        if (frameLength - offset < GZIP_TRAILER_SIZE) {
+            throw new DataFormatException("gzip 트레일러 누락");
+        }
+        crc.reset();
+        crc.update(inflated, 0, length);
+        if (readInt(offset) != (int) crc.getValue()) {
+            throw new DataFormatException("gzip CRC 불일치");
+        }
+        if (readInt(offset + 4) != length) {
+            throw new DataFormatException("gzip 크기 불일치");
+        }
+    }
+
+    private int skipZeroTerminated(int offset) throws DataFormatException {
+        while (offset < frameLength) {
+            if (frame[offset++] == 0) {
+                return offset;
+            }
+        }
+        throw new DataFormatException("gzip 헤더 문자열이 끝나지 않음");
+    }
+
+    private int readUnsignedShort(int offset) {
+        return (frame[offset] & 0xff) | (frame[offset + 1] & 0xff) << 8;
+    }
+
+    private int readInt(int offset) {
+        return readUnsignedShort(offset) | readUnsignedShort(offset + 2) << 16;
+    }
+
+    private static byte[] ensureCapacity(byte[] buffer, int used, int required) {
+        if (required <= buffer.length) {
+            return buffer;
+        }
+        int capacity = buffer.length;
+        while (capacity < required) {
+            capacity <<= 1;
+        }
+        byte[] grown = new byte[capacity];
+        System.arraycopy(buffer, 0, grown, 0, used);
+        return grown;
+    }
+}
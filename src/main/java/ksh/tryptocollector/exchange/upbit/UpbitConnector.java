@@ -0,0 +1,72 @@
+package ksh.tryptocollector.exchange.upbit;
+
+import ksh.tryptocollector.exchange.ExchangeConnector;
+import ksh.tryptocollector.metadata.MarketInfoCache;
+import ksh.tryptocollector.model.Exchange;
+import ksh.tryptocollector.model.MarketInfo;
+import ksh.tryptocollector.redis.MarketMetadataRedisRepository;
+import ksh.tryptocollector.redis.TickerRedisRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.http.WebSocket;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UpbitConnector implements ExchangeConnector {
+
+    private final MarketInfoCache marketInfoCache;
+    private final TickerRedisRepository tickerRedisRepository;
+    private final MarketMetadataRedisRepository marketMetadataRedisRepository;
+    private final UpbitRestClient upbitRestClient;
+    private final UpbitWebSocketHandler upbitWebSocketHandler;
+
+    @Override
+    public Exchange exchange() {
+        return Exchange.UPBIT;
+    }
+
+    @Override
+    public String displayName() {
+        return "업비트";
+    }
+
+    @Override
+    public void loadMetadata() {
+        List<MarketInfo> infos = upbitRestClient.fetchKrwMarkets();
+        List<String> marketCodes = new ArrayList<>();
+        Map<String, MarketInfo> infoByMarket = new LinkedHashMap<>();
+        for (MarketInfo info : infos) {
+            String marketCode = "KRW-" + info.base();
+            marketCodes.add(marketCode);
+            infoByMarket.put(marketCode, info);
+        }
+        marketInfoCache.putAll(Exchange.UPBIT, infoByMarket);
+        log.info("업비트 마켓 메타데이터 로드 완료: {}개", infos.size());
+        marketMetadataRedisRepository.save(Exchange.UPBIT, infos);
+
+        List<UpbitTickerResponse> tickers = upbitRestClient.fetchKrwTickers(marketCodes);
+        MarketInfoCache.Snapshot markets = marketInfoCache.snapshot(Exchange.UPBIT);
+        for (UpbitTickerResponse ticker : tickers) {
+            int symbolId = markets.findId(ticker.market());
+            tickerRedisRepository.save(ticker.toNormalized(symbolId, markets.marketInfo(symbolId)));
+        }
+        log.info("업비트 초기 시세 스냅샷 저장 완료: {}개", tickers.size());
+    }
+
+    @Override
+    public void connect() {
+        upbitWebSocketHandler.connect();
+    }
+
+    @Override
+    public WebSocket.Listener replayListener(int shard) {
+        return upbitWebSocketHandler.replayListener(shard);
+    }
+}
@@ -1,7 +1,10 @@
 package ksh.tryptocollector.exchange.upbit;
 
+import ksh.tryptocollector.exchange.RemainingReqHeader;
+import ksh.tryptocollector.exchange.TickerPollResult;
 import ksh.tryptocollector.model.MarketInfo;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 
@@ -42,14 +45,20 @@ public class UpbitRestClient {
     }
 
     public List<UpbitTickerResponse> fetchKrwTickers(List<String> marketCodes) {
+        return pollKrwTickers(marketCodes).tickers();
+    }
+
+    public TickerPollResult<UpbitTickerResponse> pollKrwTickers(List<String> marketCodes) {
         String markets = String.join(",", marketCodes);
-        UpbitTickerResponse[] responses = restClient.get()
+        ResponseEntity<UpbitTickerResponse[]> response = restClient.get()
                 .uri(tickerUrl + "?markets=" + markets)
                 .retrieve()
-                .body(UpbitTickerResponse[].class);
+                .toEntity(UpbitTickerResponse[].class);
+        double remaining = RemainingReqHeader.remainingPerSecond(response.getHeaders().getFirst(RemainingReqHeader.NAME));
+        UpbitTickerResponse[] responses = response.getBody();
         if (responses == null) {
-            return List.of();
+            return new TickerPollResult<>(List.of(), remaining);
         }
-        return Arrays.asList(responses);
+        return new TickerPollResult<>(Arrays.asList(responses), remaining);
     }
 }
@@ -1,17 +1,28 @@
 package ksh.tryptocollector.exchange.upbit;
 
 import ksh.tryptocollector.exchange.ExchangeTickerPoller;
-import ksh.tryptocollector.exchange.NormalizableTicker;
+import ksh.tryptocollector.exchange.TickerPollResult;
+import ksh.tryptocollector.exchange.TokenBucket;
 import ksh.tryptocollector.model.Exchange;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 
 @Component
-@RequiredArgsConstructor
 public class UpbitTickerPoller implements ExchangeTickerPoller {
     private final UpbitRestClient upbitRestClient;
+    private final int chunkSize;
+    private final TokenBucket budget;
+
+    public UpbitTickerPoller(
+            UpbitRestClient upbitRestClient,
+            @Value("${rest-fallback.upbit.chunk-size:50}") int chunkSize,
+            @Value("${rest-fallback.upbit.requests-per-second:8}") double requestsPerSecond) {
+        this.upbitRestClient = upbitRestClient;
+        this.chunkSize = chunkSize;
+        this.budget = new TokenBucket(requestsPerSecond, requestsPerSecond);
+    }
 
     @Override
     public Exchange exchange() {
@@ -19,7 +30,22 @@ public class UpbitTickerPoller implements ExchangeTickerPoller {
     }
 
     @Override
-    public List<? extends NormalizableTicker> fetch(List<String> symbolCodes) {
-        return upbitRestClient.fetchKrwTickers(symbolCodes);
+    public int chunkSize() {
+        return chunkSize;
+    }
+
+    @Override
+    public double requestWeight() {
+        return 1;
+    }
+
+    @Override
+    public TokenBucket budget() {
+        return budget;
+    }
+
+    @Override
+    public TickerPollResult<?> fetch(List<String> symbolCodes) {
+        return upbitRestClient.pollKrwTickers(symbolCodes);
     }
 }
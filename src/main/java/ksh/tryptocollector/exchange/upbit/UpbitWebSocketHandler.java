@@ -1,10 +1,15 @@
 package ksh.tryptocollector.exchange.upbit;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
+import ksh.tryptocollector.exchange.ConnectionShards;
 import ksh.tryptocollector.exchange.ExchangeTickerStream;
 import ksh.tryptocollector.exchange.RestPollingFallback;
+import ksh.tryptocollector.exchange.TickerJsonReader;
 import ksh.tryptocollector.exchange.TickerSinkProcessor;
+import ksh.tryptocollector.exchange.journal.FrameCapture;
+import ksh.tryptocollector.exchange.journal.FrameJournal;
 import ksh.tryptocollector.metadata.MarketInfoCache;
 import ksh.tryptocollector.model.Exchange;
 import lombok.extern.slf4j.Slf4j;
@@ -12,45 +17,65 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import tools.jackson.databind.ObjectMapper;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.WebSocket;
 import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.CountDownLatch;
-import java.util.zip.GZIPInputStream;
 
 @Slf4j
 @Component
 public class UpbitWebSocketHandler implements ExchangeTickerStream {
-    private static final int GZIP_BUFFER_SIZE = 1024;
     private static final long MAX_BACKOFF_SECONDS = 60;
+    private static final com.sun.management.ThreadMXBean ALLOCATION_MX_BEAN = allocationMxBean();
 
     private final HttpClient httpClient = HttpClient.newHttpClient();
     private final ObjectMapper objectMapper;
     private final MarketInfoCache marketInfoCache;
     private final TickerSinkProcessor tickerSinkProcessor;
     private final RestPollingFallback restPollingFallback;
-    private final Counter reconnectCounter;
-    private final Counter parseFailureCounter;
+    private final FrameCapture frameCapture;
+    private final int shardCount;
+    private final Counter[] reconnectCounters;
+    private final Counter[] parseFailureCounters;
+    private final DistributionSummary[] frameAllocationSummaries;
 
     public UpbitWebSocketHandler(ObjectMapper objectMapper, MarketInfoCache marketInfoCache,
                                  TickerSinkProcessor tickerSinkProcessor, RestPollingFallback restPollingFallback,
-                                 MeterRegistry registry) {
+                                 FrameCapture frameCapture, MeterRegistry registry,
+                                 @Value("${exchange.upbit.ws-shards:1}") int shardCount) {
         this.objectMapper = objectMapper;
         this.marketInfoCache = marketInfoCache;
         this.tickerSinkProcessor = tickerSinkProcessor;
         this.restPollingFallback = restPollingFallback;
-        this.reconnectCounter = Counter.builder("websocket.reconnect")
-                .tag("exchange", Exchange.UPBIT.name())
-                .register(registry);
-        this.parseFailureCounter = Counter.builder("ticker.parse.failure")
-                .tag("exchange", Exchange.UPBIT.name())
-                .register(registry);
+        this.frameCapture = frameCapture;
+        this.shardCount = shardCount;
+        this.reconnectCounters = new Counter[shardCount];
+        this.parseFailureCounters = new Counter[shardCount];
+        this.frameAllocationSummaries = new DistributionSummary[shardCount];
+        for (int shard = 0; shard < shardCount; shard++) {
+            reconnectCounters[shard] = Counter.builder("websocket.reconnect")
+                    .tag("exchange", Exchange.UPBIT.name())
+                    .tag("shard", String.valueOf(shard))
+                    .register(registry);
+            parseFailureCounters[shard] = Counter.builder("ticker.parse.failure")
+                    .tag("exchange", Exchange.UPBIT.name())
+                    .tag("shard", String.valueOf(shard))
+                    .register(registry);
+            frameAllocationSummaries[shard] = DistributionSummary.builder("websocket.frame.allocation")
+                    .description("메시지 하나를 조립·해제·역직렬화하는 동안 수신 스레드가 할당한 바이트")
+                    .baseUnit("bytes")
+                    .tag("exchange", Exchange.UPBIT.name())
+                    .tag("shard", String.valueOf(shard))
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
     }
 
     @Value("${exchange.upbit.ws-url}")
@@ -58,68 +83,90 @@ public class UpbitWebSocketHandler implements ExchangeTickerStream {
 
     @Override
     public void connect() {
+        ConnectionShards.run("upbit-ws", shardCount, this::connectShard);
+    }
+
+    private void connectShard(int shard) {
         int retryCount = 0;
         while (!Thread.currentThread().isInterrupted()) {
             try {
                 CountDownLatch closeLatch = new CountDownLatch(1);
                 WebSocket ws = httpClient.newWebSocketBuilder()
-                        .buildAsync(URI.create(wsUrl), new UpbitListener(closeLatch))
+                        .buildAsync(URI.create(wsUrl), new UpbitListener(shard, closeLatch, frameCapture.journal(Exchange.UPBIT)))
                         .join();
-                String subscribeMessage = buildSubscribeMessage();
+                String subscribeMessage = buildSubscribeMessage(shard);
                 ws.sendText(subscribeMessage, true);
-                log.info("업비트 WebSocket 연결 시작");
-                restPollingFallback.stop(Exchange.UPBIT);
+                log.info("업비트 WebSocket 연결 시작: shard={}", shard);
+                restPollingFallback.stop(Exchange.UPBIT, shard);
                 retryCount = 0;
                 closeLatch.await();
             } catch (Exception e) {
                 if (Thread.currentThread().isInterrupted() || e instanceof InterruptedException) {
-                    log.info("업비트 WebSocket 스레드 종료");
+                    log.info("업비트 WebSocket 스레드 종료: shard={}", shard);
                     return;
                 }
-                reconnectCounter.increment();
-                log.warn("업비트 WebSocket 연결 끊김, 재연결 시도 #{}", retryCount + 1, e);
-                restPollingFallback.start(Exchange.UPBIT);
+                reconnectCounters[shard].increment();
+                log.warn("업비트 WebSocket 연결 끊김, 재연결 시도 #{}: shard={}", retryCount + 1, shard, e);
+                restPollingFallback.start(Exchange.UPBIT, shard, shardCount);
                 backoff(retryCount++);
             }
         }
     }
 
-    private String buildSubscribeMessage() {
-        List<String> codes = marketInfoCache.getSymbolCodes(Exchange.UPBIT);
-        log.info("업비트 WebSocket 구독: {} 마켓", codes.size());
+    @Override
+    public WebSocket.Listener replayListener(int shard) {
+        return new UpbitListener(shard, new CountDownLatch(1), null);
+    }
+
+    private String buildSubscribeMessage(int shard) {
+        List<String> codes = ConnectionShards.codesOf(marketInfoCache.getSymbolCodes(Exchange.UPBIT), shard, shardCount);
+        log.info("업비트 WebSocket 구독: {} 마켓, shard={}", codes.size(), shard);
         return "[{\"ticket\":\"trypto-collector\"},{\"type\":\"ticker\",\"codes\":" +
                 objectMapper.writeValueAsString(codes) + "}]";
     }
 
-    private void handleMessage(byte[] payload) {
+    /**
+     * 조각을 모은 프레임을 확정해 재사용 버퍼의 구간 그대로 읽는다.
+     * 스레드 할당량 측정을 지원하는 JVM이면 이 구간에서 할당한 바이트를 메시지마다 기록한다.
+     */
+    private void handleMessage(int shard, GzipFrameAssembler assembler, TickerJsonReader reader) {
+        long allocatedBefore = currentThreadAllocatedBytes();
         try {
-            byte[] decompressed = decompressIfNeeded(payload);
-            UpbitTickerMessage ticker = objectMapper.readValue(decompressed, UpbitTickerMessage.class);
-            marketInfoCache.find(Exchange.UPBIT, ticker.code())
-                    .ifPresent(meta -> tickerSinkProcessor.process(ticker.toNormalized(meta.displayName())));
+            assembler.complete();
+            byte[] payload = assembler.payload();
+            reader.read(payload, 0, assembler.payloadLength());
+            MarketInfoCache.Snapshot markets = marketInfoCache.snapshot(Exchange.UPBIT);
+            int symbolId = markets.findId(payload, reader.codeOffset(), reader.codeLength());
+            recordAllocation(shard, allocatedBefore);
+            if (symbolId != MarketInfoCache.NOT_FOUND) {
+                tickerSinkProcessor.process(reader.toNormalized(Exchange.UPBIT, symbolId, markets.marketInfo(symbolId)));
+            }
         } catch (Exception e) {
-            parseFailureCounter.increment();
+            parseFailureCounters[shard].increment();
             log.debug("업비트 메시지 처리 실패: {}", e.getMessage());
+        } finally {
+            assembler.trim();
         }
     }
 
-    private byte[] decompressIfNeeded(byte[] bytes) throws IOException {
-        if (bytes.length > 2 && bytes[0] == (byte) 0x1f && bytes[1] == (byte) 0x8b) {
-            return decompress(bytes);
+    private void recordAllocation(int shard, long allocatedBefore) {
+        if (allocatedBefore >= 0) {
+            frameAllocationSummaries[shard].record(currentThreadAllocatedBytes() - allocatedBefore);
         }
-        return bytes;
     }
 
-    private byte[] decompress(byte[] compressed) throws IOException {
-        try (GZIPInputStream gis = new GZIPInputStream(new ByteArrayInputStream(compressed));
-             ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
-            byte[] buffer = new byte[GZIP_BUFFER_SIZE];
-            int len;
-            while ((len = gis.read(buffer)) != -1) {
-                bos.write(buffer, 0, len);
-            }
-            return bos.toByteArray();
+    private static long currentThreadAllocatedBytes() {
+        return ALLOCATION_MX_BEAN != null ? ALLOCATION_MX_BEAN.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationMxBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean allocationBean
+                && allocationBean.isThreadAllocatedMemorySupported()
+                && allocationBean.isThreadAllocatedMemoryEnabled()) {
+            return allocationBean;
         }
+        return null;
     }
 
     private void backoff(int retryCount) {
@@ -132,22 +179,26 @@ public class UpbitWebSocketHandler implements ExchangeTickerStream {
     }
 
     private class UpbitListener implements WebSocket.Listener {
+        private final int shard;
         private final CountDownLatch closeLatch;
-        private final ByteArrayOutputStream binaryBuffer = new ByteArrayOutputStream();
+        private final GzipFrameAssembler assembler = new GzipFrameAssembler();
+        private final TickerJsonReader reader = new TickerJsonReader();
+        private final FrameJournal journal;
 
-        UpbitListener(CountDownLatch closeLatch) {
+        UpbitListener(int shard, CountDownLatch closeLatch, FrameJournal journal) {
+            this.shard = shard;
             this.closeLatch = closeLatch;
+            this.journal = journal;
         }
 
         @Override
         public CompletionStage<?> onBinary(WebSocket webSocket, ByteBuffer data, boolean last) {
-            byte[] bytes = new byte[data.remaining()];
-            data.get(bytes);
-            binaryBuffer.write(bytes, 0, bytes.length);
+            if (journal != null) {
+                journal.append(shard, data, last);
+            }
+            assembler.append(data);
             if (last) {
-                byte[] payload = binaryBuffer.toByteArray();
-                binaryBuffer.reset();
-                handleMessage(payload);
+                handleMessage(shard, assembler, reader);
             }
             webSocket.request(1);
             return null;
@@ -155,21 +206,29 @@ public class UpbitWebSocketHandler implements ExchangeTickerStream {
 
         @Override
         public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
-            handleMessage(data.toString().getBytes());
+            if (journal != null) {
+                journal.append(shard, data, last);
+            }
+            assembler.append(StandardCharsets.UTF_8.encode(CharBuffer.wrap(data)));
+            if (last) {
+                handleMessage(shard, assembler, reader);
+            }
             webSocket.request(1);
             return null;
         }
 
         @Override
         public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
-            log.info("업비트 WebSocket 종료: statusCode={}, reason={}", statusCode, reason);
+            log.info("업비트 WebSocket 종료: shard={}, statusCode={}, reason={}", shard, statusCode, reason);
+            assembler.close();
             closeLatch.countDown();
             return null;
         }
 
         @Override
         public void onError(WebSocket webSocket, Throwable error) {
-            log.error("업비트 WebSocket 오류", error);
+            log.error("업비트 WebSocket 오류: shard={}", shard, error);
+            assembler.close();
             closeLatch.countDown();
         }
     }
@@ -3,82 +3,111 @@ package ksh.tryptocollector.metadata;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 import jakarta.annotation.PreDestroy;
-import ksh.tryptocollector.exchange.binance.BinanceRestClient;
-import ksh.tryptocollector.exchange.binance.BinanceWebSocketHandler;
-import ksh.tryptocollector.exchange.bithumb.BithumbRestClient;
-import ksh.tryptocollector.exchange.bithumb.BithumbTickerResponse;
-import ksh.tryptocollector.exchange.bithumb.BithumbWebSocketHandler;
-import ksh.tryptocollector.exchange.upbit.UpbitRestClient;
-import ksh.tryptocollector.exchange.upbit.UpbitTickerResponse;
-import ksh.tryptocollector.exchange.upbit.UpbitWebSocketHandler;
+import ksh.tryptocollector.exchange.ExchangeConnector;
+import ksh.tryptocollector.exchange.journal.FrameReplayer;
 import ksh.tryptocollector.model.Exchange;
-import ksh.tryptocollector.model.MarketInfo;
-import ksh.tryptocollector.model.NormalizedTicker;
 import ksh.tryptocollector.redis.MarketMetadataRedisRepository;
-import ksh.tryptocollector.redis.TickerRedisRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
+/**
+ * 거래소마다 메타데이터를 적재하고 실시간 연결을 연다. 리더가 되면 {@link #start()}, 리더십을 잃으면 {@link #stop()}을 부른다.
+ * {@code standby.enabled}면 리더가 아닐 때도 {@link #startStandby()}로 연결을 미리 열어 둔다. 대기 중에는 REST로 메타데이터를
+ * 받는 대신 {@link StandbyMetadataSync}로 리더의 카탈로그를 따르고, 리더십을 잃으면 {@link #demote()}로 연결을 유지한다.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class ExchangeInitializer {
 
+    private static final long MAX_BACKOFF_SECONDS = 60;
+    private static final long STANDBY_WAIT_MILLIS = 1000;
+    private static final String EXECUTOR_METRIC_NAME = "exchange.initializer";
+
+    private final List<ExchangeConnector> connectors;
+    private final FrameReplayer frameReplayer;
     private final MarketInfoCache marketInfoCache;
-    private final TickerRedisRepository tickerRedisRepository;
     private final MarketMetadataRedisRepository marketMetadataRedisRepository;
-    private final UpbitRestClient upbitRestClient;
-    private final BithumbRestClient bithumbRestClient;
-    private final BinanceRestClient binanceRestClient;
-    private final UpbitWebSocketHandler upbitWebSocketHandler;
-    private final BithumbWebSocketHandler bithumbWebSocketHandler;
-    private final BinanceWebSocketHandler binanceWebSocketHandler;
+    private final StandbyMetadataSync standbyMetadataSync;
     private final MeterRegistry meterRegistry;
-
-    private static final long MAX_BACKOFF_SECONDS = 60;
-    private static final int CHANGE_RATE_SCALE = 8;
-    private static final int THREAD_POOL_SIZE = 3;
-    private static final String EXECUTOR_METRIC_NAME = "exchange.initializer";
+    private final boolean virtualThreads;
+    private final boolean standbyEnabled;
 
     private ExecutorService exchangeThreadPool;
+    private volatile boolean leading;
+
+    public ExchangeInitializer(
+            List<ExchangeConnector> connectors,
+            FrameReplayer frameReplayer,
+            MarketInfoCache marketInfoCache,
+            MarketMetadataRedisRepository marketMetadataRedisRepository,
+            StandbyMetadataSync standbyMetadataSync,
+            MeterRegistry meterRegistry,
+            @Value("${exchange.virtual-threads.enabled:false}") boolean virtualThreads,
+            @Value("${standby.enabled:false}") boolean standbyEnabled) {
+        this.connectors = connectors;
+        this.frameReplayer = frameReplayer;
+        this.marketInfoCache = marketInfoCache;
+        this.marketMetadataRedisRepository = marketMetadataRedisRepository;
+        this.standbyMetadataSync = standbyMetadataSync;
+        this.meterRegistry = meterRegistry;
+        this.virtualThreads = virtualThreads;
+        this.standbyEnabled = standbyEnabled && !frameReplayer.isEnabled();
+        if (standbyEnabled && frameReplayer.isEnabled()) {
+            log.warn("재생 모드에서는 대기 인스턴스 연결 예열을 쓰지 않음");
+        }
+    }
 
-    public void start() {
+    public boolean isStandbyEnabled() {
+        return standbyEnabled;
+    }
+
+    /**
+     * 연결이 이미 열려 있으면(대기 인스턴스가 승격하는 경우) 리더로 표시만 하고 돌아온다.
+     * 아직 카탈로그를 기다리던 거래소는 리더로서 메타데이터를 직접 적재한다.
+     */
+    public synchronized void start() {
+        leading = true;
+        standbyMetadataSync.stop();
         if (exchangeThreadPool != null) {
             return;
         }
-        exchangeThreadPool = ExecutorServiceMetrics.monitor(
-                meterRegistry, Executors.newFixedThreadPool(THREAD_POOL_SIZE), EXECUTOR_METRIC_NAME);
-        exchangeThreadPool.submit(() -> initWithRetry("업비트", this::initUpbit));
-        exchangeThreadPool.submit(() -> initWithRetry("빗썸", this::initBithumb));
-        exchangeThreadPool.submit(() -> initWithRetry("바이낸스", this::initBinance));
+        launch();
     }
 
-    private void initUpbit() {
-        loadUpbitMetadata();
-        upbitWebSocketHandler.connect();
+    /**
+     * 리더가 아닌 채로 연결을 연다. 싱크 출력은 {@code TickerSinkProcessor}가 막고 있어야 한다.
+     */
+    public synchronized void startStandby() {
+        if (!standbyEnabled || exchangeThreadPool != null) {
+            return;
+        }
+        standbyMetadataSync.start();
+        launch();
+        log.info("대기 인스턴스 연결 예열 시작");
     }
 
-    private void initBithumb() {
-        loadBithumbMetadata();
-        bithumbWebSocketHandler.connect();
+    /**
+     * 리더십을 잃어도 연결은 닫지 않고 대기 상태로 돌아간다.
+     */
+    public synchronized void demote() {
+        leading = false;
+        if (exchangeThreadPool != null) {
+            standbyMetadataSync.start();
+        }
     }
 
-    private void initBinance() {
-        loadBinanceMetadata();
-        binanceWebSocketHandler.connect();
+    public synchronized boolean isRunning() {
+        return exchangeThreadPool != null;
     }
 
-    public void stop() {
+    public synchronized void stop() {
+        leading = false;
+        standbyMetadataSync.stop();
         if (exchangeThreadPool == null) {
             return;
         }
@@ -86,88 +115,74 @@ public class ExchangeInitializer {
         exchangeThreadPool = null;
     }
 
+    private void launch() {
+        exchangeThreadPool = ExecutorServiceMetrics.monitor(meterRegistry, newExecutor(), EXECUTOR_METRIC_NAME);
+        for (ExchangeConnector connector : connectors) {
+            exchangeThreadPool.submit(() -> initWithRetry(connector));
+        }
+    }
+
     @PreDestroy
     void shutdown() {
         stop();
     }
 
-    private void initWithRetry(String exchangeName, Runnable task) {
+    /**
+     * 가상 스레드 모드에서는 거래소마다 가상 스레드를 하나씩 만든다. 연결 루프가 그 안에서 만드는 샤드 스레드도 가상 스레드가 된다.
+     */
+    private ExecutorService newExecutor() {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("exchange-", 0).factory());
+        }
+        return Executors.newFixedThreadPool(connectors.size());
+    }
+
+    /**
+     * 재생 모드에서는 메타데이터만 적재하고 실시간 연결 대신 캡처한 저널을 재생한다.
+     * 메타데이터를 적재한 뒤 연결하기 전에 심볼 카탈로그를 저장해, 바이너리 메시지보다 카탈로그가 먼저 보이게 한다.
+     * 대기 인스턴스는 REST 호출과 Redis 쓰기 없이 리더의 카탈로그를 받은 뒤 같은 마켓으로 연결한다.
+     */
+    private void initWithRetry(ExchangeConnector connector) {
         int retryCount = 0;
         while (!Thread.currentThread().isInterrupted()) {
             try {
-                task.run();
+                if (!leading && awaitLeaderCatalog(connector.exchange())) {
+                    connector.connect();
+                    return;
+                }
+                connector.loadMetadata();
+                saveCatalog(connector.exchange());
+                if (frameReplayer.isEnabled()) {
+                    frameReplayer.replay(connector);
+                    return;
+                }
+                connector.connect();
                 return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             } catch (Exception e) {
                 retryCount++;
-                log.warn("{} 초기화 실패, 재시도 {}: {}", exchangeName, retryCount, e.getMessage(), e);
+                log.warn("{} 초기화 실패, 재시도 {}: {}", connector.displayName(), retryCount, e.getMessage(), e);
                 backoff(retryCount);
             }
         }
     }
 
-    private void loadUpbitMetadata() {
-        List<MarketInfo> infos = upbitRestClient.fetchKrwMarkets();
-        List<String> marketCodes = new ArrayList<>();
-        Map<String, MarketInfo> infoByMarket = new HashMap<>();
-        for (MarketInfo info : infos) {
-            String marketCode = "KRW-" + info.base();
-            marketInfoCache.put(Exchange.UPBIT, marketCode, info);
-            marketCodes.add(marketCode);
-            infoByMarket.put(marketCode, info);
-        }
-        log.info("업비트 마켓 메타데이터 로드 완료: {}개", infos.size());
-        marketMetadataRedisRepository.save(Exchange.UPBIT, infos);
-
-        List<UpbitTickerResponse> tickers = upbitRestClient.fetchKrwTickers(marketCodes);
-        for (UpbitTickerResponse ticker : tickers) {
-            MarketInfo info = infoByMarket.get(ticker.market());
-            tickerRedisRepository.save(ticker.toNormalized(info.displayName()));
-        }
-        log.info("업비트 초기 시세 스냅샷 저장 완료: {}개", tickers.size());
-    }
-
-    private void loadBithumbMetadata() {
-        List<MarketInfo> infos = bithumbRestClient.fetchKrwMarkets();
-        List<String> marketCodes = new ArrayList<>();
-        Map<String, MarketInfo> infoByMarket = new HashMap<>();
-        for (MarketInfo info : infos) {
-            String marketCode = "KRW-" + info.base();
-            marketInfoCache.put(Exchange.BITHUMB, marketCode, info);
-            marketCodes.add(marketCode);
-            infoByMarket.put(marketCode, info);
-        }
-        log.info("빗썸 마켓 메타데이터 로드 완료: {}개", infos.size());
-        marketMetadataRedisRepository.save(Exchange.BITHUMB, infos);
-
-        List<BithumbTickerResponse> tickers = bithumbRestClient.fetchKrwTickers(marketCodes);
-        for (BithumbTickerResponse ticker : tickers) {
-            MarketInfo info = infoByMarket.get(ticker.market());
-            tickerRedisRepository.save(ticker.toNormalized(info.displayName()));
+    /**
+     * 리더의 카탈로그를 받을 때까지 기다린다. 기다리는 동안 리더가 되면 {@code false}를 돌려줘 직접 적재하게 한다.
+     */
+    private boolean awaitLeaderCatalog(Exchange exchange) throws InterruptedException {
+        while (!leading) {
+            if (standbyMetadataSync.sync(exchange)) {
+                return true;
+            }
+            Thread.sleep(STANDBY_WAIT_MILLIS);
         }
-        log.info("빗썸 초기 시세 스냅샷 저장 완료: {}개", tickers.size());
+        return false;
     }
 
-    private void loadBinanceMetadata() {
-        var tickers = binanceRestClient.fetchUsdtTickers();
-        for (var ticker : tickers) {
-            String base = ticker.symbol().replace("USDT", "");
-            MarketInfo info = new MarketInfo(base, "USDT", base + "/USDT", base);
-            marketInfoCache.put(Exchange.BINANCE, ticker.symbol(), info);
-
-            BigDecimal changeRate = new BigDecimal(ticker.priceChangePercent())
-                    .divide(BigDecimal.valueOf(100), CHANGE_RATE_SCALE, RoundingMode.HALF_UP);
-            NormalizedTicker normalized = new NormalizedTicker(
-                    Exchange.BINANCE.name(),
-                    base, "USDT", base,
-                    new BigDecimal(ticker.lastPrice()),
-                    changeRate,
-                    new BigDecimal(ticker.quoteVolume()),
-                    System.currentTimeMillis()
-            );
-            tickerRedisRepository.save(normalized);
-        }
-        log.info("바이낸스 마켓 메타데이터 로드 및 초기 스냅샷 저장 완료");
-        marketMetadataRedisRepository.save(Exchange.BINANCE, marketInfoCache.getMarketInfos(Exchange.BINANCE));
+    private void saveCatalog(Exchange exchange) {
+        marketMetadataRedisRepository.saveCatalog(exchange, marketInfoCache.catalog(exchange));
     }
 
     private void backoff(int retryCount) {
@@ -1,48 +1,287 @@
 package ksh.tryptocollector.metadata;
 
 import ksh.tryptocollector.model.Exchange;
+import ksh.tryptocollector.model.MarketCatalog;
 import ksh.tryptocollector.model.MarketInfo;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
 
+/**
+ * 거래소별 마켓에 0부터 시작하는 조밀한 정수 ID를 부여하는 심볼 레지스트리.
+ * 거래소마다 불변 스냅샷(ID별 {@link MarketInfo} 배열, 코드 바이트, 개방 주소 해시 테이블)을 두고 갱신할 때 통째로 교체하므로,
+ * 조회는 락 없이 스냅샷 하나만 읽고 코드 바이트나 {@link CharSequence}로 문자열을 만들지 않고 ID를 찾는다.
+ * {@link #putAll}은 부여한 ID를 유지하지만 {@link #replace}와 {@link #clear}는 ID를 다시 매긴다.
+ * 그래서 ID와 그 ID의 {@link MarketInfo}, catalogHash를 함께 써야 하는 곳은 {@link #snapshot(Exchange)} 하나에서 모두 읽는다.
+ * 마켓 코드는 ASCII라고 가정한다. ID는 프로세스 안에서만 유효하므로 밖으로 내보낼 때는 catalogHash로 어느 ID 배정인지 함께 알린다.
+ */
 @Component
 public class MarketInfoCache {
+    public static final int NOT_FOUND = -1;
 
-    private final ConcurrentHashMap<String, MarketInfo> cache = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<Snapshot> snapshots = new AtomicReferenceArray<>(Exchange.values().length);
+    private final List<Consumer<Exchange>> replaceListeners = new CopyOnWriteArrayList<>();
+
+    public MarketInfoCache() {
+        for (Exchange exchange : Exchange.values()) {
+            snapshots.set(exchange.ordinal(), Snapshot.EMPTY);
+        }
+    }
 
     public void put(Exchange exchange, String symbolCode, MarketInfo marketInfo) {
-        cache.put(buildKey(exchange, symbolCode), marketInfo);
+        putAll(exchange, Map.of(symbolCode, marketInfo));
+    }
+
+    /**
+     * 여러 마켓을 한 번의 스냅샷 교체로 등록한다. 이미 있는 코드는 ID를 유지한 채 정보만 바꾸고, 새 코드는 뒤에 ID를 이어 붙인다.
+     */
+    public synchronized void putAll(Exchange exchange, Map<String, MarketInfo> marketInfoByCode) {
+        Snapshot current = snapshots.get(exchange.ordinal());
+        Map<String, MarketInfo> merged = new LinkedHashMap<>(current.size() + marketInfoByCode.size());
+        for (int id = 0; id < current.size(); id++) {
+            merged.put(current.codes[id], current.infos[id]);
+        }
+        merged.putAll(marketInfoByCode);
+        snapshots.set(exchange.ordinal(), Snapshot.of(merged));
+    }
+
+    /**
+     * 거래소의 현재 ID 배정. 돌려받은 스냅샷은 바뀌지 않으므로 ID 조회와 {@link MarketInfo}, catalogHash가 항상 같은 배정이다.
+     */
+    public Snapshot snapshot(Exchange exchange) {
+        return snapshots.get(exchange.ordinal());
     }
 
     public Optional<MarketInfo> find(Exchange exchange, String symbolCode) {
-        return Optional.ofNullable(cache.get(buildKey(exchange, symbolCode)));
+        Snapshot snapshot = snapshot(exchange);
+        int id = snapshot.findId(symbolCode);
+        return id == NOT_FOUND ? Optional.empty() : Optional.of(snapshot.marketInfo(id));
+    }
+
+    public int findId(Exchange exchange, CharSequence symbolCode) {
+        return snapshot(exchange).findId(symbolCode);
+    }
+
+    public int size(Exchange exchange) {
+        return snapshots.get(exchange.ordinal()).size();
     }
 
     public List<String> getSymbolCodes(Exchange exchange) {
-        String prefix = exchange.name() + ":";
-        return cache.keySet().stream()
-                .filter(key -> key.startsWith(prefix))
-                .map(key -> key.substring(prefix.length()))
-                .toList();
+        return snapshots.get(exchange.ordinal()).codeList;
     }
 
     public List<MarketInfo> getMarketInfos(Exchange exchange) {
-        String prefix = exchange.name() + ":";
-        return cache.entrySet().stream()
-                .filter(entry -> entry.getKey().startsWith(prefix))
-                .map(java.util.Map.Entry::getValue)
-                .toList();
+        return snapshots.get(exchange.ordinal()).infoList;
+    }
+
+    /**
+     * 현재 ID 배정의 지문. ID 순서대로 나열한 {@link MarketInfo#pair()}의 {@link #catalogHash(List)} 값이다.
+     */
+    public int catalogHash(Exchange exchange) {
+        return snapshots.get(exchange.ordinal()).catalogHash;
+    }
+
+    /**
+     * 각 pair를 UTF-8로 인코딩해 {@code '\n'}을 붙여 이어 붙인 바이트의 CRC32. 소비자도 같은 방식으로 계산해 카탈로그를 검증한다.
+     */
+    public static int catalogHash(List<MarketInfo> marketInfosById) {
+        CRC32 crc = new CRC32();
+        for (MarketInfo info : marketInfosById) {
+            crc.update(info.pair().getBytes(StandardCharsets.UTF_8));
+            crc.update('\n');
+        }
+        return (int) crc.getValue();
+    }
+
+    /**
+     * 현재 ID 배정을 카탈로그로 내보낸다. 스냅샷 하나에서 읽으므로 코드와 마켓 목록의 순서가 항상 맞는다.
+     */
+    public MarketCatalog catalog(Exchange exchange) {
+        Snapshot snapshot = snapshots.get(exchange.ordinal());
+        return new MarketCatalog(snapshot.catalogHash, snapshot.codeList, snapshot.infoList);
+    }
+
+    /**
+     * 다른 인스턴스가 만든 카탈로그로 ID 배정을 통째로 바꾼다. {@link #putAll}과 달리 기존 ID를 유지하지 않고
+     * 카탈로그의 ID를 그대로 쓴다. 목록 길이가 다르거나 해시가 맞지 않으면 바꾸지 않고 {@code false}를 돌려준다.
+     */
+    public synchronized boolean replace(Exchange exchange, MarketCatalog catalog) {
+        if (catalog.codes().size() != catalog.markets().size()
+                || catalogHash(catalog.markets()) != catalog.catalogHash()) {
+            return false;
+        }
+        Map<String, MarketInfo> marketInfoByCode = new LinkedHashMap<>(catalog.codes().size());
+        for (int id = 0; id < catalog.codes().size(); id++) {
+            marketInfoByCode.put(catalog.codes().get(id), catalog.markets().get(id));
+        }
+        if (marketInfoByCode.size() != catalog.codes().size()) {
+            return false;
+        }
+        snapshots.set(exchange.ordinal(), Snapshot.of(marketInfoByCode));
+        notifyReplaced(exchange);
+        return true;
     }
 
-    public void clear(Exchange exchange) {
-        String prefix = exchange.name() + ":";
-        cache.keySet().removeIf(key -> key.startsWith(prefix));
+    /**
+     * {@link #replace}나 {@link #clear}로 ID 배정이 바뀐 뒤 부를 곳을 더한다.
+     * 심볼 ID로 상태를 두는 쪽마다 하나씩 등록해 그 거래소의 ID 인덱스를 비운다.
+     */
+    public void onReplace(Consumer<Exchange> listener) {
+        replaceListeners.add(listener);
     }
 
-    private String buildKey(Exchange exchange, String symbolCode) {
-        return exchange.name() + ":" + symbolCode;
+    public synchronized void clear(Exchange exchange) {
+        snapshots.set(exchange.ordinal(), Snapshot.EMPTY);
+        notifyReplaced(exchange);
+    }
+
+    private void notifyReplaced(Exchange exchange) {
+        for (Consumer<Exchange> listener : replaceListeners) {
+            listener.accept(exchange);
+        }
+    }
+
+    /**
+     * 한 거래소의 ID 배정 하나. 만든 뒤에는 바뀌지 않는다.
+     */
+    public static final class Snapshot {
+        static final Snapshot EMPTY = of(Map.of());
+
+        final String[] codes;
+        final byte[][] codeBytes;
+        final MarketInfo[] infos;
+        final List<String> codeList;
+        final List<MarketInfo> infoList;
+        final int[] table;
+        final int mask;
+        final int catalogHash;
+
+        private Snapshot(String[] codes, MarketInfo[] infos) {
+            this.codes = codes;
+            this.infos = infos;
+            this.codeList = List.of(codes);
+            this.infoList = List.of(infos);
+            this.codeBytes = new byte[codes.length][];
+            this.table = new int[tableSize(codes.length)];
+            this.mask = table.length - 1;
+            this.catalogHash = MarketInfoCache.catalogHash(infoList);
+            Arrays.fill(table, NOT_FOUND);
+            for (int id = 0; id < codes.length; id++) {
+                codeBytes[id] = codes[id].getBytes(StandardCharsets.US_ASCII);
+                int slot = hash(codeBytes[id], 0, codeBytes[id].length) & mask;
+                while (table[slot] != NOT_FOUND) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = id;
+            }
+        }
+
+        static Snapshot of(Map<String, MarketInfo> marketInfoByCode) {
+            Map<String, String> interned = new HashMap<>();
+            String[] codes = new String[marketInfoByCode.size()];
+            MarketInfo[] infos = new MarketInfo[marketInfoByCode.size()];
+            int id = 0;
+            for (Map.Entry<String, MarketInfo> entry : marketInfoByCode.entrySet()) {
+                MarketInfo info = entry.getValue();
+                codes[id] = entry.getKey();
+                infos[id] = new MarketInfo(
+                        intern(interned, info.base()),
+                        intern(interned, info.quote()),
+                        intern(interned, info.pair()),
+                        intern(interned, info.displayName()));
+                id++;
+            }
+            return new Snapshot(codes, infos);
+        }
+
+        public int size() {
+            return codes.length;
+        }
+
+        public int catalogHash() {
+            return catalogHash;
+        }
+
+        public MarketInfo marketInfo(int id) {
+            return infos[id];
+        }
+
+        public String symbolCode(int id) {
+            return codes[id];
+        }
+
+        public int findId(byte[] bytes, int offset, int length) {
+            int slot = hash(bytes, offset, length) & mask;
+            int id;
+            while ((id = table[slot]) != NOT_FOUND) {
+                if (Arrays.equals(codeBytes[id], 0, codeBytes[id].length, bytes, offset, offset + length)) {
+                    return id;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return NOT_FOUND;
+        }
+
+        public int findId(CharSequence code) {
+            int slot = hash(code) & mask;
+            int id;
+            while ((id = table[slot]) != NOT_FOUND) {
+                if (equalsAscii(codeBytes[id], code)) {
+                    return id;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return NOT_FOUND;
+        }
+
+        private static int tableSize(int count) {
+            int size = 2;
+            while (size < count * 2) {
+                size <<= 1;
+            }
+            return size;
+        }
+
+        private static int hash(byte[] bytes, int offset, int length) {
+            int h = 0;
+            for (int i = offset; i < offset + length; i++) {
+                h = 31 * h + (bytes[i] & 0xff);
+            }
+            return h ^ (h >>> 16);
+        }
+
+        private static int hash(CharSequence code) {
+            int h = 0;
+            for (int i = 0; i < code.length(); i++) {
+                h = 31 * h + code.charAt(i);
+            }
+            return h ^ (h >>> 16);
+        }
+
+        private static boolean equalsAscii(byte[] bytes, CharSequence code) {
+            if (bytes.length != code.length()) {
+                return false;
+            }
+            for (int i = 0; i < bytes.length; i++) {
+                if ((bytes[i] & 0xff) != code.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static String intern(Map<String, String> interned, String value) {
+            return value == null ? null : interned.computeIfAbsent(value, v -> v);
+        }
     }
 }
@@ -0,0 +1,103 @@
+package ksh.tryptocollector.metadata;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import ksh.tryptocollector.model.Exchange;
+import ksh.tryptocollector.model.MarketCatalog;
+import ksh.tryptocollector.redis.MarketMetadataRedisRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 대기 인스턴스가 리더가 저장한 {@code market-meta:{EXCHANGE}:catalog}로 {@link MarketInfoCache}를 맞춘다.
+ * 리더와 같은 ID 배정을 쓰므로 승격한 뒤에도 심볼 ID와 {@code catalogHash}가 그대로 이어진다.
+ * 대기 중에는 주기마다 다시 읽고, 리더가 되면 멈춘다.
+ */
+@Slf4j
+@Component
+public class StandbyMetadataSync {
+
+    private final MarketInfoCache marketInfoCache;
+    private final MarketMetadataRedisRepository marketMetadataRedisRepository;
+    private final long intervalMs;
+    private final Counter replacedCounter;
+
+    private ScheduledExecutorService scheduler;
+
+    public StandbyMetadataSync(
+            MarketInfoCache marketInfoCache,
+            MarketMetadataRedisRepository marketMetadataRedisRepository,
+            MeterRegistry meterRegistry,
+            @Value("${standby.metadata-sync-interval-ms:30000}") long intervalMs) {
+        this.marketInfoCache = marketInfoCache;
+        this.marketMetadataRedisRepository = marketMetadataRedisRepository;
+        this.intervalMs = intervalMs;
+        this.replacedCounter = Counter.builder("standby.metadata.replaced")
+                .description("대기 인스턴스가 리더 카탈로그로 심볼 레지스트리를 바꾼 횟수")
+                .register(meterRegistry);
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "standby-metadata-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::syncAll, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        stop();
+    }
+
+    /**
+     * 저장된 카탈로그가 있고 로컬과 같은 배정이 되면 {@code true}. 해시가 같으면 아무것도 바꾸지 않는다.
+     */
+    public boolean sync(Exchange exchange) {
+        Optional<MarketCatalog> stored = marketMetadataRedisRepository.findCatalog(exchange);
+        if (stored.isEmpty()) {
+            return false;
+        }
+        MarketCatalog catalog = stored.get();
+        if (catalog.catalogHash() == marketInfoCache.catalogHash(exchange)
+                && catalog.codes().equals(marketInfoCache.getSymbolCodes(exchange))) {
+            return true;
+        }
+        if (!marketInfoCache.replace(exchange, catalog)) {
+            log.warn("{} 심볼 카탈로그 검증 실패: hash={}, {}개", exchange, catalog.catalogHash(), catalog.codes().size());
+            return false;
+        }
+        replacedCounter.increment();
+        log.info("{} 심볼 카탈로그 동기화 완료: {}개, hash={}", exchange, catalog.codes().size(), catalog.catalogHash());
+        return true;
+    }
+
+    private void syncAll() {
+        for (Exchange exchange : Exchange.values()) {
+            try {
+                sync(exchange);
+            } catch (Exception e) {
+                log.warn("{} 심볼 카탈로그 동기화 실패: {}", exchange, e.getMessage());
+            }
+        }
+    }
+}
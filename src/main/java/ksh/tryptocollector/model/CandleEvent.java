@@ -0,0 +1,60 @@
+package ksh.tryptocollector.model;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 심볼 하나의 타임프레임별 형성 중인 캔들. {@code timestamp}는 마지막으로 반영한 tick의 시각이다.
+ */
+public record CandleEvent(
+        String exchange,
+        String symbol,
+        List<Bar> candles,
+        long timestamp
+) {
+    /**
+     * {@code candle.exchange} 본문이자 Redis {@code candle:*} 값. 필드 이름과 순서는 Jackson 기본 직렬화와 같고,
+     * 가격은 지수 표기 없이 {@link BigDecimal#toPlainString()} 표기로 쓴다.
+     */
+    public byte[] json() {
+        TickBytesWriter writer = TickBytesWriter.acquire().raw('{');
+        writer.jsonName("exchange", true).jsonString(exchange);
+        writer.jsonName("symbol", false).jsonString(symbol);
+        writer.jsonName("candles", false).raw('[');
+        for (int i = 0; i < candles.size(); i++) {
+            Bar bar = candles.get(i);
+            if (i > 0) {
+                writer.raw(',');
+            }
+            writer.raw('{');
+            writer.jsonName("interval", true).jsonString(bar.interval());
+            writer.jsonName("openTime", false).longValue(bar.openTime());
+            price(writer.jsonName("open", false), bar.open());
+            price(writer.jsonName("high", false), bar.high());
+            price(writer.jsonName("low", false), bar.low());
+            price(writer.jsonName("close", false), bar.close());
+            writer.raw('}');
+        }
+        writer.raw(']');
+        writer.jsonName("timestamp", false).longValue(timestamp).raw('}');
+        return writer.toByteArray();
+    }
+
+    private static void price(TickBytesWriter writer, BigDecimal value) {
+        if (value.unscaledValue().bitLength() < Long.SIZE) {
+            writer.plainDecimal(value.unscaledValue().longValue(), value.scale(), null);
+        } else {
+            writer.plainDecimal(0, FixedDecimal.OVERFLOW_SCALE, value);
+        }
+    }
+
+    public record Bar(
+            String interval,
+            long openTime,
+            BigDecimal open,
+            BigDecimal high,
+            BigDecimal low,
+            BigDecimal close
+    ) {
+    }
+}
@@ -0,0 +1,175 @@
+package ksh.tryptocollector.model;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * 싱크에 나눠 주는 tick 하나의 직렬화 결과. {@code TickerSinkProcessor}가 통과한 tick마다 하나 만들고,
+ * 각 표현은 처음 요청한 싱크가 {@link TickBytesWriter}로 한 번만 만들어 이후 모든 싱크가 같은 배열을 쓴다.
+ * 돌려주는 배열은 여러 싱크와 spill이 공유하므로 읽기만 해야 한다.
+ *
+ * <ul>
+ *     <li>{@link #redisJson()}: Redis 시세 키 값. {@link NormalizedTicker}의 Jackson 직렬화와 바이트 단위로 같다</li>
+ *     <li>{@link #eventJson()}: ticker.exchange 본문. 필드는 {@code exchange, symbol, currentPrice, changeRate, quoteTurnover, timestamp}</li>
+ *     <li>{@link #engineJson()}: engine.inbox {@code TickReceived} 본문. 필드는 {@code exchange, displayName, tradePrice, tickAt}</li>
+ *     <li>{@link #hashValue()}: Redis 거래소 해시 값. 형식은 {@code TickerHashCodec}</li>
+ *     <li>{@link #lineProtocol()}: InfluxDB {@code ticker_raw} 한 줄 (줄바꿈 포함)</li>
+ * </ul>
+ *
+ * <p>표현마다 쓰는 싱크 스레드가 달라 필드를 volatile로 둔다. 두 스레드가 동시에 만들면 같은 내용을 두 번 만들 뿐이다.
+ */
+public final class EncodedTick {
+    private static final String RAW_TICK_MEASUREMENT = "ticker_raw";
+    private static final char HASH_SEPARATOR = '|';
+
+    private final NormalizedTicker ticker;
+
+    private volatile String symbol;
+    private volatile byte[] redisJson;
+    private volatile byte[] eventJson;
+    private volatile byte[] engineJson;
+    private volatile byte[] hashValue;
+    private volatile byte[] lineProtocol;
+
+    private EncodedTick(NormalizedTicker ticker) {
+        this.ticker = ticker;
+    }
+
+    public static EncodedTick of(NormalizedTicker ticker) {
+        return new EncodedTick(ticker);
+    }
+
+    public NormalizedTicker ticker() {
+        return ticker;
+    }
+
+    public String exchange() {
+        return ticker.exchange();
+    }
+
+    /**
+     * {@code BASE/QUOTE}. Redis 키, 해시 필드, 이벤트 본문, line protocol 태그가 같은 문자열을 쓴다.
+     */
+    public String symbol() {
+        String value = symbol;
+        if (value == null) {
+            value = ticker.base() + "/" + ticker.quote();
+            symbol = value;
+        }
+        return value;
+    }
+
+    public byte[] redisJson() {
+        byte[] value = redisJson;
+        if (value == null) {
+            TickBytesWriter writer = TickBytesWriter.acquire().raw('{');
+            writer.jsonName("exchange", true).jsonString(ticker.exchange());
+            writer.jsonName("base", false).jsonString(ticker.base());
+            writer.jsonName("quote", false).jsonString(ticker.quote());
+            writer.jsonName("displayName", false).jsonString(ticker.displayName());
+            writeDecimals(writer, "lastPrice", "changeRate", "quoteTurnover");
+            writer.jsonName("tsMs", false).longValue(ticker.tsMs()).raw('}');
+            value = writer.toByteArray();
+            redisJson = value;
+        }
+        return value;
+    }
+
+    public byte[] eventJson() {
+        byte[] value = eventJson;
+        if (value == null) {
+            TickBytesWriter writer = TickBytesWriter.acquire().raw('{');
+            writer.jsonName("exchange", true).jsonString(ticker.exchange());
+            writer.jsonName("symbol", false).jsonString(symbol());
+            writeDecimals(writer, "currentPrice", "changeRate", "quoteTurnover");
+            writer.jsonName("timestamp", false).longValue(ticker.tsMs()).raw('}');
+            value = writer.toByteArray();
+            eventJson = value;
+        }
+        return value;
+    }
+
+    /**
+     * {@code tickAt}은 수집기 시간대의 {@link LocalDateTime#toString()} 표기다.
+     */
+    public byte[] engineJson() {
+        byte[] value = engineJson;
+        if (value == null) {
+            TickBytesWriter writer = TickBytesWriter.acquire().raw('{');
+            writer.jsonName("exchange", true).jsonString(ticker.exchange());
+            writer.jsonName("displayName", false).jsonString(ticker.base());
+            writer.jsonName("tradePrice", false)
+                    .jsonDecimal(ticker.lastPriceUnscaled(), ticker.lastPriceScale(), lastPriceOverflow());
+            writer.jsonName("tickAt", false).raw('"')
+                    .localDateTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(ticker.tsMs()), ZoneId.systemDefault()))
+                    .raw('"').raw('}');
+            value = writer.toByteArray();
+            engineJson = value;
+        }
+        return value;
+    }
+
+    /**
+     * {@code lastPrice|changeRate|quoteTurnover|tsMs|displayName}. 수치는 {@link BigDecimal#toPlainString()} 표기다.
+     */
+    public byte[] hashValue() {
+        byte[] value = hashValue;
+        if (value == null) {
+            TickBytesWriter writer = TickBytesWriter.acquire()
+                    .plainDecimal(ticker.lastPriceUnscaled(), ticker.lastPriceScale(), lastPriceOverflow());
+            writer.raw(HASH_SEPARATOR)
+                    .plainDecimal(ticker.changeRateUnscaled(), ticker.changeRateScale(), changeRateOverflow());
+            writer.raw(HASH_SEPARATOR)
+                    .plainDecimal(ticker.quoteTurnoverUnscaled(), ticker.quoteTurnoverScale(), quoteTurnoverOverflow());
+            writer.raw(HASH_SEPARATOR).longValue(ticker.tsMs());
+            writer.raw(HASH_SEPARATOR).utf8(String.valueOf(ticker.displayName()));
+            value = writer.toByteArray();
+            hashValue = value;
+        }
+        return value;
+    }
+
+    /**
+     * {@code ticker_raw,exchange=…,symbol=… price=… epochMillis\n}. price는 소수점 표기 그대로라 float 필드로 저장된다.
+     */
+    public byte[] lineProtocol() {
+        byte[] value = lineProtocol;
+        if (value == null) {
+            TickBytesWriter writer = TickBytesWriter.acquire().lineEscaped(RAW_TICK_MEASUREMENT, false);
+            writer.raw(',').lineEscaped("exchange", true).raw('=').lineEscaped(ticker.exchange(), true);
+            writer.raw(',').lineEscaped("symbol", true).raw('=').lineEscaped(symbol(), true);
+            writer.raw(' ').lineEscaped("price", true).raw('=')
+                    .plainDecimal(ticker.lastPriceUnscaled(), ticker.lastPriceScale(), lastPriceOverflow());
+            writer.raw(' ').longValue(ticker.tsMs()).raw('\n');
+            value = writer.toByteArray();
+            lineProtocol = value;
+        }
+        return value;
+    }
+
+    private void writeDecimals(TickBytesWriter writer, String priceName, String changeRateName, String quoteTurnoverName) {
+        writer.jsonName(priceName, false)
+                .jsonDecimal(ticker.lastPriceUnscaled(), ticker.lastPriceScale(), lastPriceOverflow());
+        writer.jsonName(changeRateName, false)
+                .jsonDecimal(ticker.changeRateUnscaled(), ticker.changeRateScale(), changeRateOverflow());
+        writer.jsonName(quoteTurnoverName, false)
+                .jsonDecimal(ticker.quoteTurnoverUnscaled(), ticker.quoteTurnoverScale(), quoteTurnoverOverflow());
+    }
+
+    /**
+     * 가수가 {@code long}을 넘어 BigDecimal로만 보관된 값만 꺼낸다. 고정소수점 값은 BigDecimal을 만들지 않는다.
+     */
+    private BigDecimal lastPriceOverflow() {
+        return ticker.lastPriceScale() == FixedDecimal.OVERFLOW_SCALE ? ticker.lastPrice() : null;
+    }
+
+    private BigDecimal changeRateOverflow() {
+        return ticker.changeRateScale() == FixedDecimal.OVERFLOW_SCALE ? ticker.changeRate() : null;
+    }
+
+    private BigDecimal quoteTurnoverOverflow() {
+        return ticker.quoteTurnoverScale() == FixedDecimal.OVERFLOW_SCALE ? ticker.quoteTurnover() : null;
+    }
+}
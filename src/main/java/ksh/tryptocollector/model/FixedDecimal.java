@@ -0,0 +1,235 @@
+package ksh.tryptocollector.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JSON 숫자 텍스트를 {@code long} 가수와 {@code int} 스케일로 바로 파싱하는 재사용 슬롯.
+ * 파싱 결과는 {@code new BigDecimal(text)}와 같은 (가수, 스케일) 쌍이므로 나중에 만든 BigDecimal의 문자열 표현도 같다.
+ * 가수가 {@code long} 범위를 넘으면 BigDecimal로 보관한다. 디코더가 하나씩 소유하며 스레드 안전하지 않다.
+ */
+public final class FixedDecimal {
+    public static final int OVERFLOW_SCALE = Integer.MIN_VALUE;
+
+    private static final int MAX_EXPONENT_DIGITS = 9;
+    private static final long MAX_EXACT_DOUBLE_UNSCALED = 1L << 53;
+    private static final double[] EXACT_DOUBLE_POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private long unscaled;
+    private int scale;
+    private BigDecimal overflow;
+
+    public FixedDecimal set(long unscaled, int scale) {
+        this.unscaled = unscaled;
+        this.scale = scale;
+        this.overflow = null;
+        return this;
+    }
+
+    public FixedDecimal set(BigDecimal value) {
+        if (value.unscaledValue().bitLength() < Long.SIZE) {
+            return set(value.unscaledValue().longValue(), value.scale());
+        }
+        this.unscaled = 0;
+        this.scale = OVERFLOW_SCALE;
+        this.overflow = value;
+        return this;
+    }
+
+    public FixedDecimal set(FixedDecimal other) {
+        this.unscaled = other.unscaled;
+        this.scale = other.scale;
+        this.overflow = other.overflow;
+        return this;
+    }
+
+    public FixedDecimal parse(CharSequence text) {
+        return parse(text, null, 0, text.length());
+    }
+
+    public FixedDecimal parse(byte[] bytes, int offset, int length) {
+        return parse(null, bytes, offset, length);
+    }
+
+    public boolean isFixed() {
+        return scale != OVERFLOW_SCALE;
+    }
+
+    public long unscaled() {
+        return unscaled;
+    }
+
+    public int scale() {
+        return scale;
+    }
+
+    public BigDecimal overflow() {
+        return overflow;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return isFixed() ? BigDecimal.valueOf(unscaled, scale) : overflow;
+    }
+
+    /**
+     * {@link BigDecimal#compareTo}처럼 값만 비교한다. 둘 다 가수가 long이고 스케일을 맞춰도 넘치지 않으면 BigDecimal을 만들지 않는다.
+     */
+    public int compareValue(FixedDecimal other) {
+        if (isFixed() && other.isFixed()) {
+            if (scale == other.scale) {
+                return Long.compare(unscaled, other.unscaled);
+            }
+            try {
+                int commonScale = Math.max(scale, other.scale);
+                return Long.compare(rescale(unscaled, commonScale - scale),
+                        rescale(other.unscaled, commonScale - other.scale));
+            } catch (ArithmeticException ignored) {
+                // long 범위를 넘으면 BigDecimal로 비교한다
+            }
+        }
+        return toBigDecimal().compareTo(other.toBigDecimal());
+    }
+
+    /**
+     * {@code (close - open) / open}을 지정 스케일에서 HALF_UP으로 반올림해 담는다.
+     * BigDecimal의 {@code subtract().divide(open, scale, HALF_UP)}와 같은 결과이며, long 연산이 넘치면 그 경로로 계산한다.
+     */
+    public FixedDecimal setRelativeChange(FixedDecimal close, FixedDecimal open, int resultScale) {
+        if (open.isFixed() && open.unscaled == 0) {
+            return set(0, 0);
+        }
+        if (close.isFixed() && open.isFixed() && resultScale >= 0 && resultScale < POWERS_OF_TEN.length) {
+            try {
+                int commonScale = Math.max(close.scale, open.scale);
+                long closeAligned = rescale(close.unscaled, commonScale - close.scale);
+                long openAligned = rescale(open.unscaled, commonScale - open.scale);
+                long numerator = Math.multiplyExact(
+                        Math.subtractExact(closeAligned, openAligned), POWERS_OF_TEN[resultScale]);
+                return set(divideHalfUp(numerator, openAligned), resultScale);
+            } catch (ArithmeticException ignored) {
+                // long 범위를 넘으면 BigDecimal로 계산한다
+            }
+        }
+        BigDecimal openValue = open.toBigDecimal();
+        if (openValue.signum() == 0) {
+            return set(0, 0);
+        }
+        return set(close.toBigDecimal().subtract(openValue).divide(openValue, resultScale, RoundingMode.HALF_UP));
+    }
+
+    /**
+     * {@link BigDecimal#doubleValue()}와 같은 값을 돌려준다.
+     * 가수와 10의 거듭제곱이 모두 double로 정확히 표현되면 나눗셈 한 번으로 올바르게 반올림된 값을 얻는다.
+     */
+    public static double toDouble(long unscaled, int scale) {
+        if (Math.abs(unscaled) <= MAX_EXACT_DOUBLE_UNSCALED && scale >= 0 && scale < EXACT_DOUBLE_POWERS_OF_TEN.length) {
+            return unscaled / EXACT_DOUBLE_POWERS_OF_TEN[scale];
+        }
+        return BigDecimal.valueOf(unscaled, scale).doubleValue();
+    }
+
+    private FixedDecimal parse(CharSequence text, byte[] bytes, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        boolean negative = false;
+        if (i < end && charAt(text, bytes, i) == '-') {
+            negative = true;
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean fraction = false;
+        boolean overflowed = false;
+        for (; i < end; i++) {
+            char c = charAt(text, bytes, i);
+            if (c >= '0' && c <= '9') {
+                if (mantissa > (Long.MAX_VALUE - 9) / 10) {
+                    overflowed = true;
+                } else {
+                    mantissa = mantissa * 10 + (c - '0');
+                }
+                digits++;
+                if (fraction) {
+                    fractionDigits++;
+                }
+            } else if (c == '.' && !fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("숫자가 아님: " + slice(text, bytes, offset, length));
+        }
+        long exponent = 0;
+        if (i < end && (charAt(text, bytes, i) == 'e' || charAt(text, bytes, i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (charAt(text, bytes, i) == '+' || charAt(text, bytes, i) == '-')) {
+                negativeExponent = charAt(text, bytes, i) == '-';
+                i++;
+            }
+            int exponentStart = i;
+            for (; i < end && charAt(text, bytes, i) >= '0' && charAt(text, bytes, i) <= '9'; i++) {
+                if (i - exponentStart >= MAX_EXPONENT_DIGITS) {
+                    overflowed = true;
+                } else {
+                    exponent = exponent * 10 + (charAt(text, bytes, i) - '0');
+                }
+            }
+            if (i == exponentStart) {
+                throw new NumberFormatException("지수가 비어 있음: " + slice(text, bytes, offset, length));
+            }
+            if (negativeExponent) {
+                exponent = -exponent;
+            }
+        }
+        if (i != end) {
+            throw new NumberFormatException("숫자가 아님: " + slice(text, bytes, offset, length));
+        }
+        long resultScale = fractionDigits - exponent;
+        if (overflowed || resultScale <= Integer.MIN_VALUE || resultScale > Integer.MAX_VALUE) {
+            return set(new BigDecimal(slice(text, bytes, offset, length)));
+        }
+        return set(negative ? -mantissa : mantissa, (int) resultScale);
+    }
+
+    private static long rescale(long value, int exponent) {
+        if (exponent >= POWERS_OF_TEN.length) {
+            throw new ArithmeticException("스케일 차이가 너무 큼");
+        }
+        return Math.multiplyExact(value, POWERS_OF_TEN[exponent]);
+    }
+
+    private static long divideHalfUp(long numerator, long denominator) {
+        long quotient = numerator / denominator;
+        long remainder = Math.abs(numerator % denominator);
+        if (remainder >= Math.abs(denominator) - remainder) {
+            quotient += (numerator < 0) == (denominator < 0) ? 1 : -1;
+        }
+        return quotient;
+    }
+
+    private static char charAt(CharSequence text, byte[] bytes, int index) {
+        return text != null ? text.charAt(index) : (char) (bytes[index] & 0xff);
+    }
+
+    private static String slice(CharSequence text, byte[] bytes, int offset, int length) {
+        return text != null
+                ? text.subSequence(offset, offset + length).toString()
+                : new String(bytes, offset, length, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,13 @@
+package ksh.tryptocollector.model;
+
+import java.util.List;
+
+/**
+ * {@code MarketInfoCache}의 ID 배정 한 벌. {@code codes}와 {@code markets}는 같은 ID 순서다.
+ */
+public record MarketCatalog(
+        int catalogHash,
+        List<String> codes,
+        List<MarketInfo> markets
+) {
+}
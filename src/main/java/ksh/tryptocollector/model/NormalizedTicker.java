@@ -1,15 +1,218 @@
 package ksh.tryptocollector.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
 import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * 거래소 공통 시세. 가격·변동률·거래대금은 {@code long} 가수와 스케일로 보관하고,
+ * {@link #lastPrice()} 같은 BigDecimal 접근자는 직렬화처럼 실제로 필요할 때 한 번만 만든다.
+ * 가수가 {@code long}을 넘는 값은 스케일을 {@link FixedDecimal#OVERFLOW_SCALE}로 두고 BigDecimal로 보관한다.
+ * {@link #symbolId()}는 {@code MarketInfoCache}가 부여한 거래소 내 마켓 ID이며 JSON에는 나가지 않는다.
+ * JSON 필드 구성과 순서는 레코드였을 때와 같다.
+ */
+@JsonPropertyOrder({"exchange", "base", "quote", "displayName", "lastPrice", "changeRate", "quoteTurnover", "tsMs"})
+public final class NormalizedTicker {
+    public static final int UNKNOWN_SYMBOL_ID = -1;
+
+    private final String exchange;
+    private final int symbolId;
+    private final String base;
+    private final String quote;
+    private final String displayName;
+    private final long lastPriceUnscaled;
+    private final int lastPriceScale;
+    private final long changeRateUnscaled;
+    private final int changeRateScale;
+    private final long quoteTurnoverUnscaled;
+    private final int quoteTurnoverScale;
+    private final long tsMs;
+
+    private BigDecimal lastPrice;
+    private BigDecimal changeRate;
+    private BigDecimal quoteTurnover;
+
+    public NormalizedTicker(String exchange, String base, String quote, String displayName,
+                            BigDecimal lastPrice, BigDecimal changeRate, BigDecimal quoteTurnover, long tsMs) {
+        this(exchange, base, quote, displayName,
+                new FixedDecimal().set(lastPrice),
+                new FixedDecimal().set(changeRate),
+                new FixedDecimal().set(quoteTurnover),
+                tsMs);
+    }
+
+    public NormalizedTicker(String exchange, String base, String quote, String displayName,
+                            FixedDecimal lastPrice, FixedDecimal changeRate, FixedDecimal quoteTurnover, long tsMs) {
+        this(exchange, UNKNOWN_SYMBOL_ID, base, quote, displayName, lastPrice, changeRate, quoteTurnover, tsMs);
+    }
+
+    /**
+     * 심볼 레지스트리가 미리 만들어 둔 {@link MarketInfo}의 문자열을 그대로 써서 tick마다 문자열을 만들지 않는다.
+     */
+    public NormalizedTicker(Exchange exchange, int symbolId, MarketInfo market,
+                            FixedDecimal lastPrice, FixedDecimal changeRate, FixedDecimal quoteTurnover, long tsMs) {
+        this(exchange.name(), symbolId, market.base(), market.quote(), market.displayName(),
+                lastPrice, changeRate, quoteTurnover, tsMs);
+    }
+
+    private NormalizedTicker(String exchange, int symbolId, String base, String quote, String displayName,
+                             FixedDecimal lastPrice, FixedDecimal changeRate, FixedDecimal quoteTurnover, long tsMs) {
+        this.exchange = exchange;
+        this.symbolId = symbolId;
+        this.base = base;
+        this.quote = quote;
+        this.displayName = displayName;
+        this.lastPriceUnscaled = lastPrice.unscaled();
+        this.lastPriceScale = lastPrice.scale();
+        this.lastPrice = lastPrice.overflow();
+        this.changeRateUnscaled = changeRate.unscaled();
+        this.changeRateScale = changeRate.scale();
+        this.changeRate = changeRate.overflow();
+        this.quoteTurnoverUnscaled = quoteTurnover.unscaled();
+        this.quoteTurnoverScale = quoteTurnover.scale();
+        this.quoteTurnover = quoteTurnover.overflow();
+        this.tsMs = tsMs;
+    }
+
+    @JsonProperty("exchange")
+    public String exchange() {
+        return exchange;
+    }
+
+    @JsonProperty("base")
+    public String base() {
+        return base;
+    }
+
+    @JsonProperty("quote")
+    public String quote() {
+        return quote;
+    }
+
+    @JsonProperty("displayName")
+    public String displayName() {
+        return displayName;
+    }
+
+    @JsonProperty("lastPrice")
+    public BigDecimal lastPrice() {
+        BigDecimal value = lastPrice;
+        if (value == null) {
+            value = BigDecimal.valueOf(lastPriceUnscaled, lastPriceScale);
+            lastPrice = value;
+        }
+        return value;
+    }
+
+    @JsonProperty("changeRate")
+    public BigDecimal changeRate() {
+        BigDecimal value = changeRate;
+        if (value == null) {
+            value = BigDecimal.valueOf(changeRateUnscaled, changeRateScale);
+            changeRate = value;
+        }
+        return value;
+    }
+
+    @JsonProperty("quoteTurnover")
+    public BigDecimal quoteTurnover() {
+        BigDecimal value = quoteTurnover;
+        if (value == null) {
+            value = BigDecimal.valueOf(quoteTurnoverUnscaled, quoteTurnoverScale);
+            quoteTurnover = value;
+        }
+        return value;
+    }
+
+    @JsonProperty("tsMs")
+    public long tsMs() {
+        return tsMs;
+    }
+
+    public int symbolId() {
+        return symbolId;
+    }
+
+    public long lastPriceUnscaled() {
+        return lastPriceUnscaled;
+    }
+
+    public int lastPriceScale() {
+        return lastPriceScale;
+    }
+
+    public long changeRateUnscaled() {
+        return changeRateUnscaled;
+    }
+
+    public int changeRateScale() {
+        return changeRateScale;
+    }
+
+    public long quoteTurnoverUnscaled() {
+        return quoteTurnoverUnscaled;
+    }
+
+    public int quoteTurnoverScale() {
+        return quoteTurnoverScale;
+    }
+
+    public boolean sameLastPrice(NormalizedTicker other) {
+        return sameValue(lastPriceUnscaled, lastPriceScale, lastPrice, other.lastPriceUnscaled, other.lastPriceScale, other.lastPrice);
+    }
+
+    public boolean sameChangeRate(NormalizedTicker other) {
+        return sameValue(changeRateUnscaled, changeRateScale, changeRate, other.changeRateUnscaled, other.changeRateScale, other.changeRate);
+    }
+
+    public boolean sameQuoteTurnover(NormalizedTicker other) {
+        return sameValue(quoteTurnoverUnscaled, quoteTurnoverScale, quoteTurnover,
+                other.quoteTurnoverUnscaled, other.quoteTurnoverScale, other.quoteTurnover);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof NormalizedTicker other)) {
+            return false;
+        }
+        return tsMs == other.tsMs
+                && Objects.equals(exchange, other.exchange)
+                && Objects.equals(base, other.base)
+                && Objects.equals(quote, other.quote)
+                && Objects.equals(displayName, other.displayName)
+                && lastPrice().equals(other.lastPrice())
+                && changeRate().equals(other.changeRate())
+                && quoteTurnover().equals(other.quoteTurnover());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(exchange, base, quote, displayName, lastPrice(), changeRate(), quoteTurnover(), tsMs);
+    }
+
+    /**
+     * 가수와 스케일이 모두 같아야 같은 값으로 본다. {@code 1.0}과 {@code 1.00}처럼 직렬화 결과가 다른 값은 다르다.
+     */
+    private static boolean sameValue(long unscaled, int scale, BigDecimal value,
+                                     long otherUnscaled, int otherScale, BigDecimal otherValue) {
+        if (scale != otherScale) {
+            return false;
+        }
+        if (scale == FixedDecimal.OVERFLOW_SCALE) {
+            return value.equals(otherValue);
+        }
+        return unscaled == otherUnscaled;
+    }
 
-public record NormalizedTicker(
-        String exchange,
-        String base,
-        String quote,
-        String displayName,
-        BigDecimal lastPrice,
-        BigDecimal changeRate,
-        BigDecimal quoteTurnover,
-        long tsMs
-) {
+    @Override
+    public String toString() {
+        return "NormalizedTicker[exchange=" + exchange + ", base=" + base + ", quote=" + quote
+                + ", displayName=" + displayName + ", lastPrice=" + lastPrice() + ", changeRate=" + changeRate()
+                + ", quoteTurnover=" + quoteTurnover() + ", tsMs=" + tsMs + "]";
+    }
 }
@@ -0,0 +1,295 @@
+package ksh.tryptocollector.model;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * {@link EncodedTick}의 표현을 바이트로 직접 쌓는 스레드별 재사용 버퍼.
+ * 한 표현을 다 쓰면 {@link #toByteArray()}로 딱 맞는 크기의 배열 하나만 복사해 가고 버퍼는 다음 표현에 다시 쓴다.
+ * 숫자 표기는 JSON은 {@link BigDecimal#toString()}, line protocol은 {@link BigDecimal#toPlainString()}과 같다.
+ */
+final class TickBytesWriter {
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int MAX_LONG_DIGITS = 20;
+    private static final int MIN_PLAIN_ADJUSTED_EXPONENT = -6;
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final ThreadLocal<TickBytesWriter> POOL = ThreadLocal.withInitial(TickBytesWriter::new);
+
+    private byte[] data = new byte[INITIAL_CAPACITY];
+    private int size;
+    private final byte[] digits = new byte[MAX_LONG_DIGITS];
+
+    private TickBytesWriter() {
+    }
+
+    static TickBytesWriter acquire() {
+        TickBytesWriter writer = POOL.get();
+        writer.size = 0;
+        return writer;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(data, size);
+    }
+
+    TickBytesWriter raw(char c) {
+        append((byte) c);
+        return this;
+    }
+
+    /**
+     * 따옴표와 콜론을 포함한 {@code "name":}. 이름은 ASCII 상수만 쓴다.
+     */
+    TickBytesWriter jsonName(String name, boolean first) {
+        if (!first) {
+            append((byte) ',');
+        }
+        append((byte) '"');
+        appendAscii(name);
+        append((byte) '"');
+        append((byte) ':');
+        return this;
+    }
+
+    /**
+     * Jackson 기본 설정과 같은 이스케이프: 따옴표·역슬래시·제어 문자만 이스케이프하고 나머지는 UTF-8 그대로 쓴다.
+     */
+    TickBytesWriter jsonString(String value) {
+        if (value == null) {
+            appendAscii("null");
+            return this;
+        }
+        append((byte) '"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> appendAscii("\\\"");
+                case '\\' -> appendAscii("\\\\");
+                case '\b' -> appendAscii("\\b");
+                case '\t' -> appendAscii("\\t");
+                case '\n' -> appendAscii("\\n");
+                case '\f' -> appendAscii("\\f");
+                case '\r' -> appendAscii("\\r");
+                default -> {
+                    if (c < 0x20) {
+                        appendAscii("\\u00");
+                        append(HEX[c >> 4]);
+                        append(HEX[c & 0xF]);
+                    } else {
+                        i = appendCharAt(value, i);
+                    }
+                }
+            }
+        }
+        append((byte) '"');
+        return this;
+    }
+
+    /**
+     * {@link BigDecimal#toString()}과 같은 표기. 지수 표기가 필요한 드문 값만 BigDecimal을 만든다.
+     */
+    TickBytesWriter jsonDecimal(long unscaled, int scale, BigDecimal overflow) {
+        if (scale == FixedDecimal.OVERFLOW_SCALE) {
+            appendAscii(overflow.toString());
+            return this;
+        }
+        int pos = writeDigits(unscaled);
+        int digitCount = MAX_LONG_DIGITS - pos;
+        if (scale < 0 || digitCount - 1 - scale < MIN_PLAIN_ADJUSTED_EXPONENT) {
+            appendAscii(BigDecimal.valueOf(unscaled, scale).toString());
+            return this;
+        }
+        appendPlain(unscaled < 0, pos, digitCount, scale);
+        return this;
+    }
+
+    /**
+     * {@link BigDecimal#toPlainString()}과 같은 표기.
+     */
+    TickBytesWriter plainDecimal(long unscaled, int scale, BigDecimal overflow) {
+        if (scale == FixedDecimal.OVERFLOW_SCALE) {
+            appendAscii(overflow.toPlainString());
+            return this;
+        }
+        if (unscaled == 0 && scale <= 0) {
+            append((byte) '0');
+            return this;
+        }
+        int pos = writeDigits(unscaled);
+        appendPlain(unscaled < 0, pos, MAX_LONG_DIGITS - pos, scale);
+        return this;
+    }
+
+    TickBytesWriter longValue(long value) {
+        int pos = writeDigits(value);
+        if (value < 0) {
+            append((byte) '-');
+        }
+        appendDigits(pos, MAX_LONG_DIGITS - pos);
+        return this;
+    }
+
+    /**
+     * {@link LocalDateTime#toString()}과 같은 표기. 연도는 네 자리라고 가정한다.
+     */
+    TickBytesWriter localDateTime(LocalDateTime time) {
+        padded(time.getYear(), 4).raw('-').padded(time.getMonthValue(), 2).raw('-').padded(time.getDayOfMonth(), 2)
+                .raw('T').padded(time.getHour(), 2).raw(':').padded(time.getMinute(), 2);
+        int second = time.getSecond();
+        int nano = time.getNano();
+        if (second == 0 && nano == 0) {
+            return this;
+        }
+        raw(':').padded(second, 2);
+        if (nano == 0) {
+            return this;
+        }
+        raw('.');
+        if (nano % 1_000_000 == 0) {
+            padded(nano / 1_000_000, 3);
+        } else if (nano % 1_000 == 0) {
+            padded(nano / 1_000, 6);
+        } else {
+            padded(nano, 9);
+        }
+        return this;
+    }
+
+    /**
+     * line protocol의 measurement·태그 이스케이프. 쉼표와 공백, 태그에서는 {@code =}도 이스케이프한다.
+     */
+    TickBytesWriter lineEscaped(String value, boolean escapeEquals) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == ' ' || (escapeEquals && c == '=')) {
+                append((byte) '\\');
+            }
+            i = appendCharAt(value, i);
+        }
+        return this;
+    }
+
+    /**
+     * 이스케이프 없이 UTF-8로 쓴다. {@link String#getBytes}와 달리 중간 문자열이나 배열을 만들지 않는다.
+     */
+    TickBytesWriter utf8(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            i = appendCharAt(value, i);
+        }
+        return this;
+    }
+
+    private TickBytesWriter padded(int value, int width) {
+        int pos = writeDigits(value);
+        for (int i = MAX_LONG_DIGITS - pos; i < width; i++) {
+            append((byte) '0');
+        }
+        appendDigits(pos, MAX_LONG_DIGITS - pos);
+        return this;
+    }
+
+    private void appendPlain(boolean negative, int pos, int digitCount, int scale) {
+        if (negative) {
+            append((byte) '-');
+        }
+        if (scale <= 0) {
+            appendDigits(pos, digitCount);
+            for (int i = 0; i < -scale; i++) {
+                append((byte) '0');
+            }
+        } else if (digitCount > scale) {
+            appendDigits(pos, digitCount - scale);
+            append((byte) '.');
+            appendDigits(pos + digitCount - scale, scale);
+        } else {
+            append((byte) '0');
+            append((byte) '.');
+            for (int i = 0; i < scale - digitCount; i++) {
+                append((byte) '0');
+            }
+            appendDigits(pos, digitCount);
+        }
+    }
+
+    /**
+     * 부호를 뺀 10진수 자릿수를 {@code digits} 끝에서부터 채우고 시작 위치를 돌려준다.
+     */
+    private int writeDigits(long value) {
+        if (value == 0) {
+            digits[MAX_LONG_DIGITS - 1] = '0';
+            return MAX_LONG_DIGITS - 1;
+        }
+        int pos = MAX_LONG_DIGITS;
+        long remaining = value;
+        while (remaining != 0) {
+            digits[--pos] = (byte) ('0' + Math.abs(remaining % 10));
+            remaining /= 10;
+        }
+        return pos;
+    }
+
+    private void appendDigits(int from, int count) {
+        ensureCapacity(count);
+        System.arraycopy(digits, from, data, size, count);
+        size += count;
+    }
+
+    private void appendAscii(String value) {
+        int length = value.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            data[size++] = (byte) value.charAt(i);
+        }
+    }
+
+    /**
+     * {@code value}의 {@code i}번째 문자를 UTF-8로 쓰고 마지막으로 쓴 위치를 돌려준다.
+     * 서로게이트 쌍은 CESU-8 6바이트가 아니라 코드 포인트 하나의 4바이트로 쓴다.
+     */
+    private int appendCharAt(String value, int i) {
+        char c = value.charAt(i);
+        if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+            appendCodePoint(value.codePointAt(i));
+            return i + 1;
+        }
+        appendChar(c);
+        return i;
+    }
+
+    private void appendChar(char c) {
+        if (c < 0x80) {
+            append((byte) c);
+        } else if (c < 0x800) {
+            append((byte) (0xC0 | (c >> 6)));
+            append((byte) (0x80 | (c & 0x3F)));
+        } else {
+            append((byte) (0xE0 | (c >> 12)));
+            append((byte) (0x80 | ((c >> 6) & 0x3F)));
+            append((byte) (0x80 | (c & 0x3F)));
+        }
+    }
+
+    private void appendCodePoint(int codePoint) {
+        if (codePoint < 0x10000) {
+            appendChar((char) codePoint);
+            return;
+        }
+        append((byte) (0xF0 | (codePoint >> 18)));
+        append((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+        append((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+        append((byte) (0x80 | (codePoint & 0x3F)));
+    }
+
+    private void append(byte b) {
+        ensureCapacity(1);
+        data[size++] = b;
+    }
+
+    private void ensureCapacity(int additional) {
+        if (size + additional > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length << 1, size + additional));
+        }
+    }
+}
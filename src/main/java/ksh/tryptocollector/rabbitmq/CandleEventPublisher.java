@@ -0,0 +1,27 @@
+package ksh.tryptocollector.rabbitmq;
+
+import ksh.tryptocollector.model.CandleEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 형성 중인 캔들을 RabbitMQ Fanout Exchange({@code candle.exchange})에 {@link CandleEvent#json()} 본문으로 발행한다.
+ * 실패는 호출자에게 넘긴다.
+ */
+@Component
+@RequiredArgsConstructor
+public class CandleEventPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+
+    public void publish(CandleEvent event) {
+        Message message = MessageBuilder.withBody(event.json())
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .build();
+        rabbitTemplate.send(RabbitMQConfig.CANDLE_EXCHANGE, "", message);
+    }
+}
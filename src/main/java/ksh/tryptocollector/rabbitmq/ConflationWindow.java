@@ -0,0 +1,88 @@
+package ksh.tryptocollector.rabbitmq;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 키별 최신 값만 남겨 두었다가 윈도우마다 한 번씩 내보내는 병합기.
+ * 윈도우 안에서 덮어쓰인 값은 suppressed로 세고, 마지막 값은 다음 플러시에서 반드시 내보낸다.
+ */
+@Slf4j
+public class ConflationWindow<K, V> {
+
+    private final String name;
+    private final long windowMs;
+    private final Consumer<V> emitter;
+    private final ConcurrentHashMap<K, V> pending = new ConcurrentHashMap<>();
+    private final Counter emittedCounter;
+    private final Counter suppressedCounter;
+
+    private ScheduledFuture<?> flushTask;
+
+    public ConflationWindow(String metricName, String name, long windowMs, Consumer<V> emitter, MeterRegistry registry) {
+        this.name = name;
+        this.windowMs = windowMs;
+        this.emitter = emitter;
+        this.emittedCounter = Counter.builder(metricName)
+                .tag("exchange", name)
+                .tag("result", "emitted")
+                .register(registry);
+        this.suppressedCounter = Counter.builder(metricName)
+                .tag("exchange", name)
+                .tag("result", "suppressed")
+                .register(registry);
+    }
+
+    public void start(ScheduledExecutorService scheduler) {
+        if (flushTask != null) {
+            return;
+        }
+        flushTask = scheduler.scheduleWithFixedDelay(this::flush, windowMs, windowMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (flushTask != null) {
+            flushTask.cancel(false);
+            flushTask = null;
+        }
+        flush();
+    }
+
+    public void offer(K key, V value) {
+        if (pending.put(key, value) != null) {
+            suppressedCounter.increment();
+        }
+    }
+
+    /**
+     * 더 새로운 값이 다른 경로로 나갈 때 남아 있던 값을 버린다. 버린 값은 suppressed로 센다.
+     */
+    public void discard(K key) {
+        if (pending.remove(key) != null) {
+            suppressedCounter.increment();
+        }
+    }
+
+    public void flush() {
+        for (K key : pending.keySet()) {
+            V value = pending.remove(key);
+            if (value == null) {
+                continue;
+            }
+            try {
+                emitter.accept(value);
+                emittedCounter.increment();
+            } catch (Exception e) {
+                pending.putIfAbsent(key, value);
+                log.warn("{} 병합 윈도우 발행 실패: {}", name, e.getMessage());
+            }
+        }
+    }
+}
@@ -1,60 +1,259 @@
 package ksh.tryptocollector.rabbitmq;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import ksh.tryptocollector.exchange.SinkHealth;
+import ksh.tryptocollector.exchange.SinkType;
+import ksh.tryptocollector.model.EncodedTick;
 import ksh.tryptocollector.model.NormalizedTicker;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.core.MessageBuilder;
 import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import tools.jackson.core.JacksonException;
-import tools.jackson.databind.ObjectMapper;
 
-import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class EngineInboxPublisher {
+    private static final String TICK_EVENT_TYPE = "TickReceived";
+    private static final String TICK_BATCH_EVENT_TYPE = "TickBatchReceived";
 
     private final RabbitTemplate rabbitTemplate;
-    private final ObjectMapper objectMapper;
+    private final TickWireFormat tickWireFormat;
     private final MeterRegistry meterRegistry;
+    private final WireFormat wireFormat;
+    private final boolean batchEnabled;
+    private final int batchMaxSize;
+    private final long batchMaxDelayMs;
+    private final DistributionSummary batchSizeSummary;
+    private final SinkHealth sinkHealth;
 
-    public void publish(NormalizedTicker ticker) {
+    private final ReentrantLock batchLock = new ReentrantLock();
+    private List<EncodedTick> pendingTicks;
+    private volatile Consumer<List<EncodedTick>> failedBatchHandler;
+    private ScheduledExecutorService batchScheduler;
+
+    public EngineInboxPublisher(
+            RabbitTemplate rabbitTemplate,
+            TickWireFormat tickWireFormat,
+            MeterRegistry meterRegistry,
+            SinkHealth sinkHealth,
+            @Value("${engine-inbox.wire-format:json}") String wireFormat,
+            @Value("${engine-inbox.batch.enabled:false}") boolean batchEnabled,
+            @Value("${engine-inbox.batch.max-size:200}") int batchMaxSize,
+            @Value("${engine-inbox.batch.max-delay-ms:5}") long batchMaxDelayMs) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.tickWireFormat = tickWireFormat;
+        this.meterRegistry = meterRegistry;
+        this.sinkHealth = sinkHealth;
+        this.wireFormat = WireFormat.from(wireFormat);
+        this.batchEnabled = batchEnabled;
+        this.batchMaxSize = batchMaxSize;
+        this.batchMaxDelayMs = batchMaxDelayMs;
+        this.batchSizeSummary = DistributionSummary.builder("engine.inbox.batch.size")
+                .description("engine.inbox 배치 메시지 하나에 담긴 tick 수")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.pendingTicks = new ArrayList<>(batchMaxSize);
+    }
+
+    @PostConstruct
+    void start() {
+        if (wireFormat == WireFormat.BINARY) {
+            log.info("engine.inbox 바이너리 본문 사용: {}", TickWireFormat.CONTENT_TYPE);
+        }
+        if (!batchEnabled) {
+            return;
+        }
+        batchScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "engine-inbox-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        batchScheduler.scheduleWithFixedDelay(this::flush, batchMaxDelayMs, batchMaxDelayMs, TimeUnit.MILLISECONDS);
+        log.info("engine.inbox 배치 발행 활성화: maxSize={}, maxDelay={}ms", batchMaxSize, batchMaxDelayMs);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (batchScheduler == null) {
+            return;
+        }
+        batchScheduler.shutdownNow();
+        flush();
+    }
+
+    /**
+     * 브로커 전송 실패는 호출자에게 던진다. 배치 모드에서는 적재만 하므로 실패는 {@link #onFailedBatch}로 알린다.
+     * JSON 본문은 {@link EncodedTick#engineJson()}을 그대로 보낸다.
+     */
+    public void publish(EncodedTick tick) {
+        if (batchEnabled) {
+            enqueue(tick);
+            return;
+        }
+        byte[] body = wireFormat == WireFormat.BINARY
+                ? tickWireFormat.encodeEngineTicks(List.of(tick.ticker()))
+                : tick.engineJson();
+        send(body, TICK_EVENT_TYPE);
+        incrementPublishCounter(tick.exchange());
+    }
+
+    /**
+     * spill 드레이너가 쓰는 동기 발행. 브로커가 받은 뒤에 돌아오고 실패는 던지므로, 호출자는 돌아온 뒤에만 레코드를 넘긴다.
+     * 배치 모드에서는 먼저 적재돼 있던 tick을 내보낸 뒤 {@code max-size}개씩 {@code TickBatchReceived}로 보내고,
+     * 단건 모드에서는 tick마다 {@code TickReceived}로 보낸다.
+     */
+    public void publishNow(List<EncodedTick> ticks) {
+        if (!batchEnabled) {
+            for (EncodedTick tick : ticks) {
+                publish(tick);
+            }
+            return;
+        }
+        batchLock.lock();
         try {
-            Map<String, Object> payload = Map.of(
-                "exchange", ticker.exchange(),
-                "displayName", ticker.base(),
-                "tradePrice", ticker.lastPrice(),
-                "tickAt", LocalDateTime.ofInstant(Instant.ofEpochMilli(ticker.tsMs()), ZoneId.systemDefault()).toString()
-            );
-            byte[] body;
-            try {
-                body = objectMapper.writeValueAsBytes(payload);
-            } catch (JacksonException e) {
-                log.error("tick 직렬화 실패: {}", payload, e);
+            flush();
+            for (int from = 0; from < ticks.size(); from += batchMaxSize) {
+                List<EncodedTick> chunk = ticks.subList(from, Math.min(from + batchMaxSize, ticks.size()));
+                send(encodeBatch(chunk), TICK_BATCH_EVENT_TYPE);
+                batchSizeSummary.record(chunk.size());
+                for (EncodedTick tick : chunk) {
+                    incrementPublishCounter(tick.exchange());
+                }
+            }
+        } finally {
+            batchLock.unlock();
+        }
+    }
+
+    /**
+     * 배치 발행이 실패했을 때 그 배치의 tick을 넘겨받을 곳을 정한다.
+     */
+    public void onFailedBatch(Consumer<List<EncodedTick>> handler) {
+        this.failedBatchHandler = handler;
+    }
+
+    /**
+     * 모인 tick을 {@code TickBatchReceived} 메시지 하나로 발행한다.
+     * 발행 순서가 tick 수신 순서와 같도록 락을 쥔 채로 보낸다.
+     */
+    public void flush() {
+        batchLock.lock();
+        try {
+            if (pendingTicks.isEmpty()) {
                 return;
             }
-            Message message = MessageBuilder.withBody(body)
-                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
-                .setDeliveryMode(MessageProperties.DEFAULT_DELIVERY_MODE)
-                .setHeader("event_type", "TickReceived")
-                .build();
+            List<EncodedTick> ticks = pendingTicks;
+            pendingTicks = new ArrayList<>(batchMaxSize);
+            try {
+                send(encodeBatch(ticks), TICK_BATCH_EVENT_TYPE);
+                batchSizeSummary.record(ticks.size());
+                for (EncodedTick tick : ticks) {
+                    incrementPublishCounter(tick.exchange());
+                }
+            } catch (Exception e) {
+                log.error("engine.inbox 배치 발행 실패: {}건", ticks.size(), e);
+                Consumer<List<EncodedTick>> handler = failedBatchHandler;
+                if (handler != null) {
+                    handler.accept(ticks);
+                }
+            }
+        } finally {
+            batchLock.unlock();
+        }
+    }
+
+    private void enqueue(EncodedTick tick) {
+        batchLock.lock();
+        try {
+            pendingTicks.add(tick);
+            if (pendingTicks.size() >= batchMaxSize) {
+                flush();
+            }
+        } finally {
+            batchLock.unlock();
+        }
+    }
+
+    private byte[] encodeBatch(List<EncodedTick> ticks) {
+        if (wireFormat == WireFormat.BINARY) {
+            List<NormalizedTicker> tickers = new ArrayList<>(ticks.size());
+            for (EncodedTick tick : ticks) {
+                tickers.add(tick.ticker());
+            }
+            return tickWireFormat.encodeEngineTicks(tickers);
+        }
+        return toBatchJson(ticks);
+    }
+
+    /**
+     * 단건 본문을 JSON 배열로 이어 붙인다. tick마다 다시 직렬화하지 않는다.
+     */
+    static byte[] toBatchJson(List<EncodedTick> ticks) {
+        int size = 1 + ticks.size();
+        for (EncodedTick tick : ticks) {
+            size += tick.engineJson().length;
+        }
+        byte[] body = new byte[size];
+        int position = 0;
+        body[position++] = '[';
+        for (int i = 0; i < ticks.size(); i++) {
+            if (i > 0) {
+                body[position++] = ',';
+            }
+            byte[] json = ticks.get(i).engineJson();
+            System.arraycopy(json, 0, body, position, json.length);
+            position += json.length;
+        }
+        body[position] = ']';
+        return body;
+    }
+
+    /**
+     * 서킷이 열렸을 때 {@link SinkHealth}가 복구를 확인하는 요청. {@code engine.inbox} 큐를 passive로 선언한다.
+     */
+    public void ping() {
+        rabbitTemplate.execute(channel -> channel.queueDeclarePassive(RabbitMQConfig.ENGINE_INBOX_QUEUE));
+    }
+
+    /**
+     * 단건·배치·spill 재전송이 모두 여기를 지나므로 결과를 한 번만 서킷에 알린다.
+     */
+    private void send(byte[] body, String eventType) {
+        Message message = MessageBuilder.withBody(body)
+            .setContentType(wireFormat == WireFormat.BINARY ? TickWireFormat.CONTENT_TYPE : MessageProperties.CONTENT_TYPE_JSON)
+            .setDeliveryMode(MessageProperties.DEFAULT_DELIVERY_MODE)
+            .setHeader("event_type", eventType)
+            .build();
+        long start = System.nanoTime();
+        try {
             rabbitTemplate.send("", RabbitMQConfig.ENGINE_INBOX_QUEUE, message);
-            Counter.builder("engine.inbox.tick.publish")
-                .tag("exchange", ticker.exchange())
-                .register(meterRegistry)
-                .increment();
-        } catch (Exception e) {
-            log.error("engine.inbox 발행 실패: {}/{}", ticker.exchange(), ticker.base(), e);
+        } catch (RuntimeException e) {
+            sinkHealth.recordFailure(SinkType.ENGINE_INBOX, start, e);
+            throw e;
         }
+        sinkHealth.recordSuccess(SinkType.ENGINE_INBOX, start);
+    }
+
+    private void incrementPublishCounter(String exchange) {
+        Counter.builder("engine.inbox.tick.publish")
+            .tag("exchange", exchange)
+            .register(meterRegistry)
+            .increment();
     }
 }
@@ -16,12 +16,18 @@ public class RabbitMQConfig {
 
     public static final String TICKER_EXCHANGE = "ticker.exchange";
     public static final String ENGINE_INBOX_QUEUE = "engine.inbox";
+    public static final String CANDLE_EXCHANGE = "candle.exchange";
 
     @Bean
     public FanoutExchange tickerExchange() {
         return new FanoutExchange(TICKER_EXCHANGE);
     }
 
+    @Bean
+    public FanoutExchange candleExchange() {
+        return new FanoutExchange(CANDLE_EXCHANGE);
+    }
+
     @Bean
     public Queue engineInboxQueue() {
         return new Queue(ENGINE_INBOX_QUEUE, true, false, false);
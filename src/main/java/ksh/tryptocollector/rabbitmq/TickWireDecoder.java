@@ -0,0 +1,142 @@
+package ksh.tryptocollector.rabbitmq;
+
+import ksh.tryptocollector.metadata.MarketInfoCache;
+import ksh.tryptocollector.model.Exchange;
+import ksh.tryptocollector.model.MarketInfo;
+
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link TickWireFormat} 본문의 참조 디코더. 소비자가 그대로 옮겨 쓸 수 있도록 Spring과 수집기 내부 상태에 기대지 않는다.
+ * {@code market-meta:{EXCHANGE}:catalog}에서 읽은 마켓 목록을 {@link #register}로 넣어 두고 {@link #decode}를 부른다.
+ * 메시지의 catalogHash가 등록한 카탈로그와 다르면 {@link StaleCatalogException}을 던지므로 카탈로그를 다시 읽고 재시도한다.
+ */
+public final class TickWireDecoder {
+    private final Map<Exchange, Catalog> catalogs = new EnumMap<>(Exchange.class);
+
+    /**
+     * ID 순서의 마켓 목록을 등록한다. 함께 저장된 해시와 직접 계산한 해시가 다르면 목록이 잘린 것이므로 거절한다.
+     */
+    public void register(Exchange exchange, int catalogHash, List<MarketInfo> marketInfosById) {
+        int computed = MarketInfoCache.catalogHash(marketInfosById);
+        if (computed != catalogHash) {
+            throw new IllegalArgumentException(
+                    "카탈로그 해시 불일치: exchange=" + exchange + ", stored=" + catalogHash + ", computed=" + computed);
+        }
+        catalogs.put(exchange, new Catalog(catalogHash, List.copyOf(marketInfosById)));
+    }
+
+    public List<DecodedTick> decode(byte[] body) {
+        ByteBuffer buffer = ByteBuffer.wrap(body);
+        try {
+            byte version = buffer.get();
+            if (version != TickWireFormat.VERSION) {
+                throw new IllegalArgumentException("지원하지 않는 버전: " + version);
+            }
+            byte kind = buffer.get();
+            if (kind != TickWireFormat.KIND_ENGINE_TICK && kind != TickWireFormat.KIND_TICKER_EVENT) {
+                throw new IllegalArgumentException("알 수 없는 메시지 종류: " + kind);
+            }
+            int count = buffer.getShort();
+            List<DecodedTick> ticks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                ticks.add(decodeRecord(buffer, kind));
+            }
+            if (buffer.hasRemaining()) {
+                throw new IllegalArgumentException("메시지 끝에 남은 바이트: " + buffer.remaining());
+            }
+            return ticks;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("메시지가 중간에 끊김", e);
+        }
+    }
+
+    private DecodedTick decodeRecord(ByteBuffer buffer, byte kind) {
+        Exchange exchange = TickWireFormat.exchangeOf(buffer.get());
+        int catalogHash = buffer.getInt();
+        int symbolId = buffer.getInt();
+        String pair = symbolId == TickWireFormat.INLINE_SYMBOL_ID
+                ? getString(buffer, StandardCharsets.UTF_8)
+                : resolve(exchange, catalogHash, symbolId);
+        BigDecimal price = getDecimal(buffer);
+        BigDecimal changeRate = null;
+        BigDecimal quoteTurnover = null;
+        if (kind == TickWireFormat.KIND_TICKER_EVENT) {
+            changeRate = getDecimal(buffer);
+            quoteTurnover = getDecimal(buffer);
+        }
+        return new DecodedTick(kind, exchange, pair, price, changeRate, quoteTurnover, buffer.getLong());
+    }
+
+    private String resolve(Exchange exchange, int catalogHash, int symbolId) {
+        Catalog catalog = catalogs.get(exchange);
+        if (catalog == null || catalog.hash() != catalogHash) {
+            throw new StaleCatalogException(exchange, catalogHash);
+        }
+        if (symbolId < 0 || symbolId >= catalog.markets().size()) {
+            throw new IllegalArgumentException("카탈로그에 없는 심볼 ID: " + exchange + "/" + symbolId);
+        }
+        return catalog.markets().get(symbolId).pair();
+    }
+
+    private static BigDecimal getDecimal(ByteBuffer buffer) {
+        byte scale = buffer.get();
+        if (scale == TickWireFormat.OVERFLOW_SCALE) {
+            return new BigDecimal(getString(buffer, StandardCharsets.US_ASCII));
+        }
+        return BigDecimal.valueOf(buffer.getLong(), scale);
+    }
+
+    private static String getString(ByteBuffer buffer, Charset charset) {
+        byte[] bytes = new byte[buffer.getShort() & 0xffff];
+        buffer.get(bytes);
+        return new String(bytes, charset);
+    }
+
+    /**
+     * 디코딩한 tick 하나. {@code symbol}은 {@code BASE/QUOTE}이고, engine tick이면 변동률과 거래대금이 null이다.
+     */
+    public record DecodedTick(
+            byte kind,
+            Exchange exchange,
+            String symbol,
+            BigDecimal price,
+            BigDecimal changeRate,
+            BigDecimal quoteTurnover,
+            long tsMs
+    ) {
+    }
+
+    /**
+     * 메시지가 등록하지 않은 ID 배정을 가리킨다. 수집기가 재시작해 카탈로그가 바뀐 경우다.
+     */
+    public static final class StaleCatalogException extends RuntimeException {
+        private final Exchange exchange;
+        private final int catalogHash;
+
+        public StaleCatalogException(Exchange exchange, int catalogHash) {
+            super("등록된 카탈로그와 다른 해시: exchange=" + exchange + ", hash=" + catalogHash);
+            this.exchange = exchange;
+            this.catalogHash = catalogHash;
+        }
+
+        public Exchange getExchange() {
+            return exchange;
+        }
+
+        public int getCatalogHash() {
+            return catalogHash;
+        }
+    }
+
+    private record Catalog(int hash, List<MarketInfo> markets) {
+    }
+}
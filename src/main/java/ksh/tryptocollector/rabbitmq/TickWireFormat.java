@@ -0,0 +1,169 @@
+package ksh.tryptocollector.rabbitmq;
+
+import ksh.tryptocollector.metadata.MarketInfoCache;
+import ksh.tryptocollector.model.Exchange;
+import ksh.tryptocollector.model.FixedDecimal;
+import ksh.tryptocollector.model.MarketInfo;
+import ksh.tryptocollector.model.NormalizedTicker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * engine.inbox와 ticker.exchange의 바이너리 본문 인코더. 필드 이름 없이 고정 폭 숫자로 쓰고, 모든 정수는 big-endian이다.
+ * 형식이 바뀌면 {@link #VERSION}을 올리고, 소비자는 {@link TickWireDecoder}처럼 모르는 버전을 거절한다.
+ *
+ * <pre>
+ * message := [byte version][byte kind][short count] record*
+ * record  := [byte exchange][int catalogHash][int symbolId] symbol? decimal+ [long tsMs]
+ * symbol  := [short length][pair UTF-8]                 (symbolId == -1일 때만)
+ * decimal := [byte scale][long unscaled]
+ *          | [byte -128][short length][plain ASCII]     (가수가 long을 넘거나 스케일이 byte를 넘을 때)
+ * </pre>
+ *
+ * <p>{@link #KIND_ENGINE_TICK}은 decimal이 체결가 하나, {@link #KIND_TICKER_EVENT}는 현재가·변동률·거래대금 세 개다.
+ * symbolId는 {@link MarketInfoCache}의 거래소 내 ID이고, catalogHash로 어느 ID 배정인지 알린다.
+ * 소비자는 {@code market-meta:{EXCHANGE}:catalog}의 마켓 목록으로 ID를 pair로 바꾸고, 해시가 다르면 카탈로그를 다시 읽는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class TickWireFormat {
+    public static final byte VERSION = 1;
+    public static final String CONTENT_TYPE = "application/vnd.trypto.tick+binary; version=" + VERSION;
+    public static final byte KIND_ENGINE_TICK = 1;
+    public static final byte KIND_TICKER_EVENT = 2;
+
+    static final int HEADER_SIZE = 4;
+    static final int INLINE_SYMBOL_ID = -1;
+    static final byte OVERFLOW_SCALE = Byte.MIN_VALUE;
+    private static final int RECORD_FIXED_SIZE = 1 + 4 + 4 + 8;
+    private static final int DECIMAL_SIZE = 1 + 8;
+
+    private final MarketInfoCache marketInfoCache;
+
+    public byte[] encodeEngineTicks(List<NormalizedTicker> tickers) {
+        return encode(KIND_ENGINE_TICK, tickers);
+    }
+
+    public byte[] encodeTickerEvent(NormalizedTicker ticker) {
+        return encode(KIND_TICKER_EVENT, List.of(ticker));
+    }
+
+    static byte exchangeCode(Exchange exchange) {
+        return switch (exchange) {
+            case UPBIT -> 1;
+            case BITHUMB -> 2;
+            case BINANCE -> 3;
+        };
+    }
+
+    static Exchange exchangeOf(byte code) {
+        return switch (code) {
+            case 1 -> Exchange.UPBIT;
+            case 2 -> Exchange.BITHUMB;
+            case 3 -> Exchange.BINANCE;
+            default -> throw new IllegalArgumentException("알 수 없는 거래소 코드: " + code);
+        };
+    }
+
+    /**
+     * 크기 계산과 쓰기가 같은 ID 배정을 보도록 거래소마다 스냅샷을 한 번만 읽어 두 단계에 함께 쓴다.
+     */
+    private byte[] encode(byte kind, List<NormalizedTicker> tickers) {
+        if (tickers.size() > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("메시지 하나에 담을 수 있는 tick 수 초과: " + tickers.size());
+        }
+        MarketInfoCache.Snapshot[] snapshots = new MarketInfoCache.Snapshot[Exchange.values().length];
+        int size = HEADER_SIZE;
+        for (NormalizedTicker ticker : tickers) {
+            size += recordSize(kind, ticker, snapshot(snapshots, ticker));
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(VERSION).put(kind).putShort((short) tickers.size());
+        for (NormalizedTicker ticker : tickers) {
+            MarketInfoCache.Snapshot snapshot = snapshot(snapshots, ticker);
+            buffer.put(exchangeCode(Exchange.valueOf(ticker.exchange()))).putInt(snapshot.catalogHash());
+            int symbolId = symbolId(snapshot, ticker);
+            buffer.putInt(symbolId);
+            if (symbolId == INLINE_SYMBOL_ID) {
+                putString(buffer, pair(ticker).getBytes(StandardCharsets.UTF_8));
+            }
+            putDecimal(buffer, ticker.lastPriceUnscaled(), ticker.lastPriceScale(), ticker.lastPrice());
+            if (kind == KIND_TICKER_EVENT) {
+                putDecimal(buffer, ticker.changeRateUnscaled(), ticker.changeRateScale(), ticker.changeRate());
+                putDecimal(buffer, ticker.quoteTurnoverUnscaled(), ticker.quoteTurnoverScale(), ticker.quoteTurnover());
+            }
+            buffer.putLong(ticker.tsMs());
+        }
+        return buffer.array();
+    }
+
+    private MarketInfoCache.Snapshot snapshot(MarketInfoCache.Snapshot[] snapshots, NormalizedTicker ticker) {
+        Exchange exchange = Exchange.valueOf(ticker.exchange());
+        MarketInfoCache.Snapshot snapshot = snapshots[exchange.ordinal()];
+        if (snapshot == null) {
+            snapshot = marketInfoCache.snapshot(exchange);
+            snapshots[exchange.ordinal()] = snapshot;
+        }
+        return snapshot;
+    }
+
+    /**
+     * 레지스트리 밖에서 만든 tick이나 tick을 만든 뒤 ID 배정이 바뀌어 이 스냅샷에서 다른 마켓을 가리키는 ID는
+     * pair를 본문에 직접 싣는다. 그래서 실린 ID는 항상 같은 레코드의 catalogHash 배정에서 이 tick의 마켓이다.
+     */
+    private static int symbolId(MarketInfoCache.Snapshot snapshot, NormalizedTicker ticker) {
+        int symbolId = ticker.symbolId();
+        if (symbolId < 0 || symbolId >= snapshot.size()) {
+            return INLINE_SYMBOL_ID;
+        }
+        MarketInfo market = snapshot.marketInfo(symbolId);
+        return market.base().equals(ticker.base()) && market.quote().equals(ticker.quote())
+                ? symbolId
+                : INLINE_SYMBOL_ID;
+    }
+
+    private static int recordSize(byte kind, NormalizedTicker ticker, MarketInfoCache.Snapshot snapshot) {
+        int size = RECORD_FIXED_SIZE + decimalSize(ticker.lastPriceScale(), ticker.lastPrice());
+        if (kind == KIND_TICKER_EVENT) {
+            size += decimalSize(ticker.changeRateScale(), ticker.changeRate());
+            size += decimalSize(ticker.quoteTurnoverScale(), ticker.quoteTurnover());
+        }
+        if (symbolId(snapshot, ticker) == INLINE_SYMBOL_ID) {
+            size += 2 + pair(ticker).getBytes(StandardCharsets.UTF_8).length;
+        }
+        return size;
+    }
+
+    private static int decimalSize(int scale, BigDecimal value) {
+        if (fitsFixed(scale)) {
+            return DECIMAL_SIZE;
+        }
+        return 1 + 2 + value.toPlainString().length();
+    }
+
+    private static boolean fitsFixed(int scale) {
+        return scale != FixedDecimal.OVERFLOW_SCALE && scale > OVERFLOW_SCALE && scale <= Byte.MAX_VALUE;
+    }
+
+    private static void putDecimal(ByteBuffer buffer, long unscaled, int scale, BigDecimal value) {
+        if (fitsFixed(scale)) {
+            buffer.put((byte) scale).putLong(unscaled);
+            return;
+        }
+        buffer.put(OVERFLOW_SCALE);
+        putString(buffer, value.toPlainString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        buffer.putShort((short) bytes.length).put(bytes);
+    }
+
+    private static String pair(NormalizedTicker ticker) {
+        return ticker.base() + "/" + ticker.quote();
+    }
+}
@@ -2,48 +2,210 @@ package ksh.tryptocollector.rabbitmq;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
-import ksh.tryptocollector.model.NormalizedTicker;
-import ksh.tryptocollector.model.TickerEvent;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import ksh.tryptocollector.exchange.OverloadLevelChangedEvent;
+import ksh.tryptocollector.exchange.SinkHealth;
+import ksh.tryptocollector.exchange.SinkType;
+import ksh.tryptocollector.model.EncodedTick;
+import ksh.tryptocollector.model.Exchange;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.core.MessageBuilder;
 import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
-import tools.jackson.core.JacksonException;
-import tools.jackson.databind.ObjectMapper;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class TickerEventPublisher {
+    private static final String CONFLATION_WINDOW_PROPERTY = "ticker-event.conflation.%s-window-ms";
+    private static final String CONFLATION_METRIC_NAME = "rabbitmq.publish.conflation";
+    private static final String OVERLOAD_ENABLED_PROPERTY = "sink.overload.enabled";
+    private static final String OVERLOAD_WINDOW_PROPERTY = "ticker-event.conflation.overload-window-ms";
+    private static final String OVERLOAD_CONFLATION_METRIC_NAME = "rabbitmq.publish.overload-conflation";
+    private static final String WIRE_FORMAT_PROPERTY = "ticker-event.wire-format";
 
     private final RabbitTemplate rabbitTemplate;
-    private final ObjectMapper objectMapper;
+    private final TickWireFormat tickWireFormat;
     private final MeterRegistry meterRegistry;
+    private final WireFormat wireFormat;
+    private final SinkHealth sinkHealth;
+    private final Map<String, ConflationWindow<String, EncodedTick>> conflationWindows = new HashMap<>();
+    private final Map<String, ConflationWindow<String, EncodedTick>> overloadWindows = new HashMap<>();
+    private final ReentrantReadWriteLock overloadLock = new ReentrantReadWriteLock();
+    private final long overloadWindowMs;
+
+    private volatile boolean overloaded;
+    private ScheduledExecutorService conflationScheduler;
+
+    public TickerEventPublisher(RabbitTemplate rabbitTemplate, TickWireFormat tickWireFormat,
+                                MeterRegistry meterRegistry, Environment environment, SinkHealth sinkHealth) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.tickWireFormat = tickWireFormat;
+        this.meterRegistry = meterRegistry;
+        this.sinkHealth = sinkHealth;
+        this.wireFormat = WireFormat.from(environment.getProperty(WIRE_FORMAT_PROPERTY, "json"));
+        if (wireFormat == WireFormat.BINARY) {
+            log.info("시세 이벤트 바이너리 본문 사용: {}", TickWireFormat.CONTENT_TYPE);
+        }
+        this.overloadWindowMs = environment.getProperty(OVERLOAD_ENABLED_PROPERTY, Boolean.class, false)
+                ? environment.getProperty(OVERLOAD_WINDOW_PROPERTY, Long.class, 1000L)
+                : 0L;
+        for (Exchange exchange : Exchange.values()) {
+            String property = String.format(CONFLATION_WINDOW_PROPERTY, exchange.name().toLowerCase());
+            long windowMs = environment.getProperty(property, Long.class, 0L);
+            if (windowMs > 0) {
+                conflationWindows.put(exchange.name(), new ConflationWindow<>(
+                        CONFLATION_METRIC_NAME, exchange.name(), windowMs, this::send, meterRegistry));
+                log.info("{} 시세 이벤트 병합 윈도우: {}ms", exchange, windowMs);
+            }
+            if (overloadWindowMs > windowMs) {
+                overloadWindows.put(exchange.name(), new ConflationWindow<>(
+                        OVERLOAD_CONFLATION_METRIC_NAME, exchange.name(), overloadWindowMs, this::send, meterRegistry));
+            }
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        if (conflationWindows.isEmpty() && overloadWindows.isEmpty()) {
+            return;
+        }
+        conflationScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ticker-event-conflation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        conflationWindows.values().forEach(window -> window.start(conflationScheduler));
+        if (!overloadWindows.isEmpty()) {
+            conflationScheduler.scheduleWithFixedDelay(
+                    this::flushOverloadWindows, overloadWindowMs, overloadWindowMs, TimeUnit.MILLISECONDS);
+        }
+    }
 
-    public void publish(NormalizedTicker ticker) {
+    @PreDestroy
+    void shutdown() {
+        if (conflationScheduler == null) {
+            return;
+        }
+        conflationScheduler.shutdownNow();
+        conflationWindows.values().forEach(ConflationWindow::stop);
+        overloadWindows.values().forEach(ConflationWindow::stop);
+    }
+
+    /**
+     * 과부하 단계가 CONFLATE_EVENTS 이상이면 모든 거래소 이벤트를 {@code ticker-event.conflation.overload-window-ms}
+     * 윈도우로 모은다. 평소 윈도우가 이보다 길거나 같은 거래소는 평소 윈도우를 그대로 쓴다.
+     * 과부하 윈도우는 {@code sink.overload.enabled}가 켜져 있을 때만 만든다.
+     * 단계가 내려가면 쓰기 잠금 안에서 모아 둔 값을 내보낸 뒤 플래그를 바꿔, 이후 단건 발행이 이전 값을 앞지르지 않게 한다.
+     */
+    @EventListener
+    public void onOverloadLevelChanged(OverloadLevelChangedEvent event) {
+        if (overloadWindows.isEmpty()) {
+            return;
+        }
+        boolean conflate = event.getCurrent().conflatesEvents();
+        overloadLock.writeLock().lock();
         try {
-            TickerEvent event = TickerEvent.from(ticker);
-            byte[] body;
-            try {
-                body = objectMapper.writeValueAsBytes(event);
-            } catch (JacksonException e) {
-                log.error("시세 이벤트 직렬화 실패: {}", event, e);
+            if (conflate == overloaded) {
                 return;
             }
-            Message message = MessageBuilder.withBody(body)
-                    .setContentType(MessageProperties.CONTENT_TYPE_JSON)
-                    .build();
+            if (!conflate) {
+                overloadWindows.values().forEach(ConflationWindow::flush);
+            }
+            overloaded = conflate;
+        } finally {
+            overloadLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 과부하 윈도우가 있으면 읽기 잠금 안에서 경로를 고른다. 고르지 않은 윈도우에 남은 같은 심볼의 값은 이번 값보다 오래됐으므로 버린다.
+     * 플러시 실패로 다시 담긴 값이 단계가 바뀐 뒤 새 값보다 늦게 나가지 않게 하기 위해서다.
+     */
+    public void publish(EncodedTick tick) {
+        if (overloadWindows.isEmpty()) {
+            offerOrSend(conflationWindows.get(tick.exchange()), tick);
+            return;
+        }
+        overloadLock.readLock().lock();
+        try {
+            ConflationWindow<String, EncodedTick> overloadWindow = overloadWindows.get(tick.exchange());
+            ConflationWindow<String, EncodedTick> window = conflationWindows.get(tick.exchange());
+            if (overloaded && overloadWindow != null) {
+                if (window != null) {
+                    window.discard(tick.symbol());
+                }
+                window = overloadWindow;
+            } else if (overloadWindow != null) {
+                overloadWindow.discard(tick.symbol());
+            }
+            offerOrSend(window, tick);
+        } finally {
+            overloadLock.readLock().unlock();
+        }
+    }
+
+    private void offerOrSend(ConflationWindow<String, EncodedTick> window, EncodedTick tick) {
+        if (window != null) {
+            window.offer(tick.symbol(), tick);
+            return;
+        }
+        send(tick);
+    }
+
+    /**
+     * 과부하 윈도우의 주기 플러시도 쓰기 잠금을 잡아, 단계가 내려간 직후의 단건 발행과 겹치지 않게 한다.
+     */
+    private void flushOverloadWindows() {
+        overloadLock.writeLock().lock();
+        try {
+            overloadWindows.values().forEach(ConflationWindow::flush);
+        } finally {
+            overloadLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 서킷이 열렸을 때 {@link SinkHealth}가 복구를 확인하는 요청. {@code ticker.exchange}를 passive로 선언한다.
+     */
+    public void ping() {
+        rabbitTemplate.execute(channel -> channel.exchangeDeclarePassive(RabbitMQConfig.TICKER_EXCHANGE));
+    }
+
+    /**
+     * JSON 본문은 {@link EncodedTick#eventJson()}을 그대로 보낸다. 병합 윈도우가 나중에 보내는 경우도 결과를 서킷에 알린다.
+     * 실패는 다시 던진다. 단건 발행은 호출자가 로그를 남기고, 병합 윈도우는 값을 다시 담아 다음 플러시에서 재시도한다.
+     */
+    private void send(EncodedTick tick) {
+        byte[] body = wireFormat == WireFormat.BINARY
+                ? tickWireFormat.encodeTickerEvent(tick.ticker())
+                : tick.eventJson();
+        Message message = MessageBuilder.withBody(body)
+                .setContentType(wireFormat == WireFormat.BINARY
+                        ? TickWireFormat.CONTENT_TYPE : MessageProperties.CONTENT_TYPE_JSON)
+                .build();
+        long start = System.nanoTime();
+        try {
             rabbitTemplate.send(RabbitMQConfig.TICKER_EXCHANGE, "", message);
-            Counter.builder("rabbitmq.publish")
-                    .tag("exchange", ticker.exchange())
-                    .register(meterRegistry)
-                    .increment();
-        } catch (Exception e) {
-            log.error("시세 이벤트 발행 실패: {}/{}", ticker.exchange(),
-                    ticker.base() + "/" + ticker.quote(), e);
+        } catch (RuntimeException e) {
+            sinkHealth.recordFailure(SinkType.TICKER_EXCHANGE, start, e);
+            throw e;
         }
+        sinkHealth.recordSuccess(SinkType.TICKER_EXCHANGE, start);
+        Counter.builder("rabbitmq.publish")
+                .tag("exchange", tick.exchange())
+                .register(meterRegistry)
+                .increment();
     }
 }
@@ -0,0 +1,19 @@
+package ksh.tryptocollector.rabbitmq;
+
+/**
+ * RabbitMQ 메시지 본문 형식. 소비자는 {@code content_type} 헤더로 구분한다.
+ */
+public enum WireFormat {
+    /**
+     * 기존 JSON 본문. 기본값이다.
+     */
+    JSON,
+    /**
+     * {@link TickWireFormat} 형식의 고정 폭 바이너리 본문.
+     */
+    BINARY;
+
+    public static WireFormat from(String value) {
+        return valueOf(value.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,51 @@
+package ksh.tryptocollector.redis;
+
+import ksh.tryptocollector.model.CandleEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 심볼별 형성 중인 캔들을 {@code candle:{exchange}:{symbol}} 키에 {@link CandleEvent#json()}으로 저장한다.
+ * 갱신이 끊기면 TTL로 만료되어 조회 쪽이 InfluxDB로 돌아가게 한다.
+ */
+@Component
+public class CandleRedisRepository {
+
+    private final StringRedisTemplate redisTemplate;
+    private final String keyPrefix;
+    private final Expiration expiration;
+
+    public CandleRedisRepository(
+            StringRedisTemplate redisTemplate,
+            @Value("${candle.live.redis-key-prefix:candle}") String keyPrefix,
+            @Value("${candle.live.redis-ttl-seconds:120}") long ttlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.keyPrefix = keyPrefix;
+        this.expiration = Expiration.seconds(ttlSeconds);
+    }
+
+    /**
+     * 파이프라인 한 번으로 저장한다. 실패는 호출자에게 넘긴다.
+     */
+    public void saveAll(List<CandleEvent> events) {
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            RedisStringCommands commands = connection.stringCommands();
+            for (CandleEvent event : events) {
+                commands.set(buildKey(event).getBytes(StandardCharsets.UTF_8), event.json(),
+                        expiration, RedisStringCommands.SetOption.upsert());
+            }
+            return null;
+        });
+    }
+
+    private String buildKey(CandleEvent event) {
+        return keyPrefix + ":" + event.exchange() + ":" + event.symbol();
+    }
+}
@@ -1,6 +1,7 @@
 package ksh.tryptocollector.redis;
 
 import ksh.tryptocollector.model.Exchange;
+import ksh.tryptocollector.model.MarketCatalog;
 import ksh.tryptocollector.model.MarketInfo;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,6 +11,7 @@ import tools.jackson.core.JacksonException;
 import tools.jackson.databind.ObjectMapper;
 
 import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 @Component
@@ -40,4 +42,46 @@ public class MarketMetadataRedisRepository {
         redisTemplate.opsForValue().set(key, json);
         log.info("{} 마켓 메타데이터 Redis 저장 완료: {}개", exchange, marketInfos.size());
     }
+
+    /**
+     * 바이너리 메시지의 심볼 ID를 풀 수 있도록 ID 순서 그대로의 마켓 코드·마켓 목록과 카탈로그 해시를
+     * {@code market-meta:{EXCHANGE}:catalog}에 저장한다. 대기 인스턴스도 이 키로 같은 ID 배정을 복원한다.
+     */
+    public void saveCatalog(Exchange exchange, MarketCatalog catalog) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(catalog);
+        } catch (JacksonException e) {
+            log.error("심볼 카탈로그 직렬화 실패: exchange={}", exchange, e);
+            return;
+        }
+        redisTemplate.opsForValue().set(catalogKey(exchange), json);
+        log.info("{} 심볼 카탈로그 Redis 저장 완료: {}개, hash={}", exchange, catalog.markets().size(), catalog.catalogHash());
+    }
+
+    /**
+     * 저장된 카탈로그를 읽는다. 키가 없거나 읽을 수 없으면 비어 있다.
+     * 마켓 코드가 없는 예전 형식도 비어 있는 것으로 본다.
+     */
+    public Optional<MarketCatalog> findCatalog(Exchange exchange) {
+        String json = redisTemplate.opsForValue().get(catalogKey(exchange));
+        if (json == null) {
+            return Optional.empty();
+        }
+        MarketCatalog catalog;
+        try {
+            catalog = objectMapper.readValue(json, MarketCatalog.class);
+        } catch (JacksonException e) {
+            log.warn("심볼 카탈로그 역직렬화 실패: exchange={}, {}", exchange, e.getMessage());
+            return Optional.empty();
+        }
+        if (catalog.codes() == null || catalog.markets() == null) {
+            return Optional.empty();
+        }
+        return Optional.of(catalog);
+    }
+
+    private String catalogKey(Exchange exchange) {
+        return keyPrefix + ":" + exchange.name() + ":catalog";
+    }
 }
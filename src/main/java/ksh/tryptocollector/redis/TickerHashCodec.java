@@ -0,0 +1,39 @@
+package ksh.tryptocollector.redis;
+
+import ksh.tryptocollector.model.EncodedTick;
+import ksh.tryptocollector.model.FixedDecimal;
+import ksh.tryptocollector.model.NormalizedTicker;
+
+import java.math.BigDecimal;
+
+/**
+ * 거래소 해시의 값 형식. {@code lastPrice|changeRate|quoteTurnover|tsMs|displayName}이고 수치는 소수점 표기다.
+ * 거래소와 심볼은 해시 키와 필드에 있으므로 싣지 않는다. displayName은 {@code |}를 포함해도 되도록 마지막에 둔다.
+ * 쓰는 쪽은 {@link EncodedTick#hashValue()}가 BigDecimal 없이 바로 바이트로 만든다.
+ */
+public final class TickerHashCodec {
+    private static final int FIELD_COUNT = 5;
+
+    private TickerHashCodec() {
+    }
+
+    /**
+     * @param symbol 해시 필드. {@code BASE/QUOTE}
+     */
+    public static NormalizedTicker decode(String exchange, String symbol, String value) {
+        String[] parts = value.split("\\|", FIELD_COUNT);
+        if (parts.length != FIELD_COUNT) {
+            throw new IllegalArgumentException("잘못된 시세 해시 값: " + symbol + "=" + value);
+        }
+        int slash = symbol.indexOf('/');
+        if (slash < 0) {
+            throw new IllegalArgumentException("잘못된 시세 해시 필드: " + symbol);
+        }
+        return new NormalizedTicker(exchange, symbol.substring(0, slash), symbol.substring(slash + 1), parts[4],
+                decimal(parts[0]), decimal(parts[1]), decimal(parts[2]), Long.parseLong(parts[3]));
+    }
+
+    private static FixedDecimal decimal(String text) {
+        return new FixedDecimal().set(new BigDecimal(text));
+    }
+}
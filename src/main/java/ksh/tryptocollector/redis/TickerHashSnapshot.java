@@ -0,0 +1,20 @@
+package ksh.tryptocollector.redis;
+
+import ksh.tryptocollector.model.NormalizedTicker;
+
+import java.util.Map;
+
+/**
+ * 거래소 해시를 한 번에 읽은 결과. {@code updatedAtMs}는 수집기가 마지막으로 해시에 쓴 시각이고, 해시가 없으면 0이다.
+ *
+ * @param tickers 심볼({@code BASE/QUOTE})별 시세
+ */
+public record TickerHashSnapshot(
+        String exchange,
+        long updatedAtMs,
+        Map<String, NormalizedTicker> tickers
+) {
+    public boolean isFresh(long maxAgeMs, long nowMs) {
+        return updatedAtMs > 0 && nowMs - updatedAtMs <= maxAgeMs;
+    }
+}
@@ -0,0 +1,28 @@
+package ksh.tryptocollector.redis;
+
+/**
+ * Redis 시세 저장 형식. 이전 형식을 읽는 소비자가 옮겨 갈 동안 {@link #BOTH}로 두 형식을 함께 쓴다.
+ */
+public enum TickerRedisLayout {
+    /**
+     * 심볼마다 {@code ticker:{EXCHANGE}:{BASE}/{QUOTE}} 문자열 키에 JSON.
+     */
+    KEY,
+    /**
+     * 거래소마다 해시 하나. 필드는 심볼, 값은 {@link TickerHashCodec} 형식이다.
+     */
+    HASH,
+    BOTH;
+
+    public static TickerRedisLayout from(String value) {
+        return valueOf(value.trim().toUpperCase());
+    }
+
+    boolean writesKeys() {
+        return this != HASH;
+    }
+
+    boolean writesHash() {
+        return this != KEY;
+    }
+}
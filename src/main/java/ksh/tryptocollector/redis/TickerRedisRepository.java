@@ -1,45 +1,283 @@
 package ksh.tryptocollector.redis;
 
-import io.micrometer.core.annotation.Timed;
-import tools.jackson.core.JacksonException;
-import tools.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import ksh.tryptocollector.exchange.SinkHealth;
+import ksh.tryptocollector.exchange.SinkType;
+import ksh.tryptocollector.model.EncodedTick;
+import ksh.tryptocollector.model.Exchange;
 import ksh.tryptocollector.model.NormalizedTicker;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 시세를 Redis에 쓴다. {@code ticker.redis-layout}에 따라 심볼별 JSON 키, 거래소별 해시, 또는 둘 다에 쓴다.
+ * 거래소 해시에는 시세 필드와 함께 마지막으로 쓴 시각을 {@value #UPDATED_AT_FIELD} 필드에 둔다.
+ * 해시의 EXPIRE는 어느 심볼이든 쓸 때마다 늘어나므로, 읽을 때 tsMs가 TTL보다 오래된 필드를 심볼 키의 만료처럼 뺀다.
+ * 키 값은 {@link EncodedTick#redisJson()}, 해시 값은 {@link EncodedTick#hashValue()}를 그대로 쓴다. 즉시 쓰기와 write-behind flush 모두 결과를 {@link SinkHealth}에 알린다.
+ * 과부하로 미룬 시세({@link #saveLatest})도 같은 dirty 맵에 두므로, write-behind가 꺼져 있으면 {@code sink.overload.thin-interval-ms}마다 비운다.
+ */
 @Slf4j
 @Component
 public class TickerRedisRepository {
+    public static final String UPDATED_AT_FIELD = "@updatedAt";
+    private static final byte[] UPDATED_AT_FIELD_BYTES = UPDATED_AT_FIELD.getBytes(StandardCharsets.UTF_8);
+    private static final Duration TICKER_TTL = Duration.ofSeconds(30);
+    private static final Expiration TICKER_EXPIRATION = Expiration.from(TICKER_TTL);
 
     private final StringRedisTemplate redisTemplate;
-    private final ObjectMapper objectMapper;
     private final String keyPrefix;
+    private final TickerRedisLayout layout;
+    private final String hashKeyPrefix;
+    private final boolean writeBehindEnabled;
+    private final long flushIntervalMs;
+    private final long deferredFlushIntervalMs;
+    private final DistributionSummary flushSizeSummary;
+    private final Timer flushLatencyTimer;
+    private final SinkHealth sinkHealth;
+    private final LongSupplier clock;
+
+    private final ConcurrentHashMap<String, EncodedTick> dirty = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flushScheduler;
 
     public TickerRedisRepository(
             StringRedisTemplate redisTemplate,
-            ObjectMapper objectMapper,
-            @Value("${ticker.redis-key-prefix:ticker}") String keyPrefix) {
+            @Value("${ticker.redis-key-prefix:ticker}") String keyPrefix,
+            @Value("${ticker.redis-layout:key}") String layout,
+            @Value("${ticker.redis-hash-key-prefix:tickers}") String hashKeyPrefix,
+            @Value("${ticker.write-behind.enabled:false}") boolean writeBehindEnabled,
+            @Value("${ticker.write-behind.flush-interval-ms:100}") long flushIntervalMs,
+            @Value("${sink.overload.thin-interval-ms:1000}") long deferredFlushIntervalMs,
+            MeterRegistry registry,
+            SinkHealth sinkHealth) {
+        this(redisTemplate, keyPrefix, layout, hashKeyPrefix, writeBehindEnabled, flushIntervalMs,
+                deferredFlushIntervalMs, registry, sinkHealth, System::currentTimeMillis);
+    }
+
+    TickerRedisRepository(StringRedisTemplate redisTemplate, String keyPrefix, String layout, String hashKeyPrefix,
+                          boolean writeBehindEnabled, long flushIntervalMs, long deferredFlushIntervalMs,
+                          MeterRegistry registry, SinkHealth sinkHealth, LongSupplier clock) {
         this.redisTemplate = redisTemplate;
-        this.objectMapper = objectMapper;
+        this.sinkHealth = sinkHealth;
         this.keyPrefix = keyPrefix;
+        this.layout = TickerRedisLayout.from(layout);
+        this.hashKeyPrefix = hashKeyPrefix;
+        this.writeBehindEnabled = writeBehindEnabled;
+        this.flushIntervalMs = flushIntervalMs;
+        this.deferredFlushIntervalMs = deferredFlushIntervalMs;
+        this.clock = clock;
+        this.flushSizeSummary = DistributionSummary.builder("redis.flush.size")
+                .description("한 번에 Redis로 보낸 시세 키 수")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.flushLatencyTimer = Timer.builder("redis.flush.latency")
+                .description("Redis 시세 쓰기 소요 시간")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (layout != TickerRedisLayout.KEY) {
+            log.info("Redis 시세 저장 형식: {}, 해시 키 prefix={}", layout, hashKeyPrefix);
+        }
+        long interval = writeBehindEnabled ? flushIntervalMs : deferredFlushIntervalMs;
+        flushScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "redis-ticker-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flushScheduler.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+        if (writeBehindEnabled) {
+            log.info("Redis 시세 write-behind 활성화: interval={}ms", flushIntervalMs);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (flushScheduler == null) {
+            return;
+        }
+        flushScheduler.shutdownNow();
+        flush();
     }
 
-    @Timed(value = "redis.write.time")
     public void save(NormalizedTicker ticker) {
-        String key = buildKey(ticker);
-        String json;
+        save(EncodedTick.of(ticker));
+    }
+
+    /**
+     * 미뤄 둔 같은 키의 시세가 있으면 바로 쓰지 않고 그 자리를 덮어쓴다. 먼저 쓰면 뒤이은 flush가 더 오래된 값으로 되돌린다.
+     */
+    public void save(EncodedTick tick) {
+        String key = buildKey(tick);
+        if (writeBehindEnabled) {
+            dirty.put(key, tick);
+            return;
+        }
+        if (!dirty.isEmpty() && dirty.computeIfPresent(key, (k, pending) -> tick) != null) {
+            return;
+        }
+        long start = System.nanoTime();
         try {
-            json = objectMapper.writeValueAsString(ticker);
-        } catch (JacksonException e) {
-            log.error("JSON 직렬화 실패: {}", ticker, e);
+            if (layout != TickerRedisLayout.KEY) {
+                write(List.of(key), List.of(tick));
+            } else {
+                redisTemplate.opsForValue().set(key, new String(tick.redisJson(), StandardCharsets.UTF_8), TICKER_TTL);
+            }
+        } catch (RuntimeException e) {
+            sinkHealth.recordFailure(SinkType.REDIS, start, e);
+            throw e;
+        }
+        sinkHealth.recordSuccess(SinkType.REDIS, start);
+        flushLatencyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        flushSizeSummary.record(1);
+    }
+
+    /**
+     * 바로 쓰지 않고 dirty 맵에 둔다. 다음 flush 전에 같은 심볼 tick이 또 오면 덮어써, 주기마다 심볼별 마지막 시세 하나만 쓴다.
+     */
+    public void saveLatest(EncodedTick tick) {
+        dirty.put(buildKey(tick), tick);
+    }
+
+    /**
+     * 마지막 flush 이후 갱신된 키의 최신 시세만 파이프라인 한 번으로 기록한다.
+     * 실패하면 그 사이 더 새로운 값이 들어오지 않은 키만 다시 dirty로 돌려 다음 주기에 재시도한다.
+     */
+    void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(dirty.size());
+        List<EncodedTick> ticks = new ArrayList<>(dirty.size());
+        for (String key : dirty.keySet()) {
+            EncodedTick tick = dirty.remove(key);
+            if (tick != null) {
+                keys.add(key);
+                ticks.add(tick);
+            }
+        }
+        if (keys.isEmpty()) {
             return;
         }
-        redisTemplate.opsForValue().set(key, json);
+        long start = System.nanoTime();
+        try {
+            write(keys, ticks);
+            sinkHealth.recordSuccess(SinkType.REDIS, start);
+            flushSizeSummary.record(keys.size());
+        } catch (Exception e) {
+            sinkHealth.recordFailure(SinkType.REDIS, start, e);
+            log.warn("Redis 시세 flush 실패: {}개, {}", keys.size(), e.getMessage());
+            for (int i = 0; i < keys.size(); i++) {
+                dirty.putIfAbsent(keys.get(i), ticks.get(i));
+            }
+        } finally {
+            flushLatencyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 서킷이 열렸을 때 {@link SinkHealth}가 복구를 확인하는 PING.
+     */
+    public void ping() {
+        redisTemplate.execute((RedisCallback<String>) RedisConnection::ping);
+    }
+
+    /**
+     * 거래소 해시를 HGETALL 한 번으로 읽는다. {@code ticker.redis-layout}이 {@code hash}나 {@code both}일 때만 값이 있다.
+     * 해석할 수 없는 필드와 tsMs가 30초 TTL보다 오래된 필드(상장 폐지 등으로 더는 갱신되지 않는 심볼)는 건너뛴다.
+     */
+    public TickerHashSnapshot findAll(Exchange exchange) {
+        HashOperations<String, String, String> hashOperations = redisTemplate.opsForHash();
+        Map<String, String> entries = hashOperations.entries(buildHashKey(exchange.name()));
+        long updatedAtMs = 0;
+        long expiredBeforeMs = clock.getAsLong() - TICKER_TTL.toMillis();
+        Map<String, NormalizedTicker> tickers = new HashMap<>(entries.size());
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            try {
+                if (UPDATED_AT_FIELD.equals(entry.getKey())) {
+                    updatedAtMs = Long.parseLong(entry.getValue());
+                    continue;
+                }
+                NormalizedTicker ticker = TickerHashCodec.decode(exchange.name(), entry.getKey(), entry.getValue());
+                if (ticker.tsMs() >= expiredBeforeMs) {
+                    tickers.put(entry.getKey(), ticker);
+                }
+            } catch (RuntimeException e) {
+                log.warn("시세 해시 필드 해석 실패: {} {}, {}", exchange, entry.getKey(), e.getMessage());
+            }
+        }
+        return new TickerHashSnapshot(exchange.name(), updatedAtMs, tickers);
+    }
+
+    /**
+     * 파이프라인 한 번으로 설정한 형식에 쓴다. 해시는 거래소마다 HSET 한 번과 EXPIRE 한 번이다.
+     */
+    private void write(List<String> keys, List<EncodedTick> ticks) {
+        long now = clock.getAsLong();
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            if (layout.writesKeys()) {
+                writeKeys(connection, keys, ticks);
+            }
+            if (layout.writesHash()) {
+                writeHashes(connection, ticks, now);
+            }
+            return null;
+        });
+    }
+
+    private void writeKeys(RedisConnection connection, List<String> keys, List<EncodedTick> ticks) {
+        RedisStringCommands commands = connection.stringCommands();
+        for (int i = 0; i < keys.size(); i++) {
+            commands.set(keys.get(i).getBytes(StandardCharsets.UTF_8), ticks.get(i).redisJson(),
+                    TICKER_EXPIRATION, RedisStringCommands.SetOption.upsert());
+        }
+    }
+
+    private void writeHashes(RedisConnection connection, List<EncodedTick> ticks, long now) {
+        Map<String, Map<byte[], byte[]>> byExchange = new HashMap<>();
+        for (EncodedTick tick : ticks) {
+            byExchange.computeIfAbsent(tick.exchange(), exchange -> new HashMap<>())
+                    .put(tick.symbol().getBytes(StandardCharsets.UTF_8), tick.hashValue());
+        }
+        byte[] updatedAt = Long.toString(now).getBytes(StandardCharsets.UTF_8);
+        for (Map.Entry<String, Map<byte[], byte[]>> entry : byExchange.entrySet()) {
+            byte[] key = buildHashKey(entry.getKey()).getBytes(StandardCharsets.UTF_8);
+            Map<byte[], byte[]> fields = entry.getValue();
+            fields.put(UPDATED_AT_FIELD_BYTES, updatedAt);
+            connection.hashCommands().hMSet(key, fields);
+            connection.keyCommands().expire(key, TICKER_TTL.toSeconds());
+        }
+    }
+
+    private String buildKey(EncodedTick tick) {
+        return keyPrefix + ":" + tick.exchange() + ":" + tick.symbol();
     }
 
-    private String buildKey(NormalizedTicker ticker) {
-        return keyPrefix + ":" + ticker.exchange() + ":" + ticker.base() + "/" + ticker.quote();
+    private String buildHashKey(String exchange) {
+        return hashKeyPrefix + ":" + exchange;
     }
 }
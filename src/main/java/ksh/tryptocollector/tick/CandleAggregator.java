@@ -0,0 +1,387 @@
+package ksh.tryptocollector.tick;
+
+import com.influxdb.client.QueryApi;
+import com.influxdb.client.WriteApiBlocking;
+import com.influxdb.client.domain.WritePrecision;
+import com.influxdb.query.FluxRecord;
+import com.influxdb.query.FluxTable;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import ksh.tryptocollector.metadata.MarketInfoCache;
+import ksh.tryptocollector.model.NormalizedTicker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 심볼별 1분 캔들을 메모리에서 집계해 분이 닫히면 {@code candle_1m}에 바로 쓴다. InfluxDB Task가 쓰던 것과 같은 스키마다.
+ * 시가·종가는 수신 순서가 아니라 {@code tsMs} 기준으로 가장 이른·늦은 tick이다.
+ *
+ * <p>분은 끝나고 {@code close-delay-ms} 뒤에 닫는다. 닫은 뒤 {@code late-window-ms} 안에 들어온 늦은 tick은
+ * 캔들에 합쳐 다시 쓰고(같은 시각·태그라 덮어쓴다), 그보다 늦으면 버린다.
+ * 세션(리더십) 시작 전에 열린 분은 다른 인스턴스가 앞부분을 썼을 수 있으므로 처음 닫을 때 저장된 캔들과 합친다.
+ */
+@Slf4j
+@Component
+public class CandleAggregator {
+    static final long MINUTE_MS = 60_000;
+    private static final String MEASUREMENT = "candle_1m";
+    private static final int LINE_CAPACITY = 16 * 1024;
+    private static final long SWEEP_INTERVAL_MS = 1_000;
+
+    private final WriteApiBlocking writeApiBlocking;
+    private final QueryApi queryApi;
+    private final String bucket;
+    private final boolean enabled;
+    private final long closeDelayMs;
+    private final long lateWindowMs;
+    private final LongSupplier clock;
+
+    private final SymbolSlots<SymbolCandles> symbols = new SymbolSlots<>(SymbolCandles::new);
+
+    private final Counter closedCounter;
+    private final Counter correctedCounter;
+    private final Counter flushedCounter;
+    private final Counter lateMergedCounter;
+    private final Counter lateDroppedCounter;
+
+    private volatile long sessionStartMs;
+    private volatile InfluxBatchWriter.FailedBatchHandler failedWriteHandler;
+    private ScheduledExecutorService sweeper;
+
+    public CandleAggregator(
+            WriteApiBlocking writeApiBlocking,
+            QueryApi queryApi,
+            MarketInfoCache marketInfoCache,
+            MeterRegistry meterRegistry,
+            @Value("${influxdb.bucket}") String bucket,
+            @Value("${candle.aggregate.enabled:false}") boolean enabled,
+            @Value("${candle.aggregate.close-delay-ms:2000}") long closeDelayMs,
+            @Value("${candle.aggregate.late-window-ms:60000}") long lateWindowMs) {
+        this(writeApiBlocking, queryApi, marketInfoCache, meterRegistry, bucket, enabled, closeDelayMs, lateWindowMs,
+                System::currentTimeMillis);
+    }
+
+    CandleAggregator(WriteApiBlocking writeApiBlocking, QueryApi queryApi, MarketInfoCache marketInfoCache,
+                     MeterRegistry meterRegistry, String bucket, boolean enabled, long closeDelayMs, long lateWindowMs,
+                     LongSupplier clock) {
+        this.writeApiBlocking = writeApiBlocking;
+        this.queryApi = queryApi;
+        this.bucket = bucket;
+        this.enabled = enabled;
+        this.closeDelayMs = closeDelayMs;
+        this.lateWindowMs = lateWindowMs;
+        this.clock = clock;
+        this.sessionStartMs = clock.getAsLong();
+        this.closedCounter = emitted(meterRegistry, "close");
+        this.correctedCounter = emitted(meterRegistry, "correction");
+        this.flushedCounter = emitted(meterRegistry, "flush");
+        this.lateMergedCounter = late(meterRegistry, "merged");
+        this.lateDroppedCounter = late(meterRegistry, "dropped");
+        marketInfoCache.onReplace(symbols::forgetIds);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "candle-aggregate");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, SWEEP_INTERVAL_MS, SWEEP_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        log.info("1분 캔들 인메모리 집계 활성화: closeDelay={}ms, lateWindow={}ms", closeDelayMs, lateWindowMs);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (sweeper == null) {
+            return;
+        }
+        sweeper.shutdownNow();
+        flushOpen();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 리더십을 얻을 때 부른다. 이 시각 이전에 시작한 분은 처음 닫을 때 저장된 캔들과 합친다.
+     */
+    public void beginSession() {
+        sessionStartMs = clock.getAsLong();
+    }
+
+    /**
+     * 쓰기에 실패한 캔들의 line protocol을 넘겨받을 곳을 정한다.
+     */
+    public void onFailedWrite(InfluxBatchWriter.FailedBatchHandler handler) {
+        this.failedWriteHandler = handler;
+    }
+
+    public void accept(NormalizedTicker ticker) {
+        if (!enabled) {
+            return;
+        }
+        long tsMs = ticker.tsMs();
+        long minute = Math.floorDiv(tsMs, MINUTE_MS) * MINUTE_MS;
+        if (minute + MINUTE_MS + closeDelayMs + lateWindowMs <= clock.getAsLong()) {
+            lateDroppedCounter.increment();
+            return;
+        }
+        double price = TickRawWriter.priceAsDouble(ticker);
+        SymbolCandles symbol = symbols.get(ticker);
+        synchronized (symbol) {
+            MinuteCandle candle = symbol.minutes.get(minute);
+            if (candle == null) {
+                candle = new MinuteCandle(minute, minute < sessionStartMs);
+                symbol.minutes.put(minute, candle);
+            }
+            candle.update(price, tsMs);
+            if (candle.emitted) {
+                candle.dirty = true;
+                lateMergedCounter.increment();
+            }
+        }
+    }
+
+    /**
+     * 닫을 때가 된 분과 늦은 tick으로 바뀐 분을 쓰고, 늦은 tick 허용 구간이 지난 분을 지운다.
+     */
+    void sweep() {
+        try {
+            emit(clock.getAsLong(), false);
+        } catch (Exception e) {
+            log.warn("1분 캔들 집계 실패: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 리더십을 잃거나 종료할 때 부른다. 아직 닫히지 않은 분도 지금까지의 값으로 쓰고 상태를 비운다.
+     * 다음 리더는 그 분을 닫을 때 이 값과 합친다.
+     */
+    public void flushOpen() {
+        if (!enabled) {
+            return;
+        }
+        emit(clock.getAsLong(), true);
+        for (SymbolCandles symbol : symbols.values()) {
+            synchronized (symbol) {
+                symbol.minutes.clear();
+            }
+        }
+    }
+
+    private void emit(long now, boolean all) {
+        Map<Long, Map<String, double[]>> stored = loadStored(partialMinutesDue(now, all));
+        LineBuffer lines = new LineBuffer(LINE_CAPACITY);
+        int candles = 0;
+        for (SymbolCandles symbol : symbols.values()) {
+            synchronized (symbol) {
+                Iterator<MinuteCandle> iterator = symbol.minutes.values().iterator();
+                while (iterator.hasNext()) {
+                    MinuteCandle candle = iterator.next();
+                    long closeAt = candle.minute + MINUTE_MS + closeDelayMs;
+                    if (!all && now < closeAt) {
+                        break;
+                    }
+                    if (candle.partial) {
+                        Map<String, double[]> minuteStored = stored.get(candle.minute);
+                        if (minuteStored == null && !all) {
+                            continue;
+                        }
+                        candle.merge(minuteStored == null ? null : minuteStored.get(symbol.key));
+                    }
+                    if (!candle.emitted || candle.dirty) {
+                        encode(symbol, candle, lines);
+                        if (candle.emitted) {
+                            correctedCounter.increment();
+                        } else if (now < closeAt) {
+                            flushedCounter.increment();
+                        } else {
+                            closedCounter.increment();
+                        }
+                        candle.emitted = true;
+                        candle.dirty = false;
+                        candles++;
+                    }
+                    if (now >= closeAt + lateWindowMs) {
+                        iterator.remove();
+                    }
+                }
+            }
+        }
+        if (candles > 0) {
+            write(lines, candles);
+        }
+    }
+
+    /**
+     * 세션 전에 시작해 이번에 처음 닫는 분. 분마다 한 번만 조회한다.
+     */
+    private TreeSet<Long> partialMinutesDue(long now, boolean all) {
+        TreeSet<Long> minutes = new TreeSet<>();
+        for (SymbolCandles symbol : symbols.values()) {
+            synchronized (symbol) {
+                for (MinuteCandle candle : symbol.minutes.values()) {
+                    if (!all && now < candle.minute + MINUTE_MS + closeDelayMs) {
+                        break;
+                    }
+                    if (candle.partial) {
+                        minutes.add(candle.minute);
+                    }
+                }
+            }
+        }
+        return minutes;
+    }
+
+    /**
+     * 분마다 저장된 캔들을 {@code exchange|symbol} 키로 읽는다. 조회에 실패한 분은 결과에서 빠지고 다음 주기에 다시 조회한다.
+     */
+    private Map<Long, Map<String, double[]>> loadStored(TreeSet<Long> minutes) {
+        Map<Long, Map<String, double[]>> stored = new HashMap<>();
+        for (long minute : minutes) {
+            String flux = String.format("""
+                    from(bucket: "%s")
+                      |> range(start: %s, stop: %s)
+                      |> filter(fn: (r) => r._measurement == "%s")
+                      |> pivot(rowKey: ["_time"], columnKey: ["_field"], valueColumn: "_value")
+                    """, bucket, Instant.ofEpochMilli(minute), Instant.ofEpochMilli(minute + MINUTE_MS), MEASUREMENT);
+            try {
+                Map<String, double[]> candles = new HashMap<>();
+                for (FluxTable table : queryApi.query(flux)) {
+                    for (FluxRecord record : table.getRecords()) {
+                        candles.put(record.getValueByKey("exchange") + "|" + record.getValueByKey("symbol"), new double[]{
+                                number(record, "open"), number(record, "high"), number(record, "low"), number(record, "close")});
+                    }
+                }
+                stored.put(minute, candles);
+            } catch (Exception e) {
+                log.warn("저장된 1분 캔들 조회 실패: minute={}, {}", Instant.ofEpochMilli(minute), e.getMessage());
+            }
+        }
+        return stored;
+    }
+
+    private void write(LineBuffer lines, int candles) {
+        try {
+            writeApiBlocking.writeRecord(WritePrecision.MS, new String(lines.data(), 0, lines.size(), StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            log.warn("1분 캔들 쓰기 실패: candles={}, {}", candles, e.getMessage());
+            InfluxBatchWriter.FailedBatchHandler handler = failedWriteHandler;
+            if (handler == null || !handler.onFailed(lines.data(), lines.size())) {
+                log.error("1분 캔들 {}건 유실", candles);
+            }
+        }
+    }
+
+    private static void encode(SymbolCandles symbol, MinuteCandle candle, LineBuffer lines) {
+        lines.measurement(MEASUREMENT)
+                .tag("exchange", symbol.exchange)
+                .tag("symbol", symbol.symbol)
+                .field("open", BigDecimal.valueOf(candle.open))
+                .field("high", BigDecimal.valueOf(candle.high))
+                .field("low", BigDecimal.valueOf(candle.low))
+                .field("close", BigDecimal.valueOf(candle.close))
+                .timestamp(candle.minute);
+    }
+
+    private static double number(FluxRecord record, String field) {
+        Object value = record.getValueByKey(field);
+        return value instanceof Number number ? number.doubleValue() : Double.NaN;
+    }
+
+    private static Counter emitted(MeterRegistry registry, String kind) {
+        return Counter.builder("candle.aggregate.emitted")
+                .tag("kind", kind)
+                .register(registry);
+    }
+
+    private static Counter late(MeterRegistry registry, String result) {
+        return Counter.builder("candle.aggregate.late")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static final class SymbolCandles {
+        private final String exchange;
+        private final String symbol;
+        private final String key;
+        private final TreeMap<Long, MinuteCandle> minutes = new TreeMap<>();
+
+        SymbolCandles(String exchange, String symbol, String key) {
+            this.exchange = exchange;
+            this.symbol = symbol;
+            this.key = key;
+        }
+    }
+
+    static final class MinuteCandle {
+        private final long minute;
+        private boolean partial;
+        private boolean emitted;
+        private boolean dirty;
+        private double open;
+        private double high;
+        private double low;
+        private double close;
+        private long openTsMs = Long.MAX_VALUE;
+        private long closeTsMs = Long.MIN_VALUE;
+
+        MinuteCandle(long minute, boolean partial) {
+            this.minute = minute;
+            this.partial = partial;
+        }
+
+        void update(double price, long tsMs) {
+            if (openTsMs == Long.MAX_VALUE) {
+                high = price;
+                low = price;
+            } else {
+                high = Math.max(high, price);
+                low = Math.min(low, price);
+            }
+            if (tsMs < openTsMs) {
+                open = price;
+                openTsMs = tsMs;
+            }
+            if (tsMs >= closeTsMs) {
+                close = price;
+                closeTsMs = tsMs;
+            }
+        }
+
+        /**
+         * 다른 인스턴스가 이 분의 앞부분을 써 둔 캔들과 합친다. 저장된 캔들이 더 이른 구간이므로 시가는 그쪽을 쓴다.
+         */
+        void merge(double[] stored) {
+            partial = false;
+            if (stored == null || Double.isNaN(stored[0])) {
+                return;
+            }
+            open = stored[0];
+            openTsMs = minute;
+            high = Math.max(high, stored[1]);
+            low = Math.min(low, stored[2]);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package ksh.tryptocollector.tick;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * 라이브 캔들 타임프레임. 구간 경계는 InfluxDB Task의 {@code aggregateWindow}와 같게 UTC 기준이다.
+ * 주봉은 {@code offset: 4d}로 월요일에 시작하고, 월봉은 달력 기준 1일에 시작한다.
+ */
+public enum CandleInterval {
+    MINUTE_1("1m", 60_000L),
+    MINUTE_5("5m", 5 * 60_000L),
+    HOUR_1("1h", 3_600_000L),
+    HOUR_4("4h", 4 * 3_600_000L),
+    DAY_1("1d", 86_400_000L),
+    WEEK_1("1w", 7 * 86_400_000L),
+    MONTH_1("1M", 0);
+
+    private static final long WEEK_OFFSET_MS = 4 * 86_400_000L;
+
+    private final String label;
+    private final long durationMs;
+
+    CandleInterval(String label, long durationMs) {
+        this.label = label;
+        this.durationMs = durationMs;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public long startOf(long epochMs) {
+        return switch (this) {
+            case WEEK_1 -> Math.floorDiv(epochMs - WEEK_OFFSET_MS, durationMs) * durationMs + WEEK_OFFSET_MS;
+            case MONTH_1 -> monthStart(epochMs, 0);
+            default -> Math.floorDiv(epochMs, durationMs) * durationMs;
+        };
+    }
+
+    /**
+     * {@code startMs}로 시작하는 구간의 끝(배타).
+     */
+    public long endOf(long startMs) {
+        return this == MONTH_1 ? monthStart(startMs, 1) : startMs + durationMs;
+    }
+
+    private static long monthStart(long epochMs, int plusMonths) {
+        LocalDate date = Instant.ofEpochMilli(epochMs).atZone(ZoneOffset.UTC).toLocalDate();
+        return date.withDayOfMonth(1).plusMonths(plusMonths).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+    }
+}
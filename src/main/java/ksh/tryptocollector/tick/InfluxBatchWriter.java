@@ -0,0 +1,316 @@
+package ksh.tryptocollector.tick;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import ksh.tryptocollector.exchange.SinkHealth;
+import ksh.tryptocollector.exchange.SinkType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * line protocol을 재사용 버퍼에 쌓아 gzip으로 묶어 보내는 InfluxDB 배치 writer.
+ * 버퍼 수를 {@code max-in-flight + 1}개로 고정하므로, InfluxDB가 느려져 모든 버퍼가 전송 중이면
+ * 새 포인트는 대기하지 않고 버려지며 {@code influx.batch.dropped}로 계측된다.
+ * {@code influxdb.batch.enabled=false}이면 버퍼와 스레드, HTTP 클라이언트를 만들지 않는다.
+ */
+@Slf4j
+@Component
+public class InfluxBatchWriter {
+    private static final String WRITE_PATH = "/api/v2/write";
+    private static final int INITIAL_BUFFER_SIZE = 256 * 1024;
+    private static final int GZIP_BUFFER_SIZE = 8192;
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+    private static final int HTTP_NO_CONTENT = 204;
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final int HTTP_SERVER_ERROR = 500;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final int maxInFlight;
+    private final URI writeUri;
+    private final String authorization;
+    private final ArrayBlockingQueue<PooledBatch> freeBatches;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final SinkHealth sinkHealth;
+
+    private final Counter backpressureDropCounter;
+    private final Counter failureDropCounter;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer writeTimer;
+
+    private PooledBatch current;
+    private HttpClient httpClient;
+    private volatile FailedBatchHandler failedBatchHandler;
+    private ScheduledExecutorService flushScheduler;
+    private ExecutorService senderPool;
+
+    public InfluxBatchWriter(
+            @Value("${influxdb.url}") String url,
+            @Value("${influxdb.token}") String token,
+            @Value("${influxdb.org}") String org,
+            @Value("${influxdb.bucket}") String bucket,
+            @Value("${influxdb.batch.enabled:false}") boolean enabled,
+            @Value("${influxdb.batch.size:5000}") int batchSize,
+            @Value("${influxdb.batch.flush-interval-ms:1000}") long flushIntervalMs,
+            @Value("${influxdb.batch.max-in-flight:4}") int maxInFlight,
+            MeterRegistry registry,
+            SinkHealth sinkHealth) {
+        this.enabled = enabled;
+        this.sinkHealth = sinkHealth;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxInFlight = maxInFlight;
+        this.writeUri = URI.create(url + WRITE_PATH
+                + "?org=" + URLEncoder.encode(org, StandardCharsets.UTF_8)
+                + "&bucket=" + URLEncoder.encode(bucket, StandardCharsets.UTF_8)
+                + "&precision=ms");
+        this.authorization = "Token " + token;
+        this.freeBatches = new ArrayBlockingQueue<>(maxInFlight + 1);
+        this.backpressureDropCounter = Counter.builder("influx.batch.dropped")
+                .tag("reason", "backpressure")
+                .register(registry);
+        this.failureDropCounter = Counter.builder("influx.batch.dropped")
+                .tag("reason", "failure")
+                .register(registry);
+        this.batchSizeSummary = DistributionSummary.builder("influx.batch.size")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.writeTimer = Timer.builder("influx.batch.write")
+                .publishPercentileHistogram()
+                .register(registry);
+        Gauge.builder("influx.batch.in-flight", inFlight, AtomicInteger::get)
+                .register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        httpClient = HttpClient.newHttpClient();
+        for (int i = 0; i <= maxInFlight; i++) {
+            freeBatches.add(new PooledBatch());
+        }
+        senderPool = Executors.newFixedThreadPool(maxInFlight, r -> {
+            Thread thread = new Thread(r, "influx-batch-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flushScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "influx-batch-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flushScheduler.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("InfluxDB 배치 writer 활성화: size={}, interval={}ms, maxInFlight={}",
+                batchSize, flushIntervalMs, maxInFlight);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 네트워크 오류, 5xx, 429로 전송하지 못한 배치를 넘겨받을 곳을 정한다. 넘긴 배치는 dropped로 세지 않는다.
+     */
+    public void onFailedBatch(FailedBatchHandler handler) {
+        this.failedBatchHandler = handler;
+    }
+
+    public <T> boolean append(T value, LineEncoder<T> encoder) {
+        lock.lock();
+        try {
+            if (current == null) {
+                current = freeBatches.poll();
+                if (current == null) {
+                    backpressureDropCounter.increment();
+                    return false;
+                }
+            }
+            encoder.encode(value, current.lines);
+            if (current.lines.lines() >= batchSize) {
+                dispatchCurrent();
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void flush() {
+        lock.lock();
+        try {
+            if (current != null && current.lines.lines() > 0) {
+                dispatchCurrent();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (!enabled) {
+            return;
+        }
+        flushScheduler.shutdownNow();
+        flush();
+        senderPool.shutdown();
+        try {
+            if (!senderPool.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                senderPool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            senderPool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void dispatchCurrent() {
+        PooledBatch batch = current;
+        current = null;
+        inFlight.incrementAndGet();
+        senderPool.execute(() -> send(batch));
+    }
+
+    private void send(PooledBatch batch) {
+        int points = batch.lines.lines();
+        long start = System.nanoTime();
+        try {
+            batch.compress();
+            HttpRequest request = HttpRequest.newBuilder(writeUri)
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Authorization", authorization)
+                    .header("Content-Type", "text/plain; charset=utf-8")
+                    .header("Content-Encoding", "gzip")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(
+                            batch.compressed.buffer(), 0, batch.compressed.size()))
+                    .build();
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            int status = response.statusCode();
+            if (status != HTTP_NO_CONTENT) {
+                log.warn("InfluxDB 배치 쓰기 실패: status={}, points={}", status, points);
+                if (status >= HTTP_SERVER_ERROR || status == HTTP_TOO_MANY_REQUESTS) {
+                    sinkHealth.recordFailure(SinkType.INFLUX, start,
+                            new IllegalStateException("InfluxDB 배치 쓰기 실패: status=" + status));
+                    handOff(batch, points);
+                } else {
+                    sinkHealth.recordSuccess(SinkType.INFLUX, start);
+                    failureDropCounter.increment(points);
+                }
+                return;
+            }
+            sinkHealth.recordSuccess(SinkType.INFLUX, start);
+            batchSizeSummary.record(points);
+        } catch (InterruptedException e) {
+            handOff(batch, points);
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("InfluxDB 배치 전송 실패: points={}, {}", points, e.getMessage());
+            sinkHealth.recordFailure(SinkType.INFLUX, start, e);
+            handOff(batch, points);
+        } finally {
+            writeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batch.reset();
+            freeBatches.offer(batch);
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void handOff(PooledBatch batch, int points) {
+        FailedBatchHandler handler = failedBatchHandler;
+        if (handler == null || !handler.onFailed(batch.lines.data(), batch.lines.size())) {
+            failureDropCounter.increment(points);
+        }
+    }
+
+    @FunctionalInterface
+    public interface FailedBatchHandler {
+
+        /**
+         * 전송하지 못한 배치의 line protocol. 배열은 반환 후 재사용되므로 필요하면 복사해야 한다. 받지 못하면 false.
+         */
+        boolean onFailed(byte[] lines, int length);
+    }
+
+    @FunctionalInterface
+    public interface LineEncoder<T> {
+        void encode(T value, LineBuffer buffer);
+    }
+
+    /**
+     * {@link java.util.zip.GZIPOutputStream}은 배치마다 {@link Deflater}를 새로 만들므로, 버퍼마다 하나를 두고
+     * {@link Deflater#reset()}해 다시 쓴다. gzip 헤더와 트레일러(CRC32, 원본 길이)는 직접 붙인다.
+     */
+    private static final class PooledBatch {
+        private final LineBuffer lines = new LineBuffer(INITIAL_BUFFER_SIZE);
+        private final ExposedByteArrayOutputStream compressed = new ExposedByteArrayOutputStream();
+        private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        private final CRC32 crc = new CRC32();
+        private final byte[] chunk = new byte[GZIP_BUFFER_SIZE];
+
+        void compress() {
+            compressed.write(GZIP_HEADER, 0, GZIP_HEADER.length);
+            deflater.setInput(lines.data(), 0, lines.size());
+            deflater.finish();
+            while (!deflater.finished()) {
+                compressed.write(chunk, 0, deflater.deflate(chunk));
+            }
+            crc.update(lines.data(), 0, lines.size());
+            writeIntLittleEndian((int) crc.getValue());
+            writeIntLittleEndian(lines.size());
+        }
+
+        private void writeIntLittleEndian(int value) {
+            compressed.write(value);
+            compressed.write(value >>> 8);
+            compressed.write(value >>> 16);
+            compressed.write(value >>> 24);
+        }
+
+        void reset() {
+            lines.reset();
+            compressed.reset();
+            deflater.reset();
+            crc.reset();
+        }
+    }
+
+    private static final class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+        ExposedByteArrayOutputStream() {
+            super(INITIAL_BUFFER_SIZE / 4);
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+    }
+}
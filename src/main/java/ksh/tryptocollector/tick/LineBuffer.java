@@ -0,0 +1,219 @@
+package ksh.tryptocollector.tick;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * InfluxDB line protocol을 바이트로 직접 쌓는 재사용 버퍼.
+ * 배치가 전송되면 {@link #reset()} 후 풀로 반환되어 다음 배치에 다시 쓰인다.
+ */
+public final class LineBuffer {
+    private static final int MAX_LONG_DIGITS = 20;
+
+    private byte[] data;
+    private int size;
+    private int lines;
+    private int fieldCount;
+    private final byte[] digits = new byte[MAX_LONG_DIGITS];
+
+    public LineBuffer(int initialCapacity) {
+        this.data = new byte[initialCapacity];
+    }
+
+    public LineBuffer measurement(String name) {
+        fieldCount = 0;
+        appendEscaped(name, false);
+        return this;
+    }
+
+    public LineBuffer tag(String key, String value) {
+        append((byte) ',');
+        appendEscaped(key, true);
+        append((byte) '=');
+        appendEscaped(value, true);
+        return this;
+    }
+
+    public LineBuffer tag(String key, String first, char separator, String second) {
+        append((byte) ',');
+        appendEscaped(key, true);
+        append((byte) '=');
+        appendEscaped(first, true);
+        appendChar(separator, true);
+        appendEscaped(second, true);
+        return this;
+    }
+
+    /**
+     * 소수점 표기를 그대로 옮겨 쓴다. 정수처럼 보이더라도 {@code i} 접미사를 붙이지 않으므로 float 필드로 저장된다.
+     */
+    public LineBuffer field(String key, BigDecimal value) {
+        beginField(key);
+        appendAscii(value.toPlainString());
+        return this;
+    }
+
+    /**
+     * 가수와 스케일로 표현된 값을 {@link BigDecimal#toPlainString()}과 같은 표기로 BigDecimal 없이 쓴다.
+     */
+    public LineBuffer field(String key, long unscaled, int scale) {
+        beginField(key);
+        if (unscaled == 0 && scale <= 0) {
+            append((byte) '0');
+            return this;
+        }
+        int pos = writeDigits(unscaled);
+        int digitCount = MAX_LONG_DIGITS - pos;
+        if (unscaled < 0) {
+            append((byte) '-');
+        }
+        ensureCapacity(digitCount + Math.abs(scale) + 2);
+        if (scale <= 0) {
+            appendDigits(pos, digitCount);
+            for (int i = 0; i < -scale; i++) {
+                append((byte) '0');
+            }
+        } else if (digitCount > scale) {
+            appendDigits(pos, digitCount - scale);
+            append((byte) '.');
+            appendDigits(pos + digitCount - scale, scale);
+        } else {
+            append((byte) '0');
+            append((byte) '.');
+            for (int i = 0; i < scale - digitCount; i++) {
+                append((byte) '0');
+            }
+            appendDigits(pos, digitCount);
+        }
+        return this;
+    }
+
+    /**
+     * 이미 완성된 한 줄(줄바꿈 포함)을 그대로 붙인다.
+     */
+    public void line(byte[] encodedLine) {
+        ensureCapacity(encodedLine.length);
+        System.arraycopy(encodedLine, 0, data, size, encodedLine.length);
+        size += encodedLine.length;
+        lines++;
+    }
+
+    public void timestamp(long epochMillis) {
+        append((byte) ' ');
+        appendLong(epochMillis);
+        append((byte) '\n');
+        lines++;
+    }
+
+    public byte[] data() {
+        return data;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int lines() {
+        return lines;
+    }
+
+    public void reset() {
+        size = 0;
+        lines = 0;
+        fieldCount = 0;
+    }
+
+    private void beginField(String key) {
+        append(fieldCount++ == 0 ? (byte) ' ' : (byte) ',');
+        appendEscaped(key, true);
+        append((byte) '=');
+    }
+
+    private void appendLong(long value) {
+        int pos = writeDigits(value);
+        if (value < 0) {
+            append((byte) '-');
+        }
+        appendDigits(pos, MAX_LONG_DIGITS - pos);
+    }
+
+    /**
+     * 부호를 뺀 10진수 자릿수를 {@code digits} 끝에서부터 채우고 시작 위치를 돌려준다.
+     */
+    private int writeDigits(long value) {
+        if (value == 0) {
+            digits[MAX_LONG_DIGITS - 1] = '0';
+            return MAX_LONG_DIGITS - 1;
+        }
+        int pos = MAX_LONG_DIGITS;
+        long remaining = value;
+        while (remaining != 0) {
+            digits[--pos] = (byte) ('0' + Math.abs(remaining % 10));
+            remaining /= 10;
+        }
+        return pos;
+    }
+
+    private void appendDigits(int from, int count) {
+        ensureCapacity(count);
+        System.arraycopy(digits, from, data, size, count);
+        size += count;
+    }
+
+    private void appendAscii(String value) {
+        int length = value.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            data[size++] = (byte) value.charAt(i);
+        }
+    }
+
+    /**
+     * 서로게이트 쌍은 CESU-8 6바이트가 아니라 코드 포인트 하나의 4바이트로 쓴다.
+     */
+    private void appendEscaped(String value, boolean escapeEquals) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                appendCodePoint(value.codePointAt(i));
+                i++;
+            } else {
+                appendChar(c, escapeEquals);
+            }
+        }
+    }
+
+    private void appendChar(char c, boolean escapeEquals) {
+        if (c == ',' || c == ' ' || (escapeEquals && c == '=')) {
+            append((byte) '\\');
+        }
+        if (c < 0x80) {
+            append((byte) c);
+        } else if (c < 0x800) {
+            append((byte) (0xC0 | (c >> 6)));
+            append((byte) (0x80 | (c & 0x3F)));
+        } else {
+            append((byte) (0xE0 | (c >> 12)));
+            append((byte) (0x80 | ((c >> 6) & 0x3F)));
+            append((byte) (0x80 | (c & 0x3F)));
+        }
+    }
+
+    private void appendCodePoint(int codePoint) {
+        append((byte) (0xF0 | (codePoint >> 18)));
+        append((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+        append((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+        append((byte) (0x80 | (codePoint & 0x3F)));
+    }
+
+    private void append(byte b) {
+        ensureCapacity(1);
+        data[size++] = b;
+    }
+
+    private void ensureCapacity(int additional) {
+        if (size + additional > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length << 1, size + additional));
+        }
+    }
+}
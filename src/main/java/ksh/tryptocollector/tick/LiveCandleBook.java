@@ -0,0 +1,404 @@
+package ksh.tryptocollector.tick;
+
+import com.influxdb.client.QueryApi;
+import com.influxdb.query.FluxRecord;
+import com.influxdb.query.FluxTable;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import ksh.tryptocollector.metadata.MarketInfoCache;
+import ksh.tryptocollector.model.CandleEvent;
+import ksh.tryptocollector.model.FixedDecimal;
+import ksh.tryptocollector.model.NormalizedTicker;
+import ksh.tryptocollector.rabbitmq.CandleEventPublisher;
+import ksh.tryptocollector.redis.CandleRedisRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 심볼별로 타임프레임마다 형성 중인 캔들을 메모리에 두고, 바뀐 심볼만 {@code publish-interval-ms}마다 한 번씩
+ * RabbitMQ {@code candle.exchange}와 Redis에 내보낸다. 차트는 InfluxDB를 읽지 않고 마지막 봉을 갱신할 수 있다.
+ *
+ * <p>리더십을 얻으면 이미 지나간 구간을 저장된 캔들({@code candle_1d}, {@code candle_1h}, {@code candle_1m})로 채운 뒤 내보내기 시작한다.
+ */
+@Slf4j
+@Component
+public class LiveCandleBook {
+    private static final CandleInterval[] INTERVALS = CandleInterval.values();
+
+    private final CandleEventPublisher candleEventPublisher;
+    private final CandleRedisRepository candleRedisRepository;
+    private final QueryApi queryApi;
+    private final String bucket;
+    private final boolean enabled;
+    private final long publishIntervalMs;
+    private final LongSupplier clock;
+
+    private final SymbolSlots<LiveSymbol> symbols = new SymbolSlots<>(LiveSymbol::new);
+    private final ConcurrentHashMap<String, LiveSymbol> dirty = new ConcurrentHashMap<>();
+
+    private final Counter emittedCounter;
+    private final Counter suppressedCounter;
+    private final Counter rabbitFailureCounter;
+    private final Counter redisFailureCounter;
+
+    private ScheduledExecutorService scheduler;
+
+    public LiveCandleBook(
+            CandleEventPublisher candleEventPublisher,
+            CandleRedisRepository candleRedisRepository,
+            QueryApi queryApi,
+            MarketInfoCache marketInfoCache,
+            MeterRegistry meterRegistry,
+            @Value("${influxdb.bucket}") String bucket,
+            @Value("${candle.live.enabled:false}") boolean enabled,
+            @Value("${candle.live.publish-interval-ms:500}") long publishIntervalMs) {
+        this(candleEventPublisher, candleRedisRepository, queryApi, marketInfoCache, meterRegistry, bucket, enabled,
+                publishIntervalMs, System::currentTimeMillis);
+    }
+
+    LiveCandleBook(CandleEventPublisher candleEventPublisher, CandleRedisRepository candleRedisRepository,
+                   QueryApi queryApi, MarketInfoCache marketInfoCache, MeterRegistry meterRegistry, String bucket,
+                   boolean enabled, long publishIntervalMs, LongSupplier clock) {
+        this.candleEventPublisher = candleEventPublisher;
+        this.candleRedisRepository = candleRedisRepository;
+        this.queryApi = queryApi;
+        this.bucket = bucket;
+        this.enabled = enabled;
+        this.publishIntervalMs = publishIntervalMs;
+        this.clock = clock;
+        this.emittedCounter = conflation(meterRegistry, "emitted");
+        this.suppressedCounter = conflation(meterRegistry, "suppressed");
+        this.rabbitFailureCounter = publishFailure(meterRegistry, "rabbitmq");
+        this.redisFailureCounter = publishFailure(meterRegistry, "redis");
+        marketInfoCache.onReplace(symbols::forgetIds);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "live-candle-publish");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flush, publishIntervalMs, publishIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("라이브 캔들 발행 활성화: interval={}ms", publishIntervalMs);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        flush();
+    }
+
+    /**
+     * 리더십을 얻을 때 부른다. 이전 세션의 캔들을 비우고, 발행 스레드에서 저장된 캔들로 지나간 구간을 채운다.
+     * 채우는 동안에는 발행하지 않으므로 첫 발행부터 시가·고가·저가가 구간 전체 기준이다.
+     */
+    public void beginSession() {
+        if (!enabled) {
+            return;
+        }
+        for (LiveSymbol symbol : symbols.values()) {
+            synchronized (symbol) {
+                symbol.reset();
+            }
+        }
+        dirty.clear();
+        scheduler.execute(this::seed);
+    }
+
+    public void accept(NormalizedTicker ticker) {
+        if (!enabled) {
+            return;
+        }
+        LiveSymbol symbol = symbols.get(ticker);
+        boolean changed;
+        synchronized (symbol) {
+            changed = symbol.update(ticker);
+        }
+        if (changed && dirty.put(symbol.key, symbol) != null) {
+            suppressedCounter.increment();
+        }
+    }
+
+    /**
+     * 마지막 발행 뒤 바뀐 심볼의 캔들을 한 번씩 내보낸다. 실패하면 그 사이 다시 바뀌지 않은 심볼을 다음 주기로 돌린다.
+     */
+    void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<LiveSymbol> changed = new ArrayList<>(dirty.size());
+        List<CandleEvent> events = new ArrayList<>(dirty.size());
+        for (String key : dirty.keySet()) {
+            LiveSymbol symbol = dirty.remove(key);
+            if (symbol == null) {
+                continue;
+            }
+            synchronized (symbol) {
+                events.add(symbol.toEvent());
+            }
+            changed.add(symbol);
+        }
+        boolean failed = false;
+        try {
+            for (CandleEvent event : events) {
+                candleEventPublisher.publish(event);
+            }
+        } catch (Exception e) {
+            rabbitFailureCounter.increment();
+            log.warn("라이브 캔들 RabbitMQ 발행 실패: {}개, {}", events.size(), e.getMessage());
+            failed = true;
+        }
+        try {
+            candleRedisRepository.saveAll(events);
+        } catch (Exception e) {
+            redisFailureCounter.increment();
+            log.warn("라이브 캔들 Redis 저장 실패: {}개, {}", events.size(), e.getMessage());
+            failed = true;
+        }
+        if (failed) {
+            changed.forEach(symbol -> dirty.putIfAbsent(symbol.key, symbol));
+            return;
+        }
+        emittedCounter.increment(events.size());
+    }
+
+    /**
+     * 지나간 구간을 겹치지 않는 세 범위로 나눠 읽는다. 주봉·월봉 시작부터 오늘 전까지는 일봉, 오늘 중 이번 시간 전까지는 1시간봉,
+     * 이번 시간은 1분봉이다. 가장 최근 Task가 아직 돌지 않은 구간은 빠질 수 있다.
+     */
+    void seed() {
+        long now = clock.getAsLong();
+        long dayStart = CandleInterval.DAY_1.startOf(now);
+        long hourStart = CandleInterval.HOUR_1.startOf(now);
+        long from = Math.min(CandleInterval.WEEK_1.startOf(now), CandleInterval.MONTH_1.startOf(now));
+        int rows = seed("candle_1d", from, dayStart, now)
+                + seed("candle_1h", dayStart, hourStart, now)
+                + seed("candle_1m", hourStart, now, now);
+        log.info("라이브 캔들 초기화 완료: 저장된 캔들 {}건", rows);
+    }
+
+    private int seed(String measurement, long startMs, long stopMs, long now) {
+        if (startMs >= stopMs) {
+            return 0;
+        }
+        String flux = String.format("""
+                from(bucket: "%s")
+                  |> range(start: %s, stop: %s)
+                  |> filter(fn: (r) => r._measurement == "%s")
+                  |> pivot(rowKey: ["_time"], columnKey: ["_field"], valueColumn: "_value")
+                  |> sort(columns: ["_time"])
+                """, bucket, Instant.ofEpochMilli(startMs), Instant.ofEpochMilli(stopMs), measurement);
+        int rows = 0;
+        try {
+            for (FluxTable table : queryApi.query(flux)) {
+                for (FluxRecord record : table.getRecords()) {
+                    Object exchange = record.getValueByKey("exchange");
+                    Object symbolName = record.getValueByKey("symbol");
+                    if (exchange == null || symbolName == null || record.getTime() == null) {
+                        continue;
+                    }
+                    LiveSymbol symbol = symbols.get(exchange.toString(), symbolName.toString());
+                    long time = record.getTime().toEpochMilli();
+                    synchronized (symbol) {
+                        symbol.merge(time, now, number(record, "open"), number(record, "high"),
+                                number(record, "low"), number(record, "close"));
+                    }
+                    dirty.putIfAbsent(symbol.key, symbol);
+                    rows++;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("라이브 캔들 초기화 조회 실패: {}, {}", measurement, e.getMessage());
+        }
+        return rows;
+    }
+
+    /**
+     * 저장된 캔들은 double이므로 가장 짧은 10진 표기로 바꾼다. 없으면 {@code null}이다.
+     */
+    private static BigDecimal number(FluxRecord record, String field) {
+        Object value = record.getValueByKey(field);
+        return value instanceof Number number ? BigDecimal.valueOf(number.doubleValue()) : null;
+    }
+
+    private static Counter conflation(MeterRegistry registry, String result) {
+        return Counter.builder("candle.live.conflation")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static Counter publishFailure(MeterRegistry registry, String sink) {
+        return Counter.builder("candle.live.publish.failed")
+                .tag("sink", sink)
+                .register(registry);
+    }
+
+    /**
+     * 심볼 하나의 타임프레임별 캔들. 배열 인덱스는 {@link CandleInterval#ordinal()}이다.
+     * 가격은 tick의 가수와 스케일을 그대로 {@link FixedDecimal}에 두므로 발행할 때 받은 값과 같은 자릿수로 나간다.
+     */
+    static final class LiveSymbol {
+        private final String exchange;
+        private final String symbol;
+        private final String key;
+        private final boolean[] present = new boolean[INTERVALS.length];
+        private final long[] start = new long[INTERVALS.length];
+        private final long[] end = new long[INTERVALS.length];
+        private final long[] openTs = new long[INTERVALS.length];
+        private final long[] closeTs = new long[INTERVALS.length];
+        private final FixedDecimal[] open = slots();
+        private final FixedDecimal[] high = slots();
+        private final FixedDecimal[] low = slots();
+        private final FixedDecimal[] close = slots();
+        private final FixedDecimal price = new FixedDecimal();
+        private long lastTsMs;
+
+        LiveSymbol(String exchange, String symbol, String key) {
+            this.exchange = exchange;
+            this.symbol = symbol;
+            this.key = key;
+        }
+
+        private static FixedDecimal[] slots() {
+            FixedDecimal[] slots = new FixedDecimal[INTERVALS.length];
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = new FixedDecimal();
+            }
+            return slots;
+        }
+
+        void reset() {
+            Arrays.fill(present, false);
+            lastTsMs = 0;
+        }
+
+        /**
+         * 이미 지난 구간의 늦은 tick은 무시한다. 그 구간은 저장된 캔들이 맡는다.
+         */
+        boolean update(NormalizedTicker ticker) {
+            if (ticker.lastPriceScale() == FixedDecimal.OVERFLOW_SCALE) {
+                price.set(ticker.lastPrice());
+            } else {
+                price.set(ticker.lastPriceUnscaled(), ticker.lastPriceScale());
+            }
+            long tsMs = ticker.tsMs();
+            boolean changed = false;
+            for (int i = 0; i < INTERVALS.length; i++) {
+                if (present[i] && tsMs < start[i]) {
+                    continue;
+                }
+                if (!present[i] || tsMs >= end[i]) {
+                    open(i, INTERVALS[i].startOf(tsMs));
+                    open[i].set(price);
+                    high[i].set(price);
+                    low[i].set(price);
+                    close[i].set(price);
+                    openTs[i] = closeTs[i] = tsMs;
+                    changed = true;
+                    continue;
+                }
+                if (price.compareValue(high[i]) > 0) {
+                    high[i].set(price);
+                    changed = true;
+                }
+                if (price.compareValue(low[i]) < 0) {
+                    low[i].set(price);
+                    changed = true;
+                }
+                if (tsMs < openTs[i]) {
+                    changed |= open[i].compareValue(price) != 0;
+                    open[i].set(price);
+                    openTs[i] = tsMs;
+                }
+                if (tsMs >= closeTs[i]) {
+                    changed |= close[i].compareValue(price) != 0;
+                    close[i].set(price);
+                    closeTs[i] = tsMs;
+                }
+            }
+            lastTsMs = Math.max(lastTsMs, tsMs);
+            return changed;
+        }
+
+        /**
+         * {@code time}에 시작하는 저장된 캔들을 그 구간을 포함하는 현재 봉에 합친다. 저장된 캔들은 같은 봉의 tick보다 이르다.
+         */
+        void merge(long time, long now, BigDecimal o, BigDecimal h, BigDecimal l, BigDecimal c) {
+            if (o == null || h == null || l == null || c == null) {
+                return;
+            }
+            lastTsMs = Math.max(lastTsMs, time);
+            for (int i = 0; i < INTERVALS.length; i++) {
+                long current = INTERVALS[i].startOf(now);
+                if (time < current) {
+                    continue;
+                }
+                if (!present[i]) {
+                    open(i, current);
+                    open[i].set(o);
+                    high[i].set(h);
+                    low[i].set(l);
+                    close[i].set(c);
+                    openTs[i] = closeTs[i] = time;
+                    continue;
+                }
+                if (start[i] != current) {
+                    continue;
+                }
+                if (price.set(h).compareValue(high[i]) > 0) {
+                    high[i].set(price);
+                }
+                if (price.set(l).compareValue(low[i]) < 0) {
+                    low[i].set(price);
+                }
+                if (time <= openTs[i]) {
+                    open[i].set(o);
+                    openTs[i] = time;
+                }
+                if (time > closeTs[i]) {
+                    close[i].set(c);
+                    closeTs[i] = time;
+                }
+            }
+        }
+
+        CandleEvent toEvent() {
+            List<CandleEvent.Bar> bars = new ArrayList<>(INTERVALS.length);
+            for (int i = 0; i < INTERVALS.length; i++) {
+                if (present[i]) {
+                    bars.add(new CandleEvent.Bar(INTERVALS[i].label(), start[i], open[i].toBigDecimal(),
+                            high[i].toBigDecimal(), low[i].toBigDecimal(), close[i].toBigDecimal()));
+                }
+            }
+            return new CandleEvent(exchange, symbol, bars, lastTsMs);
+        }
+
+        private void open(int i, long startMs) {
+            present[i] = true;
+            start[i] = startMs;
+            end[i] = INTERVALS[i].endOf(startMs);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package ksh.tryptocollector.tick;
+
+import ksh.tryptocollector.model.Exchange;
+import ksh.tryptocollector.model.NormalizedTicker;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 심볼마다 상태 하나를 둔다. 거래소별로 {@code MarketInfoCache} 심볼 ID를 인덱스로 쓰는 배열에서 찾고,
+ * 심볼 ID가 없는 시세는 {@code EXCHANGE|BASE/QUOTE} 키로 찾는다. ID 배정이 바뀌면 {@link #forgetIds}로 인덱스를 버린다.
+ */
+final class SymbolSlots<T> {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final Factory<T> factory;
+    private final AtomicReferenceArray<AtomicReferenceArray<T>> byId =
+            new AtomicReferenceArray<>(Exchange.values().length);
+    private final Map<String, T> byKey = new ConcurrentHashMap<>();
+
+    SymbolSlots(Factory<T> factory) {
+        this.factory = factory;
+        for (Exchange exchange : Exchange.values()) {
+            byId.set(exchange.ordinal(), new AtomicReferenceArray<>(INITIAL_CAPACITY));
+        }
+    }
+
+    static String key(String exchange, String symbol) {
+        return exchange + "|" + symbol;
+    }
+
+    T get(NormalizedTicker ticker) {
+        int symbolId = ticker.symbolId();
+        if (symbolId == NormalizedTicker.UNKNOWN_SYMBOL_ID) {
+            T slot = byKey.get(key(ticker.exchange(), ticker.base() + "/" + ticker.quote()));
+            return slot != null ? slot : register(ticker, -1);
+        }
+        AtomicReferenceArray<T> table = byId.get(Exchange.valueOf(ticker.exchange()).ordinal());
+        T slot = symbolId < table.length() ? table.get(symbolId) : null;
+        return slot != null ? slot : register(ticker, symbolId);
+    }
+
+    /**
+     * tick 없이 거래소와 심볼 이름으로 찾는다. 나중에 같은 심볼의 tick이 오면 같은 상태를 쓴다.
+     */
+    T get(String exchange, String symbol) {
+        return byKey.computeIfAbsent(key(exchange, symbol), k -> factory.create(exchange, symbol, k));
+    }
+
+    Collection<T> values() {
+        return byKey.values();
+    }
+
+    /**
+     * 거래소의 ID 인덱스만 버린다. 상태는 키로 남아 있으므로 다음 tick이 새 ID로 같은 상태를 다시 찾아 건다.
+     * {@code MarketInfoCache}가 ID를 다시 매긴 뒤 부르지 않으면 옛 ID 자리의 다른 심볼 상태를 쓰게 된다.
+     */
+    synchronized void forgetIds(Exchange exchange) {
+        byId.set(exchange.ordinal(), new AtomicReferenceArray<>(INITIAL_CAPACITY));
+    }
+
+    /**
+     * 상태는 한 번만 만들고 잃으면 안 되므로 생성과 배열 확장을 같은 락 안에서 한다.
+     */
+    private synchronized T register(NormalizedTicker ticker, int symbolId) {
+        String symbol = ticker.base() + "/" + ticker.quote();
+        String key = key(ticker.exchange(), symbol);
+        T slot = byKey.computeIfAbsent(key, k -> factory.create(ticker.exchange(), symbol, k));
+        if (symbolId < 0) {
+            return slot;
+        }
+        int ordinal = Exchange.valueOf(ticker.exchange()).ordinal();
+        AtomicReferenceArray<T> table = byId.get(ordinal);
+        if (symbolId >= table.length()) {
+            AtomicReferenceArray<T> grown = new AtomicReferenceArray<>(Math.max(table.length() * 2, symbolId + 1));
+            for (int i = 0; i < table.length(); i++) {
+                grown.set(i, table.get(i));
+            }
+            byId.set(ordinal, grown);
+            table = grown;
+        }
+        table.set(symbolId, slot);
+        return slot;
+    }
+
+    @FunctionalInterface
+    interface Factory<T> {
+        T create(String exchange, String symbol, String key);
+    }
+}
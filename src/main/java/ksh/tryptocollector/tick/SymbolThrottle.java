@@ -0,0 +1,32 @@
+package ksh.tryptocollector.tick;
+
+import ksh.tryptocollector.model.Exchange;
+import ksh.tryptocollector.model.NormalizedTicker;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 심볼마다 {@code intervalMs}에 tick 하나만 통과시킨다. 마지막으로 통과한 시각만 두므로 심볼당 상태는 {@code long} 하나다.
+ */
+public final class SymbolThrottle {
+    private final long intervalMs;
+    private final SymbolSlots<AtomicLong> slots;
+
+    public SymbolThrottle(long intervalMs) {
+        this.intervalMs = intervalMs;
+        this.slots = new SymbolSlots<>((exchange, symbol, key) -> new AtomicLong(-intervalMs));
+    }
+
+    public boolean tryPass(NormalizedTicker ticker, long nowMs) {
+        AtomicLong lastPassedMs = slots.get(ticker);
+        long previous = lastPassedMs.get();
+        return nowMs - previous >= intervalMs && lastPassedMs.compareAndSet(previous, nowMs);
+    }
+
+    /**
+     * 거래소의 심볼 ID 배정이 바뀌었을 때 부른다.
+     */
+    public void forgetSymbolIds(Exchange exchange) {
+        slots.forgetIds(exchange);
+    }
+}
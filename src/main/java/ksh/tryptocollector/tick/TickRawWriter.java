@@ -1,27 +1,101 @@
 package ksh.tryptocollector.tick;
 
+import com.influxdb.client.InfluxDBClient;
 import com.influxdb.client.WriteApiBlocking;
 import com.influxdb.client.domain.WritePrecision;
-import com.influxdb.client.write.Point;
+import com.influxdb.exceptions.InfluxException;
+import ksh.tryptocollector.exchange.SinkHealth;
+import ksh.tryptocollector.exchange.SinkType;
+import ksh.tryptocollector.model.EncodedTick;
+import ksh.tryptocollector.model.FixedDecimal;
 import ksh.tryptocollector.model.NormalizedTicker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class TickRawWriter {
-    private static final String MEASUREMENT = "ticker_raw";
+    private static final InfluxBatchWriter.LineEncoder<EncodedTick> RAW_TICK_ENCODER =
+            (tick, line) -> line.line(tick.lineProtocol());
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
 
     private final WriteApiBlocking writeApiBlocking;
+    private final InfluxBatchWriter influxBatchWriter;
+    private final InfluxDBClient influxDBClient;
+    private final SinkHealth sinkHealth;
+
+    /**
+     * 배치 모드에서 버퍼가 모두 전송 중이라 받지 못하면 false. 블로킹 쓰기 실패는 예외로 알린다.
+     * 두 모드 모두 {@link EncodedTick#lineProtocol()}을 그대로 보내 spill과 같은 줄을 쓴다.
+     * 배치 모드의 전송 결과는 {@link InfluxBatchWriter}가 서킷에 알린다.
+     */
+    public boolean write(EncodedTick tick) {
+        if (influxBatchWriter.isEnabled()) {
+            return influxBatchWriter.append(tick, RAW_TICK_ENCODER);
+        }
+        long start = System.nanoTime();
+        try {
+            writeApiBlocking.writeRecord(WritePrecision.MS, new String(tick.lineProtocol(), StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            sinkHealth.recordFailure(SinkType.INFLUX, start, e);
+            throw e;
+        }
+        sinkHealth.recordSuccess(SinkType.INFLUX, start);
+        return true;
+    }
+
+    /**
+     * spill에서 꺼낸 line protocol 레코드 묶음을 요청 하나로 쓴다. 데이터 자체가 거절된 4xx(429 제외)는
+     * 다시 보내도 같으므로 묶음째 버린다.
+     */
+    public void writeLines(List<ByteBuffer> records) {
+        StringBuilder body = new StringBuilder();
+        for (ByteBuffer record : records) {
+            body.append(StandardCharsets.UTF_8.decode(record.duplicate()));
+            if (body.isEmpty() || body.charAt(body.length() - 1) != '\n') {
+                body.append('\n');
+            }
+        }
+        long start = System.nanoTime();
+        try {
+            writeApiBlocking.writeRecord(WritePrecision.MS, body.toString());
+            sinkHealth.recordSuccess(SinkType.INFLUX, start);
+        } catch (InfluxException e) {
+            if (e.status() < 400 || e.status() >= 500 || e.status() == HTTP_TOO_MANY_REQUESTS) {
+                sinkHealth.recordFailure(SinkType.INFLUX, start, e);
+                throw e;
+            }
+            sinkHealth.recordSuccess(SinkType.INFLUX, start);
+            log.warn("InfluxDB가 spill 레코드를 거절해 버림: status={}, {}", e.status(), e.getMessage());
+        }
+    }
+
+    /**
+     * 서킷이 열렸을 때 {@link SinkHealth}가 복구를 확인하는 요청. InfluxDB {@code /ping}이 실패하면 예외를 던진다.
+     */
+    public void ping() {
+        if (!Boolean.TRUE.equals(influxDBClient.ping())) {
+            throw new IllegalStateException("InfluxDB ping 실패");
+        }
+    }
+
+    /**
+     * 배치 전송이 일시적으로 실패했을 때 그 배치의 line protocol을 받을 곳을 정한다.
+     */
+    public void onFailedBatch(InfluxBatchWriter.FailedBatchHandler handler) {
+        influxBatchWriter.onFailedBatch(handler);
+    }
 
-    public void write(NormalizedTicker ticker) {
-        Point point = Point.measurement(MEASUREMENT)
-                .addTag("exchange", ticker.exchange())
-                .addTag("symbol", ticker.base() + "/" + ticker.quote())
-                .addField("price", ticker.lastPrice().doubleValue())
-                .time(ticker.tsMs(), WritePrecision.MS);
-        writeApiBlocking.writePoint(point);
+    static double priceAsDouble(NormalizedTicker ticker) {
+        if (ticker.lastPriceScale() == FixedDecimal.OVERFLOW_SCALE) {
+            return ticker.lastPrice().doubleValue();
+        }
+        return FixedDecimal.toDouble(ticker.lastPriceUnscaled(), ticker.lastPriceScale());
     }
 }
@@ -0,0 +1,16 @@
+package ksh.tryptocollector.simulator;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * 업비트·빗썸·바이낸스의 WebSocket 시세 스트림과 REST 엔드포인트를 로컬에서 흉내 내는 시뮬레이터.
+ * collector를 {@code simulator} 프로필로 띄우면 외부 네트워크 없이 이 서버에 붙는다.
+ */
+@SpringBootApplication
+public class ExchangeSimulatorApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ExchangeSimulatorApplication.class, args);
+    }
+}
@@ -0,0 +1,20 @@
+package ksh.tryptocollector.simulator;
+
+/**
+ * 거래소 하나의 시세 발생 설정. {@code ticksPerSecond}는 거래소 전체 발생량이고, 연결마다 구독한 심볼 비율만큼 나눠 갖는다.
+ * 버스트 구간은 벽시계 기준이라 같은 거래소의 모든 연결이 동시에 몰린다.
+ */
+public record FeedSettings(
+        double ticksPerSecond,
+        double burstFactor,
+        long burstEveryMs,
+        long burstDurationMs,
+        long disconnectEveryMs
+) {
+    public double rateAt(long nowMs) {
+        if (burstFactor <= 1 || burstEveryMs <= 0) {
+            return ticksPerSecond;
+        }
+        return nowMs % burstEveryMs < burstDurationMs ? ticksPerSecond * burstFactor : ticksPerSecond;
+    }
+}
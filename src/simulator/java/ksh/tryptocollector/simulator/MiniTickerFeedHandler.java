@@ -0,0 +1,81 @@
+package ksh.tryptocollector.simulator;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 바이낸스 {@code !miniTicker@arr} 방식의 WebSocket: 구독 메시지 없이 연결 즉시 주기마다
+ * 그 주기에 체결된 심볼들을 배열 하나로 보낸다. 배열 크기는 발생률 × 주기이며 전체 심볼 수를 넘지 않는다.
+ */
+@Slf4j
+public class MiniTickerFeedHandler extends AbstractWebSocketHandler {
+    private static final int MINI_TICKER_SIZE = 200;
+
+    private final SimulatedExchange exchange;
+    private final long intervalMs;
+    private final int sendTimeLimitMs;
+    private final int sendBufferLimit;
+    private final Map<String, TickFeed> feeds = new ConcurrentHashMap<>();
+
+    public MiniTickerFeedHandler(SimulatedExchange exchange, long intervalMs, int sendTimeLimitMs, int sendBufferLimit) {
+        this.exchange = exchange;
+        this.intervalMs = intervalMs;
+        this.sendTimeLimitMs = sendTimeLimitMs;
+        this.sendBufferLimit = sendBufferLimit;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        int[] order = new int[exchange.market().size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        TickFeed feed = new TickFeed(exchange.name(),
+                new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMs, sendBufferLimit),
+                exchange.feed(), 1, intervalMs,
+                (target, ticks, nowMs) -> emit(target, order, ticks, nowMs));
+        feeds.put(session.getId(), feed);
+        feed.start();
+        log.info("{} 연결: session={}, {} 심볼", exchange.name(), session.getId(), order.length);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        TickFeed feed = feeds.remove(session.getId());
+        if (feed != null) {
+            feed.stop();
+        }
+    }
+
+    /**
+     * 인덱스 배열 앞쪽을 부분 셔플해 이번 주기에 체결된 서로 다른 심볼을 고른다.
+     */
+    private int emit(WebSocketSession session, int[] order, int ticks, long nowMs) throws IOException {
+        SimulatedMarket market = exchange.market();
+        int count = Math.min(ticks, order.length);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder frame = new StringBuilder(count * MINI_TICKER_SIZE).append('[');
+        for (int i = 0; i < count; i++) {
+            int pick = i + random.nextInt(order.length - i);
+            int index = order[pick];
+            order[pick] = order[i];
+            order[i] = index;
+            market.tick(index, nowMs);
+            if (i > 0) {
+                frame.append(',');
+            }
+            TickerFrames.appendMiniTicker(frame, market, index, nowMs);
+        }
+        session.sendMessage(new TextMessage(frame.append(']').toString()));
+        return count;
+    }
+}
@@ -0,0 +1,34 @@
+package ksh.tryptocollector.simulator;
+
+/**
+ * 고정 윈도우 요청 한도. 거래소가 응답 헤더로 알려주는 남은 요청 수·사용 weight를 흉내 낸다.
+ */
+public class RequestWindow {
+    private final long windowMs;
+    private final int limit;
+
+    private long windowStart;
+    private int used;
+
+    public RequestWindow(long windowMs, int limit) {
+        this.windowMs = windowMs;
+        this.limit = limit;
+    }
+
+    /**
+     * weight만큼 쓰고 이번 윈도우의 누적 사용량을 돌려준다. 한도를 넘긴 요청도 사용량에 더한다.
+     */
+    public synchronized int acquire(int weight, long nowMs) {
+        long start = nowMs - nowMs % windowMs;
+        if (start != windowStart) {
+            windowStart = start;
+            used = 0;
+        }
+        used += weight;
+        return used;
+    }
+
+    public int limit() {
+        return limit;
+    }
+}
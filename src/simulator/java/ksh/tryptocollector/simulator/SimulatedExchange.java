@@ -0,0 +1,12 @@
+package ksh.tryptocollector.simulator;
+
+/**
+ * 시뮬레이터가 흉내 내는 거래소 하나. REST 한도는 업비트·빗썸은 초당 요청 수, 바이낸스는 분당 weight다.
+ */
+public record SimulatedExchange(
+        String name,
+        SimulatedMarket market,
+        FeedSettings feed,
+        RequestWindow restWindow
+) {
+}
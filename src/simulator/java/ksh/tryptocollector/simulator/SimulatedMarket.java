@@ -0,0 +1,135 @@
+package ksh.tryptocollector.simulator;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 시뮬레이터 거래소 하나의 심볼 목록과 심볼별 시세 상태. 체결가는 고정소수점 가수로 랜덤 워크하고,
+ * 24시간 거래대금은 체결마다 늘어난다. 여러 피드 스레드와 REST 요청이 동시에 읽고 쓴다.
+ */
+public class SimulatedMarket {
+    public static final int TURNOVER_SCALE = 2;
+    public static final int CHANGE_RATE_SCALE = 8;
+    private static final long CHANGE_RATE_UNIT = 100_000_000L;
+    private static final double STEP_VOLATILITY = 0.0005;
+
+    private final String[] codes;
+    private final Map<String, Integer> indexByCode;
+    private final int priceScale;
+    private final long[] openPrices;
+    private final AtomicLongArray lastPrices;
+    private final AtomicLongArray turnovers;
+    private final AtomicLongArray timestamps;
+
+    /**
+     * @param minPrice 시작가 하한 (quote 통화 단위)
+     * @param maxPrice 시작가 상한. 시작가는 하한과 상한 사이에서 로그 균등하게 뽑는다
+     */
+    public SimulatedMarket(List<String> codes, int priceScale, double minPrice, double maxPrice, long seed) {
+        this.codes = codes.toArray(String[]::new);
+        this.indexByCode = new HashMap<>(codes.size() * 2);
+        this.priceScale = priceScale;
+        this.openPrices = new long[codes.size()];
+        this.lastPrices = new AtomicLongArray(codes.size());
+        this.turnovers = new AtomicLongArray(codes.size());
+        this.timestamps = new AtomicLongArray(codes.size());
+
+        Random random = new Random(seed);
+        double unit = Math.pow(10, priceScale);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < this.codes.length; i++) {
+            indexByCode.put(this.codes[i], i);
+            double price = Math.exp(Math.log(minPrice) + random.nextDouble() * (Math.log(maxPrice) - Math.log(minPrice)));
+            long unscaled = Math.max(1, Math.round(price * unit));
+            openPrices[i] = unscaled;
+            lastPrices.set(i, unscaled);
+            turnovers.set(i, Math.round((1_000 + random.nextDouble() * 1_000_000) * 100));
+            timestamps.set(i, now);
+        }
+    }
+
+    public int size() {
+        return codes.length;
+    }
+
+    public String code(int index) {
+        return codes[index];
+    }
+
+    public int indexOf(String code) {
+        Integer index = indexByCode.get(code);
+        return index == null ? -1 : index;
+    }
+
+    public int priceScale() {
+        return priceScale;
+    }
+
+    /**
+     * 체결 하나를 만든다. 가격은 최소 호가 단위 이상으로 움직이고 시작가의 절반 아래로는 내려가지 않는다.
+     */
+    public void tick(int index, long nowMs) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long last = lastPrices.get(index);
+        long step = Math.round(last * STEP_VOLATILITY * random.nextGaussian());
+        if (step == 0) {
+            step = random.nextBoolean() ? 1 : -1;
+        }
+        long next = Math.max(Math.max(1, openPrices[index] / 2), last + step);
+        lastPrices.set(index, next);
+        double volume = random.nextDouble() * 2;
+        turnovers.addAndGet(index, Math.max(1, Math.round(next * volume * Math.pow(10, TURNOVER_SCALE - priceScale))));
+        timestamps.set(index, nowMs);
+    }
+
+    public long openPrice(int index) {
+        return openPrices[index];
+    }
+
+    public long lastPrice(int index) {
+        return lastPrices.get(index);
+    }
+
+    public long turnover(int index) {
+        return turnovers.get(index);
+    }
+
+    public long timestamp(int index) {
+        return timestamps.get(index);
+    }
+
+    /**
+     * 시작가 대비 변동률을 {@link #CHANGE_RATE_SCALE} 자리 가수로 돌려준다.
+     */
+    public long changeRate(int index) {
+        long open = openPrices[index];
+        return Math.round((double) (lastPrices.get(index) - open) * CHANGE_RATE_UNIT / open);
+    }
+
+    /**
+     * 가수와 스케일을 지수 표기 없이 십진수 텍스트로 붙인다.
+     */
+    public static StringBuilder appendDecimal(StringBuilder out, long unscaled, int scale) {
+        if (unscaled < 0) {
+            out.append('-');
+            unscaled = -unscaled;
+        }
+        if (scale <= 0) {
+            return out.append(unscaled);
+        }
+        String digits = Long.toString(unscaled);
+        int integerDigits = digits.length() - scale;
+        if (integerDigits <= 0) {
+            out.append("0.");
+            for (int i = integerDigits; i < 0; i++) {
+                out.append('0');
+            }
+            return out.append(digits);
+        }
+        return out.append(digits, 0, integerDigits).append('.').append(digits, integerDigits, digits.length());
+    }
+}
@@ -0,0 +1,79 @@
+package ksh.tryptocollector.simulator;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 거래소별 심볼 수·발생률·버스트·강제 종료·REST 한도를 읽어 {@link SimulatedExchange}를 만든다.
+ * {@code simulator.scale}은 심볼 수와 발생률에 함께 곱해져 부하 배수를 한 번에 바꾼다.
+ */
+@Configuration
+public class SimulatorConfig {
+    private static final long SECOND_MS = 1_000;
+    private static final long MINUTE_MS = 60_000;
+
+    @Value("${simulator.scale:1}")
+    private double scale;
+
+    @Value("${simulator.burst.every-ms:60000}")
+    private long burstEveryMs;
+
+    @Value("${simulator.burst.duration-ms:5000}")
+    private long burstDurationMs;
+
+    @Bean
+    public SimulatedExchange upbit(
+            @Value("${simulator.upbit.symbols:250}") int symbols,
+            @Value("${simulator.upbit.ticks-per-second:400}") double ticksPerSecond,
+            @Value("${simulator.upbit.burst-factor:1}") double burstFactor,
+            @Value("${simulator.upbit.disconnect-every-ms:0}") long disconnectEveryMs,
+            @Value("${simulator.upbit.rest-requests-per-second:10}") int restRequestsPerSecond) {
+        SimulatedMarket market = new SimulatedMarket(codes("KRW-SIM", "", scaled(symbols)), 2, 1, 150_000_000, 1);
+        return new SimulatedExchange("upbit", market, feed(ticksPerSecond, burstFactor, disconnectEveryMs),
+                new RequestWindow(SECOND_MS, restRequestsPerSecond));
+    }
+
+    @Bean
+    public SimulatedExchange bithumb(
+            @Value("${simulator.bithumb.symbols:450}") int symbols,
+            @Value("${simulator.bithumb.ticks-per-second:300}") double ticksPerSecond,
+            @Value("${simulator.bithumb.burst-factor:1}") double burstFactor,
+            @Value("${simulator.bithumb.disconnect-every-ms:0}") long disconnectEveryMs,
+            @Value("${simulator.bithumb.rest-requests-per-second:10}") int restRequestsPerSecond) {
+        SimulatedMarket market = new SimulatedMarket(codes("KRW-SIM", "", scaled(symbols)), 2, 1, 150_000_000, 2);
+        return new SimulatedExchange("bithumb", market, feed(ticksPerSecond, burstFactor, disconnectEveryMs),
+                new RequestWindow(SECOND_MS, restRequestsPerSecond));
+    }
+
+    @Bean
+    public SimulatedExchange binance(
+            @Value("${simulator.binance.symbols:1700}") int symbols,
+            @Value("${simulator.binance.ticks-per-second:800}") double ticksPerSecond,
+            @Value("${simulator.binance.burst-factor:1}") double burstFactor,
+            @Value("${simulator.binance.disconnect-every-ms:0}") long disconnectEveryMs,
+            @Value("${simulator.binance.weight-per-minute:6000}") int weightPerMinute) {
+        SimulatedMarket market = new SimulatedMarket(codes("SIM", "USDT", scaled(symbols)), 8, 0.0001, 100_000, 3);
+        return new SimulatedExchange("binance", market, feed(ticksPerSecond, burstFactor, disconnectEveryMs),
+                new RequestWindow(MINUTE_MS, weightPerMinute));
+    }
+
+    private FeedSettings feed(double ticksPerSecond, double burstFactor, long disconnectEveryMs) {
+        return new FeedSettings(ticksPerSecond * scale, burstFactor, burstEveryMs, burstDurationMs, disconnectEveryMs);
+    }
+
+    private int scaled(int symbols) {
+        return (int) Math.round(symbols * scale);
+    }
+
+    private static List<String> codes(String prefix, String suffix, int count) {
+        List<String> codes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            codes.add(prefix + String.format("%05d", i) + suffix);
+        }
+        return codes;
+    }
+}
@@ -0,0 +1,123 @@
+package ksh.tryptocollector.simulator;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 거래소 REST 엔드포인트. 업비트·빗썸은 초당 요청 수를 {@code Remaining-Req} 헤더로, 바이낸스는 분당 사용 weight를
+ * {@code X-MBX-USED-WEIGHT-1m} 헤더로 알려주고, 한도를 넘으면 429로 거절한다.
+ */
+@RestController
+public class SimulatorRestController {
+    private static final String REMAINING_REQ_HEADER = "Remaining-Req";
+    private static final String USED_WEIGHT_HEADER = "X-MBX-USED-WEIGHT-1m";
+    private static final int TICKER_24HR_WEIGHT = 80;
+    private static final int ENTRY_SIZE = 256;
+
+    private final SimulatedExchange upbit;
+    private final SimulatedExchange bithumb;
+    private final SimulatedExchange binance;
+
+    public SimulatorRestController(
+            @Qualifier("upbit") SimulatedExchange upbit,
+            @Qualifier("bithumb") SimulatedExchange bithumb,
+            @Qualifier("binance") SimulatedExchange binance) {
+        this.upbit = upbit;
+        this.bithumb = bithumb;
+        this.binance = binance;
+    }
+
+    @GetMapping("/upbit/v1/market/all")
+    public ResponseEntity<String> upbitMarkets() {
+        return markets(upbit);
+    }
+
+    @GetMapping("/upbit/v1/ticker")
+    public ResponseEntity<String> upbitTickers(@RequestParam String markets) {
+        return tickers(upbit, markets);
+    }
+
+    @GetMapping("/bithumb/v1/market/all")
+    public ResponseEntity<String> bithumbMarkets() {
+        return markets(bithumb);
+    }
+
+    @GetMapping("/bithumb/v1/ticker")
+    public ResponseEntity<String> bithumbTickers(@RequestParam String markets) {
+        return tickers(bithumb, markets);
+    }
+
+    @GetMapping("/binance/api/v3/ticker/24hr")
+    public ResponseEntity<String> binanceTickers() {
+        RequestWindow window = binance.restWindow();
+        int used = window.acquire(TICKER_24HR_WEIGHT, System.currentTimeMillis());
+        if (used > window.limit()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(USED_WEIGHT_HEADER, String.valueOf(used))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body("{\"code\":-1003,\"msg\":\"Too many requests\"}");
+        }
+        SimulatedMarket market = binance.market();
+        StringBuilder body = new StringBuilder(market.size() * ENTRY_SIZE).append('[');
+        for (int i = 0; i < market.size(); i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            TickerFrames.appendTicker24hr(body, market, i);
+        }
+        return ResponseEntity.ok()
+                .header(USED_WEIGHT_HEADER, String.valueOf(used))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body.append(']').toString());
+    }
+
+    private ResponseEntity<String> markets(SimulatedExchange exchange) {
+        SimulatedMarket market = exchange.market();
+        StringBuilder body = new StringBuilder(market.size() * ENTRY_SIZE / 2).append('[');
+        for (int i = 0; i < market.size(); i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            TickerFrames.appendMarket(body, market, i);
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body.append(']').toString());
+    }
+
+    private ResponseEntity<String> tickers(SimulatedExchange exchange, String markets) {
+        RequestWindow window = exchange.restWindow();
+        int used = window.acquire(1, System.currentTimeMillis());
+        String remainingReq = "group=ticker; min=" + window.limit() * 60 + "; sec=" + Math.max(0, window.limit() - used);
+        if (used > window.limit()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(REMAINING_REQ_HEADER, remainingReq)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body("{\"error\":{\"name\":\"too_many_requests\",\"message\":\"Too many API requests.\"}}");
+        }
+        SimulatedMarket market = exchange.market();
+        String[] codes = markets.split(",");
+        StringBuilder body = new StringBuilder(codes.length * ENTRY_SIZE).append('[');
+        boolean first = true;
+        for (String code : codes) {
+            int index = market.indexOf(code.trim());
+            if (index < 0) {
+                continue;
+            }
+            if (!first) {
+                body.append(',');
+            }
+            first = false;
+            TickerFrames.appendRestTicker(body, market, index);
+        }
+        return ResponseEntity.ok()
+                .header(REMAINING_REQ_HEADER, remainingReq)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body.append(']').toString());
+    }
+}
@@ -0,0 +1,69 @@
+package ksh.tryptocollector.simulator;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * 거래소별 WebSocket 경로를 실제 URL의 경로 부분과 같게 등록한다. 송신 버퍼가 한도를 넘거나 전송이 시간 한도를 넘긴
+ * 느린 클라이언트는 실제 거래소처럼 연결을 끊는다.
+ */
+@Configuration
+@EnableWebSocket
+public class SimulatorWebSocketConfig implements WebSocketConfigurer {
+    private static final int MAX_TEXT_MESSAGE_BYTES = 1024 * 1024;
+
+    private final SimulatedExchange upbit;
+    private final SimulatedExchange bithumb;
+    private final SimulatedExchange binance;
+    private final ObjectMapper objectMapper;
+    private final boolean upbitGzip;
+    private final long binanceIntervalMs;
+    private final int sendTimeLimitMs;
+    private final int sendBufferLimit;
+
+    public SimulatorWebSocketConfig(
+            @Qualifier("upbit") SimulatedExchange upbit,
+            @Qualifier("bithumb") SimulatedExchange bithumb,
+            @Qualifier("binance") SimulatedExchange binance,
+            ObjectMapper objectMapper,
+            @Value("${simulator.upbit.gzip:true}") boolean upbitGzip,
+            @Value("${simulator.binance.interval-ms:1000}") long binanceIntervalMs,
+            @Value("${simulator.send-time-limit-ms:5000}") int sendTimeLimitMs,
+            @Value("${simulator.send-buffer-limit:4194304}") int sendBufferLimit) {
+        this.upbit = upbit;
+        this.bithumb = bithumb;
+        this.binance = binance;
+        this.objectMapper = objectMapper;
+        this.upbitGzip = upbitGzip;
+        this.binanceIntervalMs = binanceIntervalMs;
+        this.sendTimeLimitMs = sendTimeLimitMs;
+        this.sendBufferLimit = sendBufferLimit;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(new SubscriptionFeedHandler(upbit, upbitGzip, objectMapper, sendTimeLimitMs, sendBufferLimit),
+                "/upbit/websocket/v1");
+        registry.addHandler(new SubscriptionFeedHandler(bithumb, false, objectMapper, sendTimeLimitMs, sendBufferLimit),
+                "/bithumb/websocket/v1");
+        registry.addHandler(new MiniTickerFeedHandler(binance, binanceIntervalMs, sendTimeLimitMs, sendBufferLimit),
+                "/binance/ws/!miniTicker@arr");
+    }
+
+    /**
+     * 샤드 하나가 수천 개 코드를 한 번에 구독해도 받을 수 있게 수신 텍스트 버퍼를 늘린다.
+     */
+    @Bean
+    public ServletServerContainerFactoryBean webSocketContainer() {
+        ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        container.setMaxTextMessageBufferSize(MAX_TEXT_MESSAGE_BYTES);
+        return container;
+    }
+}
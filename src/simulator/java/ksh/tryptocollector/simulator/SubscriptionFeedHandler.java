@@ -0,0 +1,119 @@
+package ksh.tryptocollector.simulator;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 업비트·빗썸 방식의 WebSocket: 연결 후 받은 구독 메시지의 {@code codes}에 든 심볼만 tick 하나당 메시지 하나로 보낸다.
+ * 업비트는 gzip 바이너리 프레임, 빗썸은 텍스트 프레임으로 보낸다.
+ */
+@Slf4j
+public class SubscriptionFeedHandler extends AbstractWebSocketHandler {
+    private static final long SLOT_MS = 10;
+    private static final int INITIAL_MESSAGE_CAPACITY = 1024;
+
+    private final SimulatedExchange exchange;
+    private final boolean gzip;
+    private final ObjectMapper objectMapper;
+    private final int sendTimeLimitMs;
+    private final int sendBufferLimit;
+    private final Map<String, TickFeed> feeds = new ConcurrentHashMap<>();
+
+    public SubscriptionFeedHandler(SimulatedExchange exchange, boolean gzip, ObjectMapper objectMapper,
+                                   int sendTimeLimitMs, int sendBufferLimit) {
+        this.exchange = exchange;
+        this.gzip = gzip;
+        this.objectMapper = objectMapper;
+        this.sendTimeLimitMs = sendTimeLimitMs;
+        this.sendBufferLimit = sendBufferLimit;
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        int[] indices = subscribedIndices(message.getPayload());
+        if (indices.length == 0) {
+            log.warn("{} 구독 메시지에 알려진 심볼 없음: session={}", exchange.name(), session.getId());
+            session.close(CloseStatus.BAD_DATA);
+            return;
+        }
+        SimulatedMarket market = exchange.market();
+        StringBuilder json = new StringBuilder(INITIAL_MESSAGE_CAPACITY);
+        TickFeed feed = new TickFeed(exchange.name(),
+                new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMs, sendBufferLimit),
+                exchange.feed(), (double) indices.length / market.size(), SLOT_MS,
+                (target, ticks, nowMs) -> emit(target, indices, json, ticks, nowMs));
+        TickFeed previous = feeds.put(session.getId(), feed);
+        if (previous != null) {
+            previous.stop();
+        }
+        feed.start();
+        log.info("{} 구독: session={}, {} 마켓", exchange.name(), session.getId(), indices.length);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        TickFeed feed = feeds.remove(session.getId());
+        if (feed != null) {
+            feed.stop();
+        }
+    }
+
+    private int emit(WebSocketSession session, int[] indices, StringBuilder json, int ticks, long nowMs)
+            throws IOException {
+        SimulatedMarket market = exchange.market();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < ticks; i++) {
+            int index = indices[random.nextInt(indices.length)];
+            market.tick(index, nowMs);
+            json.setLength(0);
+            TickerFrames.appendStreamTicker(json, market, index);
+            if (gzip) {
+                session.sendMessage(new BinaryMessage(gzip(json)));
+            } else {
+                session.sendMessage(new TextMessage(json.toString()));
+            }
+        }
+        return ticks;
+    }
+
+    /**
+     * {@code [{"ticket":...},{"type":"ticker","codes":[...]}]}에서 시뮬레이터가 아는 심볼만 인덱스로 바꾼다.
+     */
+    @SuppressWarnings("unchecked")
+    private int[] subscribedIndices(String payload) {
+        Map<String, Object>[] items = objectMapper.readValue(payload, Map[].class);
+        SimulatedMarket market = exchange.market();
+        for (Map<String, Object> item : items) {
+            if (item.get("codes") instanceof List<?> codes) {
+                return codes.stream()
+                        .mapToInt(code -> market.indexOf(String.valueOf(code)))
+                        .filter(index -> index >= 0)
+                        .toArray();
+            }
+        }
+        return new int[0];
+    }
+
+    private static byte[] gzip(CharSequence json) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length() / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+}
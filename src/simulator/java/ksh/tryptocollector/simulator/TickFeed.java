@@ -0,0 +1,109 @@
+package ksh.tryptocollector.simulator;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * WebSocket 연결 하나에 시세를 흘려보내는 전용 스레드. 슬롯마다 설정한 발생률만큼의 tick 수를 계산해
+ * {@link Emitter}에 넘기고, 강제 종료 설정이 있으면 주기의 ±50% 지터를 두고 연결을 끊는다.
+ * 전송이 밀려 1초 이상 뒤처지면 밀린 슬롯은 버리고 현재 시각부터 다시 맞춘다.
+ */
+@Slf4j
+public class TickFeed {
+    private static final long MAX_LAG_MS = 1_000;
+
+    private final String name;
+    private final WebSocketSession session;
+    private final FeedSettings settings;
+    private final double share;
+    private final long slotMs;
+    private final Emitter emitter;
+    private final Thread thread;
+
+    private long sentTicks;
+    private long droppedSlots;
+
+    /**
+     * @param share 거래소 전체 발생량 중 이 연결이 받을 비율 (구독 심볼 수 / 전체 심볼 수)
+     * @param slotMs tick 수를 계산해 한 번에 내보내는 간격
+     */
+    public TickFeed(String name, WebSocketSession session, FeedSettings settings, double share, long slotMs,
+                    Emitter emitter) {
+        this.name = name;
+        this.session = session;
+        this.settings = settings;
+        this.share = share;
+        this.slotMs = slotMs;
+        this.emitter = emitter;
+        this.thread = Thread.ofPlatform().daemon().name(name + "-feed-" + session.getId()).unstarted(this::run);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    public void stop() {
+        thread.interrupt();
+    }
+
+    private void run() {
+        long now = System.currentTimeMillis();
+        long disconnectAt = settings.disconnectEveryMs() > 0
+                ? now + (long) (settings.disconnectEveryMs() * (0.5 + ThreadLocalRandom.current().nextDouble()))
+                : Long.MAX_VALUE;
+        long nextSlot = now;
+        double carry = 0;
+        try {
+            while (session.isOpen() && !Thread.currentThread().isInterrupted()) {
+                now = System.currentTimeMillis();
+                if (now >= disconnectAt) {
+                    log.info("{} 강제 연결 종료: session={}, sent={}", name, session.getId(), sentTicks);
+                    session.close(CloseStatus.SERVICE_RESTARTED);
+                    return;
+                }
+                if (now - nextSlot > MAX_LAG_MS) {
+                    droppedSlots += (now - nextSlot) / slotMs;
+                    nextSlot = now;
+                }
+                carry += settings.rateAt(now) * share * slotMs / 1_000.0;
+                int ticks = (int) carry;
+                carry -= ticks;
+                if (ticks > 0) {
+                    sentTicks += emitter.emit(session, ticks, now);
+                }
+                nextSlot += slotMs;
+                long sleepMs = nextSlot - System.currentTimeMillis();
+                if (sleepMs > 0) {
+                    Thread.sleep(sleepMs);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            log.warn("{} 시세 전송 실패, 연결 종료: session={}, {}", name, session.getId(), e.getMessage());
+            closeQuietly();
+        } finally {
+            log.info("{} 피드 종료: session={}, sent={}, droppedSlots={}", name, session.getId(), sentTicks, droppedSlots);
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            session.close(CloseStatus.SERVER_ERROR);
+        } catch (IOException ignored) {
+            // 이미 끊긴 연결
+        }
+    }
+
+    @FunctionalInterface
+    public interface Emitter {
+        /**
+         * tick을 만들어 보내고 실제로 보낸 tick 수를 돌려준다.
+         */
+        int emit(WebSocketSession session, int ticks, long nowMs) throws IOException;
+    }
+}
@@ -0,0 +1,120 @@
+package ksh.tryptocollector.simulator;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import static ksh.tryptocollector.simulator.SimulatedMarket.CHANGE_RATE_SCALE;
+import static ksh.tryptocollector.simulator.SimulatedMarket.TURNOVER_SCALE;
+import static ksh.tryptocollector.simulator.SimulatedMarket.appendDecimal;
+
+/**
+ * 거래소별 WebSocket·REST 시세 JSON을 만든다. 필드 구성은 실제 거래소 응답을 따르되,
+ * collector가 읽지 않는 필드는 메시지 크기를 맞추는 용도라 값이 단순하다.
+ */
+public final class TickerFrames {
+    private static final DateTimeFormatter TRADE_DATE = DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter TRADE_TIME = DateTimeFormatter.ofPattern("HHmmss").withZone(ZoneOffset.UTC);
+
+    private TickerFrames() {
+    }
+
+    /**
+     * 업비트·빗썸 WebSocket ticker 메시지. 두 거래소의 v1 ticker 스트림은 필드 구성이 같다.
+     */
+    public static StringBuilder appendStreamTicker(StringBuilder out, SimulatedMarket market, int index) {
+        int scale = market.priceScale();
+        long last = market.lastPrice(index);
+        long open = market.openPrice(index);
+        long changeRate = market.changeRate(index);
+        long timestamp = market.timestamp(index);
+        Instant tradeAt = Instant.ofEpochMilli(timestamp);
+        out.append("{\"type\":\"ticker\",\"code\":\"").append(market.code(index)).append('"');
+        appendDecimal(out.append(",\"opening_price\":"), open, scale);
+        appendDecimal(out.append(",\"high_price\":"), Math.max(open, last), scale);
+        appendDecimal(out.append(",\"low_price\":"), Math.min(open, last), scale);
+        appendDecimal(out.append(",\"trade_price\":"), last, scale);
+        appendDecimal(out.append(",\"prev_closing_price\":"), open, scale);
+        out.append(",\"change\":\"").append(last > open ? "RISE" : last < open ? "FALL" : "EVEN").append('"');
+        appendDecimal(out.append(",\"change_price\":"), Math.abs(last - open), scale);
+        appendDecimal(out.append(",\"signed_change_price\":"), last - open, scale);
+        appendDecimal(out.append(",\"change_rate\":"), Math.abs(changeRate), CHANGE_RATE_SCALE);
+        appendDecimal(out.append(",\"signed_change_rate\":"), changeRate, CHANGE_RATE_SCALE);
+        out.append(",\"trade_volume\":0.0012,\"acc_trade_volume\":152.8812,\"acc_trade_volume_24h\":480.1123");
+        appendDecimal(out.append(",\"acc_trade_price\":"), market.turnover(index) / 3, TURNOVER_SCALE);
+        appendDecimal(out.append(",\"acc_trade_price_24h\":"), market.turnover(index), TURNOVER_SCALE);
+        out.append(",\"trade_date\":\"").append(TRADE_DATE.format(tradeAt))
+                .append("\",\"trade_time\":\"").append(TRADE_TIME.format(tradeAt))
+                .append("\",\"trade_timestamp\":").append(timestamp)
+                .append(",\"ask_bid\":\"BID\",\"acc_ask_volume\":75.1,\"acc_bid_volume\":77.7")
+                .append(",\"market_state\":\"ACTIVE\",\"is_trading_suspended\":false,\"delisting_date\":null")
+                .append(",\"market_warning\":\"NONE\",\"timestamp\":").append(timestamp)
+                .append(",\"stream_type\":\"REALTIME\"}");
+        return out;
+    }
+
+    /**
+     * 업비트·빗썸 {@code /v1/ticker} 응답 배열의 원소.
+     */
+    public static StringBuilder appendRestTicker(StringBuilder out, SimulatedMarket market, int index) {
+        int scale = market.priceScale();
+        long timestamp = market.timestamp(index);
+        out.append("{\"market\":\"").append(market.code(index)).append('"');
+        appendDecimal(out.append(",\"opening_price\":"), market.openPrice(index), scale);
+        appendDecimal(out.append(",\"trade_price\":"), market.lastPrice(index), scale);
+        appendDecimal(out.append(",\"signed_change_rate\":"), market.changeRate(index), CHANGE_RATE_SCALE);
+        appendDecimal(out.append(",\"acc_trade_price_24h\":"), market.turnover(index), TURNOVER_SCALE);
+        out.append(",\"trade_timestamp\":").append(timestamp)
+                .append(",\"timestamp\":").append(timestamp).append('}');
+        return out;
+    }
+
+    /**
+     * 업비트·빗썸 {@code /v1/market/all} 응답 배열의 원소. 한글명은 심볼 코드로 대신한다.
+     */
+    public static StringBuilder appendMarket(StringBuilder out, SimulatedMarket market, int index) {
+        String code = market.code(index);
+        String base = code.substring(code.indexOf('-') + 1);
+        return out.append("{\"market\":\"").append(code)
+                .append("\",\"korean_name\":\"").append(base)
+                .append("\",\"english_name\":\"").append(base).append("\"}");
+    }
+
+    /**
+     * 바이낸스 {@code !miniTicker@arr} 배열의 원소.
+     */
+    public static StringBuilder appendMiniTicker(StringBuilder out, SimulatedMarket market, int index, long eventTime) {
+        int scale = market.priceScale();
+        long last = market.lastPrice(index);
+        long open = market.openPrice(index);
+        out.append("{\"e\":\"24hrMiniTicker\",\"E\":").append(eventTime)
+                .append(",\"s\":\"").append(market.code(index)).append('"');
+        appendDecimal(out.append(",\"c\":\""), last, scale).append('"');
+        appendDecimal(out.append(",\"o\":\""), open, scale).append('"');
+        appendDecimal(out.append(",\"h\":\""), Math.max(open, last), scale).append('"');
+        appendDecimal(out.append(",\"l\":\""), Math.min(open, last), scale).append('"');
+        out.append(",\"v\":\"1200.12345000\"");
+        appendDecimal(out.append(",\"q\":\""), market.turnover(index), TURNOVER_SCALE).append("\"}");
+        return out;
+    }
+
+    /**
+     * 바이낸스 {@code /api/v3/ticker/24hr} 응답 배열의 원소.
+     */
+    public static StringBuilder appendTicker24hr(StringBuilder out, SimulatedMarket market, int index) {
+        int scale = market.priceScale();
+        long last = market.lastPrice(index);
+        long open = market.openPrice(index);
+        long timestamp = market.timestamp(index);
+        out.append("{\"symbol\":\"").append(market.code(index)).append('"');
+        appendDecimal(out.append(",\"priceChange\":\""), last - open, scale).append('"');
+        // 소수 8자리 비율을 소수 2자리 퍼센트로 바꾼다
+        appendDecimal(out.append(",\"priceChangePercent\":\""), market.changeRate(index) / 10_000, 2).append('"');
+        appendDecimal(out.append(",\"lastPrice\":\""), last, scale).append('"');
+        appendDecimal(out.append(",\"openPrice\":\""), open, scale).append('"');
+        appendDecimal(out.append(",\"quoteVolume\":\""), market.turnover(index), TURNOVER_SCALE).append('"');
+        out.append(",\"openTime\":").append(timestamp - 86_400_000L)
+                .append(",\"closeTime\":").append(timestamp).append('}');
+        return out;
+    }
+}
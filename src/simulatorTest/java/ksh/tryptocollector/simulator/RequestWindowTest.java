@@ -0,0 +1,71 @@
+package ksh.tryptocollector.simulator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestWindowTest {
+
+    private static final long DAY_MS = 86_400_000L;
+
+    @Test
+    @DisplayName("같은 윈도우 안에서는 weight를 누적하고 한도를 넘긴 요청도 더하며, 다음 윈도우에서 0부터 다시 센다")
+    void givenRequests_whenAcquire_thenAccumulatedPerWindow() {
+        RequestWindow window = new RequestWindow(1_000, 10);
+
+        assertThat(window.acquire(4, 5_000)).isEqualTo(4);
+        assertThat(window.acquire(4, 5_999)).isEqualTo(8);
+        assertThat(window.acquire(4, 5_500)).isEqualTo(12);
+        assertThat(window.acquire(1, 6_000)).isEqualTo(1);
+        assertThat(window.limit()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("업비트 REST ticker는 초당 한도를 넘으면 429와 sec=0인 Remaining-Req 헤더를 돌려준다")
+    void givenUpbitLimitExceeded_whenTickers_thenTooManyRequests() {
+        SimulatorRestController controller = controller(new RequestWindow(DAY_MS, 2), new RequestWindow(DAY_MS, 1_200));
+
+        ResponseEntity<String> first = controller.upbitTickers("KRW-BTC");
+        ResponseEntity<String> second = controller.upbitTickers("KRW-BTC,KRW-UNKNOWN");
+        ResponseEntity<String> third = controller.upbitTickers("KRW-BTC");
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getHeaders().getFirst("Remaining-Req")).isEqualTo("group=ticker; min=120; sec=1");
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(second.getBody()).startsWith("[{\"market\":\"KRW-BTC\"").endsWith("}]");
+        assertThat(third.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(third.getHeaders().getFirst("Remaining-Req")).isEqualTo("group=ticker; min=120; sec=0");
+        assertThat(third.getBody()).contains("too_many_requests");
+    }
+
+    @Test
+    @DisplayName("바이낸스 24hr ticker는 요청마다 weight 80을 쓰고, 분당 한도를 넘으면 429와 누적 weight를 돌려준다")
+    void givenBinanceWeightExceeded_whenTickers_thenTooManyRequests() {
+        SimulatorRestController controller = controller(new RequestWindow(DAY_MS, 10), new RequestWindow(DAY_MS, 100));
+
+        ResponseEntity<String> first = controller.binanceTickers();
+        ResponseEntity<String> second = controller.binanceTickers();
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getHeaders().getFirst("X-MBX-USED-WEIGHT-1m")).isEqualTo("80");
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(second.getHeaders().getFirst("X-MBX-USED-WEIGHT-1m")).isEqualTo("160");
+        assertThat(second.getBody()).contains("-1003");
+    }
+
+    private static SimulatorRestController controller(RequestWindow krwWindow, RequestWindow binanceWindow) {
+        FeedSettings feed = new FeedSettings(1, 1, 0, 0, 0);
+        SimulatedExchange upbit = new SimulatedExchange("upbit",
+                new SimulatedMarket(List.of("KRW-BTC"), 0, 1_000, 100_000_000, 1L), feed, krwWindow);
+        SimulatedExchange bithumb = new SimulatedExchange("bithumb",
+                new SimulatedMarket(List.of("KRW-BTC"), 0, 1_000, 100_000_000, 2L), feed, new RequestWindow(DAY_MS, 10));
+        SimulatedExchange binance = new SimulatedExchange("binance",
+                new SimulatedMarket(List.of("BTCUSDT"), 8, 0.1, 100_000, 3L), feed, binanceWindow);
+        return new SimulatorRestController(upbit, bithumb, binance);
+    }
+}
@@ -0,0 +1,93 @@
+package ksh.tryptocollector.simulator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TickerFramesTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+            .build();
+    private final SimulatedMarket market = new SimulatedMarket(List.of("KRW-BTC", "KRW-ETH"), 2, 100, 1_000_000, 42L);
+
+    @Test
+    @DisplayName("가수와 스케일은 BigDecimal.toPlainString()과 같은 십진수 텍스트로 쓴다")
+    void givenUnscaledAndScale_whenAppendDecimal_thenSameAsToPlainString() {
+        long[][] cases = {{12345, 2}, {5, 3}, {-5, 3}, {0, 2}, {7, 0}, {-123, 0}, {100, 2}, {1, 8}};
+
+        for (long[] c : cases) {
+            String text = SimulatedMarket.appendDecimal(new StringBuilder(), c[0], (int) c[1]).toString();
+
+            assertThat(text)
+                    .as("unscaled=%d, scale=%d", c[0], c[1])
+                    .isEqualTo(BigDecimal.valueOf(c[0], (int) c[1]).toPlainString());
+        }
+    }
+
+    @Test
+    @DisplayName("업비트·빗썸 스트림 ticker는 올바른 JSON이고 시세 필드가 시장 상태와 같다")
+    void givenMarket_whenAppendStreamTicker_thenJsonMatchesMarket() {
+        market.tick(0, 1_700_000_000_000L);
+
+        JsonNode frame = objectMapper.readTree(TickerFrames.appendStreamTicker(new StringBuilder(), market, 0).toString());
+
+        assertThat(frame.get("type").asString()).isEqualTo("ticker");
+        assertThat(frame.get("code").asString()).isEqualTo("KRW-BTC");
+        assertThat(frame.get("trade_price").decimalValue())
+                .isEqualByComparingTo(BigDecimal.valueOf(market.lastPrice(0), market.priceScale()));
+        assertThat(frame.get("opening_price").decimalValue())
+                .isEqualByComparingTo(BigDecimal.valueOf(market.openPrice(0), market.priceScale()));
+        assertThat(frame.get("signed_change_rate").decimalValue())
+                .isEqualByComparingTo(BigDecimal.valueOf(market.changeRate(0), SimulatedMarket.CHANGE_RATE_SCALE));
+        assertThat(frame.get("acc_trade_price_24h").decimalValue())
+                .isEqualByComparingTo(BigDecimal.valueOf(market.turnover(0), SimulatedMarket.TURNOVER_SCALE));
+        assertThat(frame.get("trade_timestamp").asLong()).isEqualTo(1_700_000_000_000L);
+        assertThat(frame.get("trade_date").asString()).isEqualTo("20231114");
+        assertThat(frame.get("trade_time").asString()).isEqualTo("221320");
+    }
+
+    @Test
+    @DisplayName("REST ticker 배열과 마켓 목록 원소는 요청한 심볼의 필드를 담는다")
+    void givenMarket_whenAppendRestTickerAndMarket_thenFieldsPresent() {
+        JsonNode ticker = objectMapper.readTree(TickerFrames.appendRestTicker(new StringBuilder(), market, 1).toString());
+        JsonNode listing = objectMapper.readTree(TickerFrames.appendMarket(new StringBuilder(), market, 1).toString());
+
+        assertThat(ticker.get("market").asString()).isEqualTo("KRW-ETH");
+        assertThat(ticker.get("trade_price").decimalValue())
+                .isEqualByComparingTo(BigDecimal.valueOf(market.lastPrice(1), market.priceScale()));
+        assertThat(ticker.get("timestamp").asLong()).isEqualTo(market.timestamp(1));
+        assertThat(listing.get("market").asString()).isEqualTo("KRW-ETH");
+        assertThat(listing.get("korean_name").asString()).isEqualTo("ETH");
+    }
+
+    @Test
+    @DisplayName("바이낸스 miniTicker와 24hr ticker는 가격을 문자열로 담고, 변동률은 소수 2자리 퍼센트로 바꾼다")
+    void givenBinanceMarket_whenAppendMiniTickerAnd24hr_thenStringDecimals() {
+        SimulatedMarket binance = new SimulatedMarket(List.of("BTCUSDT"), 8, 0.1, 100_000, 7L);
+        binance.tick(0, 1_700_000_000_000L);
+
+        JsonNode mini = objectMapper.readTree(
+                TickerFrames.appendMiniTicker(new StringBuilder(), binance, 0, 1_700_000_000_123L).toString());
+        JsonNode daily = objectMapper.readTree(TickerFrames.appendTicker24hr(new StringBuilder(), binance, 0).toString());
+
+        String lastPrice = BigDecimal.valueOf(binance.lastPrice(0), 8).toPlainString();
+        assertThat(mini.get("e").asString()).isEqualTo("24hrMiniTicker");
+        assertThat(mini.get("E").asLong()).isEqualTo(1_700_000_000_123L);
+        assertThat(mini.get("s").asString()).isEqualTo("BTCUSDT");
+        assertThat(mini.get("c").isString()).isTrue();
+        assertThat(mini.get("c").asString()).isEqualTo(lastPrice);
+        assertThat(daily.get("lastPrice").asString()).isEqualTo(lastPrice);
+        assertThat(daily.get("priceChangePercent").asString())
+                .isEqualTo(BigDecimal.valueOf(binance.changeRate(0) / 10_000, 2).toPlainString());
+        assertThat(daily.get("closeTime").asLong() - daily.get("openTime").asLong()).isEqualTo(86_400_000L);
+    }
+}
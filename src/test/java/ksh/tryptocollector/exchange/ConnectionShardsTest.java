@@ -0,0 +1,54 @@
+package ksh.tryptocollector.exchange;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConnectionShardsTest {
+
+    @Test
+    @DisplayName("모든 코드는 정확히 한 샤드에 속하고, 목록이 바뀌어도 같은 코드는 같은 샤드에 남는다")
+    void givenCodes_whenSplitIntoShards_thenDisjointAndStable() {
+        List<String> codes = List.of("KRW-BTC", "KRW-ETH", "KRW-XRP", "KRW-SOL", "KRW-DOGE", "KRW-ADA", "KRW-TRX");
+        List<String> listed = new ArrayList<>(codes);
+        listed.add(0, "KRW-NEW");
+
+        List<String> merged = new ArrayList<>();
+        for (int shard = 0; shard < 3; shard++) {
+            List<String> before = ConnectionShards.codesOf(codes, shard, 3);
+            List<String> after = ConnectionShards.codesOf(listed, shard, 3);
+            merged.addAll(before);
+            assertThat(after).containsAll(before);
+        }
+
+        assertThat(merged).containsExactlyInAnyOrderElementsOf(codes);
+        assertThat(ConnectionShards.codesOf(codes, 0, 1)).isSameAs(codes);
+    }
+
+    @Test
+    @DisplayName("플랫폼 스레드에서 부르면 샤드마다 이름 붙은 데몬 플랫폼 스레드를 쓰고, 가상 스레드에서 부르면 가상 스레드를 쓴다")
+    void givenCallerThread_whenRun_thenShardThreadsMatchCallerKind() throws InterruptedException {
+        List<Thread> platformShards = new CopyOnWriteArrayList<>();
+        List<Thread> virtualShards = new CopyOnWriteArrayList<>();
+
+        ConnectionShards.run("binance", 2, shard -> platformShards.add(Thread.currentThread()));
+        Thread.ofVirtual()
+                .start(() -> ConnectionShards.run("upbit", 2, shard -> virtualShards.add(Thread.currentThread())))
+                .join();
+
+        assertThat(platformShards).hasSize(2).allSatisfy(thread -> {
+            assertThat(thread.isVirtual()).isFalse();
+            assertThat(thread.isDaemon()).isTrue();
+            assertThat(thread.getName()).startsWith("binance-shard-");
+        });
+        assertThat(virtualShards).hasSize(2).allSatisfy(thread -> {
+            assertThat(thread.isVirtual()).isTrue();
+            assertThat(thread.getName()).startsWith("upbit-shard-");
+        });
+    }
+}
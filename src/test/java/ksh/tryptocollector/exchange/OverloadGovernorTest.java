@@ -0,0 +1,119 @@
+package ksh.tryptocollector.exchange;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ksh.tryptocollector.metadata.MarketInfoCache;
+import ksh.tryptocollector.model.EncodedTick;
+import ksh.tryptocollector.model.Exchange;
+import ksh.tryptocollector.model.FixedDecimal;
+import ksh.tryptocollector.model.MarketInfo;
+import ksh.tryptocollector.model.NormalizedTicker;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OverloadGovernorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<OverloadLevelChangedEvent> events = new ArrayList<>();
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+    private final MarketInfoCache marketInfoCache = new MarketInfoCache();
+    private final OverloadGovernor governor = new OverloadGovernor(event -> events.add((OverloadLevelChangedEvent) event),
+            marketInfoCache, registry, true, 200, new long[]{100, 300, 1000}, new double[]{0.25, 0.5, 0.75}, 3, 1000, now::get);
+
+    @Test
+    @DisplayName("지연이나 버퍼 사용률 중 하나라도 임계치를 넘으면 그 단계로 바로 올리고 이벤트와 게이지로 알린다")
+    void givenPressure_whenEvaluate_thenEscalatedImmediately() {
+        governor.evaluate(10, 0.3);
+        governor.evaluate(400, 0.3);
+
+        assertThat(governor.level()).isEqualTo(OverloadLevel.CONFLATE_EVENTS);
+        assertThat(events).extracting(OverloadLevelChangedEvent::getCurrent)
+                .containsExactly(OverloadLevel.THIN_RAW, OverloadLevel.CONFLATE_EVENTS);
+        assertThat(events.get(1).getPrevious()).isEqualTo(OverloadLevel.THIN_RAW);
+        assertThat(registry.get("sink.overload.level").gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("압력이 사라져도 recover-checks번 연속으로 낮아야 한 단계씩만 내린다")
+    void givenCalm_whenEvaluate_thenDeescalatedOneLevelAtATime() {
+        governor.evaluate(2000, 0);
+
+        governor.evaluate(0, 0);
+        governor.evaluate(0, 0);
+        OverloadLevel beforeRecover = governor.level();
+        governor.evaluate(0, 0);
+
+        assertThat(beforeRecover).isEqualTo(OverloadLevel.PROTECT_ENGINE);
+        assertThat(governor.level()).isEqualTo(OverloadLevel.CONFLATE_EVENTS);
+    }
+
+    @Test
+    @DisplayName("THIN_RAW에서는 raw tick을 심볼마다 간격당 하나만 통과시키고 Redis는 그대로 둔다")
+    void givenThinRaw_whenAdmit_thenOnePerSymbolPerInterval() {
+        EncodedTick btc = tick("BTC");
+        EncodedTick eth = tick("ETH");
+        governor.evaluate(150, 0);
+
+        boolean first = governor.admitRawTick(btc);
+        boolean repeated = governor.admitRawTick(btc);
+        boolean otherSymbol = governor.admitRawTick(eth);
+        now.addAndGet(1000);
+        boolean afterInterval = governor.admitRawTick(btc);
+
+        assertThat(first).isTrue();
+        assertThat(repeated).isFalse();
+        assertThat(otherSymbol).isTrue();
+        assertThat(afterInterval).isTrue();
+        assertThat(governor.admitRedis()).isTrue();
+        assertThat(registry.get("sink.overload.shed").tag("sink", "influx").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("PROTECT_ENGINE에서는 raw tick을 모두 버리고 Redis 시세는 바로 쓰지 않고 미루게 한다")
+    void givenProtectEngine_whenAdmit_thenRawStoppedAndRedisDeferred() {
+        EncodedTick btc = tick("BTC");
+        governor.evaluate(0, 0.9);
+
+        assertThat(governor.admitRawTick(btc)).isFalse();
+        assertThat(governor.admitRedis()).isFalse();
+        assertThat(governor.admitRedis()).isFalse();
+        assertThat(registry.get("sink.overload.shed").tag("sink", "redis").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("심볼 ID 배정이 카탈로그로 바뀌면 옛 ID를 받은 다른 심볼이 그 간격을 이어받지 않고, 같은 심볼은 새 ID로 간격을 잇는다")
+    void givenCatalogReplaced_whenAdmitRawTick_thenThrottledBySymbolNotId() {
+        MarketInfo btc = new MarketInfo("BTC", "KRW", "BTC/KRW", "비트코인");
+        MarketInfo eth = new MarketInfo("ETH", "KRW", "ETH/KRW", "이더리움");
+        marketInfoCache.put(Exchange.UPBIT, "KRW-BTC", btc);
+        MarketInfoCache leader = new MarketInfoCache();
+        leader.put(Exchange.UPBIT, "KRW-ETH", eth);
+        leader.put(Exchange.UPBIT, "KRW-BTC", btc);
+        governor.evaluate(150, 0);
+
+        boolean btcBefore = governor.admitRawTick(tick(0, btc));
+        marketInfoCache.replace(Exchange.UPBIT, leader.catalog(Exchange.UPBIT));
+        boolean ethAfter = governor.admitRawTick(tick(0, eth));
+        boolean btcAfter = governor.admitRawTick(tick(1, btc));
+
+        assertThat(btcBefore).isTrue();
+        assertThat(ethAfter).isTrue();
+        assertThat(btcAfter).isFalse();
+    }
+
+    private static EncodedTick tick(int symbolId, MarketInfo market) {
+        return EncodedTick.of(new NormalizedTicker(Exchange.UPBIT, symbolId, market, new FixedDecimal().set(BigDecimal.ONE),
+                new FixedDecimal(), new FixedDecimal(), 1_700_000_000_000L));
+    }
+
+    private static EncodedTick tick(String base) {
+        return EncodedTick.of(new NormalizedTicker("UPBIT", base, "KRW", base,
+                BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.ZERO, 1_700_000_000_000L));
+    }
+}
@@ -0,0 +1,81 @@
+package ksh.tryptocollector.exchange;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SinkHealthTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("실패가 임계치를 넘으면 서킷이 열려 싱크를 건너뛰고 건너뛴 횟수를 센다")
+    void givenFailures_whenAllows_thenSkipped() {
+        SinkHealth sinkHealth = sinkHealth(Duration.ofSeconds(10));
+
+        for (int i = 0; i < 5; i++) {
+            sinkHealth.recordFailure(SinkType.REDIS, System.nanoTime(), new IllegalStateException("down"));
+        }
+
+        assertThat(sinkHealth.allows(SinkType.REDIS)).isFalse();
+        assertThat(sinkHealth.allows(SinkType.INFLUX)).isTrue();
+        assertThat(registry.get("sink.breaker.skipped").tag("sink", "redis").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("OPEN 대기 시간 전에는 프로브를 보내지 않고, 지난 뒤 프로브가 성공하면 한 주기 안에 서킷이 닫힌다")
+    void givenOpenBreaker_whenProbeSucceeds_thenClosed() throws InterruptedException {
+        SinkHealth sinkHealth = sinkHealth(Duration.ofMillis(50));
+        AtomicInteger probes = new AtomicInteger();
+        sinkHealth.registerProbe(SinkType.ENGINE_INBOX, probes::incrementAndGet);
+        sinkHealth.breaker(SinkType.ENGINE_INBOX).transitionToOpenState();
+
+        sinkHealth.probe();
+        int probesBeforeWait = probes.get();
+        Thread.sleep(100);
+        sinkHealth.probe();
+
+        assertThat(probesBeforeWait).isZero();
+        assertThat(probes.get()).isEqualTo(2);
+        assertThat(sinkHealth.breaker(SinkType.ENGINE_INBOX).getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(sinkHealth.allows(SinkType.ENGINE_INBOX)).isTrue();
+    }
+
+    @Test
+    @DisplayName("프로브가 실패하면 서킷은 다시 OPEN이 되고 tick 경로는 계속 건너뛴다")
+    void givenOpenBreaker_whenProbeFails_thenReopened() throws InterruptedException {
+        SinkHealth sinkHealth = sinkHealth(Duration.ofMillis(50));
+        AtomicBoolean healthy = new AtomicBoolean(false);
+        sinkHealth.registerProbe(SinkType.INFLUX, () -> {
+            if (!healthy.get()) {
+                throw new IllegalStateException("down");
+            }
+        });
+        sinkHealth.breaker(SinkType.INFLUX).transitionToOpenState();
+
+        Thread.sleep(100);
+        sinkHealth.probe();
+
+        assertThat(sinkHealth.breaker(SinkType.INFLUX).getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(sinkHealth.isAvailable(SinkType.INFLUX)).isFalse();
+    }
+
+    private SinkHealth sinkHealth(Duration waitOpen) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .slidingWindowSize(5)
+                .failureRateThreshold(60)
+                .waitDurationInOpenState(waitOpen)
+                .permittedNumberOfCallsInHalfOpenState(2)
+                .build();
+        return new SinkHealth(CircuitBreakerRegistry.of(config), registry, 1000);
+    }
+}
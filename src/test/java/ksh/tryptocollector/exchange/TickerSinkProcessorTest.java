@@ -1,11 +1,16 @@
 package ksh.tryptocollector.exchange;
 
-import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ksh.tryptocollector.exchange.spill.SinkSpill;
+import ksh.tryptocollector.metadata.MarketInfoCache;
+import ksh.tryptocollector.model.EncodedTick;
 import ksh.tryptocollector.model.NormalizedTicker;
 import ksh.tryptocollector.rabbitmq.EngineInboxPublisher;
 import ksh.tryptocollector.rabbitmq.TickerEventPublisher;
 import ksh.tryptocollector.redis.TickerRedisRepository;
+import ksh.tryptocollector.tick.CandleAggregator;
+import ksh.tryptocollector.tick.LiveCandleBook;
 import ksh.tryptocollector.tick.TickRawWriter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,9 +20,13 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.util.concurrent.CountDownLatch;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,15 +36,18 @@ class TickerSinkProcessorTest {
     @Mock private TickerEventPublisher tickerEventPublisher;
     @Mock private EngineInboxPublisher engineInboxPublisher;
     @Mock private TickRawWriter tickRawWriter;
+    @Mock private CandleAggregator candleAggregator;
+    @Mock private LiveCandleBook liveCandleBook;
 
+    private SinkHealth sinkHealth;
     private TickerSinkProcessor tickerSinkProcessor;
 
     @BeforeEach
     void setUp() {
-        CircuitBreaker circuitBreaker = CircuitBreakerRegistry.ofDefaults().circuitBreaker("redis");
+        sinkHealth = new SinkHealth(CircuitBreakerRegistry.ofDefaults(), new SimpleMeterRegistry(), 1000);
         tickerSinkProcessor = new TickerSinkProcessor(
                 tickerRedisRepository, tickerEventPublisher, engineInboxPublisher,
-                tickRawWriter, circuitBreaker);
+                tickRawWriter, candleAggregator, liveCandleBook, tickerStateTable(), sinkHealth, disabledGovernor(), disabledSpill(), new SimpleMeterRegistry(), true, false, 8192, false);
     }
 
     @Test
@@ -49,8 +61,124 @@ class TickerSinkProcessorTest {
 
         tickerSinkProcessor.process(ticker);
 
-        verify(tickerRedisRepository).save(ticker);
-        verify(tickerEventPublisher).publish(ticker);
-        verify(engineInboxPublisher).publish(ticker);
+        verify(tickerRedisRepository).save(encodedFrom(ticker));
+        verify(tickerEventPublisher).publish(encodedFrom(ticker));
+        verify(engineInboxPublisher).publish(encodedFrom(ticker));
+    }
+
+    @Test
+    @DisplayName("서킷이 열린 싱크는 호출하지 않고 나머지 싱크는 그대로 받는다")
+    void givenOpenBreaker_whenProcess_thenSinkSkipped() {
+        NormalizedTicker ticker = new NormalizedTicker(
+                "upbit", "BTC", "KRW", "BTC/KRW",
+                new BigDecimal("50000000"), BigDecimal.ZERO, BigDecimal.ZERO, System.currentTimeMillis()
+        );
+        sinkHealth.breaker(SinkType.REDIS).transitionToOpenState();
+        sinkHealth.breaker(SinkType.ENGINE_INBOX).transitionToOpenState();
+
+        tickerSinkProcessor.process(ticker);
+
+        verify(tickerRedisRepository, never()).save(any(EncodedTick.class));
+        verify(engineInboxPublisher, never()).publish(any());
+        verify(tickRawWriter).write(encodedFrom(ticker));
+        verify(tickerEventPublisher).publish(encodedFrom(ticker));
+    }
+
+    @Test
+    @DisplayName("비동기 모드에서 drain이 끝나면 적재된 tick이 모든 싱크에 전달되어 있다")
+    void givenAsyncMode_whenDrain_thenAllSinksReceiveTick() {
+        TickerSinkProcessor asyncProcessor = new TickerSinkProcessor(
+                tickerRedisRepository, tickerEventPublisher, engineInboxPublisher,
+                tickRawWriter, candleAggregator, liveCandleBook, tickerStateTable(), sinkHealth, disabledGovernor(), disabledSpill(), new SimpleMeterRegistry(), true, true, 16, false);
+        NormalizedTicker ticker = new NormalizedTicker(
+                "upbit", "BTC", "KRW", "BTC/KRW",
+                new BigDecimal("50000000"), BigDecimal.ZERO, BigDecimal.ZERO, System.currentTimeMillis()
+        );
+
+        asyncProcessor.process(ticker);
+        asyncProcessor.drain();
+
+        verify(tickRawWriter).write(encodedFrom(ticker));
+        verify(tickerRedisRepository).save(encodedFrom(ticker));
+        verify(tickerEventPublisher).publish(encodedFrom(ticker));
+        verify(engineInboxPublisher).publish(encodedFrom(ticker));
+        asyncProcessor.shutdown();
+    }
+
+    @Test
+    @DisplayName("대기 모드에서는 리더가 될 때까지 싱크를 호출하지 않고, 출력을 연 뒤 첫 tick에서 장애 조치 공백을 한 번 기록한다")
+    void givenStandby_whenEnableOutput_thenFirstTickRecordsFailoverGap() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TickerSinkProcessor standbyProcessor = new TickerSinkProcessor(
+                tickerRedisRepository, tickerEventPublisher, engineInboxPublisher,
+                tickRawWriter, candleAggregator, liveCandleBook, tickerStateTable(), sinkHealth, disabledGovernor(), disabledSpill(), registry, true, false, 8192, true);
+        NormalizedTicker gated = new NormalizedTicker(
+                "upbit", "BTC", "KRW", "BTC/KRW",
+                new BigDecimal("50000000"), BigDecimal.ZERO, BigDecimal.ZERO, System.currentTimeMillis()
+        );
+        NormalizedTicker first = new NormalizedTicker(
+                "upbit", "BTC", "KRW", "BTC/KRW",
+                new BigDecimal("50000001"), BigDecimal.ZERO, BigDecimal.ZERO, System.currentTimeMillis()
+        );
+        NormalizedTicker next = new NormalizedTicker(
+                "upbit", "BTC", "KRW", "BTC/KRW",
+                new BigDecimal("50000002"), BigDecimal.ZERO, BigDecimal.ZERO, System.currentTimeMillis()
+        );
+
+        standbyProcessor.process(gated);
+        standbyProcessor.enableOutput(System.nanoTime(), true);
+        standbyProcessor.process(first);
+        standbyProcessor.process(next);
+
+        verify(tickerRedisRepository, never()).save(encodedFrom(gated));
+        verify(engineInboxPublisher).publish(encodedFrom(first));
+        assertThat(registry.get("leader.failover.gap").tag("mode", "hot").timer().count()).isEqualTo(1);
+        assertThat(registry.get("leader.failover.gap").tag("mode", "cold").timer().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("스테이지 버퍼가 가득 차면 리스너를 막지 않고 tick을 버린다")
+    void givenFullStage_whenOffer_thenDropped() throws InterruptedException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CountDownLatch release = new CountDownLatch(1);
+        SinkStage stage = new SinkStage(SinkType.REDIS, 2, t -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, registry);
+        stage.start();
+        NormalizedTicker ticker = new NormalizedTicker(
+                "upbit", "BTC", "KRW", "BTC/KRW",
+                BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.ZERO, System.currentTimeMillis()
+        );
+
+        boolean accepted = true;
+        for (int i = 0; i < 10 && accepted; i++) {
+            accepted = stage.offer(EncodedTick.of(ticker));
+        }
+
+        assertThat(accepted).isFalse();
+        assertThat(registry.get("sink.stage.dropped").tag("sink", "redis").counter().count()).isEqualTo(1.0);
+        release.countDown();
+        stage.close();
+    }
+
+    private static EncodedTick encodedFrom(NormalizedTicker ticker) {
+        return argThat(tick -> tick != null && tick.ticker() == ticker);
+    }
+
+    private static OverloadGovernor disabledGovernor() {
+        return new OverloadGovernor(event -> { }, new MarketInfoCache(), new SimpleMeterRegistry(), false, 200,
+                new long[]{100, 300, 1000}, new double[]{0.25, 0.5, 0.75}, 25, 1000);
+    }
+
+    private SinkSpill disabledSpill() {
+        return new SinkSpill(new SimpleMeterRegistry(), sinkHealth, false, "./spill", 16, 512, 2000, 500);
+    }
+
+    private static TickerStateTable tickerStateTable() {
+        return new TickerStateTable(new MarketInfoCache(), new SimpleMeterRegistry(), true, new String[0], 10_000);
     }
 }
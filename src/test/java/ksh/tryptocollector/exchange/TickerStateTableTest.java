@@ -0,0 +1,97 @@
+package ksh.tryptocollector.exchange;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ksh.tryptocollector.metadata.MarketInfoCache;
+import ksh.tryptocollector.model.Exchange;
+import ksh.tryptocollector.model.FixedDecimal;
+import ksh.tryptocollector.model.MarketInfo;
+import ksh.tryptocollector.model.NormalizedTicker;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TickerStateTableTest {
+
+    private static final MarketInfo BTC = new MarketInfo("BTC", "KRW", "BTC/KRW", "비트코인");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("값과 tsMs가 모두 같은 시세는 duplicate, tsMs가 더 이른 시세는 stale로 버린다")
+    void givenDuplicateAndOlderTicks_whenAccept_thenSuppressed() {
+        TickerStateTable table = table(new String[0]);
+
+        boolean first = table.accept(ticker(0, 100, 1_000));
+        boolean duplicate = table.accept(ticker(0, 100, 1_000));
+        boolean stale = table.accept(ticker(0, 99, 999));
+        boolean newer = table.accept(ticker(0, 100, 1_001));
+
+        assertThat(first).isTrue();
+        assertThat(duplicate).isFalse();
+        assertThat(stale).isFalse();
+        assertThat(newer).isTrue();
+        assertThat(suppressed("duplicate")).isEqualTo(1);
+        assertThat(suppressed("stale")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("변경 필드를 지정하면 그 필드가 그대로인 시세는 max-silence-ms 안에서만 버린다")
+    void givenChangeFields_whenFieldUnchanged_thenSuppressedUntilMaxSilence() {
+        TickerStateTable table = table(new String[]{"last-price"});
+
+        table.accept(ticker(0, 100, 1_000));
+        boolean unchanged = table.accept(ticker(0, 100, 2_000));
+        boolean changed = table.accept(ticker(0, 101, 3_000));
+        boolean silent = table.accept(ticker(0, 101, 13_000));
+
+        assertThat(unchanged).isFalse();
+        assertThat(changed).isTrue();
+        assertThat(silent).isTrue();
+        assertThat(suppressed("unchanged")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("심볼 ID가 없는 시세와 초기 용량을 넘는 ID도 처리한다")
+    void givenUnknownOrLargeSymbolId_whenAccept_thenHandled() {
+        TickerStateTable table = table(new String[0]);
+
+        assertThat(table.accept(ticker(NormalizedTicker.UNKNOWN_SYMBOL_ID, 100, 1_000))).isTrue();
+        assertThat(table.accept(ticker(NormalizedTicker.UNKNOWN_SYMBOL_ID, 100, 1_000))).isTrue();
+        assertThat(table.accept(ticker(1_000, 100, 1_000))).isTrue();
+        assertThat(table.accept(ticker(1_000, 100, 1_000))).isFalse();
+    }
+
+    @Test
+    @DisplayName("심볼 ID 배정이 카탈로그로 바뀌면 그 거래소의 마지막 상태를 버려 다른 심볼 시세와 비교하지 않는다")
+    void givenCatalogReplaced_whenAccept_thenPreviousStateDiscarded() {
+        MarketInfoCache marketInfoCache = new MarketInfoCache();
+        TickerStateTable table = new TickerStateTable(marketInfoCache, meterRegistry, true, new String[0], 10_000);
+        MarketInfoCache leader = new MarketInfoCache();
+        leader.put(Exchange.UPBIT, "KRW-BTC", BTC);
+
+        table.accept(ticker(0, 100, 2_000));
+        marketInfoCache.replace(Exchange.UPBIT, leader.catalog(Exchange.UPBIT));
+        boolean afterReplace = table.accept(ticker(0, 100, 1_000));
+
+        assertThat(afterReplace).isTrue();
+        assertThat(suppressed("stale")).isZero();
+    }
+
+    private TickerStateTable table(String[] changeFields) {
+        return new TickerStateTable(new MarketInfoCache(), meterRegistry, true, changeFields, 10_000);
+    }
+
+    private double suppressed(String reason) {
+        return meterRegistry.get("ticker.state.suppressed")
+                .tag("exchange", "UPBIT")
+                .tag("reason", reason)
+                .counter()
+                .count();
+    }
+
+    private static NormalizedTicker ticker(int symbolId, long price, long tsMs) {
+        return new NormalizedTicker(Exchange.UPBIT, symbolId, BTC,
+                new FixedDecimal().set(price, 0), new FixedDecimal().set(1, 2), new FixedDecimal().set(5, 0), tsMs);
+    }
+}
@@ -0,0 +1,47 @@
+package ksh.tryptocollector.exchange;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    @DisplayName("용량만큼 쓰면 거절하고, 초당 충전량에 맞춰 다시 채운다")
+    void givenExhaustedBucket_whenTimePasses_thenRefilled() {
+        TokenBucket bucket = new TokenBucket(10, 10, now::get);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(bucket.tryAcquire(1)).isTrue();
+        }
+        boolean exhausted = bucket.tryAcquire(1);
+        long waitMs = bucket.millisUntil(5);
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+
+        assertThat(exhausted).isFalse();
+        assertThat(waitMs).isEqualTo(500);
+        assertThat(bucket.tryAcquire(5)).isTrue();
+        assertThat(bucket.tryAcquire(1)).isFalse();
+    }
+
+    @Test
+    @DisplayName("응답 헤더의 남은 예산이 로컬 잔량보다 적으면 그 값으로 낮추고, 알 수 없으면 무시한다")
+    void givenRemainingFromHeader_whenObserve_thenClampedDown() {
+        TokenBucket bucket = new TokenBucket(6000, 100, now::get);
+
+        bucket.observeRemaining(TickerPollResult.UNKNOWN_REMAINING);
+        bucket.observeRemaining(100);
+
+        assertThat(bucket.tryAcquire(80)).isTrue();
+        assertThat(bucket.tryAcquire(80)).isFalse();
+        assertThat(bucket.millisUntil(80)).isEqualTo(600);
+        assertThat(RemainingReqHeader.remainingPerSecond("group=ticker; min=599; sec=9")).isEqualTo(9);
+        assertThat(RemainingReqHeader.remainingPerSecond(null)).isEqualTo(TickerPollResult.UNKNOWN_REMAINING);
+    }
+}
@@ -0,0 +1,66 @@
+package ksh.tryptocollector.exchange.binance;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinanceMiniTickerDecoderTest {
+
+    private static final String FRAME = "[" +
+            "{\"e\":\"24hrMiniTicker\",\"E\":1672515782136,\"s\":\"BNBBTC\",\"c\":\"0.0025\",\"o\":\"0.0010\"," +
+            "\"h\":\"0.0025\",\"l\":\"0.0010\",\"v\":\"10000\",\"q\":\"18\"}," +
+            "{\"e\":\"24hrMiniTicker\",\"E\":1672515782137,\"s\":\"BTCUSDT\",\"c\":\"16500.10\",\"o\":\"16000.00\"," +
+            "\"h\":\"16600.00\",\"l\":\"15900.00\",\"v\":\"1200\",\"q\":\"19800000.5\"}" +
+            "]";
+
+    private final List<CharSequence> resolved = new ArrayList<>();
+    private final List<BinanceTickerMessage> decoded = new ArrayList<>();
+    private final List<Integer> decodedIds = new ArrayList<>();
+    private final BinanceMiniTickerDecoder decoder = new BinanceMiniTickerDecoder(
+            symbol -> {
+                resolved.add(symbol.toString());
+                return "BTCUSDT".contentEquals(symbol) ? 7 : -1;
+            },
+            (message, symbolId) -> {
+                decoded.add(message);
+                decodedIds.add(symbolId);
+            });
+
+    @Test
+    @DisplayName("등록된 심볼만 디코딩하고 모르는 심볼은 s 필드 조회 후 건너뛴다")
+    void givenMixedSymbols_whenFeed_thenOnlyKnownSymbolsDecoded() {
+        decoder.feed(FRAME, true);
+
+        assertThat(resolved).containsExactly("BNBBTC", "BTCUSDT");
+        assertThat(decoded).containsExactly(
+                new BinanceTickerMessage("BTCUSDT", "16500.10", "16000.00", "19800000.5", 1672515782137L));
+        assertThat(decodedIds).containsExactly(7);
+    }
+
+    @Test
+    @DisplayName("프레임이 임의 위치에서 잘려 조각으로 도착해도 같은 결과를 낸다")
+    void givenFragmentedFrame_whenFeed_thenSameResult() {
+        for (int i = 0; i < FRAME.length(); i += 5) {
+            int end = Math.min(FRAME.length(), i + 5);
+            decoder.feed(FRAME.subSequence(i, end), end == FRAME.length());
+        }
+
+        assertThat(decoded).extracting(BinanceTickerMessage::symbol).containsExactly("BTCUSDT");
+    }
+
+    @Test
+    @DisplayName("형식 오류가 난 프레임 이후에도 다음 프레임은 정상 디코딩된다")
+    void givenMalformedFrame_whenNextFrame_thenRecovered() {
+        assertThatThrownBy(() -> decoder.feed("[{\"s\" \"BTCUSDT\"}]", true))
+                .isInstanceOf(IllegalStateException.class);
+
+        decoder.feed(FRAME, true);
+
+        assertThat(decoded).hasSize(1);
+    }
+}
@@ -0,0 +1,76 @@
+package ksh.tryptocollector.exchange.journal;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FrameJournalTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("텍스트와 바이너리 조각을 세그먼트를 넘겨 가며 쓰고 같은 순서로 읽는다")
+    void givenFramesAcrossSegments_whenRead_thenSameOrderAndFields() throws Exception {
+        try (FrameJournal journal = journal(128, 10)) {
+            journal.append(0, "{\"code\":\"KRW-BTC\",", false);
+            journal.append(0, "\"trade_price\":100}", true);
+            journal.append(2, ByteBuffer.wrap(new byte[100]), true);
+            journal.append(1, "{\"code\":\"KRW-ETH\"}", true);
+        }
+
+        FrameJournalReader reader = new FrameJournalReader(directory, "upbit");
+
+        assertThat(reader.segmentCount()).isEqualTo(3);
+        assertThat(reader.next()).isTrue();
+        assertThat(reader.isText()).isTrue();
+        assertThat(reader.last()).isFalse();
+        assertThat(reader.text().toString()).isEqualTo("{\"code\":\"KRW-BTC\",");
+        assertThat(reader.next()).isTrue();
+        assertThat(reader.last()).isTrue();
+        assertThat(reader.text().toString()).isEqualTo("\"trade_price\":100}");
+        assertThat(reader.next()).isTrue();
+        assertThat(reader.isText()).isFalse();
+        assertThat(reader.shard()).isEqualTo(2);
+        assertThat(reader.payload().remaining()).isEqualTo(100);
+        assertThat(reader.next()).isTrue();
+        assertThat(reader.shard()).isEqualTo(1);
+        assertThat(StandardCharsets.UTF_8.decode(reader.payload()).toString()).isEqualTo("{\"code\":\"KRW-ETH\"}");
+        assertThat(reader.next()).isFalse();
+    }
+
+    @Test
+    @DisplayName("세그먼트 수가 상한을 넘으면 오래된 세그먼트를 지우고, 세그먼트보다 큰 조각은 버린다")
+    void givenMaxSegments_whenRolled_thenOldestDeletedAndOversizedDropped() throws Exception {
+        try (FrameJournal journal = journal(64, 2)) {
+            for (int i = 0; i < 5; i++) {
+                journal.append(0, ByteBuffer.wrap(new byte[]{(byte) i}), true);
+                journal.append(0, ByteBuffer.wrap(new byte[40]), true);
+            }
+            journal.append(0, ByteBuffer.wrap(new byte[64]), true);
+        }
+
+        FrameJournalReader reader = new FrameJournalReader(directory, "upbit");
+        reader.next();
+
+        assertThat(FrameJournal.segments(directory, "upbit")).hasSize(2);
+        assertThat(reader.payload().get()).isEqualTo((byte) 4);
+        assertThat(meterRegistry.get("frame.capture.dropped").counter().count()).isEqualTo(1);
+    }
+
+    private FrameJournal journal(int segmentSize, int maxSegments) {
+        return new FrameJournal(directory, "upbit", segmentSize, maxSegments,
+                Counter.builder("frame.capture.bytes").register(meterRegistry),
+                Counter.builder("frame.capture.dropped").register(meterRegistry));
+    }
+}
@@ -0,0 +1,84 @@
+package ksh.tryptocollector.exchange.spill;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ksh.tryptocollector.exchange.SinkHealth;
+import ksh.tryptocollector.exchange.SinkType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class SinkSpillTest {
+
+    @TempDir
+    Path directory;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SinkHealth sinkHealth = new SinkHealth(CircuitBreakerRegistry.ofDefaults(), registry, 1000);
+    private SinkSpill sinkSpill;
+
+    @AfterEach
+    void tearDown() {
+        if (sinkSpill != null) {
+            sinkSpill.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("드레이너는 쌓인 레코드를 묶음 하나로 보내고, 실패하면 넘기지 않은 채 같은 묶음을 다시 보낸다")
+    void givenBacklog_whenDeliveryFailsOnce_thenSameBatchRetriedThenCommitted() {
+        SpillQueue leftover = new SpillQueue(directory.resolve("influx"), "influx", 1024, 4);
+        for (int i = 0; i < 5; i++) {
+            leftover.append(new byte[]{(byte) i}, 0, 1);
+        }
+        List<List<Byte>> attempts = new CopyOnWriteArrayList<>();
+        sinkSpill = new SinkSpill(registry, sinkHealth, true, directory.toString(), 1, 16, 2000, 500);
+
+        sinkSpill.register(SinkType.INFLUX, records -> {
+            List<Byte> batch = new ArrayList<>();
+            for (ByteBuffer record : records) {
+                batch.add(record.get(0));
+            }
+            attempts.add(batch);
+            if (attempts.size() == 1) {
+                throw new IllegalStateException("write failed");
+            }
+        });
+        sinkSpill.startDraining();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> !sinkSpill.isBacklogged(SinkType.INFLUX));
+        assertThat(attempts).hasSize(2)
+                .allSatisfy(batch -> assertThat(batch).containsExactly((byte) 0, (byte) 1, (byte) 2, (byte) 3, (byte) 4));
+        assertThat(registry.get("sink.spill.records").tag("sink", "influx").tag("result", "drained").counter().count())
+                .isEqualTo(5.0);
+    }
+
+    @Test
+    @DisplayName("리더가 아니면 쌓인 레코드를 보내지 않고, 드레이너를 시작해야 보낸다")
+    void givenLeftoverRecords_whenNotDraining_thenNothingDelivered() throws InterruptedException {
+        SpillQueue leftover = new SpillQueue(directory.resolve("engine-inbox"), "engine-inbox", 1024, 4);
+        leftover.append(new byte[]{7}, 0, 1);
+        List<ByteBuffer> delivered = new CopyOnWriteArrayList<>();
+        sinkSpill = new SinkSpill(registry, sinkHealth, true, directory.toString(), 1, 16, 2000, 500);
+        sinkSpill.register(SinkType.ENGINE_INBOX, delivered::addAll);
+
+        Thread.sleep(200);
+        int beforeDraining = delivered.size();
+        sinkSpill.startDraining();
+        await().atMost(Duration.ofSeconds(5)).until(() -> !sinkSpill.isBacklogged(SinkType.ENGINE_INBOX));
+
+        assertThat(beforeDraining).isZero();
+        assertThat(delivered).hasSize(1);
+    }
+}
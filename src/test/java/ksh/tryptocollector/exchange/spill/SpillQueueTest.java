@@ -0,0 +1,107 @@
+package ksh.tryptocollector.exchange.spill;
+
+import ksh.tryptocollector.model.NormalizedTicker;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpillQueueTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("세그먼트를 넘겨 가며 넣은 순서대로 꺼내고, 세그먼트 상한에 닿으면 새 레코드를 거절한다")
+    void givenRecordsAcrossSegments_whenDrained_thenFifoAndCapped() {
+        SpillQueue queue = new SpillQueue(directory, "influx", 64, 3);
+
+        int accepted = 0;
+        for (int i = 0; i < 10; i++) {
+            if (queue.append(new byte[]{(byte) i, 0, 0, 0, 0, 0, 0, 0, 0, 0}, 0, 10)) {
+                accepted++;
+            }
+        }
+
+        assertThat(accepted).isEqualTo(6);
+        assertThat(queue.depth()).isEqualTo(6);
+        for (int i = 0; i < 6; i++) {
+            assertThat(queue.peek().get(0)).isEqualTo((byte) i);
+            queue.commit();
+        }
+        assertThat(queue.peek()).isNull();
+        assertThat(queue.oldestAgeMs()).isZero();
+    }
+
+    @Test
+    @DisplayName("재시작하면 남은 세그먼트의 레코드를 처음부터 다시 읽고, 새 레코드는 그 뒤에 붙인다")
+    void givenLeftoverSegments_whenReopened_thenRecovered() {
+        SpillQueue before = new SpillQueue(directory, "engine-inbox", 64, 4);
+        before.append(new byte[]{1}, 0, 1);
+        before.append(new byte[]{2}, 0, 1);
+
+        SpillQueue after = new SpillQueue(directory, "engine-inbox", 64, 4);
+        after.append(new byte[]{3}, 0, 1);
+
+        assertThat(after.depth()).isEqualTo(3);
+        for (int i = 1; i <= 3; i++) {
+            assertThat(after.peek().get(0)).isEqualTo((byte) i);
+            after.commit();
+        }
+        assertThat(after.isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("넘긴 레코드는 파일에 표시되어 재시작해도 다시 읽지 않는다")
+    void givenCommittedRecords_whenReopened_thenResumedAfterCommitted() {
+        SpillQueue before = new SpillQueue(directory, "engine-inbox", 64, 4);
+        for (int i = 1; i <= 5; i++) {
+            before.append(new byte[]{(byte) i}, 0, 1);
+        }
+        before.commit(4);
+
+        SpillQueue after = new SpillQueue(directory, "engine-inbox", 64, 4);
+
+        assertThat(after.depth()).isEqualTo(1);
+        assertThat(after.peek().get(0)).isEqualTo((byte) 5);
+        after.commit();
+        assertThat(new SpillQueue(directory, "engine-inbox", 64, 4).isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("묶음으로 꺼내면 세그먼트 경계를 넘어 순서대로 읽고, 넘긴 만큼만 앞에서 빠진다")
+    void givenRecordsAcrossSegments_whenPeekBatch_thenOrderedAndCommittedByCount() {
+        SpillQueue queue = new SpillQueue(directory, "influx", 64, 4);
+        for (int i = 0; i < 6; i++) {
+            queue.append(new byte[]{(byte) i, 0, 0, 0, 0, 0, 0, 0, 0, 0}, 0, 10);
+        }
+
+        List<ByteBuffer> first = queue.peek(4);
+        List<ByteBuffer> again = queue.peek(4);
+        queue.commit(first.size());
+        List<ByteBuffer> rest = queue.peek(4);
+
+        assertThat(first).extracting(record -> record.get(0)).containsExactly((byte) 0, (byte) 1, (byte) 2, (byte) 3);
+        assertThat(again).extracting(record -> record.get(0)).containsExactly((byte) 0, (byte) 1, (byte) 2, (byte) 3);
+        assertThat(rest).extracting(record -> record.get(0)).containsExactly((byte) 4, (byte) 5);
+        assertThat(queue.depth()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("tick 인코딩은 long 범위를 넘는 값과 UTF-8 문자열까지 그대로 되살린다")
+    void givenTicker_whenEncodedAndDecoded_thenEqual() {
+        NormalizedTicker ticker = new NormalizedTicker("UPBIT", "BTC", "KRW", "비트코인",
+                new BigDecimal("50000000.5"), new BigDecimal("-0.0123"),
+                new BigDecimal("123456789012345678901234567890.1"), 1_700_000_000_000L);
+
+        NormalizedTicker decoded = TickerSpillCodec.decode(ByteBuffer.wrap(TickerSpillCodec.encode(ticker)));
+
+        assertThat(decoded).isEqualTo(ticker);
+    }
+}
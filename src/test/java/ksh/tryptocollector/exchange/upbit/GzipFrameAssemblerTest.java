@@ -0,0 +1,75 @@
+package ksh.tryptocollector.exchange.upbit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GzipFrameAssemblerTest {
+
+    private static final String TICKER_JSON =
+            "{\"type\":\"ticker\",\"code\":\"KRW-BTC\",\"trade_price\":145000000,\"signed_change_rate\":0.0123}";
+
+    private final GzipFrameAssembler assembler = new GzipFrameAssembler();
+
+    @AfterEach
+    void tearDown() {
+        assembler.close();
+    }
+
+    @Test
+    @DisplayName("조각으로 나뉘어 도착한 gzip 프레임을 원문으로 복원한다")
+    void givenFragmentedGzipFrame_whenComplete_thenInflated() throws Exception {
+        byte[] compressed = gzip(TICKER_JSON);
+
+        for (int i = 0; i < compressed.length; i += 7) {
+            assembler.append(ByteBuffer.wrap(compressed, i, Math.min(7, compressed.length - i)));
+        }
+        assembler.complete();
+
+        assertThat(payloadAsString()).isEqualTo(TICKER_JSON);
+    }
+
+    @Test
+    @DisplayName("버퍼를 재사용해도 이전 메시지가 다음 메시지에 섞이지 않는다")
+    void givenConsecutiveFrames_whenComplete_thenEachPayloadIndependent() throws Exception {
+        assembler.append(ByteBuffer.wrap(gzip(TICKER_JSON)));
+        assembler.complete();
+
+        assembler.append(ByteBuffer.wrap("{}".getBytes(StandardCharsets.UTF_8)));
+        assembler.complete();
+
+        assertThat(payloadAsString()).isEqualTo("{}");
+    }
+
+    @Test
+    @DisplayName("CRC가 맞지 않는 gzip 프레임은 예외를 던진다")
+    void givenCorruptedTrailer_whenComplete_thenThrows() throws Exception {
+        byte[] compressed = gzip(TICKER_JSON);
+        compressed[compressed.length - 8] ^= 0x01;
+        assembler.append(ByteBuffer.wrap(compressed));
+
+        assertThatThrownBy(assembler::complete).isInstanceOf(DataFormatException.class);
+    }
+
+    private String payloadAsString() {
+        return new String(assembler.payload(), 0, assembler.payloadLength(), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+}
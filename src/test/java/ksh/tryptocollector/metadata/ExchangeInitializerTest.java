@@ -0,0 +1,138 @@
+package ksh.tryptocollector.metadata;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ksh.tryptocollector.exchange.ConnectionShards;
+import ksh.tryptocollector.exchange.ExchangeConnector;
+import ksh.tryptocollector.exchange.journal.FrameReplayer;
+import ksh.tryptocollector.model.Exchange;
+import ksh.tryptocollector.redis.MarketMetadataRedisRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.net.http.WebSocket;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ExchangeInitializerTest {
+
+    @Mock private FrameReplayer frameReplayer;
+    @Mock private MarketMetadataRedisRepository marketMetadataRedisRepository;
+    @Mock private StandbyMetadataSync standbyMetadataSync;
+
+    @Test
+    @DisplayName("주입받은 커넥터마다 플랫폼 스레드에서 메타데이터를 적재하고 카탈로그를 저장한 뒤 연결하며, stop하면 인터럽트한다")
+    void givenConnectors_whenStart_thenEachLoadsMetadataThenConnects() throws InterruptedException {
+        RecordingConnector upbit = new RecordingConnector(Exchange.UPBIT, 1);
+        RecordingConnector binance = new RecordingConnector(Exchange.BINANCE, 1);
+        ExchangeInitializer initializer = initializer(List.of(upbit, binance), false);
+
+        initializer.start();
+
+        assertThat(upbit.connected.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(binance.connected.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(upbit.calls).containsExactly("loadMetadata", "connect");
+        assertThat(binance.calls).containsExactly("loadMetadata", "connect");
+        assertThat(upbit.connectThread.isVirtual()).isFalse();
+        verify(marketMetadataRedisRepository).saveCatalog(eq(Exchange.UPBIT), any());
+        verify(marketMetadataRedisRepository).saveCatalog(eq(Exchange.BINANCE), any());
+
+        initializer.stop();
+
+        assertThat(upbit.interrupted.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(binance.interrupted.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(initializer.isRunning()).isFalse();
+    }
+
+    @Test
+    @DisplayName("가상 스레드 모드에서는 거래소 연결과 그 안의 샤드 연결 루프가 모두 가상 스레드에서 돈다")
+    void givenVirtualThreads_whenStart_thenConnectorAndShardsRunOnVirtualThreads() throws InterruptedException {
+        RecordingConnector upbit = new RecordingConnector(Exchange.UPBIT, 3);
+        ExchangeInitializer initializer = initializer(List.of(upbit), true);
+
+        initializer.start();
+
+        assertThat(upbit.connected.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(upbit.connectThread.isVirtual()).isTrue();
+        assertThat(upbit.connectThread.getName()).startsWith("exchange-");
+        assertThat(upbit.shardThreads).hasSize(3)
+                .allSatisfy(thread -> {
+                    assertThat(thread.isVirtual()).isTrue();
+                    assertThat(thread.getName()).startsWith("upbit-shard-");
+                });
+
+        initializer.stop();
+
+        assertThat(upbit.interrupted.await(2, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private ExchangeInitializer initializer(List<ExchangeConnector> connectors, boolean virtualThreads) {
+        given(frameReplayer.isEnabled()).willReturn(false);
+        return new ExchangeInitializer(connectors, frameReplayer, new MarketInfoCache(), marketMetadataRedisRepository,
+                standbyMetadataSync, new SimpleMeterRegistry(), virtualThreads, false);
+    }
+
+    /**
+     * 호출 순서와 연결 스레드를 기록하는 커넥터. 계약대로 {@link #connect()}는 인터럽트될 때까지 돌아오지 않는다.
+     */
+    private static final class RecordingConnector implements ExchangeConnector {
+        private final Exchange exchange;
+        private final int shardCount;
+        private final List<String> calls = new CopyOnWriteArrayList<>();
+        private final List<Thread> shardThreads = new CopyOnWriteArrayList<>();
+        private final CountDownLatch connected = new CountDownLatch(1);
+        private final CountDownLatch interrupted = new CountDownLatch(1);
+        private volatile Thread connectThread;
+
+        private RecordingConnector(Exchange exchange, int shardCount) {
+            this.exchange = exchange;
+            this.shardCount = shardCount;
+        }
+
+        @Override
+        public Exchange exchange() {
+            return exchange;
+        }
+
+        @Override
+        public String displayName() {
+            return exchange.name();
+        }
+
+        @Override
+        public void loadMetadata() {
+            calls.add("loadMetadata");
+        }
+
+        @Override
+        public void connect() {
+            calls.add("connect");
+            connectThread = Thread.currentThread();
+            ConnectionShards.run(exchange.name().toLowerCase(), shardCount,
+                    shard -> shardThreads.add(Thread.currentThread()));
+            connected.countDown();
+            try {
+                Thread.sleep(Long.MAX_VALUE);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public WebSocket.Listener replayListener(int shard) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
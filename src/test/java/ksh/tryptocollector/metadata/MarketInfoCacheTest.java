@@ -0,0 +1,117 @@
+package ksh.tryptocollector.metadata;
+
+import ksh.tryptocollector.model.Exchange;
+import ksh.tryptocollector.model.MarketCatalog;
+import ksh.tryptocollector.model.MarketInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MarketInfoCacheTest {
+
+    private final MarketInfoCache marketInfoCache = new MarketInfoCache();
+
+    @Test
+    @DisplayName("등록 순서대로 0부터 조밀한 ID를 부여하고 문자열·원본 바이트 어느 쪽으로도 같은 ID를 찾는다")
+    void givenRegisteredMarkets_whenFindId_thenDenseIdByCodeOrBytes() {
+        Map<String, MarketInfo> markets = new LinkedHashMap<>();
+        markets.put("KRW-BTC", new MarketInfo("BTC", "KRW", "BTC/KRW", "비트코인"));
+        markets.put("KRW-ETH", new MarketInfo("ETH", "KRW", "ETH/KRW", "이더리움"));
+        marketInfoCache.putAll(Exchange.UPBIT, markets);
+        byte[] payload = "{\"code\":\"KRW-ETH\"}".getBytes(StandardCharsets.UTF_8);
+
+        MarketInfoCache.Snapshot snapshot = marketInfoCache.snapshot(Exchange.UPBIT);
+        int byCode = snapshot.findId("KRW-ETH");
+        int byBytes = snapshot.findId(payload, 9, 7);
+
+        assertThat(marketInfoCache.findId(Exchange.UPBIT, "KRW-BTC")).isZero();
+        assertThat(byCode).isEqualTo(1).isEqualTo(byBytes);
+        assertThat(snapshot.marketInfo(byCode).displayName()).isEqualTo("이더리움");
+        assertThat(marketInfoCache.findId(Exchange.BITHUMB, "KRW-ETH")).isEqualTo(MarketInfoCache.NOT_FOUND);
+        assertThat(marketInfoCache.findId(Exchange.UPBIT, "KRW-XRP")).isEqualTo(MarketInfoCache.NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("다시 등록해도 기존 마켓의 ID는 유지되고 새 마켓은 뒤에 이어 붙는다")
+    void givenExistingMarkets_whenPutAgain_thenIdsStable() {
+        marketInfoCache.put(Exchange.BINANCE, "BTCUSDT", new MarketInfo("BTC", "USDT", "BTC/USDT", "BTC"));
+        marketInfoCache.put(Exchange.BINANCE, "ETHUSDT", new MarketInfo("ETH", "USDT", "ETH/USDT", "ETH"));
+
+        marketInfoCache.putAll(Exchange.BINANCE, Map.of(
+                "SOLUSDT", new MarketInfo("SOL", "USDT", "SOL/USDT", "SOL"),
+                "BTCUSDT", new MarketInfo("BTC", "USDT", "BTC/USDT", "BTC")));
+
+        assertThat(marketInfoCache.findId(Exchange.BINANCE, "BTCUSDT")).isZero();
+        assertThat(marketInfoCache.findId(Exchange.BINANCE, "ETHUSDT")).isEqualTo(1);
+        assertThat(marketInfoCache.findId(Exchange.BINANCE, "SOLUSDT")).isEqualTo(2);
+        assertThat(marketInfoCache.getSymbolCodes(Exchange.BINANCE)).containsExactly("BTCUSDT", "ETHUSDT", "SOLUSDT");
+    }
+
+    @Test
+    @DisplayName("다른 인스턴스의 카탈로그로 바꾸면 기존 ID를 버리고 카탈로그의 ID와 해시를 그대로 쓴다")
+    void givenLeaderCatalog_whenReplace_thenSameIdAssignment() {
+        MarketInfoCache leader = new MarketInfoCache();
+        leader.put(Exchange.UPBIT, "KRW-ETH", new MarketInfo("ETH", "KRW", "ETH/KRW", "이더리움"));
+        leader.put(Exchange.UPBIT, "KRW-BTC", new MarketInfo("BTC", "KRW", "BTC/KRW", "비트코인"));
+        marketInfoCache.put(Exchange.UPBIT, "KRW-BTC", new MarketInfo("BTC", "KRW", "BTC/KRW", "비트코인"));
+
+        boolean replaced = marketInfoCache.replace(Exchange.UPBIT, leader.catalog(Exchange.UPBIT));
+
+        assertThat(replaced).isTrue();
+        assertThat(marketInfoCache.findId(Exchange.UPBIT, "KRW-BTC")).isEqualTo(1);
+        assertThat(marketInfoCache.catalogHash(Exchange.UPBIT)).isEqualTo(leader.catalogHash(Exchange.UPBIT));
+    }
+
+    @Test
+    @DisplayName("스냅샷은 카탈로그로 ID 배정이 바뀌어도 그대로라 ID와 마켓 정보, 해시가 같은 배정에서 나온다")
+    void givenSnapshot_whenReplaced_thenSnapshotStaysConsistent() {
+        marketInfoCache.put(Exchange.UPBIT, "KRW-BTC", new MarketInfo("BTC", "KRW", "BTC/KRW", "비트코인"));
+        MarketInfoCache leader = new MarketInfoCache();
+        leader.put(Exchange.UPBIT, "KRW-ETH", new MarketInfo("ETH", "KRW", "ETH/KRW", "이더리움"));
+        leader.put(Exchange.UPBIT, "KRW-BTC", new MarketInfo("BTC", "KRW", "BTC/KRW", "비트코인"));
+        MarketInfoCache.Snapshot before = marketInfoCache.snapshot(Exchange.UPBIT);
+        int hashBefore = marketInfoCache.catalogHash(Exchange.UPBIT);
+
+        marketInfoCache.replace(Exchange.UPBIT, leader.catalog(Exchange.UPBIT));
+
+        int id = before.findId("KRW-BTC");
+        assertThat(id).isZero();
+        assertThat(before.marketInfo(id).pair()).isEqualTo("BTC/KRW");
+        assertThat(before.catalogHash()).isEqualTo(hashBefore);
+        assertThat(marketInfoCache.snapshot(Exchange.UPBIT).marketInfo(id).pair()).isEqualTo("ETH/KRW");
+    }
+
+    @Test
+    @DisplayName("카탈로그로 ID 배정이 바뀌면 등록한 리스너를 모두 부른다")
+    void givenListeners_whenReplace_thenEveryListenerNotified() {
+        MarketInfoCache leader = new MarketInfoCache();
+        leader.put(Exchange.UPBIT, "KRW-BTC", new MarketInfo("BTC", "KRW", "BTC/KRW", "비트코인"));
+        List<String> notified = new ArrayList<>();
+        marketInfoCache.onReplace(exchange -> notified.add("first:" + exchange));
+        marketInfoCache.onReplace(exchange -> notified.add("second:" + exchange));
+
+        marketInfoCache.replace(Exchange.UPBIT, leader.catalog(Exchange.UPBIT));
+
+        assertThat(notified).containsExactly("first:UPBIT", "second:UPBIT");
+    }
+
+    @Test
+    @DisplayName("해시가 맞지 않는 카탈로그는 적용하지 않는다")
+    void givenCorruptedCatalog_whenReplace_thenRejected() {
+        marketInfoCache.put(Exchange.UPBIT, "KRW-BTC", new MarketInfo("BTC", "KRW", "BTC/KRW", "비트코인"));
+        MarketCatalog catalog = new MarketCatalog(42, List.of("KRW-ETH"),
+                List.of(new MarketInfo("ETH", "KRW", "ETH/KRW", "이더리움")));
+
+        boolean replaced = marketInfoCache.replace(Exchange.UPBIT, catalog);
+
+        assertThat(replaced).isFalse();
+        assertThat(marketInfoCache.getSymbolCodes(Exchange.UPBIT)).containsExactly("KRW-BTC");
+    }
+}
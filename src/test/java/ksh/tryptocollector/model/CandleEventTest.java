@@ -0,0 +1,33 @@
+package ksh.tryptocollector.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CandleEventTest {
+
+    @Test
+    @DisplayName("JSON은 레코드 필드 순서대로 쓰고, 가격은 스케일이 음수이거나 아주 작아도 지수 표기 없이 쓴다")
+    void givenPrices_whenJson_thenPlainDecimals() {
+        CandleEvent event = new CandleEvent("UPBIT", "BTC/KRW", List.of(
+                new CandleEvent.Bar("1m", 60_000L, new BigDecimal("1.43E+8"), new BigDecimal("143500000"),
+                        new BigDecimal("142999999.5"), new BigDecimal("1.4300001E+8")),
+                new CandleEvent.Bar("1h", 0L, new BigDecimal("1.5E-7"), new BigDecimal("0.00000020"),
+                        new BigDecimal("-0.5"), new BigDecimal("123456789012345678901234.5"))),
+                61_000L);
+
+        String json = new String(event.json(), StandardCharsets.UTF_8);
+
+        assertThat(json).isEqualTo("{\"exchange\":\"UPBIT\",\"symbol\":\"BTC/KRW\",\"candles\":["
+                + "{\"interval\":\"1m\",\"openTime\":60000,\"open\":143000000,\"high\":143500000,"
+                + "\"low\":142999999.5,\"close\":143000010},"
+                + "{\"interval\":\"1h\",\"openTime\":0,\"open\":0.00000015,\"high\":0.00000020,"
+                + "\"low\":-0.5,\"close\":123456789012345678901234.5}],"
+                + "\"timestamp\":61000}");
+    }
+}
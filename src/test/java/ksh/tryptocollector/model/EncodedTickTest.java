@@ -0,0 +1,93 @@
+package ksh.tryptocollector.model;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EncodedTickTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+    @Test
+    @DisplayName("Redis 값과 시세 이벤트 본문은 Jackson 직렬화와 바이트 단위로 같다")
+    void givenTicker_whenEncode_thenSameBytesAsJackson() {
+        NormalizedTicker[] tickers = {
+                new NormalizedTicker("UPBIT", "BTC", "KRW", "비트\"코인\\",
+                        new FixedDecimal().parse("145000000.0"),
+                        new FixedDecimal().parse("-0.0123"),
+                        new FixedDecimal().parse("312345678901.123456789"),
+                        1_700_000_000_000L),
+                new NormalizedTicker("BINANCE", "PEPE", "USDT", "PEPE",
+                        new BigDecimal("0.00000123"), new BigDecimal("1E+3"), new BigDecimal("0E-8"), 1_700_000_000_123L),
+                new NormalizedTicker("BITHUMB", "ETH", "KRW", "이더리움 😀",
+                        new BigDecimal("4500000"), BigDecimal.ZERO, new BigDecimal("123456789012345678901234.56789"),
+                        1_700_000_000_999L)
+        };
+
+        for (NormalizedTicker ticker : tickers) {
+            EncodedTick tick = EncodedTick.of(ticker);
+
+            assertThat(tick.redisJson()).isEqualTo(objectMapper.writeValueAsBytes(ticker));
+            assertThat(tick.eventJson()).isEqualTo(objectMapper.writeValueAsBytes(TickerEventJson.from(ticker)));
+            assertThat(tick.symbol()).isEqualTo(ticker.base() + "/" + ticker.quote());
+        }
+    }
+
+    @Test
+    @DisplayName("engine.inbox 본문은 기존 필드와 값을 그대로 담고, line protocol은 소수점 표기로 한 줄을 만든다")
+    void givenTicker_whenEncodeEngineAndLine_thenSameFields() {
+        long tsMs = 1_700_000_000_120L;
+        NormalizedTicker ticker = new NormalizedTicker("UPBIT", "BTC", "KRW", "비트코인",
+                new FixedDecimal().parse("0.00000123"), new FixedDecimal().set(0, 0), new FixedDecimal().set(0, 0), tsMs);
+        EncodedTick tick = EncodedTick.of(ticker);
+
+        Map<String, Object> engine = objectMapper.readValue(tick.engineJson(), Map.class);
+        String line = new String(tick.lineProtocol(), StandardCharsets.UTF_8);
+
+        assertThat(engine).containsExactly(
+                Map.entry("exchange", "UPBIT"),
+                Map.entry("displayName", "BTC"),
+                Map.entry("tradePrice", 1.23E-6),
+                Map.entry("tickAt", LocalDateTime.ofInstant(Instant.ofEpochMilli(tsMs), ZoneId.systemDefault()).toString()));
+        assertThat(line).isEqualTo("ticker_raw,exchange=UPBIT,symbol=BTC/KRW price=0.00000123 1700000000120\n");
+        assertThat(tick.lineProtocol()).isSameAs(tick.lineProtocol());
+    }
+
+    @Test
+    @DisplayName("해시 값은 수치를 toPlainString() 표기로 쓰고, BMP 밖의 문자는 해시 값과 line protocol 모두 표준 UTF-8로 쓴다")
+    void givenSupplementaryCharacter_whenEncodeHashAndLine_thenStandardUtf8() {
+        NormalizedTicker ticker = new NormalizedTicker("UPBIT", "😀", "KRW", "스마일|😀",
+                new FixedDecimal().parse("143000000"), new FixedDecimal().set(new BigDecimal("1E+3")),
+                new FixedDecimal().parse("123456789012345678901234.56789"), 1_700_000_000_000L);
+        EncodedTick tick = EncodedTick.of(ticker);
+
+        assertThat(tick.hashValue()).isEqualTo(
+                "143000000|1000|123456789012345678901234.56789|1700000000000|스마일|😀".getBytes(StandardCharsets.UTF_8));
+        assertThat(tick.lineProtocol()).isEqualTo(
+                "ticker_raw,exchange=UPBIT,symbol=😀/KRW price=143000000 1700000000000\n".getBytes(StandardCharsets.UTF_8));
+        assertThat(tick.hashValue()).isSameAs(tick.hashValue());
+    }
+
+    /**
+     * {@code ticker.exchange} 본문 계약. {@link EncodedTick#eventJson()}이 이 record의 Jackson 직렬화와 같아야 한다.
+     */
+    @JsonPropertyOrder({"exchange", "symbol", "currentPrice", "changeRate", "quoteTurnover", "timestamp"})
+    record TickerEventJson(String exchange, String symbol, BigDecimal currentPrice, BigDecimal changeRate,
+                           BigDecimal quoteTurnover, long timestamp) {
+        static TickerEventJson from(NormalizedTicker ticker) {
+            return new TickerEventJson(ticker.exchange(), ticker.base() + "/" + ticker.quote(),
+                    ticker.lastPrice(), ticker.changeRate(), ticker.quoteTurnover(), ticker.tsMs());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package ksh.tryptocollector.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FixedDecimalTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "-0.00", "145000000", "145000000.0", "0.0123", "-0.0123", "1E+3", "1.5E-5",
+            "9223372036854775807", "312345678901.123456789"})
+    @DisplayName("JSON 숫자 텍스트를 new BigDecimal(text)와 같은 가수·스케일로 파싱한다")
+    void givenNumberText_whenParse_thenSameAsBigDecimal(String text) {
+        BigDecimal expected = new BigDecimal(text);
+        byte[] bytes = ("[" + text + "]").getBytes(StandardCharsets.US_ASCII);
+
+        FixedDecimal fromText = new FixedDecimal().parse(text);
+        FixedDecimal fromBytes = new FixedDecimal().parse(bytes, 1, text.length());
+
+        assertThat(fromText.toBigDecimal().toString()).isEqualTo(expected.toString());
+        assertThat(fromBytes.toBigDecimal().toString()).isEqualTo(expected.toString());
+    }
+
+    @ParameterizedTest
+    @CsvSource({"16500.10, 16000.00", "1.000000005, 1", "-1.000000005, -1", "1, 3", "5, 5", "0.00001234, 0.0000123"})
+    @DisplayName("변동률은 BigDecimal의 subtract().divide(open, 8, HALF_UP)와 같은 값이다")
+    void givenCloseAndOpen_whenRelativeChange_thenSameAsBigDecimal(String close, String open) {
+        BigDecimal expected = new BigDecimal(close).subtract(new BigDecimal(open))
+                .divide(new BigDecimal(open), 8, RoundingMode.HALF_UP);
+
+        FixedDecimal actual = new FixedDecimal().setRelativeChange(
+                new FixedDecimal().parse(close), new FixedDecimal().parse(open), 8);
+
+        assertThat(actual.isFixed()).isTrue();
+        assertThat(actual.toBigDecimal().toString()).isEqualTo(expected.toString());
+    }
+
+    @Test
+    @DisplayName("시가가 0이면 변동률은 0이다")
+    void givenZeroOpen_whenRelativeChange_thenZero() {
+        FixedDecimal actual = new FixedDecimal().setRelativeChange(
+                new FixedDecimal().parse("1.5"), new FixedDecimal().parse("0.00"), 8);
+
+        assertThat(actual.toBigDecimal()).isEqualTo(BigDecimal.ZERO);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"100, 100.0", "143000000, 1.43E+8", "0.1, 0.09", "-5, 3", "9223372036854775807, 1E+19",
+            "123456789012345678901234.5, 123456789012345678901234.4"})
+    @DisplayName("값 비교는 스케일과 상관없이 BigDecimal.compareTo와 같은 부호다")
+    void givenTwoValues_whenCompareValue_thenSameSignAsBigDecimal(String left, String right) {
+        int expected = Integer.signum(new BigDecimal(left).compareTo(new BigDecimal(right)));
+
+        int actual = new FixedDecimal().parse(left).compareValue(new FixedDecimal().parse(right));
+        int reversed = new FixedDecimal().parse(right).compareValue(new FixedDecimal().parse(left));
+
+        assertThat(Integer.signum(actual)).isEqualTo(expected);
+        assertThat(Integer.signum(reversed)).isEqualTo(-expected);
+    }
+}
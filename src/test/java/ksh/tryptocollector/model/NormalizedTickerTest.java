@@ -0,0 +1,36 @@
+package ksh.tryptocollector.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NormalizedTickerTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+    @Test
+    @DisplayName("고정소수점으로 만든 시세의 JSON은 BigDecimal 레코드 시절과 바이트 단위로 같다")
+    void givenFixedPointTicker_whenSerialize_thenSameJsonAsBigDecimalTicker() {
+        NormalizedTicker fixed = new NormalizedTicker("UPBIT", "BTC", "KRW", "비트코인",
+                new FixedDecimal().parse("145000000.0"),
+                new FixedDecimal().parse("-0.0123"),
+                new FixedDecimal().parse("312345678901.123456789"),
+                1700000000000L);
+        NormalizedTicker decimal = new NormalizedTicker("UPBIT", "BTC", "KRW", "비트코인",
+                new BigDecimal("145000000.0"), new BigDecimal("-0.0123"), new BigDecimal("312345678901.123456789"),
+                1700000000000L);
+
+        String json = objectMapper.writeValueAsString(fixed);
+
+        assertThat(json).isEqualTo("{\"exchange\":\"UPBIT\",\"base\":\"BTC\",\"quote\":\"KRW\",\"displayName\":\"비트코인\","
+                + "\"lastPrice\":145000000.0,\"changeRate\":-0.0123,\"quoteTurnover\":312345678901.123456789,"
+                + "\"tsMs\":1700000000000}");
+        assertThat(objectMapper.writeValueAsBytes(decimal)).isEqualTo(objectMapper.writeValueAsBytes(fixed));
+        assertThat(fixed).isEqualTo(decimal);
+    }
+}
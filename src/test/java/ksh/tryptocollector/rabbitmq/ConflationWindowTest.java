@@ -0,0 +1,53 @@
+package ksh.tryptocollector.rabbitmq;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConflationWindowTest {
+
+    @Test
+    @DisplayName("윈도우 안에서 같은 키로 들어온 값은 마지막 값 하나만 발행되고 나머지는 suppressed로 집계된다")
+    void givenSameKeyUpdates_whenFlush_thenOnlyLatestEmitted() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        List<String> emitted = new ArrayList<>();
+        ConflationWindow<String, String> window = new ConflationWindow<>(
+                "test.conflation", "UPBIT", 100, emitted::add, registry);
+
+        window.offer("BTC", "btc-1");
+        window.offer("BTC", "btc-2");
+        window.offer("BTC", "btc-3");
+        window.offer("ETH", "eth-1");
+        window.flush();
+
+        assertThat(emitted).containsExactlyInAnyOrder("btc-3", "eth-1");
+        assertThat(registry.get("test.conflation").tag("result", "suppressed").counter().count()).isEqualTo(2.0);
+        assertThat(registry.get("test.conflation").tag("result", "emitted").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("발행이 실패한 값은 더 새로운 값이 없으면 다음 플러시에서 다시 발행된다")
+    void givenEmitFailure_whenNextFlush_thenLatestValueRetried() {
+        List<String> emitted = new ArrayList<>();
+        boolean[] fail = {true};
+        ConflationWindow<String, String> window = new ConflationWindow<>(
+                "test.conflation", "UPBIT", 100, value -> {
+                    if (fail[0]) {
+                        throw new IllegalStateException("broker down");
+                    }
+                    emitted.add(value);
+                }, new SimpleMeterRegistry());
+
+        window.offer("BTC", "btc-1");
+        window.flush();
+        fail[0] = false;
+        window.flush();
+
+        assertThat(emitted).containsExactly("btc-1");
+    }
+}
@@ -0,0 +1,147 @@
+package ksh.tryptocollector.rabbitmq;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ksh.tryptocollector.exchange.SinkHealth;
+import ksh.tryptocollector.metadata.MarketInfoCache;
+import ksh.tryptocollector.model.EncodedTick;
+import ksh.tryptocollector.model.NormalizedTicker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class EngineInboxPublisherTest {
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private EngineInboxPublisher publisher;
+
+    @AfterEach
+    void tearDown() {
+        if (publisher != null) {
+            publisher.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("배치가 max-size에 도달하면 단건 본문을 JSON 배열로 이어 TickBatchReceived 메시지 하나로 보낸다")
+    void givenBatchFull_whenPublish_thenOneTickBatchReceivedMessage() {
+        publisher = publisher(2, 60_000);
+        EncodedTick btc = tick("BTC", "100");
+        EncodedTick eth = tick("ETH", "200");
+
+        publisher.publish(btc);
+        verify(rabbitTemplate, never()).send(any(), any(), any(Message.class));
+        publisher.publish(eth);
+
+        Message message = sentMessages(1).get(0);
+        assertThat(message.getMessageProperties().<String>getHeader("event_type")).isEqualTo("TickBatchReceived");
+        assertThat(message.getMessageProperties().getContentType()).isEqualTo(MessageProperties.CONTENT_TYPE_JSON);
+        assertThat(new String(message.getBody(), StandardCharsets.UTF_8)).isEqualTo(
+                "[" + json(btc) + "," + json(eth) + "]");
+        assertThat(registry.get("engine.inbox.batch.size").summary().count()).isEqualTo(1);
+        assertThat(registry.get("engine.inbox.tick.publish").tag("exchange", "UPBIT").counter().count())
+                .isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("max-size에 못 미쳐도 max-delay-ms가 지나면 모인 tick을 보낸다")
+    void givenPartialBatch_whenDelayElapses_thenFlushed() {
+        publisher = publisher(200, 20);
+        publisher.start();
+        EncodedTick btc = tick("BTC", "100");
+
+        publisher.publish(btc);
+
+        await().atMost(Duration.ofSeconds(2))
+                .untilAsserted(() -> verify(rabbitTemplate).send(eq(""), eq(RabbitMQConfig.ENGINE_INBOX_QUEUE),
+                        any(Message.class)));
+        assertThat(new String(sentMessages(1).get(0).getBody(), StandardCharsets.UTF_8))
+                .isEqualTo("[" + json(btc) + "]");
+    }
+
+    @Test
+    @DisplayName("배치 발행이 실패하면 그 배치의 tick을 실패 핸들러에 순서대로 넘긴다")
+    void givenBrokerFailure_whenFlush_thenTicksHandedOff() {
+        willThrow(new AmqpException("broker down")).given(rabbitTemplate).send(any(), any(), any(Message.class));
+        publisher = publisher(200, 60_000);
+        List<EncodedTick> failed = new ArrayList<>();
+        publisher.onFailedBatch(failed::addAll);
+        EncodedTick btc = tick("BTC", "100");
+        EncodedTick eth = tick("ETH", "200");
+
+        publisher.publish(btc);
+        publisher.publish(eth);
+        publisher.flush();
+
+        assertThat(failed).containsExactly(btc, eth);
+    }
+
+    @Test
+    @DisplayName("publishNow는 쌓여 있던 tick을 먼저 보내고 나머지를 max-size씩 나눠 동기로 보내며, 실패는 호출자에게 던진다")
+    void givenPendingTicks_whenPublishNow_thenPendingFirstThenChunks() {
+        publisher = publisher(2, 60_000);
+        EncodedTick pending = tick("XRP", "1");
+        List<EncodedTick> spilled = List.of(tick("BTC", "100"), tick("ETH", "200"), tick("SOL", "300"));
+
+        publisher.publish(pending);
+        publisher.publishNow(spilled);
+
+        assertThat(sentMessages(3)).extracting(message -> new String(message.getBody(), StandardCharsets.UTF_8))
+                .containsExactly(
+                        "[" + json(pending) + "]",
+                        "[" + json(spilled.get(0)) + "," + json(spilled.get(1)) + "]",
+                        "[" + json(spilled.get(2)) + "]");
+
+        willThrow(new AmqpException("broker down")).given(rabbitTemplate).send(any(), any(), any(Message.class));
+        assertThatThrownBy(() -> publisher.publishNow(spilled)).isInstanceOf(AmqpException.class);
+    }
+
+    private List<Message> sentMessages(int count) {
+        ArgumentCaptor<Message> messages = ArgumentCaptor.forClass(Message.class);
+        verify(rabbitTemplate, times(count)).send(eq(""), eq(RabbitMQConfig.ENGINE_INBOX_QUEUE), messages.capture());
+        return messages.getAllValues();
+    }
+
+    private EngineInboxPublisher publisher(int batchMaxSize, long batchMaxDelayMs) {
+        SinkHealth sinkHealth = new SinkHealth(CircuitBreakerRegistry.ofDefaults(), registry, 1000);
+        return new EngineInboxPublisher(rabbitTemplate, new TickWireFormat(new MarketInfoCache()), registry, sinkHealth,
+                "json", true, batchMaxSize, batchMaxDelayMs);
+    }
+
+    private static String json(EncodedTick tick) {
+        return new String(tick.engineJson(), StandardCharsets.UTF_8);
+    }
+
+    private static EncodedTick tick(String base, String price) {
+        return EncodedTick.of(new NormalizedTicker("UPBIT", base, "KRW", base,
+                new BigDecimal(price), new BigDecimal("0.01"), new BigDecimal("1000"), 1_700_000_000_000L));
+    }
+}
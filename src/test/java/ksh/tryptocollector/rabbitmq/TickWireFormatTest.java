@@ -0,0 +1,114 @@
+package ksh.tryptocollector.rabbitmq;
+
+import ksh.tryptocollector.metadata.MarketInfoCache;
+import ksh.tryptocollector.model.Exchange;
+import ksh.tryptocollector.model.FixedDecimal;
+import ksh.tryptocollector.model.MarketInfo;
+import ksh.tryptocollector.model.NormalizedTicker;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TickWireFormatTest {
+
+    private static final MarketInfo BTC = new MarketInfo("BTC", "KRW", "BTC/KRW", "비트코인");
+    private static final MarketInfo ETH = new MarketInfo("ETH", "KRW", "ETH/KRW", "이더리움");
+
+    @Test
+    @DisplayName("engine tick 배치를 인코딩하면 심볼 ID와 고정 폭 숫자로 쓰고, 참조 디코더가 같은 값으로 되돌린다")
+    void givenEngineTicks_whenEncodeAndDecode_thenRoundTrips() {
+        MarketInfoCache cache = upbitCache();
+        TickWireFormat format = new TickWireFormat(cache);
+        TickWireDecoder decoder = new TickWireDecoder();
+        decoder.register(Exchange.UPBIT, cache.catalogHash(Exchange.UPBIT), cache.getMarketInfos(Exchange.UPBIT));
+
+        byte[] body = format.encodeEngineTicks(List.of(
+                ticker(cache, "KRW-BTC", "95000000", 1_700_000_000_000L),
+                ticker(cache, "KRW-ETH", "4500000.5", 1_700_000_000_001L)));
+        List<TickWireDecoder.DecodedTick> ticks = decoder.decode(body);
+
+        assertThat(body).hasSize(4 + 2 * (1 + 4 + 4 + 9 + 8));
+        assertThat(ticks).extracting(TickWireDecoder.DecodedTick::symbol).containsExactly("BTC/KRW", "ETH/KRW");
+        assertThat(ticks.get(1).price()).isEqualTo(new BigDecimal("4500000.5"));
+        assertThat(ticks.get(1).tsMs()).isEqualTo(1_700_000_000_001L);
+        assertThat(ticks.get(1).changeRate()).isNull();
+    }
+
+    @Test
+    @DisplayName("심볼 ID가 없는 tick은 pair를 직접 싣고, long을 넘는 값은 문자열로 실어 그대로 복원한다")
+    void givenUnknownSymbolAndOverflow_whenEncodeTickerEvent_thenInlined() {
+        MarketInfoCache cache = upbitCache();
+        TickWireDecoder decoder = new TickWireDecoder();
+        BigDecimal huge = new BigDecimal("123456789012345678901234.5");
+        NormalizedTicker ticker = new NormalizedTicker("UPBIT", "XRP", "KRW", "리플",
+                new BigDecimal("812.3"), new BigDecimal("-0.0125"), huge, 1_700_000_000_000L);
+
+        List<TickWireDecoder.DecodedTick> ticks = decoder.decode(new TickWireFormat(cache).encodeTickerEvent(ticker));
+
+        assertThat(ticks).singleElement().satisfies(tick -> {
+            assertThat(tick.kind()).isEqualTo(TickWireFormat.KIND_TICKER_EVENT);
+            assertThat(tick.symbol()).isEqualTo("XRP/KRW");
+            assertThat(tick.price()).isEqualTo(new BigDecimal("812.3"));
+            assertThat(tick.changeRate()).isEqualTo(new BigDecimal("-0.0125"));
+            assertThat(tick.quoteTurnover()).isEqualTo(huge);
+        });
+    }
+
+    @Test
+    @DisplayName("tick을 만든 뒤 ID 배정이 바뀌어 그 ID가 다른 마켓을 가리키면 pair를 직접 싣고 새 배정의 해시를 쓴다")
+    void givenIdsReassignedAfterParse_whenEncode_thenPairInlined() {
+        MarketInfoCache cache = upbitCache();
+        NormalizedTicker btc = ticker(cache, "KRW-BTC", "95000000", 1_700_000_000_000L);
+        MarketInfoCache leader = new MarketInfoCache();
+        leader.put(Exchange.UPBIT, "KRW-ETH", ETH);
+        leader.put(Exchange.UPBIT, "KRW-BTC", BTC);
+        cache.replace(Exchange.UPBIT, leader.catalog(Exchange.UPBIT));
+        TickWireDecoder decoder = new TickWireDecoder();
+        decoder.register(Exchange.UPBIT, cache.catalogHash(Exchange.UPBIT), cache.getMarketInfos(Exchange.UPBIT));
+
+        byte[] body = new TickWireFormat(cache).encodeEngineTicks(List.of(btc));
+
+        assertThat(body).hasSize(4 + 1 + 4 + 4 + 2 + "BTC/KRW".length() + 9 + 8);
+        assertThat(decoder.decode(body)).singleElement()
+                .satisfies(tick -> assertThat(tick.symbol()).isEqualTo("BTC/KRW"));
+    }
+
+    @Test
+    @DisplayName("등록한 카탈로그와 메시지의 해시가 다르면 StaleCatalogException, 모르는 버전이면 거절한다")
+    void givenStaleCatalog_whenDecode_thenRejected() {
+        MarketInfoCache cache = upbitCache();
+        TickWireDecoder decoder = new TickWireDecoder();
+        decoder.register(Exchange.UPBIT, MarketInfoCache.catalogHash(List.of(ETH, BTC)), List.of(ETH, BTC));
+        byte[] body = new TickWireFormat(cache).encodeEngineTicks(List.of(ticker(cache, "KRW-BTC", "1", 0)));
+
+        assertThatThrownBy(() -> decoder.decode(body)).isInstanceOf(TickWireDecoder.StaleCatalogException.class);
+        body[0] = 2;
+        assertThatThrownBy(() -> decoder.decode(body)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> decoder.register(Exchange.UPBIT, 0, List.of(BTC)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static MarketInfoCache upbitCache() {
+        MarketInfoCache cache = new MarketInfoCache();
+        Map<String, MarketInfo> markets = new LinkedHashMap<>();
+        markets.put("KRW-BTC", BTC);
+        markets.put("KRW-ETH", ETH);
+        cache.putAll(Exchange.UPBIT, markets);
+        return cache;
+    }
+
+    private static NormalizedTicker ticker(MarketInfoCache cache, String code, String price, long tsMs) {
+        MarketInfoCache.Snapshot markets = cache.snapshot(Exchange.UPBIT);
+        int id = markets.findId(code);
+        FixedDecimal zero = new FixedDecimal().set(0, 0);
+        return new NormalizedTicker(Exchange.UPBIT, id, markets.marketInfo(id),
+                new FixedDecimal().parse(price), zero, zero, tsMs);
+    }
+}
@@ -0,0 +1,159 @@
+package ksh.tryptocollector.rabbitmq;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ksh.tryptocollector.exchange.OverloadLevel;
+import ksh.tryptocollector.exchange.OverloadLevelChangedEvent;
+import ksh.tryptocollector.exchange.SinkHealth;
+import ksh.tryptocollector.metadata.MarketInfoCache;
+import ksh.tryptocollector.model.EncodedTick;
+import ksh.tryptocollector.model.NormalizedTicker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TickerEventPublisherTest {
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private TickerEventPublisher publisher;
+
+    @AfterEach
+    void tearDown() {
+        if (publisher != null) {
+            publisher.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("병합 윈도우의 발행이 브로커 오류로 실패하면 같은 값을 다음 플러시에서 다시 보낸다")
+    void givenBrokerFailure_whenWindowFlushes_thenLatestValueResent() {
+        willThrow(new AmqpException("broker down"))
+                .willDoNothing()
+                .given(rabbitTemplate).send(anyString(), anyString(), any(Message.class));
+        publisher = publisher(new MockEnvironment().withProperty("ticker-event.conflation.upbit-window-ms", "50"));
+        publisher.start();
+
+        publisher.publish(tick("BTC", "KRW"));
+
+        await().atMost(Duration.ofSeconds(2))
+                .untilAsserted(() -> verify(rabbitTemplate, times(2))
+                        .send(anyString(), anyString(), any(Message.class)));
+        assertThat(registry.get("rabbitmq.publish").tag("exchange", "UPBIT").counter().count()).isEqualTo(1.0);
+        assertThat(registry.get("rabbitmq.publish.conflation").tag("result", "emitted").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("병합 윈도우는 심볼 단위로 값을 모아 base가 같고 quote가 다른 시세를 각각 보낸다")
+    void givenSameBaseDifferentQuote_whenFlush_thenBothSent() {
+        willDoNothing().given(rabbitTemplate).send(anyString(), anyString(), any(Message.class));
+        publisher = publisher(new MockEnvironment().withProperty("ticker-event.conflation.upbit-window-ms", "60000"));
+        publisher.start();
+
+        publisher.publish(tick("BTC", "KRW"));
+        publisher.publish(tick("BTC", "USDT"));
+        publisher.shutdown();
+
+        ArgumentCaptor<Message> messages = ArgumentCaptor.forClass(Message.class);
+        verify(rabbitTemplate, times(2)).send(anyString(), anyString(), messages.capture());
+        List<String> bodies = messages.getAllValues().stream()
+                .map(message -> new String(message.getBody(), StandardCharsets.UTF_8))
+                .toList();
+        assertThat(bodies).anyMatch(body -> body.contains("\"symbol\":\"BTC/KRW\""));
+        assertThat(bodies).anyMatch(body -> body.contains("\"symbol\":\"BTC/USDT\""));
+    }
+
+    @Test
+    @DisplayName("병합 윈도우가 없는 거래소의 발행 실패는 호출자에게 그대로 던진다")
+    void givenNoWindow_whenBrokerFails_thenExceptionPropagates() {
+        willThrow(new AmqpException("broker down"))
+                .given(rabbitTemplate).send(anyString(), anyString(), any(Message.class));
+        publisher = publisher(new MockEnvironment());
+
+        assertThatThrownBy(() -> publisher.publish(tick("BTC", "KRW")))
+                .isInstanceOf(AmqpException.class);
+    }
+
+    @Test
+    @DisplayName("과부하 제어가 꺼져 있으면 CONFLATE_EVENTS 이벤트를 받아도 과부하 윈도우 없이 바로 보낸다")
+    void givenGovernorDisabled_whenOverloadEvent_thenSentImmediately() {
+        willDoNothing().given(rabbitTemplate).send(anyString(), anyString(), any(Message.class));
+        publisher = publisher(new MockEnvironment().withProperty("ticker-event.conflation.overload-window-ms", "1000"));
+        publisher.start();
+
+        publisher.onOverloadLevelChanged(overloadEvent(OverloadLevel.NORMAL, OverloadLevel.CONFLATE_EVENTS));
+        publisher.publish(tick("BTC", "KRW"));
+
+        verify(rabbitTemplate).send(anyString(), anyString(), any(Message.class));
+    }
+
+    @Test
+    @DisplayName("과부하 단계가 내려가면 모아 둔 값을 먼저 보내고 이후 단건 발행이 그 뒤를 잇는다")
+    void givenOverloadCleared_whenPublish_thenConflatedValueSentFirst() {
+        willDoNothing().given(rabbitTemplate).send(anyString(), anyString(), any(Message.class));
+        publisher = publisher(new MockEnvironment()
+                .withProperty("sink.overload.enabled", "true")
+                .withProperty("ticker-event.conflation.overload-window-ms", "60000"));
+        publisher.start();
+        EncodedTick first = tick("BTC", "KRW", "100");
+        EncodedTick conflated = tick("BTC", "KRW", "200");
+        EncodedTick direct = tick("BTC", "KRW", "300");
+
+        publisher.onOverloadLevelChanged(overloadEvent(OverloadLevel.NORMAL, OverloadLevel.CONFLATE_EVENTS));
+        publisher.publish(first);
+        publisher.publish(conflated);
+        publisher.onOverloadLevelChanged(overloadEvent(OverloadLevel.CONFLATE_EVENTS, OverloadLevel.NORMAL));
+        publisher.publish(direct);
+
+        ArgumentCaptor<Message> messages = ArgumentCaptor.forClass(Message.class);
+        verify(rabbitTemplate, times(2)).send(anyString(), anyString(), messages.capture());
+        assertThat(messages.getAllValues()).extracting(Message::getBody)
+                .containsExactly(conflated.eventJson(), direct.eventJson());
+    }
+
+    private TickerEventPublisher publisher(MockEnvironment environment) {
+        SinkHealth sinkHealth = new SinkHealth(CircuitBreakerRegistry.ofDefaults(), registry, 1000);
+        return new TickerEventPublisher(rabbitTemplate, new TickWireFormat(new MarketInfoCache()),
+                registry, environment, sinkHealth);
+    }
+
+    private OverloadLevelChangedEvent overloadEvent(OverloadLevel previous, OverloadLevel current) {
+        return new OverloadLevelChangedEvent(this, previous, current);
+    }
+
+    private static EncodedTick tick(String base, String quote) {
+        return tick(base, quote, "100");
+    }
+
+    private static EncodedTick tick(String base, String quote, String price) {
+        return EncodedTick.of(new NormalizedTicker("UPBIT", base, quote, base,
+                new BigDecimal(price), new BigDecimal("0.01"), new BigDecimal("1000"), 1700000000000L));
+    }
+}
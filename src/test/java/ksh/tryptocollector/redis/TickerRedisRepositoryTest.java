@@ -0,0 +1,238 @@
+package ksh.tryptocollector.redis;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ksh.tryptocollector.exchange.SinkHealth;
+import ksh.tryptocollector.exchange.SinkType;
+import ksh.tryptocollector.model.EncodedTick;
+import ksh.tryptocollector.model.Exchange;
+import ksh.tryptocollector.model.NormalizedTicker;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisHashCommands;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TickerRedisRepositoryTest {
+
+    @Mock private StringRedisTemplate redisTemplate;
+    @Mock private HashOperations<String, String, String> hashOperations;
+    @Mock private SinkHealth sinkHealth;
+    @Mock private RedisConnection connection;
+    @Mock private RedisStringCommands stringCommands;
+    @Mock private RedisHashCommands hashCommands;
+    @Mock private RedisKeyCommands keyCommands;
+    @Captor private ArgumentCaptor<Map<byte[], byte[]>> hashFields;
+
+    @Test
+    @DisplayName("해시 값은 수치를 소수점 표기 그대로 담고, displayName에 구분자가 있어도 되돌릴 수 있다")
+    void givenTicker_whenEncodeAndDecode_thenRoundTrip() {
+        NormalizedTicker ticker = new NormalizedTicker("UPBIT", "BTC", "KRW", "비트|코인",
+                new BigDecimal("50000000.0"), new BigDecimal("-0.0125"), new BigDecimal("123456789.123"), 1_700_000_000_000L);
+
+        String encoded = new String(EncodedTick.of(ticker).hashValue(), StandardCharsets.UTF_8);
+        NormalizedTicker decoded = TickerHashCodec.decode("UPBIT", "BTC/KRW", encoded);
+
+        assertThat(encoded).isEqualTo("50000000.0|-0.0125|123456789.123|1700000000000|비트|코인");
+        assertThat(decoded).isEqualTo(ticker);
+    }
+
+    @Test
+    @DisplayName("거래소 해시를 한 번에 읽어 갱신 시각과 심볼별 시세로 나누고, 해석할 수 없거나 TTL이 지난 필드는 건너뛴다")
+    void givenExchangeHash_whenFindAll_thenSnapshot() {
+        given(redisTemplate.<String, String>opsForHash()).willReturn(hashOperations);
+        given(hashOperations.entries("tickers:UPBIT")).willReturn(Map.of(
+                TickerRedisRepository.UPDATED_AT_FIELD, "1700000000500",
+                "BTC/KRW", "50000000|0.01|100|1700000000000|비트코인",
+                "XRP/KRW", "700|0.01|100|1699999979999|리플",
+                "ETH/KRW", "broken"));
+        TickerRedisRepository repository = new TickerRedisRepository(redisTemplate, "ticker", "hash", "tickers",
+                false, 100, 1000, new SimpleMeterRegistry(), sinkHealth, () -> 1_700_000_010_000L);
+
+        TickerHashSnapshot snapshot = repository.findAll(Exchange.UPBIT);
+
+        assertThat(snapshot.updatedAtMs()).isEqualTo(1_700_000_000_500L);
+        assertThat(snapshot.isFresh(30_000, 1_700_000_010_000L)).isTrue();
+        assertThat(snapshot.tickers()).containsOnlyKeys("BTC/KRW");
+        assertThat(snapshot.tickers().get("BTC/KRW").lastPrice()).isEqualByComparingTo("50000000");
+    }
+
+    @Test
+    @DisplayName("write-behind는 주기마다 키별 최신 값만 30초 TTL로 파이프라인에 쓴다")
+    void givenWriteBehind_whenIntervalElapses_thenLatestValueWrittenWithTtl() {
+        runPipelinesOn(connection);
+        given(connection.stringCommands()).willReturn(stringCommands);
+        TickerRedisRepository repository = repository("key", true, 50);
+        repository.start();
+
+        repository.save(tick("UPBIT", "BTC", "KRW", "100"));
+        EncodedTick latest = tick("UPBIT", "BTC", "KRW", "200");
+        repository.save(latest);
+
+        ArgumentCaptor<Expiration> expiration = ArgumentCaptor.forClass(Expiration.class);
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> verify(stringCommands).set(
+                eq("ticker:UPBIT:BTC/KRW".getBytes(StandardCharsets.UTF_8)), eq(latest.redisJson()),
+                expiration.capture(), eq(RedisStringCommands.SetOption.upsert())));
+        repository.shutdown();
+
+        assertThat(expiration.getValue().getExpirationTimeInSeconds()).isEqualTo(30);
+        verify(stringCommands, times(1)).set(any(byte[].class), any(byte[].class), any(Expiration.class),
+                any(RedisStringCommands.SetOption.class));
+    }
+
+    @Test
+    @DisplayName("미룬 시세는 다음 flush에 심볼마다 마지막 값만 쓰고, 그 사이 즉시 쓰기도 먼저 쓰지 않고 미룬 값을 덮어쓴다")
+    void givenDeferredTicks_whenFlush_thenOnlyLatestPerSymbolWritten() {
+        given(connection.stringCommands()).willReturn(stringCommands);
+        TickerRedisRepository repository = repository("key", false, 100);
+        repository.saveLatest(tick("UPBIT", "BTC", "KRW", "100"));
+        repository.saveLatest(tick("UPBIT", "BTC", "KRW", "200"));
+        EncodedTick latest = tick("UPBIT", "BTC", "KRW", "300");
+
+        repository.save(latest);
+        verify(redisTemplate, never()).executePipelined(any(RedisCallback.class));
+        runPipelinesOn(connection);
+        repository.flush();
+
+        verify(stringCommands, times(1)).set(any(byte[].class), any(byte[].class), any(Expiration.class),
+                any(RedisStringCommands.SetOption.class));
+        verify(stringCommands).set(eq("ticker:UPBIT:BTC/KRW".getBytes(StandardCharsets.UTF_8)), eq(latest.redisJson()),
+                any(Expiration.class), eq(RedisStringCommands.SetOption.upsert()));
+        verify(redisTemplate, never()).opsForValue();
+    }
+
+    @Test
+    @DisplayName("flush가 실패하면 키를 다시 담되, 실패하는 동안 들어온 더 새로운 값은 덮어쓰지 않는다")
+    void givenFailedFlush_whenNewerValueArrived_thenNewerValueKept() {
+        TickerRedisRepository repository = repository("key", true, 100);
+        EncodedTick stale = tick("UPBIT", "BTC", "KRW", "100");
+        EncodedTick newer = tick("UPBIT", "BTC", "KRW", "200");
+        EncodedTick untouched = tick("UPBIT", "ETH", "KRW", "300");
+        willAnswer(invocation -> {
+            repository.save(newer);
+            throw new RedisConnectionFailureException("down");
+        }).given(redisTemplate).executePipelined(any(RedisCallback.class));
+        repository.save(stale);
+        repository.save(untouched);
+
+        repository.flush();
+
+        runPipelinesOn(connection);
+        given(connection.stringCommands()).willReturn(stringCommands);
+        repository.flush();
+
+        verify(stringCommands).set(eq("ticker:UPBIT:BTC/KRW".getBytes(StandardCharsets.UTF_8)), eq(newer.redisJson()),
+                any(Expiration.class), any(RedisStringCommands.SetOption.class));
+        verify(stringCommands).set(eq("ticker:UPBIT:ETH/KRW".getBytes(StandardCharsets.UTF_8)),
+                eq(untouched.redisJson()), any(Expiration.class), any(RedisStringCommands.SetOption.class));
+        verify(stringCommands, never()).set(any(byte[].class), eq(stale.redisJson()), any(Expiration.class),
+                any(RedisStringCommands.SetOption.class));
+    }
+
+    @Test
+    @DisplayName("hash 형식은 거래소마다 HSET 한 번에 심볼 필드와 @updatedAt을 쓰고 EXPIRE 30초를 건다")
+    void givenHashLayout_whenFlush_thenOneHsetAndExpirePerExchange() {
+        runPipelinesOn(connection);
+        given(connection.hashCommands()).willReturn(hashCommands);
+        given(connection.keyCommands()).willReturn(keyCommands);
+        TickerRedisRepository repository = repository("hash", true, 100);
+        repository.save(tick("UPBIT", "BTC", "KRW", "100"));
+        repository.save(tick("UPBIT", "ETH", "KRW", "200"));
+        repository.save(tick("BINANCE", "BTC", "USDT", "300"));
+        long before = System.currentTimeMillis();
+
+        repository.flush();
+
+        ArgumentCaptor<byte[]> keys = ArgumentCaptor.forClass(byte[].class);
+        verify(hashCommands, times(2)).hMSet(keys.capture(), hashFields.capture());
+        Map<String, Map<String, String>> written = new HashMap<>();
+        for (int i = 0; i < keys.getAllValues().size(); i++) {
+            written.put(new String(keys.getAllValues().get(i), StandardCharsets.UTF_8),
+                    text(hashFields.getAllValues().get(i)));
+        }
+        assertThat(written).containsOnlyKeys("tickers:UPBIT", "tickers:BINANCE");
+        assertThat(written.get("tickers:UPBIT"))
+                .containsOnlyKeys("BTC/KRW", "ETH/KRW", TickerRedisRepository.UPDATED_AT_FIELD);
+        assertThat(written.get("tickers:BINANCE")).containsOnlyKeys("BTC/USDT", TickerRedisRepository.UPDATED_AT_FIELD);
+        assertThat(written.get("tickers:UPBIT").get("BTC/KRW")).isEqualTo("100|0.01|1000|1700000000000|BTC");
+        assertThat(Long.parseLong(written.get("tickers:UPBIT").get(TickerRedisRepository.UPDATED_AT_FIELD)))
+                .isBetween(before, System.currentTimeMillis());
+        verify(keyCommands).expire("tickers:UPBIT".getBytes(StandardCharsets.UTF_8), 30);
+        verify(keyCommands).expire("tickers:BINANCE".getBytes(StandardCharsets.UTF_8), 30);
+        verify(connection, never()).stringCommands();
+    }
+
+    @Test
+    @DisplayName("both 형식은 즉시 쓰기에서도 같은 파이프라인에 심볼 키와 거래소 해시를 모두 쓴다")
+    void givenBothLayout_whenSave_thenKeyAndHashWritten() {
+        runPipelinesOn(connection);
+        given(connection.stringCommands()).willReturn(stringCommands);
+        given(connection.hashCommands()).willReturn(hashCommands);
+        given(connection.keyCommands()).willReturn(keyCommands);
+        TickerRedisRepository repository = repository("both", false, 100);
+        EncodedTick tick = tick("UPBIT", "BTC", "KRW", "100");
+
+        repository.save(tick);
+
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+        verify(stringCommands).set(eq("ticker:UPBIT:BTC/KRW".getBytes(StandardCharsets.UTF_8)), eq(tick.redisJson()),
+                any(Expiration.class), eq(RedisStringCommands.SetOption.upsert()));
+        verify(hashCommands).hMSet(eq("tickers:UPBIT".getBytes(StandardCharsets.UTF_8)), any());
+        verify(keyCommands).expire("tickers:UPBIT".getBytes(StandardCharsets.UTF_8), 30);
+        verify(sinkHealth).recordSuccess(eq(SinkType.REDIS), anyLong());
+    }
+
+    private void runPipelinesOn(RedisConnection pipelineConnection) {
+        willAnswer(invocation -> {
+            RedisCallback<?> callback = invocation.getArgument(0);
+            callback.doInRedis(pipelineConnection);
+            return List.of();
+        }).given(redisTemplate).executePipelined(any(RedisCallback.class));
+    }
+
+    private TickerRedisRepository repository(String layout, boolean writeBehind, long flushIntervalMs) {
+        return new TickerRedisRepository(redisTemplate, "ticker", layout, "tickers", writeBehind, flushIntervalMs,
+                1000, new SimpleMeterRegistry(), sinkHealth);
+    }
+
+    private static EncodedTick tick(String exchange, String base, String quote, String price) {
+        return EncodedTick.of(new NormalizedTicker(exchange, base, quote, base,
+                new BigDecimal(price), new BigDecimal("0.01"), new BigDecimal("1000"), 1_700_000_000_000L));
+    }
+
+    private static Map<String, String> text(Map<byte[], byte[]> fields) {
+        Map<String, String> decoded = new HashMap<>();
+        fields.forEach((field, value) ->
+                decoded.put(new String(field, StandardCharsets.UTF_8), new String(value, StandardCharsets.UTF_8)));
+        return decoded;
+    }
+}
@@ -0,0 +1,109 @@
+package ksh.tryptocollector.tick;
+
+import com.influxdb.client.QueryApi;
+import com.influxdb.client.WriteApiBlocking;
+import com.influxdb.client.domain.WritePrecision;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ksh.tryptocollector.metadata.MarketInfoCache;
+import ksh.tryptocollector.model.NormalizedTicker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class CandleAggregatorTest {
+    private static final long MINUTE = 1_700_000_040_000L;
+
+    @Mock private WriteApiBlocking writeApiBlocking;
+    @Mock private QueryApi queryApi;
+
+    private final AtomicLong now = new AtomicLong(MINUTE - 1_000);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CandleAggregator candleAggregator;
+
+    @BeforeEach
+    void setUp() {
+        candleAggregator = new CandleAggregator(writeApiBlocking, queryApi, new MarketInfoCache(), meterRegistry,
+                "ticker", true, 2_000, 60_000, now::get);
+    }
+
+    @Test
+    @DisplayName("수신 순서가 뒤섞여도 시가·종가는 tsMs 기준이고, 분이 닫힌 뒤 close-delay가 지나야 쓴다")
+    void givenOutOfOrderTicks_whenMinuteClosed_thenOhlcByTimestamp() {
+        candleAggregator.accept(ticker("101", MINUTE + 20_000));
+        candleAggregator.accept(ticker("100", MINUTE + 1_000));
+        candleAggregator.accept(ticker("105", MINUTE + 30_000));
+        candleAggregator.accept(ticker("99", MINUTE + 40_000));
+        candleAggregator.accept(ticker("102", MINUTE + 59_000));
+
+        now.set(MINUTE + 61_000);
+        candleAggregator.sweep();
+        verify(writeApiBlocking, never()).writeRecord(any(WritePrecision.class), anyString());
+
+        now.set(MINUTE + 62_000);
+        candleAggregator.sweep();
+
+        assertThat(writtenLine()).isEqualTo(
+                "candle_1m,exchange=UPBIT,symbol=BTC/KRW open=100.0,high=105.0,low=99.0,close=102.0 " + MINUTE + "\n");
+        assertThat(meterRegistry.get("candle.aggregate.emitted").tag("kind", "close").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("늦은 tick은 허용 구간 안이면 캔들을 고쳐 다시 쓰고, 지나면 버린다")
+    void givenLateTicks_whenWithinWindow_thenCorrectedElseDropped() {
+        candleAggregator.accept(ticker("100", MINUTE + 1_000));
+        now.set(MINUTE + 62_000);
+        candleAggregator.sweep();
+
+        candleAggregator.accept(ticker("110", MINUTE + 50_000));
+        candleAggregator.sweep();
+        now.set(MINUTE + 122_000);
+        candleAggregator.accept(ticker("90", MINUTE + 55_000));
+        candleAggregator.sweep();
+
+        ArgumentCaptor<String> lines = ArgumentCaptor.forClass(String.class);
+        verify(writeApiBlocking, times(2)).writeRecord(any(WritePrecision.class), lines.capture());
+        assertThat(lines.getAllValues().get(1)).isEqualTo(
+                "candle_1m,exchange=UPBIT,symbol=BTC/KRW open=100.0,high=110.0,low=100.0,close=110.0 " + MINUTE + "\n");
+        assertThat(meterRegistry.get("candle.aggregate.late").tag("result", "merged").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("candle.aggregate.late").tag("result", "dropped").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("리더십을 잃으면 열린 분도 지금까지의 값으로 쓴다")
+    void givenOpenMinute_whenFlushOpen_thenWrittenImmediately() {
+        now.set(MINUTE + 10_000);
+        candleAggregator.accept(ticker("100", MINUTE + 5_000));
+
+        candleAggregator.flushOpen();
+
+        assertThat(writtenLine()).isEqualTo(
+                "candle_1m,exchange=UPBIT,symbol=BTC/KRW open=100.0,high=100.0,low=100.0,close=100.0 " + MINUTE + "\n");
+        assertThat(meterRegistry.get("candle.aggregate.emitted").tag("kind", "flush").counter().count()).isEqualTo(1);
+    }
+
+    private String writtenLine() {
+        ArgumentCaptor<String> line = ArgumentCaptor.forClass(String.class);
+        verify(writeApiBlocking).writeRecord(any(WritePrecision.class), line.capture());
+        return line.getValue();
+    }
+
+    private static NormalizedTicker ticker(String price, long tsMs) {
+        return new NormalizedTicker("UPBIT", "BTC", "KRW", "BTC/KRW",
+                new BigDecimal(price), BigDecimal.ZERO, BigDecimal.ZERO, tsMs);
+    }
+}
@@ -0,0 +1,173 @@
+package ksh.tryptocollector.tick;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ksh.tryptocollector.exchange.SinkHealth;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class InfluxBatchWriterTest {
+
+    private static final InfluxBatchWriter.LineEncoder<String> PRICE_ENCODER =
+            (price, line) -> line.measurement("ticker_raw")
+                    .tag("exchange", "UPBIT")
+                    .field("price", Long.parseLong(price), 0)
+                    .timestamp(1_700_000_000_000L);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    private HttpServer server;
+    private volatile int status = 204;
+    private volatile CountDownLatch release = new CountDownLatch(0);
+    private InfluxBatchWriter writer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/v2/write", exchange -> {
+            try (InputStream body = new GZIPInputStream(exchange.getRequestBody())) {
+                requests.add(new String(body.readAllBytes(), StandardCharsets.UTF_8));
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (writer != null) {
+            writer.shutdown();
+        }
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("배치 크기에 도달하면 주기를 기다리지 않고 gzip으로 묶어 한 번에 보낸다")
+    void givenBatchSizeReached_whenAppend_thenSentAsOneRequest() {
+        writer = writer(3, 60_000, 4);
+
+        writer.append("1", PRICE_ENCODER);
+        writer.append("2", PRICE_ENCODER);
+        writer.append("3", PRICE_ENCODER);
+
+        await().atMost(Duration.ofSeconds(3)).until(() -> requests.size() == 1);
+        assertThat(requests.get(0)).isEqualTo(
+                "ticker_raw,exchange=UPBIT price=1 1700000000000\n"
+                        + "ticker_raw,exchange=UPBIT price=2 1700000000000\n"
+                        + "ticker_raw,exchange=UPBIT price=3 1700000000000\n");
+        await().atMost(Duration.ofSeconds(3))
+                .untilAsserted(() -> assertThat(registry.get("influx.batch.size").summary().count()).isEqualTo(1));
+    }
+
+    @Test
+    @DisplayName("버퍼를 다시 쓰는 다음 배치도 같은 압축기를 초기화해 온전한 gzip으로 보낸다")
+    void givenReusedBuffers_whenSendSeveralBatches_thenEachBodyDecodes() {
+        writer = writer(1, 60_000, 1);
+
+        for (int i = 1; i <= 5; i++) {
+            int sent = i;
+            writer.append(Integer.toString(i), PRICE_ENCODER);
+            await().atMost(Duration.ofSeconds(3)).until(() -> requests.size() == sent);
+        }
+
+        assertThat(requests).containsExactly(
+                "ticker_raw,exchange=UPBIT price=1 1700000000000\n",
+                "ticker_raw,exchange=UPBIT price=2 1700000000000\n",
+                "ticker_raw,exchange=UPBIT price=3 1700000000000\n",
+                "ticker_raw,exchange=UPBIT price=4 1700000000000\n",
+                "ticker_raw,exchange=UPBIT price=5 1700000000000\n");
+    }
+
+    @Test
+    @DisplayName("배치 크기에 못 미쳐도 flush 주기가 지나면 쌓인 줄을 보낸다")
+    void givenPartialBatch_whenIntervalElapses_thenFlushed() {
+        writer = writer(1000, 50, 4);
+
+        writer.append("7", PRICE_ENCODER);
+
+        await().atMost(Duration.ofSeconds(3)).until(() -> requests.size() == 1);
+        assertThat(requests.get(0)).isEqualTo("ticker_raw,exchange=UPBIT price=7 1700000000000\n");
+    }
+
+    @Test
+    @DisplayName("모든 버퍼가 전송 중이면 새 줄은 기다리지 않고 버리며 backpressure로 센다")
+    void givenAllBuffersInFlight_whenAppend_thenDropped() {
+        release = new CountDownLatch(1);
+        writer = writer(1, 60_000, 1);
+
+        assertThat(writer.append("1", PRICE_ENCODER)).isTrue();
+        assertThat(writer.append("2", PRICE_ENCODER)).isTrue();
+        boolean accepted = writer.append("3", PRICE_ENCODER);
+        release.countDown();
+
+        assertThat(accepted).isFalse();
+        assertThat(registry.get("influx.batch.dropped").tag("reason", "backpressure").counter().count())
+                .isEqualTo(1.0);
+        await().atMost(Duration.ofSeconds(3)).until(() -> requests.size() == 2);
+    }
+
+    @Test
+    @DisplayName("5xx로 실패한 배치는 실패 핸들러에 넘기고 dropped로 세지 않는다")
+    void givenServerError_whenSend_thenHandedOff() {
+        status = 503;
+        List<String> handedOff = new CopyOnWriteArrayList<>();
+        writer = writer(1, 60_000, 4);
+        writer.onFailedBatch((lines, length) -> handedOff.add(new String(lines, 0, length, StandardCharsets.UTF_8)));
+
+        writer.append("9", PRICE_ENCODER);
+
+        await().atMost(Duration.ofSeconds(3)).until(() -> handedOff.size() == 1);
+        assertThat(handedOff.get(0)).isEqualTo("ticker_raw,exchange=UPBIT price=9 1700000000000\n");
+        assertThat(registry.get("influx.batch.dropped").tag("reason", "failure").counter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("데이터가 거절된 4xx나 핸들러가 받지 못한 배치는 failure로 세고 버린다")
+    void givenRejectedOrRefused_whenSend_thenDroppedAsFailure() {
+        status = 400;
+        writer = writer(1, 60_000, 4);
+        writer.onFailedBatch((lines, length) -> false);
+
+        writer.append("1", PRICE_ENCODER);
+        await().atMost(Duration.ofSeconds(3))
+                .untilAsserted(() -> assertThat(registry.get("influx.batch.dropped").tag("reason", "failure")
+                        .counter().count()).isEqualTo(1.0));
+
+        status = 503;
+        writer.append("2", PRICE_ENCODER);
+        await().atMost(Duration.ofSeconds(3))
+                .untilAsserted(() -> assertThat(registry.get("influx.batch.dropped").tag("reason", "failure")
+                        .counter().count()).isEqualTo(2.0));
+    }
+
+    private InfluxBatchWriter writer(int batchSize, long flushIntervalMs, int maxInFlight) {
+        SinkHealth sinkHealth = new SinkHealth(CircuitBreakerRegistry.ofDefaults(), registry, 1000);
+        InfluxBatchWriter batchWriter = new InfluxBatchWriter("http://127.0.0.1:" + server.getAddress().getPort(),
+                "token", "org", "bucket", true, batchSize, flushIntervalMs, maxInFlight, registry, sinkHealth);
+        batchWriter.start();
+        return batchWriter;
+    }
+}
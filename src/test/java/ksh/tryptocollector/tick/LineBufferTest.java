@@ -0,0 +1,103 @@
+package ksh.tryptocollector.tick;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LineBufferTest {
+
+    @Test
+    @DisplayName("measurement는 쉼표와 공백만, 태그 키·값과 필드 키는 등호까지 이스케이프하고 한글은 UTF-8로 쓴다")
+    void givenSpecialCharacters_whenWrite_thenEscapedPerLineProtocol() {
+        LineBuffer buffer = new LineBuffer(8);
+
+        buffer.measurement("ticker raw,v=1")
+                .tag("exchange", "UP BIT")
+                .tag("symbol", "BTC", '/', "K=R,W")
+                .tag("name", "비트코인")
+                .field("last price", 123, 2)
+                .timestamp(1_700_000_000_000L);
+
+        assertThat(text(buffer)).isEqualTo(
+                "ticker\\ raw\\,v=1,exchange=UP\\ BIT,symbol=BTC/K\\=R\\,W,name=비트코인 last\\ price=1.23 1700000000000\n");
+        assertThat(buffer.lines()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("BMP 밖의 문자는 서로게이트 쌍을 따로 쓰지 않고 표준 UTF-8 4바이트로 쓴다")
+    void givenSupplementaryCharacter_whenTag_thenStandardUtf8() {
+        LineBuffer buffer = new LineBuffer(8);
+
+        buffer.measurement("m").tag("name", "이더 😀").tag("symbol", "😀", '/', "KRW").field("v", 1, 0);
+
+        assertThat(Arrays.copyOf(buffer.data(), buffer.size()))
+                .isEqualTo("m,name=이더\\ 😀,symbol=😀/KRW v=1".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("가수·스케일 필드는 BigDecimal.toPlainString()과 같은 표기로 쓴다")
+    void givenUnscaledAndScale_whenField_thenSameAsToPlainString() {
+        long[][] cases = {
+                {123, 2}, {5, 3}, {-5, 3}, {12, -2}, {-12, -2}, {0, 3}, {0, 0}, {0, -2},
+                {145_000_000_0L, 1}, {1, 8}, {Long.MAX_VALUE, 4}, {Long.MIN_VALUE, 19}, {7, 0}
+        };
+
+        for (long[] c : cases) {
+            LineBuffer buffer = new LineBuffer(4);
+            buffer.measurement("m").field("v", c[0], (int) c[1]);
+
+            assertThat(text(buffer))
+                    .as("unscaled=%d, scale=%d", c[0], c[1])
+                    .isEqualTo("m v=" + BigDecimal.valueOf(c[0], (int) c[1]).toPlainString());
+        }
+    }
+
+    @Test
+    @DisplayName("필드가 여러 개면 첫 필드만 공백으로, 나머지는 쉼표로 이어 붙이고 BigDecimal 필드도 소수점 표기를 쓴다")
+    void givenMultipleFields_whenWrite_thenCommaSeparated() {
+        LineBuffer buffer = new LineBuffer(16);
+
+        buffer.measurement("candle_1m")
+                .tag("exchange", "UPBIT")
+                .field("open", new BigDecimal("1E+3"))
+                .field("close", 15, 1)
+                .timestamp(60_000L);
+        buffer.measurement("candle_1m")
+                .field("open", new BigDecimal("0.00000123"))
+                .timestamp(120_000L);
+
+        assertThat(text(buffer)).isEqualTo(
+                "candle_1m,exchange=UPBIT open=1000,close=1.5 60000\ncandle_1m open=0.00000123 120000\n");
+        assertThat(buffer.lines()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("완성된 줄을 붙이면 줄 수가 늘고, reset 후에는 같은 배열을 처음부터 다시 쓴다")
+    void givenEncodedLines_whenLineAndReset_thenCountedAndReused() {
+        LineBuffer buffer = new LineBuffer(4);
+        byte[] line = "ticker_raw,exchange=UPBIT,symbol=BTC/KRW price=1 1\n".getBytes(StandardCharsets.UTF_8);
+
+        buffer.line(line);
+        buffer.line(line);
+        byte[] grown = buffer.data();
+
+        assertThat(buffer.lines()).isEqualTo(2);
+        assertThat(buffer.size()).isEqualTo(line.length * 2);
+
+        buffer.reset();
+        buffer.line(line);
+
+        assertThat(buffer.data()).isSameAs(grown);
+        assertThat(buffer.lines()).isEqualTo(1);
+        assertThat(text(buffer)).isEqualTo(new String(line, StandardCharsets.UTF_8));
+    }
+
+    private static String text(LineBuffer buffer) {
+        return new String(buffer.data(), 0, buffer.size(), StandardCharsets.UTF_8);
+    }
+}
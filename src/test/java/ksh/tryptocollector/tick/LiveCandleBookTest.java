@@ -0,0 +1,140 @@
+package ksh.tryptocollector.tick;
+
+import com.influxdb.client.QueryApi;
+import com.influxdb.query.FluxRecord;
+import com.influxdb.query.FluxTable;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ksh.tryptocollector.metadata.MarketInfoCache;
+import ksh.tryptocollector.model.CandleEvent;
+import ksh.tryptocollector.model.NormalizedTicker;
+import ksh.tryptocollector.rabbitmq.CandleEventPublisher;
+import ksh.tryptocollector.redis.CandleRedisRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class LiveCandleBookTest {
+    private static final long NOW = Instant.parse("2024-03-13T10:30:00Z").toEpochMilli();
+
+    @Mock private CandleEventPublisher candleEventPublisher;
+    @Mock private CandleRedisRepository candleRedisRepository;
+    @Mock private QueryApi queryApi;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private LiveCandleBook liveCandleBook;
+
+    @BeforeEach
+    void setUp() {
+        liveCandleBook = new LiveCandleBook(candleEventPublisher, candleRedisRepository, queryApi, new MarketInfoCache(),
+                meterRegistry, "ticker", true, 500, () -> NOW);
+    }
+
+    @Test
+    @DisplayName("주봉은 월요일, 월봉은 1일에 시작한다")
+    void givenTimestamp_whenStartOf_thenAlignedLikeInfluxTasks() {
+        assertThat(Instant.ofEpochMilli(CandleInterval.WEEK_1.startOf(NOW))).isEqualTo("2024-03-11T00:00:00Z");
+        assertThat(Instant.ofEpochMilli(CandleInterval.MONTH_1.startOf(NOW))).isEqualTo("2024-03-01T00:00:00Z");
+        assertThat(Instant.ofEpochMilli(CandleInterval.MONTH_1.endOf(CandleInterval.MONTH_1.startOf(NOW))))
+                .isEqualTo("2024-04-01T00:00:00Z");
+    }
+
+    @Test
+    @DisplayName("발행 주기 안의 갱신은 심볼당 한 번으로 합치고, 분이 바뀌면 1분봉만 새로 시작한다")
+    void givenTicksWithinInterval_whenFlush_thenConflatedAndRolled() {
+        liveCandleBook.accept(ticker("100", NOW + 1_000));
+        liveCandleBook.accept(ticker("101", NOW + 2_000));
+        liveCandleBook.flush();
+        liveCandleBook.accept(ticker("99", NOW + 61_000));
+        liveCandleBook.flush();
+
+        ArgumentCaptor<CandleEvent> events = ArgumentCaptor.forClass(CandleEvent.class);
+        verify(candleEventPublisher, times(2)).publish(events.capture());
+        Map<String, CandleEvent.Bar> first = bars(events.getAllValues().get(0));
+        Map<String, CandleEvent.Bar> second = bars(events.getAllValues().get(1));
+        assertThat(first.get("1m").close()).isEqualByComparingTo("101");
+        assertThat(second.get("1m").openTime()).isEqualTo(NOW + 60_000);
+        assertThat(second.get("1m").open()).isEqualByComparingTo("99");
+        assertThat(second.get("5m").open()).isEqualByComparingTo("100");
+        assertThat(second.get("5m").low()).isEqualByComparingTo("99");
+        assertThat(meterRegistry.get("candle.live.conflation").tag("result", "suppressed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("리더십을 얻은 뒤에는 저장된 캔들로 지나간 구간을 채워 상위 봉의 시가·고가·저가를 맞춘다")
+    void givenStoredHourCandle_whenSeeded_thenMergedIntoHigherIntervals() {
+        FluxTable table = new FluxTable();
+        table.getRecords().add(storedCandle("2024-03-13T08:00:00Z", 90, 120, 80, 95));
+        given(queryApi.query(anyString())).willReturn(List.of());
+        given(queryApi.query(contains("candle_1h"))).willReturn(List.of(table));
+
+        liveCandleBook.accept(ticker("100", NOW + 1_000));
+        liveCandleBook.seed();
+        liveCandleBook.flush();
+
+        ArgumentCaptor<CandleEvent> event = ArgumentCaptor.forClass(CandleEvent.class);
+        verify(candleEventPublisher).publish(event.capture());
+        Map<String, CandleEvent.Bar> bars = bars(event.getValue());
+        assertThat(bars.get("1h").open()).isEqualByComparingTo("100");
+        assertThat(bars.get("1d").open()).isEqualByComparingTo("90");
+        assertThat(bars.get("1d").high()).isEqualByComparingTo("120");
+        assertThat(bars.get("1d").low()).isEqualByComparingTo("80");
+        assertThat(bars.get("1d").close()).isEqualByComparingTo("100");
+    }
+
+    @Test
+    @DisplayName("가격은 tick의 가수와 스케일을 그대로 두어 큰 원화 가격도 자릿수를 잃지 않고 지수 표기 없이 나간다")
+    void givenLargeKrwPrice_whenFlush_thenExactPlainDecimal() {
+        liveCandleBook.accept(ticker("143000000", NOW + 1_000));
+        liveCandleBook.accept(ticker("9007199254740993.5", NOW + 2_000));
+        liveCandleBook.flush();
+
+        ArgumentCaptor<CandleEvent> event = ArgumentCaptor.forClass(CandleEvent.class);
+        verify(candleEventPublisher).publish(event.capture());
+        Map<String, CandleEvent.Bar> bars = bars(event.getValue());
+        assertThat(bars.get("1m").open().toPlainString()).isEqualTo("143000000");
+        assertThat(bars.get("1m").high().toPlainString()).isEqualTo("9007199254740993.5");
+        assertThat(new String(event.getValue().json(), StandardCharsets.UTF_8))
+                .contains("\"open\":143000000,\"high\":9007199254740993.5,\"low\":143000000,");
+    }
+
+    private static Map<String, CandleEvent.Bar> bars(CandleEvent event) {
+        return event.candles().stream()
+                .collect(Collectors.toMap(CandleEvent.Bar::interval, bar -> bar));
+    }
+
+    private static FluxRecord storedCandle(String time, double open, double high, double low, double close) {
+        FluxRecord record = new FluxRecord(0);
+        record.getValues().put("_time", Instant.parse(time));
+        record.getValues().put("exchange", "UPBIT");
+        record.getValues().put("symbol", "BTC/KRW");
+        record.getValues().put("open", open);
+        record.getValues().put("high", high);
+        record.getValues().put("low", low);
+        record.getValues().put("close", close);
+        return record;
+    }
+
+    private static NormalizedTicker ticker(String price, long tsMs) {
+        return new NormalizedTicker("UPBIT", "BTC", "KRW", "BTC/KRW",
+                new BigDecimal(price), BigDecimal.ZERO, BigDecimal.ZERO, tsMs);
+    }
+}